@@ -4,5 +4,38 @@ CREATE TABLE users (
   role VARCHAR(50) NOT NULL,                 -- User's role, to store enum values
   email VARCHAR(255) UNIQUE NOT NULL,        -- User's email, must be unique
   email_verified TIMESTAMP,                  -- Date and time when the email was verified
-  password VARCHAR(255) NOT NULL             -- User's password (hashed)
-);
\ No newline at end of file
+  password VARCHAR(255) NOT NULL,            -- User's password (hashed)
+  version INTEGER NOT NULL DEFAULT 1         -- Bumped on every change, so issued tokens can tell they are stale
+);
+
+CREATE TABLE email_outbox (
+  id BIGSERIAL PRIMARY KEY,                  -- Auto-incremented unique identifier
+  recipient VARCHAR(255) NOT NULL,           -- Email address the email is sent to
+  subject VARCHAR(255) NOT NULL,             -- Subject of the email
+  body TEXT NOT NULL,                        -- Rendered HTML content
+  status VARCHAR(20) NOT NULL,               -- PENDING, or DEAD once every attempt failed; sent emails are deleted
+  attempts INTEGER NOT NULL DEFAULT 0,       -- Number of delivery attempts so far
+  next_attempt_at TIMESTAMP NOT NULL,        -- When the email is next due; pushed back while a node sends it
+  created_at TIMESTAMP NOT NULL,             -- Date and time when the email was queued
+  dead_at TIMESTAMP,                         -- Date and time when the email was marked dead; retention counts from here
+  last_error TEXT                            -- Why the last attempt failed
+);
+
+-- Only pending emails are ever claimed, oldest due first
+CREATE INDEX email_outbox_due_idx ON email_outbox (next_attempt_at) WHERE status = 'PENDING';
+-- Dead emails are purged once past their retention
+CREATE INDEX email_outbox_dead_idx ON email_outbox (dead_at) WHERE status = 'DEAD';
+
+CREATE TABLE email_campaigns (
+  id SERIAL PRIMARY KEY,                     -- Auto-incremented unique identifier
+  subject VARCHAR(255) NOT NULL,             -- Subject of every email in the campaign
+  template VARCHAR(255) NOT NULL,            -- Thymeleaf template each email is rendered from
+  variables TEXT NOT NULL,                   -- JSON object of the template variables shared by every email
+  status VARCHAR(20) NOT NULL,               -- RUNNING, COMPLETED or CANCELLED
+  last_user_id INTEGER NOT NULL DEFAULT 0,   -- ID of the last user the campaign got to; the send resumes after it
+  sent INTEGER NOT NULL DEFAULT 0,           -- Number of emails sent so far
+  failed INTEGER NOT NULL DEFAULT 0,         -- Number of emails that could not be sent
+  locked_until TIMESTAMP,                    -- While in the future, a node is sending the campaign
+  created_at TIMESTAMP NOT NULL,             -- Date and time when the campaign was started
+  updated_at TIMESTAMP NOT NULL              -- Date and time of the last progress
+);
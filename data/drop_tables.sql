@@ -1 +1,3 @@
-DROP TABLE users;
\ No newline at end of file
+DROP TABLE users;
+DROP TABLE email_outbox;
+DROP TABLE email_campaigns;
\ No newline at end of file
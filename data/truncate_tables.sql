@@ -1,2 +1,4 @@
 -- Remove all rows
 TRUNCATE TABLE users;
+TRUNCATE TABLE email_outbox;
+TRUNCATE TABLE email_campaigns;
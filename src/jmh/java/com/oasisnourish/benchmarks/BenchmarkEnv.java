@@ -0,0 +1,50 @@
+package com.oasisnourish.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.github.cdimascio.dotenv.DotenvEntry;
+
+/**
+ * An in-memory {@link Dotenv} so the benchmarks can build the application's
+ * config classes without a {@code .env} file. Keys that are not given fall back
+ * to the process environment.
+ */
+final class BenchmarkEnv implements Dotenv {
+
+    private final Map<String, String> values;
+
+    private BenchmarkEnv(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Dotenv of(Map<String, String> values) {
+        return new BenchmarkEnv(values);
+    }
+
+    @Override
+    public Set<DotenvEntry> entries() {
+        return values.entrySet().stream()
+                .map(entry -> new DotenvEntry(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<DotenvEntry> entries(Filter filter) {
+        return entries();
+    }
+
+    @Override
+    public String get(String key) {
+        String value = values.get(key);
+        return value != null ? value : System.getenv(key);
+    }
+
+    @Override
+    public String get(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,188 @@
+package com.oasisnourish.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oasisnourish.config.EmailConfig;
+import com.oasisnourish.util.SmtpTransportPool;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Emails sent per second by four senders, the size of the default email
+ * executor, against a minimal local SMTP server. {@code perMessage} opens a
+ * connection for every email the way {@code EmailServiceImpl} used to;
+ * {@code pooled} goes through {@link SmtpTransportPool}. The server can delay
+ * its greeting to stand in for the TLS handshake and login a real provider
+ * costs on each new connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTransportBenchmark {
+
+    private static final String FROM = "bench@test.com";
+    private static final String TO = "john.doe@test.com";
+
+    @Param({"perMessage", "pooled"})
+    private String mode;
+
+    @Param({"0", "20"})
+    private int handshakeMillis;
+
+    private SmtpStandIn server;
+    private Properties properties;
+    private SmtpTransportPool pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new SmtpStandIn(handshakeMillis);
+        EmailConfig emailConfig = new EmailConfig(BenchmarkEnv.of(Map.of(
+                "MAIL_USERNAME", FROM,
+                "MAIL_HOST", "localhost",
+                "MAIL_PORT", String.valueOf(server.getPort()),
+                "MAIL_AUTH", "false",
+                "MAIL_STARTTLS", "false",
+                "MAIL_POOL_SIZE", "4")));
+
+        properties = new Properties();
+        properties.put("mail.smtp.host", emailConfig.getMailHost());
+        properties.put("mail.smtp.port", String.valueOf(emailConfig.getMailPort()));
+        if (mode.equals("pooled")) {
+            pool = new SmtpTransportPool(emailConfig);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (pool != null) {
+            pool.stop();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public void send() throws MessagingException {
+        if (pool == null) {
+            Transport.send(createMessage(Session.getInstance(properties)));
+        } else {
+            pool.send(createMessage(pool.getSession()));
+        }
+    }
+
+    private static MimeMessage createMessage(Session session) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(FROM));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(TO));
+        message.setSubject("Benchmark");
+        message.setContent("<p>Benchmark</p>", "text/html");
+        return message;
+    }
+
+    /**
+     * Accepts every command of a plain SMTP session and discards the mail.
+     */
+    private static final class SmtpStandIn implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final int handshakeMillis;
+
+        SmtpStandIn(int handshakeMillis) throws IOException {
+            this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+            this.handshakeMillis = handshakeMillis;
+            Thread.ofPlatform().name("smtp-stand-in").daemon().start(this::accept);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = socket.getOutputStream();
+                if (handshakeMillis > 0) {
+                    Thread.sleep(handshakeMillis);
+                }
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 localhost");
+                        case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // The mail is discarded
+                            }
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException e) {
+                // The client went away
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
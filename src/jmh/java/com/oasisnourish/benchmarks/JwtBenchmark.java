@@ -0,0 +1,67 @@
+package com.oasisnourish.benchmarks;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.User;
+import com.oasisnourish.util.jwt.JWTGenerator;
+import com.oasisnourish.util.jwt.JWTProvider;
+
+/**
+ * Signing and verifying access tokens, which happens on every sign in, token
+ * refresh and authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private final User user = new User(42, "Bench User", "bench@test.com", "hashed", Role.USER);
+
+    private JWTConfig jwtConfig;
+    private JWTGenerator jwtGenerator;
+    private JWTProvider jwtProvider;
+    private String token;
+    private Instant issuedAt;
+    private Instant expiresAt;
+
+    @Setup
+    public void setUp() {
+        jwtConfig = new JWTConfig(BenchmarkEnv.of(Map.of("JWT_SECRET", "benchmark-secret-benchmark-secret")));
+        jwtGenerator = new JWTGenerator();
+        jwtProvider = new JWTProvider(jwtGenerator, jwtConfig);
+        issuedAt = Instant.now();
+        expiresAt = issuedAt.plusSeconds(3600);
+        token = jwtGenerator.generate(user, jwtConfig.getAlgorithm(), Tokens.Jwt.ACCESS_TOKEN, 1, issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtGenerator.generate(user, jwtConfig.getAlgorithm(), Tokens.Jwt.ACCESS_TOKEN, 1, issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    public Optional<DecodedJWT> validateToken() {
+        return jwtProvider.validateToken(token);
+    }
+}
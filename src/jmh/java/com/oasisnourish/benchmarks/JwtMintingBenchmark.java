@@ -0,0 +1,85 @@
+package com.oasisnourish.benchmarks;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.JsonWebToken;
+import com.oasisnourish.models.User;
+import com.oasisnourish.util.jwt.JWTGenerator;
+import com.oasisnourish.util.jwt.JWTProvider;
+
+/**
+ * Tokens minted per second by one {@link JWTProvider} shared between 1 to 32
+ * threads, the way concurrent sign ins and refreshes share it. Each call
+ * reads its own issue time and caps the token at its own session's max
+ * expiry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtMintingBenchmark {
+
+    private final User user = new User(42, "Bench User", "bench@test.com", "hashed", Role.USER);
+
+    private JWTProvider jwtProvider;
+
+    @Setup
+    public void setUp() {
+        JWTConfig jwtConfig = new JWTConfig(BenchmarkEnv.of(Map.of("JWT_SECRET", "benchmark-secret-benchmark-secret")));
+        jwtProvider = new JWTProvider(new JWTGenerator(), jwtConfig);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public JsonWebToken mint1Thread() {
+        return mint();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JsonWebToken mint4Threads() {
+        return mint();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public JsonWebToken mint8Threads() {
+        return mint();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public JsonWebToken mint16Threads() {
+        return mint();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public JsonWebToken mint32Threads() {
+        return mint();
+    }
+
+    private JsonWebToken mint() {
+        Instant issuedAt = jwtProvider.now();
+        return jwtProvider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, 1, issuedAt, jwtProvider.getMaxExpiry(issuedAt));
+    }
+}
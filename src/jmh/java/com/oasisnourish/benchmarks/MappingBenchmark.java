@@ -0,0 +1,99 @@
+package com.oasisnourish.benchmarks;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oasisnourish.dao.mappers.UserRowMapper;
+import com.oasisnourish.dto.UserResponseDto;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.models.User;
+import com.oasisnourish.util.TimeFormatter;
+
+/**
+ * Per-row and per-response mapping work: reading a user row, converting it to
+ * its response DTO, and formatting the durations shown in emails. The row is
+ * served from an in-memory {@link CachedRowSet} in place of a live PostgreSQL
+ * result set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final String[] COLUMNS = {"id", "name", "email", "password", "role", "email_verified"};
+    private static final int[] TYPES = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP};
+
+    private final UserRowMapper userRowMapper = new UserRowMapper();
+    private final TimeFormatter timeFormatter = new TimeFormatter();
+    private CachedRowSet resultSet;
+    private User user;
+
+    @Setup
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnLabel(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, TYPES[i]);
+        }
+
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        resultSet.moveToInsertRow();
+        resultSet.updateInt("id", 42);
+        resultSet.updateString("name", "Bench User");
+        resultSet.updateString("email", "bench@test.com");
+        resultSet.updateString("password", "$2a$10$abcdefghijklmnopqrstuuJ7xq7p0Zr2l1D6a2y0uY4nQvG8dQe2");
+        resultSet.updateString("role", Role.USER.name());
+        resultSet.updateTimestamp("email_verified", Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 12, 0)));
+        resultSet.insertRow();
+        resultSet.moveToCurrentRow();
+        resultSet.beforeFirst();
+        resultSet.next();
+
+        user = userRowMapper.mapToEntity(resultSet);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        resultSet.close();
+    }
+
+    @Benchmark
+    public User mapToEntity() throws SQLException {
+        return userRowMapper.mapToEntity(resultSet);
+    }
+
+    @Benchmark
+    public UserResponseDto fromModel() {
+        return UserResponseDto.fromModel(user);
+    }
+
+    @Benchmark
+    public String formatTime() {
+        return timeFormatter.format(93_784);
+    }
+}
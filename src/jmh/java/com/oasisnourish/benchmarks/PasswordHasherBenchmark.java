@@ -0,0 +1,60 @@
+package com.oasisnourish.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oasisnourish.util.PasswordHasher;
+
+/**
+ * Sign in password checks per second at several BCrypt costs, with one
+ * caller per core all going through the shared {@link PasswordHasher} pool
+ * the way concurrent sign ins do. The queue is large enough that no check is
+ * refused.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Param({"8", "10", "12"})
+    private int cost;
+
+    private PasswordHasher passwordHasher;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        passwordHasher = new PasswordHasher(cost, cores, cores * 4);
+        encodedPassword = passwordHasher.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public boolean signIn() {
+        return passwordHasher.matches(PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,155 @@
+package com.oasisnourish.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.cache.LocalCache;
+import com.oasisnourish.config.CacheConfig;
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.User;
+import com.oasisnourish.util.jwt.DecodedJWTCache;
+import com.oasisnourish.util.jwt.JWTGenerator;
+
+/**
+ * Heap retained by 100k signed in users in each {@code SESSION_MODE}. Both
+ * modes keep every verified token in the shared {@link DecodedJWTCache}, up to
+ * {@code JWT_CACHE_MAX_SIZE}. In session mode every user also pins a session
+ * holding both decoded tokens and the user; the session is modelled as an
+ * attribute map keyed by session ID, so Jetty's own per-session bookkeeping is
+ * not counted and the session figure is a lower bound. In stateless mode the
+ * bounded user cache is the only other state that outlives a request. The
+ * retained heap is reported in the {@code retainedBytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SessionMemoryBenchmark {
+
+    private static final int ACTIVE_USERS = 100_000;
+
+    @Param({"session", "stateless"})
+    public String mode;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private CacheConfig cacheConfig;
+    private String[] accessTokens;
+    private String[] refreshTokens;
+    private User[] users;
+    private long baselineBytes;
+    private Object retained;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JWTConfig jwtConfig = new JWTConfig(BenchmarkEnv.of(Map.of("JWT_SECRET", "benchmark-secret-benchmark-secret")));
+        cacheConfig = new CacheConfig(BenchmarkEnv.of(Map.of()));
+        JWTGenerator jwtGenerator = new JWTGenerator();
+        Instant issuedAt = Instant.now();
+        accessTokens = new String[ACTIVE_USERS];
+        refreshTokens = new String[ACTIVE_USERS];
+        users = new User[ACTIVE_USERS];
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            User user = new User(i + 1, "Bench User " + i, "bench" + i + "@test.com", "hashed", Role.USER);
+            users[i] = user;
+            accessTokens[i] = jwtGenerator.generate(user, jwtConfig.getAlgorithm(), Tokens.Jwt.ACCESS_TOKEN, 1,
+                    issuedAt, issuedAt.plusSeconds(jwtConfig.getJwtAccessTokenExpires()));
+            refreshTokens[i] = jwtGenerator.generate(user, jwtConfig.getAlgorithm(), Tokens.Jwt.REFRESH_TOKEN, 1,
+                    issuedAt, issuedAt.plusSeconds(jwtConfig.getJwtRefreshTokenExpires()));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void measureBaseline() {
+        retained = null;
+        baselineBytes = usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public Object signInAllUsers(HeapCounters counters) {
+        retained = "session".equals(mode) ? fillSessions() : fillUserCache();
+        counters.retainedBytes = usedHeapAfterGc() - baselineBytes;
+        return retained;
+    }
+
+    // Each session copies the user and keeps its own decoded tokens, as SessionManager does per sign in
+    private Object[] fillSessions() {
+        DecodedJWTCache jwtCache = newJwtCache();
+        Map<String, Map<String, Object>> sessions = new ConcurrentHashMap<>();
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            Map<String, Object> attributes = new ConcurrentHashMap<>();
+            attributes.put("JWT_ACCESS_TOKEN", verify(jwtCache, accessTokens[i]));
+            attributes.put("JWT_REFRESH_TOKEN", verify(jwtCache, refreshTokens[i]));
+            attributes.put("currentUser", copy(users[i], users[i].getPassword()));
+            sessions.put(UUID.randomUUID().toString(), attributes);
+        }
+        return new Object[]{jwtCache, sessions};
+    }
+
+    // Tokens are dropped with the request, so only the two bounded caches are left behind
+    private Object[] fillUserCache() {
+        DecodedJWTCache jwtCache = newJwtCache();
+        LocalCache<Integer, User> userCache = new LocalCache<>(cacheConfig.getUserCacheMaxSize());
+        Instant expiresAt = Instant.now().plusSeconds(cacheConfig.getUserCacheTtl());
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            verify(jwtCache, accessTokens[i]);
+            userCache.put(users[i].getId(), copy(users[i], null), expiresAt);
+        }
+        return new Object[]{jwtCache, userCache};
+    }
+
+    // The invalidation listener is never started, so the cache needs no Redis
+    private DecodedJWTCache newJwtCache() {
+        return new DecodedJWTCache(() -> null, cacheConfig);
+    }
+
+    // JWTServiceImpl caches every token it verifies, in either mode
+    private static DecodedJWT verify(DecodedJWTCache jwtCache, String token) {
+        DecodedJWT jwt = JWT.decode(token);
+        jwtCache.put(token, jwt);
+        return jwt;
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    // The user cache keeps no password hash
+    private static User copy(User user, String password) {
+        return new User(user.getId(), user.getName(), user.getEmail(), password, user.getRole());
+    }
+}
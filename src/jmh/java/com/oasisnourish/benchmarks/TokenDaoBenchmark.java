@@ -0,0 +1,158 @@
+package com.oasisnourish.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oasisnourish.dao.impl.TokenDaoImpl;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.JsonWebToken;
+
+import redis.clients.jedis.JedisPooled;
+
+/**
+ * Token reads and writes through {@link TokenDaoImpl} against a local Redis
+ * ({@code REDIS_HOST}/{@code REDIS_PORT}, default {@code localhost:6379}).
+ * Each run seeds {@code tokensPerUser} tokens for a dedicated user ID, and
+ * tokens for other users up to {@code totalTokens} live tokens in all, so the
+ * results show whether the lookups grow with the size of the keyspace. The
+ * seeded tokens are removed afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenDaoBenchmark {
+
+    private static final int USER_ID = 900_001;
+    private static final int OTHER_USER_IDS = 1_000_000;
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Param({"10", "100", "1000"})
+    private int tokensPerUser;
+
+    @Param({"10000", "100000", "1000000"})
+    private int totalTokens;
+
+    private JedisPooled jedis;
+    private TokenDaoImpl<JsonWebToken> tokenDao;
+    private String knownToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        jedis = new JedisPooled(host, port);
+        tokenDao = new TokenDaoImpl<>(() -> jedis, JsonWebToken.class);
+
+        clearTokens();
+        for (int i = 0; i < tokensPerUser; i++) {
+            knownToken = UUID.randomUUID().toString();
+            tokenDao.saveToken(newToken(knownToken));
+        }
+        seedOtherUsers();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clearTokens();
+        clearOtherUsers();
+        jedis.close();
+    }
+
+    @Benchmark
+    public Optional<JsonWebToken> findToken() {
+        return tokenDao.findToken(knownToken);
+    }
+
+    @Benchmark
+    public List<JsonWebToken> findTokensByUserId() {
+        return tokenDao.findTokensByUserId(USER_ID);
+    }
+
+    @Benchmark
+    public void saveAndDeleteToken() {
+        String token = UUID.randomUUID().toString();
+        tokenDao.saveToken(newToken(token));
+        tokenDao.deleteToken(token);
+    }
+
+    private JsonWebToken newToken(String token) {
+        return new JsonWebToken(token, Tokens.Jwt.ACCESS_TOKEN, 1, Instant.now().plusSeconds(3600), USER_ID);
+    }
+
+    /**
+     * Writes the tokens of the other users straight to Redis in large
+     * pipelines, in the layout {@link TokenDaoImpl} uses; saving a million
+     * tokens one at a time would make the setup take longer than the run.
+     * The tokens are named after their position so they can be removed
+     * without reading them back.
+     */
+    private void seedOtherUsers() {
+        long expires = Instant.now().plusSeconds(3600).toEpochMilli();
+        int otherTokens = totalTokens - tokensPerUser;
+        for (int start = 0; start < otherTokens; start += SEED_BATCH_SIZE) {
+            try (var pipeline = jedis.pipelined()) {
+                for (int i = start; i < Math.min(start + SEED_BATCH_SIZE, otherTokens); i++) {
+                    String token = otherToken(i);
+                    int userId = OTHER_USER_IDS + i / tokensPerUser;
+                    pipeline.hset("token:" + token, Map.of(
+                            "token", token,
+                            "tokenCategory", Tokens.Category.JWT.getCategory(),
+                            "tokenType", Tokens.Jwt.ACCESS_TOKEN.getType(),
+                            "tokenVersion", "1",
+                            "expires", Instant.ofEpochMilli(expires).toString(),
+                            "userId", String.valueOf(userId)));
+                    pipeline.expire("token:" + token, 3600);
+                    pipeline.zadd("user:" + userId + ":tokens", expires, token);
+                    pipeline.expire("user:" + userId + ":tokens", 3600);
+                }
+                pipeline.sync();
+            }
+        }
+    }
+
+    private void clearOtherUsers() {
+        int otherTokens = totalTokens - tokensPerUser;
+        for (int start = 0; start < otherTokens; start += SEED_BATCH_SIZE) {
+            try (var pipeline = jedis.pipelined()) {
+                for (int i = start; i < Math.min(start + SEED_BATCH_SIZE, otherTokens); i++) {
+                    pipeline.del("token:" + otherToken(i));
+                    if (i % tokensPerUser == 0) {
+                        pipeline.del("user:" + (OTHER_USER_IDS + i / tokensPerUser) + ":tokens");
+                    }
+                }
+                pipeline.sync();
+            }
+        }
+    }
+
+    private static String otherToken(int i) {
+        return "benchmark-" + i;
+    }
+
+    private void clearTokens() {
+        for (JsonWebToken token : tokenDao.findTokensByUserId(USER_ID)) {
+            tokenDao.deleteToken(token.getToken());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.oasisnourish.benchmarks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.config.CacheConfig;
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.dao.impl.RevokedTokenDaoImpl;
+import com.oasisnourish.dao.impl.TokenDaoImpl;
+import com.oasisnourish.dao.impl.TokenVersionDaoImpl;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.TokenValidationMode;
+import com.oasisnourish.models.JsonWebToken;
+import com.oasisnourish.models.User;
+import com.oasisnourish.services.impl.JWTServiceImpl;
+import com.oasisnourish.util.jwt.DecodedJWTCache;
+import com.oasisnourish.util.jwt.JWTGenerator;
+import com.oasisnourish.util.jwt.JWTProvider;
+import com.oasisnourish.util.jwt.RevocationList;
+
+import redis.clients.jedis.JedisPooled;
+
+/**
+ * Issuing and checking tokens in each {@code JWT_VALIDATION_MODE} against a
+ * local Redis ({@code REDIS_HOST}/{@code REDIS_PORT}, default
+ * {@code localhost:6379}). The decoded token cache holds a single entry and
+ * the benchmark cycles through many tokens, so every check misses it and
+ * takes the full validation path. One token in a hundred is revoked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private static final int TOKENS = 1_000;
+
+    @Param({"allowlist", "revocation"})
+    private String mode;
+
+    private final User user = new User(900_002, "Bench User", "bench@test.com", "hashed", Role.USER);
+
+    private JedisPooled jedis;
+    private JWTServiceImpl jwtService;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        jedis = new JedisPooled(host, port);
+        RedisConnection redisConnection = () -> jedis;
+
+        JWTConfig jwtConfig = new JWTConfig(BenchmarkEnv.of(Map.of(
+                "JWT_SECRET", "benchmark-secret-benchmark-secret",
+                "JWT_VALIDATION_MODE", mode)));
+        CacheConfig cacheConfig = new CacheConfig(BenchmarkEnv.of(Map.of("JWT_CACHE_MAX_SIZE", "1")));
+        TokenDaoImpl<JsonWebToken> tokenDao = new TokenDaoImpl<>(redisConnection, JsonWebToken.class);
+        TokenVersionDaoImpl tokenVersionDao = new TokenVersionDaoImpl(redisConnection);
+        JWTProvider provider = new JWTProvider(new JWTGenerator(), jwtConfig);
+        DecodedJWTCache jwtCache = new DecodedJWTCache(redisConnection, cacheConfig);
+
+        RevocationList revocationList = null;
+        if (jwtConfig.getValidationMode() == TokenValidationMode.REVOCATION) {
+            revocationList = new RevocationList(redisConnection, new RevokedTokenDaoImpl(redisConnection), jwtConfig);
+            jwtService = new JWTServiceImpl(tokenDao, tokenVersionDao, provider, jwtCache, revocationList);
+        } else {
+            jwtService = new JWTServiceImpl(tokenDao, tokenVersionDao, provider, jwtCache);
+        }
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = jwtService.createTokens(user).get("JWT_ACCESS_TOKEN").getToken();
+        }
+        for (int i = 0; i < TOKENS; i += 100) {
+            jwtService.deleteToken(tokens[i]);
+        }
+        if (revocationList != null) {
+            revocationList.sync();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (String token : tokens) {
+            jwtService.deleteToken(token);
+        }
+        jedis.close();
+    }
+
+    @Benchmark
+    public Optional<DecodedJWT> decodeToken() {
+        next = (next + 1) % TOKENS;
+        return jwtService.decodeToken(tokens[next]);
+    }
+
+    @Benchmark
+    public Map<String, JsonWebToken> createTokens() {
+        return jwtService.createTokens(user);
+    }
+}
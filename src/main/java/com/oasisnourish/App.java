@@ -1,9 +1,20 @@
 package com.oasisnourish;
 
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.config.ServerConfig;
+import com.oasisnourish.enums.ExecutionMode;
+import com.oasisnourish.ratelimit.RateLimitPlugin;
+import com.oasisnourish.util.ClientIpResolver;
+
 import io.javalin.Javalin;
 
 public class App {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(App.class);
+
     private final AppConfig CONFIG;
 
     public App(AppConfig config) {
@@ -11,34 +22,63 @@ public class App {
     }
 
     public void start() {
+        ServerConfig serverConfig = CONFIG.SERVER_CONFIG;
 
         var app = Javalin.create(config -> {
+            config.events(event -> event.handlerAdded(handler -> CONFIG.AUTH_PIPELINE.registerRoute(
+                    handler.getHttpMethod(), handler.getPath(), handler.getRoles())));
             config.router.apiBuilder(() -> new AppRouter(CONFIG).initializeRoutes());
+            // Matched endpoints only, so static files skip authentication entirely.
+            // Mounted here so it runs before plugin handlers, which need the signed in user.
+            config.router.mount(router -> {
+                router.beforeMatched(CONFIG.AUTH_PIPELINE::before);
+                router.afterMatched(CONFIG.AUTH_PIPELINE::after);
+            });
+            if (CONFIG.RATE_LIMITER != null) {
+                config.registerPlugin(new RateLimitPlugin(rateLimits -> {
+                    rateLimits.rateLimiter = CONFIG.RATE_LIMITER;
+                    rateLimits.roleResolver = CONFIG.SESSION_MANAGER::getSignedInRole;
+                    rateLimits.subjectResolver = CONFIG.SESSION_MANAGER::getRequesterKey;
+                    new AppRouter(CONFIG).configureRateLimits(rateLimits);
+                }));
+            }
+            config.contextResolver.ip = new ClientIpResolver(serverConfig.getTrustedProxies())::resolve;
             // Serve files from 'src/main/resources/public'
             config.staticFiles.add("/public");
             // wait 5 seconds for existing requests to finish
             config.jetty.modifyServer(server -> server.setStopTimeout(5_000));
-        }).start(7070);
+            if (serverConfig.getExecutionMode() == ExecutionMode.PLATFORM) {
+                config.jetty.threadPool = new QueuedThreadPool(
+                        serverConfig.getMaxThreads(), serverConfig.getMinThreads(), 60_000);
+            } else {
+                config.useVirtualThreads = true;
+            }
+        }).start(serverConfig.getPort());
 
-        configureMiddleware(app);
         configureEvents(app);
         new AppErrorHandler().configureErrorHandling(app);
     }
 
-    private void configureMiddleware(Javalin app) {
-        app.beforeMatched(CONFIG.AUTH_CONTROLLER);
-        app.before(CONFIG.AUTH_CONTROLLER::decodeJWTFromCookie);
-        app.after(CONFIG.AUTH_CONTROLLER::updateSessionUserIfChanged);
-    }
-
     private void configureEvents(Javalin app) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             app.stop();
         }));
         app.events(event -> {
             event.serverStopping(() -> {
-                CONFIG.EMAIL_EXECUTOR_SERVICE.shutdown();
-                System.out.println("Email ExecutorService shut down.");
+                CONFIG.EMAIL_CAMPAIGN_SERVICE.stop();
+                CONFIG.EMAIL_OUTBOX.stop();
+                LOGGER.info("Email outbox stopped.");
+                CONFIG.SMTP_POOL.stop();
+                CONFIG.USER_IMPORTER.shutdown();
+                CONFIG.PASSWORD_HASHER.shutdown();
+                CONFIG.JWT_CACHE.stopListening();
+                CONFIG.USER_DAO.stopListening();
+                if (CONFIG.REVOCATION_LIST != null) {
+                    CONFIG.REVOCATION_LIST.stop();
+                }
+                if (CONFIG.RATE_LIMITER != null) {
+                    CONFIG.RATE_LIMITER.stop();
+                }
             });
         });
     }
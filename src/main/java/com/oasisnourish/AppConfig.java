@@ -1,82 +1,189 @@
 package com.oasisnourish;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-
 import com.oasisnourish.config.AuthTokenConfig;
+import com.oasisnourish.config.CacheConfig;
 import com.oasisnourish.config.EmailConfig;
 import com.oasisnourish.config.EnvConfig;
 import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.config.PasswordConfig;
+import com.oasisnourish.config.RateLimitConfig;
+import com.oasisnourish.config.ServerConfig;
 import com.oasisnourish.config.TemplateEngineConfig;
 import com.oasisnourish.controllers.AuthController;
+import com.oasisnourish.controllers.AuthPipeline;
+import com.oasisnourish.controllers.EmailCampaignController;
+import com.oasisnourish.controllers.MetricsController;
 import com.oasisnourish.controllers.UserController;
+import com.oasisnourish.dao.impl.CachingUserDaoImpl;
+import com.oasisnourish.dao.impl.EmailCampaignDaoImpl;
+import com.oasisnourish.dao.impl.EmailOutboxDaoImpl;
+import com.oasisnourish.dao.impl.RateLimitDaoImpl;
+import com.oasisnourish.dao.impl.RevokedTokenDaoImpl;
 import com.oasisnourish.dao.impl.TokenDaoImpl;
 import com.oasisnourish.dao.impl.TokenRateLimitDaoImpl;
+import com.oasisnourish.dao.impl.TokenRefreshDaoImpl;
 import com.oasisnourish.dao.impl.TokenVersionDaoImpl;
 import com.oasisnourish.dao.impl.UserDaoImpl;
+import com.oasisnourish.dao.mappers.EmailCampaignRowMapper;
+import com.oasisnourish.dao.mappers.OutboxEmailRowMapper;
 import com.oasisnourish.dao.mappers.UserRowMapper;
 import com.oasisnourish.db.JdbcConnection;
 import com.oasisnourish.db.RedisConnection;
 import com.oasisnourish.db.impl.JdbcConnectionImpl;
 import com.oasisnourish.db.impl.RedisConnectionImpl;
+import com.oasisnourish.db.impl.ThrottledJdbcConnection;
+import com.oasisnourish.enums.ExecutionMode;
+import com.oasisnourish.enums.TokenValidationMode;
+import com.oasisnourish.metrics.MetricsRegistry;
 import com.oasisnourish.models.AuthToken;
 import com.oasisnourish.models.JsonWebToken;
+import com.oasisnourish.ratelimit.RateLimiter;
 import com.oasisnourish.seeds.UserSeed;
 import com.oasisnourish.services.impl.AuthServiceImpl;
 import com.oasisnourish.services.impl.AuthTokenServiceImpl;
+import com.oasisnourish.services.impl.EmailCampaignServiceImpl;
 import com.oasisnourish.services.impl.EmailServiceImpl;
 import com.oasisnourish.services.impl.JWTServiceImpl;
 import com.oasisnourish.services.impl.UserServiceImpl;
+import com.oasisnourish.util.AuthContextLoader;
 import com.oasisnourish.util.EmailContentBuilder;
+import com.oasisnourish.util.EmailOutbox;
+import com.oasisnourish.util.EmailTemplateRenderer;
+import com.oasisnourish.util.PasswordHasher;
 import com.oasisnourish.util.RoleValidator;
+import com.oasisnourish.util.SignInThrottle;
 import com.oasisnourish.util.SessionManager;
+import com.oasisnourish.util.SmtpTransportPool;
+import com.oasisnourish.util.UserImporter;
+import com.oasisnourish.util.jwt.DecodedJWTCache;
 import com.oasisnourish.util.jwt.JWTGenerator;
 import com.oasisnourish.util.jwt.JWTProvider;
+import com.oasisnourish.util.jwt.RevocationList;
+import com.oasisnourish.util.jwt.TokenRefreshCoalescer;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
 public class AppConfig {
 
-    public final ExecutorService EMAIL_EXECUTOR_SERVICE;
+    public final ServerConfig SERVER_CONFIG;
+    public final SmtpTransportPool SMTP_POOL;
+    public final EmailOutbox EMAIL_OUTBOX;
+    public final EmailCampaignServiceImpl EMAIL_CAMPAIGN_SERVICE;
     public final UserController USER_CONTROLLER;
     public final AuthController AUTH_CONTROLLER;
+    public final EmailCampaignController EMAIL_CAMPAIGN_CONTROLLER;
+    public final AuthPipeline AUTH_PIPELINE;
+    public final MetricsController METRICS_CONTROLLER;
+    public final DecodedJWTCache JWT_CACHE;
+    public final CachingUserDaoImpl USER_DAO;
+    public final RevocationList REVOCATION_LIST;
+    public final PasswordHasher PASSWORD_HASHER;
+    public final UserImporter USER_IMPORTER;
+    public final SessionManager SESSION_MANAGER;
+    public final RateLimiter RATE_LIMITER;
 
     public AppConfig() {
+        Dotenv dotenv = EnvConfig.getDotenv();
+        SERVER_CONFIG = new ServerConfig(dotenv);
+
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+
         // Database Connections
-        JdbcConnection jdbcConnection = new JdbcConnectionImpl();
-        RedisConnection redisConnection = new RedisConnectionImpl();
+        JdbcConnectionImpl jdbcConnectionImpl = new JdbcConnectionImpl();
+        metricsRegistry.register(jdbcConnectionImpl);
+        JdbcConnection jdbcConnection = jdbcConnectionImpl;
+        if (SERVER_CONFIG.getExecutionMode() == ExecutionMode.VIRTUAL_DB_LIMITED) {
+            jdbcConnection = new ThrottledJdbcConnection(
+                    jdbcConnection,
+                    SERVER_CONFIG.getDbMaxConcurrency(),
+                    SERVER_CONFIG.getDbAcquireTimeout());
+        }
+        RedisConnectionImpl redisConnectionImpl = new RedisConnectionImpl();
+        metricsRegistry.register(redisConnectionImpl);
+        RedisConnection redisConnection = redisConnectionImpl;
 
         // Utilities
-        Dotenv dotenv = EnvConfig.getDotenv();
-
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        PasswordConfig passwordConfig = new PasswordConfig(dotenv);
+        PASSWORD_HASHER = new PasswordHasher(passwordConfig);
+        metricsRegistry.register(PASSWORD_HASHER);
 
         EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
 
         RoleValidator roleValidator = new RoleValidator();
 
-        SessionManager sessionManager = new SessionManager(dotenv);
+        // Caches
+        CacheConfig cacheConfig = new CacheConfig(dotenv);
+        JWT_CACHE = new DecodedJWTCache(redisConnection, cacheConfig);
+        JWT_CACHE.startListening();
+        metricsRegistry.register(JWT_CACHE);
 
         // DAOs
-        UserDaoImpl userDao = new UserDaoImpl(jdbcConnection, new UserRowMapper());
+        USER_DAO = new CachingUserDaoImpl(
+                new UserDaoImpl(jdbcConnection, new UserRowMapper()),
+                redisConnection,
+                cacheConfig);
+        USER_DAO.startListening();
+        metricsRegistry.register(USER_DAO);
+        USER_IMPORTER = new UserImporter(USER_DAO, PASSWORD_HASHER, passwordConfig);
+        metricsRegistry.register(USER_IMPORTER);
         TokenVersionDaoImpl tokenVersionDao = new TokenVersionDaoImpl(redisConnection);
+        JWTConfig jwtConfig = new JWTConfig(dotenv);
+        AuthContextLoader authContextLoader = new AuthContextLoader(redisConnection, USER_DAO, jwtConfig.getValidationMode());
+        metricsRegistry.register(authContextLoader);
 
-        // Services
-        EMAIL_EXECUTOR_SERVICE = Executors.newFixedThreadPool(10);
-
-        UserServiceImpl userService = new UserServiceImpl(userDao, passwordEncoder);
+        TokenRefreshCoalescer refreshCoalescer = new TokenRefreshCoalescer(new TokenRefreshDaoImpl(redisConnection), jwtConfig);
+        metricsRegistry.register(refreshCoalescer);
+        SESSION_MANAGER = new SessionManager(dotenv, refreshCoalescer);
 
+        // Services
+        EmailConfig emailConfig = new EmailConfig(dotenv);
+        SMTP_POOL = new SmtpTransportPool(emailConfig);
+        SMTP_POOL.start();
+        metricsRegistry.register(SMTP_POOL);
+        EMAIL_OUTBOX = new EmailOutbox(
+                new EmailOutboxDaoImpl(jdbcConnection, new OutboxEmailRowMapper()),
+                SMTP_POOL,
+                emailConfig);
+        EMAIL_OUTBOX.start();
+        metricsRegistry.register(EMAIL_OUTBOX);
+
+        UserServiceImpl userService = new UserServiceImpl(USER_DAO, PASSWORD_HASHER);
+
+        EmailTemplateRenderer templateRenderer = new EmailTemplateRenderer(TemplateEngineConfig.getTemplateEngine());
+        templateRenderer.warmUp(emailContentBuilder.buildSampleEmailTokenContext());
+        metricsRegistry.register(templateRenderer);
         EmailServiceImpl emailService = new EmailServiceImpl(
-                TemplateEngineConfig.getTemplateEngine(),
-                new EmailConfig(dotenv),
-                EMAIL_EXECUTOR_SERVICE);
-
-        JWTServiceImpl jwtService = new JWTServiceImpl(
-                new TokenDaoImpl<>(redisConnection, JsonWebToken.class),
-                tokenVersionDao,
-                new JWTProvider(new JWTGenerator(), new JWTConfig(dotenv)));
+                templateRenderer,
+                EMAIL_OUTBOX);
+        EMAIL_CAMPAIGN_SERVICE = new EmailCampaignServiceImpl(
+                new EmailCampaignDaoImpl(jdbcConnection, new EmailCampaignRowMapper()),
+                userService,
+                emailContentBuilder,
+                templateRenderer,
+                SMTP_POOL,
+                emailConfig);
+        EMAIL_CAMPAIGN_SERVICE.start();
+        metricsRegistry.register(EMAIL_CAMPAIGN_SERVICE);
+
+        JWTServiceImpl jwtService;
+        if (jwtConfig.getValidationMode() == TokenValidationMode.REVOCATION) {
+            REVOCATION_LIST = new RevocationList(redisConnection, new RevokedTokenDaoImpl(redisConnection), jwtConfig);
+            REVOCATION_LIST.start();
+            metricsRegistry.register(REVOCATION_LIST);
+            jwtService = new JWTServiceImpl(
+                    new TokenDaoImpl<>(redisConnection, JsonWebToken.class),
+                    tokenVersionDao,
+                    new JWTProvider(new JWTGenerator(), jwtConfig),
+                    JWT_CACHE,
+                    REVOCATION_LIST);
+        } else {
+            REVOCATION_LIST = null;
+            jwtService = new JWTServiceImpl(
+                    new TokenDaoImpl<>(redisConnection, JsonWebToken.class),
+                    tokenVersionDao,
+                    new JWTProvider(new JWTGenerator(), jwtConfig),
+                    JWT_CACHE);
+        }
 
         AuthTokenServiceImpl authTokenService = new AuthTokenServiceImpl(
                 new TokenDaoImpl<>(redisConnection, AuthToken.class),
@@ -84,27 +191,49 @@ public class AppConfig {
                 new TokenRateLimitDaoImpl(redisConnection),
                 new AuthTokenConfig(dotenv));
 
+        RateLimitConfig rateLimitConfig = new RateLimitConfig(dotenv);
+        RateLimitDaoImpl rateLimitDao = new RateLimitDaoImpl(redisConnection);
+        SignInThrottle signInThrottle = new SignInThrottle(rateLimitDao, rateLimitConfig);
+        metricsRegistry.register(signInThrottle);
+
         AuthServiceImpl authService = new AuthServiceImpl(
                 userService,
                 emailService,
                 authTokenService,
                 jwtService,
-                passwordEncoder,
-                emailContentBuilder);
+                PASSWORD_HASHER,
+                emailContentBuilder,
+                signInThrottle);
 
         // Controllers
-        USER_CONTROLLER = new UserController(userService);
+        USER_CONTROLLER = new UserController(userService, SESSION_MANAGER, USER_IMPORTER);
+
+        METRICS_CONTROLLER = new MetricsController(metricsRegistry);
+
+        EMAIL_CAMPAIGN_CONTROLLER = new EmailCampaignController(EMAIL_CAMPAIGN_SERVICE);
 
         AUTH_CONTROLLER = new AuthController(
                 userService,
                 authService,
                 jwtService,
-                sessionManager,
-                roleValidator);
+                SESSION_MANAGER,
+                roleValidator,
+                authContextLoader);
+
+        AUTH_PIPELINE = new AuthPipeline(AUTH_CONTROLLER);
+        metricsRegistry.register(AUTH_PIPELINE);
+
+        if (rateLimitConfig.isEnabled()) {
+            RATE_LIMITER = new RateLimiter(rateLimitDao, rateLimitConfig);
+            RATE_LIMITER.start();
+            metricsRegistry.register(RATE_LIMITER);
+        } else {
+            RATE_LIMITER = null;
+        }
 
         // Seed data for development environment
         if ("development".equals(dotenv.get("ENV", "development"))) {
-            new UserSeed(userDao, passwordEncoder).seed();
+            new UserSeed(USER_DAO, PASSWORD_HASHER).seed();
         }
     }
 }
@@ -5,11 +5,13 @@ import org.slf4j.LoggerFactory;
 import com.oasisnourish.exceptions.EmailExistsException;
 import com.oasisnourish.exceptions.InvalidTokenException;
 import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.exceptions.ServiceUnavailableException;
 import com.oasisnourish.exceptions.TooManyRequestsException;
 import io.javalin.Javalin;
 import io.javalin.http.BadRequestResponse;
 import io.javalin.http.InternalServerErrorResponse;
 import io.javalin.http.NotFoundResponse;
+import io.javalin.http.ServiceUnavailableResponse;
 import io.javalin.http.TooManyRequestsResponse;
 import io.javalin.http.UnauthorizedResponse;
 
@@ -18,10 +20,17 @@ public class AppErrorHandler {
 
     public void configureErrorHandling(Javalin app) {
         app.exception(TooManyRequestsException.class, (e, ctx) -> {
-            LOGGER.error("Too many requests: {}, IP: {}, Endpoint: {}", e.getMessage(), ctx.ip(), ctx.fullUrl(), e);
+            // Expected under attack, so no stack trace; it would cost more than the throttle saves
+            LOGGER.warn("Too many requests: {}, IP: {}, Endpoint: {}", e.getMessage(), ctx.ip(), ctx.fullUrl());
             throw new TooManyRequestsResponse(e.getMessage());
         });
 
+        app.exception(ServiceUnavailableException.class, (e, ctx) -> {
+            LOGGER.warn("Service unavailable: {}, IP: {}, Endpoint: {}", e.getMessage(), ctx.ip(), ctx.fullUrl());
+            ctx.header("Retry-After", "1");
+            throw new ServiceUnavailableResponse(e.getMessage());
+        });
+
         app.exception(InvalidTokenException.class, (e, ctx) -> {
             LOGGER.error("Invalid token: {}, IP: {}, Endpoint: {}", e.getMessage(), ctx.ip(), ctx.fullUrl(), e);
             throw new UnauthorizedResponse(e.getMessage());
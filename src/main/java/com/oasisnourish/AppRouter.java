@@ -1,6 +1,9 @@
 package com.oasisnourish;
 
 import com.oasisnourish.enums.Role;
+import com.oasisnourish.ratelimit.RateLimitPlugin;
+
+import io.javalin.http.HandlerType;
 
 import static io.javalin.apibuilder.ApiBuilder.delete;
 import static io.javalin.apibuilder.ApiBuilder.get;
@@ -21,6 +24,7 @@ public class AppRouter {
             path("/users", () -> {
                 get(CONFIG.USER_CONTROLLER::findAllUsers, Role.ADMIN);
                 post(CONFIG.USER_CONTROLLER::createUser, Role.ADMIN);
+                post("/import", CONFIG.USER_CONTROLLER::importUsers, Role.ADMIN);
                 path("/{userId}", () -> {
                     get(CONFIG.USER_CONTROLLER::findUserById, Role.ADMIN);
                     patch(CONFIG.USER_CONTROLLER::updateUser, Role.UNVERIFIED_USER, Role.USER, Role.ADMIN);
@@ -42,6 +46,35 @@ public class AppRouter {
                     patch("/{token}", CONFIG.AUTH_CONTROLLER::resetPassword, Role.GUEST);
                 });
             });
+            path("/campaigns", () -> {
+                post(CONFIG.EMAIL_CAMPAIGN_CONTROLLER::createCampaign, Role.ADMIN);
+                path("/{campaignId}", () -> {
+                    get(CONFIG.EMAIL_CAMPAIGN_CONTROLLER::findCampaignById, Role.ADMIN);
+                    delete(CONFIG.EMAIL_CAMPAIGN_CONTROLLER::cancelCampaign, Role.ADMIN);
+                });
+            });
+            get("/metrics", CONFIG.METRICS_CONTROLLER::getMetrics, Role.ADMIN);
         });
     }
+
+    /**
+     * Declares the request quotas of the routes above, per requester. The
+     * most specific quota for a route and role applies.
+     *
+     * @param rateLimits the rate limit plugin config.
+     */
+    public void configureRateLimits(RateLimitPlugin.Config rateLimits) {
+        rateLimits
+                .quota("/api/*", Role.GUEST, "60/min")
+                .quota("/api/*", Role.UNVERIFIED_USER, "120/min")
+                .quota("/api/*", Role.USER, "300/min")
+                .quota("/api/*", Role.ADMIN, "1000/min")
+                .quota(HandlerType.POST, "/api/auth/signup", Role.GUEST, "5/min")
+                .quota(HandlerType.POST, "/api/auth/signin", Role.GUEST, "20/min")
+                .quota(HandlerType.POST, "/api/auth/reset-password", Role.GUEST, "5/15min")
+                .quota(HandlerType.POST, "/api/auth/confirm-account/{userId}", Role.UNVERIFIED_USER, "5/15min")
+                .quota(HandlerType.POST, "/api/auth/refresh", null, "30/min")
+                .quota(HandlerType.POST, "/api/users/import", Role.ADMIN, "5/15min")
+                .quota(HandlerType.POST, "/api/campaigns", Role.ADMIN, "5/15min");
+    }
 }
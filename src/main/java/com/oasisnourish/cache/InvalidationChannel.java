@@ -0,0 +1,115 @@
+package com.oasisnourish.cache;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * A Redis pub/sub channel used to broadcast cache invalidations to every node.
+ * Each node publishes the keys it invalidates and runs a listener that applies
+ * invalidations published by the others. Messages are tagged with the node
+ * that sent them, so a node does not apply its own invalidations a second
+ * time.
+ */
+public class InvalidationChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvalidationChannel.class);
+    private static final char ORIGIN_SEPARATOR = '|';
+
+    private final RedisConnection redisConnection;
+    private final String channel;
+    private final Consumer<String> onMessage;
+    private final Runnable onDisconnect;
+    private final String origin = UUID.randomUUID().toString();
+    private final JedisPubSub subscriber = new JedisPubSub() {
+        @Override
+        public void onMessage(String channel, String message) {
+            receive(message);
+        }
+    };
+    private volatile boolean listening;
+
+    /**
+     * Constructs an {@link InvalidationChannel}.
+     *
+     * @param redisConnection the Redis connection to publish and subscribe on.
+     * @param channel         the name of the pub/sub channel.
+     * @param onMessage       applies an invalidation message to the local cache.
+     * @param onDisconnect    runs when the listener loses its connection, since
+     *                        messages published meanwhile are missed.
+     */
+    public InvalidationChannel(RedisConnection redisConnection, String channel, Consumer<String> onMessage, Runnable onDisconnect) {
+        this.redisConnection = redisConnection;
+        this.channel = channel;
+        this.onMessage = onMessage;
+        this.onDisconnect = onDisconnect;
+    }
+
+    public void publish(String message) {
+        redisConnection.getJedis().publish(channel, origin + ORIGIN_SEPARATOR + message);
+    }
+
+    /**
+     * Applies a message published by another node; this node's own messages
+     * are ignored.
+     *
+     * @param message the message as published, tagged with its origin.
+     */
+    void receive(String message) {
+        int separator = message.indexOf(ORIGIN_SEPARATOR);
+        if (separator < 0) {
+            onMessage.accept(message);
+        } else if (!origin.equals(message.substring(0, separator))) {
+            onMessage.accept(message.substring(separator + 1));
+        }
+    }
+
+    String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Starts a daemon thread that listens on the channel, resubscribing if the
+     * connection drops.
+     */
+    public void start() {
+        listening = true;
+        Thread listener = new Thread(() -> {
+            while (listening) {
+                try {
+                    redisConnection.getJedis().subscribe(subscriber, channel);
+                } catch (RuntimeException e) {
+                    if (listening) {
+                        onDisconnect.run();
+                        LOGGER.warn("Invalidation listener on {} disconnected: {}", channel, e.getMessage());
+                        sleepBeforeReconnect();
+                    }
+                }
+            }
+        }, channel);
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    public void stop() {
+        listening = false;
+        if (subscriber.isSubscribed()) {
+            subscriber.unsubscribe();
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            listening = false;
+        }
+    }
+}
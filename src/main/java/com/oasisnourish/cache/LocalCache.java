@@ -0,0 +1,204 @@
+package com.oasisnourish.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * A bounded, in-process LRU cache whose entries carry their own expiry time.
+ * Expired entries are treated as misses and dropped on access; once the cache
+ * is full the least recently used entry is evicted.
+ *
+ * @param <K> the type of the cache keys.
+ * @param <V> the type of the cached values.
+ */
+public class LocalCache<K, V> {
+
+    private final int maxSize;
+    private final Clock clock;
+    private final BiConsumer<K, V> removalListener;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a {@link LocalCache} holding at most {@code maxSize} entries.
+     *
+     * @param maxSize the maximum number of entries to keep.
+     */
+    public LocalCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link LocalCache} using the given clock to decide expiry.
+     *
+     * @param maxSize the maximum number of entries to keep.
+     * @param clock   the clock used to compare against entry expiry times.
+     */
+    public LocalCache(int maxSize, Clock clock) {
+        this(maxSize, clock, (key, value) -> {
+        });
+    }
+
+    /**
+     * Constructs a {@link LocalCache} that reports every entry it removes,
+     * whether evicted, expired or invalidated. The listener runs while the
+     * cache is locked, so it must not call back into the cache.
+     *
+     * @param maxSize         the maximum number of entries to keep.
+     * @param clock           the clock used to compare against entry expiry
+     *                        times.
+     * @param removalListener called with the key and value of each removed
+     *                        entry.
+     */
+    public LocalCache(int maxSize, Clock clock, BiConsumer<K, V> removalListener) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.removalListener = removalListener;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LocalCache.this.maxSize) {
+                    evictions.increment();
+                    removalListener.accept(eldest.getKey(), eldest.getValue().value());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a value, counting the lookup as a hit or a miss.
+     *
+     * @param key the key to look up.
+     * @return an {@link Optional} containing the value if present and not
+     *         expired, or an empty {@link Optional} otherwise.
+     */
+    public Optional<V> get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+                hits.increment();
+                return Optional.of(entry.value());
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+                removalListener.accept(key, entry.value());
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a value until the given expiry time. Values that are already
+     * expired are ignored.
+     *
+     * @param key       the key to store the value under.
+     * @param value     the value to cache.
+     * @param expiresAt the instant after which the value must not be served.
+     * @return true if the value was stored.
+     */
+    public boolean put(K key, V value, Instant expiresAt) {
+        if (maxSize <= 0 || !expiresAt.isAfter(clock.instant())) {
+            return false;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+        return true;
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @param key the key of the entry to remove.
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.remove(key);
+            if (entry != null) {
+                removalListener.accept(key, entry.value());
+            }
+        }
+    }
+
+    /**
+     * Removes every entry matching the given predicate.
+     *
+     * @param predicate a predicate over the key and value of each entry.
+     */
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        synchronized (entries) {
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = iterator.next();
+                if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                    iterator.remove();
+                    removalListener.accept(entry.getKey(), entry.getValue().value());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.forEach((key, entry) -> removalListener.accept(key, entry.value()));
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the cache counters in a form suitable for the metrics endpoint.
+     *
+     * @return a map of counter names to values.
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = getHits();
+        long lookups = hitCount + getMisses();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", getMisses());
+        stats.put("evictions", getEvictions());
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    private record Entry<V>(V value, Instant expiresAt) {
+
+    }
+}
@@ -0,0 +1,41 @@
+package com.oasisnourish.config;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+public class CacheConfig extends ConfigLoader {
+
+    private final int jwtCacheMaxSize;
+    private final int jwtCacheMaxTtl;
+    private final int userCacheMaxSize;
+    private final int userCacheTtl;
+    private final boolean userCacheRedisEnabled;
+
+    public CacheConfig(Dotenv dotenv) {
+        super(dotenv);
+        jwtCacheMaxSize = getEnvVarInt("JWT_CACHE_MAX_SIZE", 10_000);
+        jwtCacheMaxTtl = getEnvVarInt("JWT_CACHE_MAX_TTL", 5 * 60);
+        userCacheMaxSize = getEnvVarInt("USER_CACHE_MAX_SIZE", 10_000);
+        userCacheTtl = getEnvVarInt("USER_CACHE_TTL", 10 * 60);
+        userCacheRedisEnabled = getEnvVarBoolean("USER_CACHE_REDIS_ENABLED", true);
+    }
+
+    public int getJwtCacheMaxSize() {
+        return jwtCacheMaxSize;
+    }
+
+    public int getJwtCacheMaxTtl() {
+        return jwtCacheMaxTtl;
+    }
+
+    public int getUserCacheMaxSize() {
+        return userCacheMaxSize;
+    }
+
+    public int getUserCacheTtl() {
+        return userCacheTtl;
+    }
+
+    public boolean isUserCacheRedisEnabled() {
+        return userCacheRedisEnabled;
+    }
+}
@@ -25,4 +25,15 @@ public abstract class ConfigLoader {
         }
         return defaultValue;
     }
+
+    protected boolean getEnvVarBoolean(String key, boolean defaultValue) {
+        String value = dotenv.get(key);
+        if (value != null) {
+            if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+                return Boolean.parseBoolean(value);
+            }
+            throw new IllegalArgumentException("Invalid boolean format for " + key);
+        }
+        return defaultValue;
+    }
 }
@@ -6,11 +6,56 @@ public class EmailConfig extends ConfigLoader {
 
     private final String mailPassword;
     private final String mailUsername;
+    private final String mailHost;
+    private final int mailPort;
+    private final boolean mailAuth;
+    private final boolean mailStartTls;
+    private final int mailTimeout;
+    private final int poolSize;
+    private final int poolIdleTimeout;
+    private final int poolValidationInterval;
+    private final int outboxBatchSize;
+    private final int outboxBufferSize;
+    private final int outboxPollInterval;
+    private final int outboxMaxAttempts;
+    private final int outboxRetryBackoff;
+    private final int outboxMaxRetryBackoff;
+    private final int outboxLease;
+    private final int outboxStatsInterval;
+    private final int outboxDeadRetention;
+    private final int campaignRate;
+    private final int campaignBatchSize;
+    private final int campaignRenderThreads;
 
     public EmailConfig(Dotenv dotenv) {
         super(dotenv);
         mailPassword = getEnvVar("MAIL_PASSWORD", null);
         mailUsername = getEnvVar("MAIL_USERNAME", null);
+        mailHost = getEnvVar("MAIL_HOST", "smtp.gmail.com");
+        mailPort = getEnvVarInt("MAIL_PORT", 587);
+        mailAuth = getEnvVarBoolean("MAIL_AUTH", true);
+        mailStartTls = getEnvVarBoolean("MAIL_STARTTLS", true);
+        mailTimeout = getEnvVarInt("MAIL_TIMEOUT", 10_000);
+        poolSize = getEnvVarInt("MAIL_POOL_SIZE", 4);
+        poolIdleTimeout = getEnvVarInt("MAIL_POOL_IDLE_TIMEOUT", 60);
+        // Idle connections are checked with a NOOP before reuse once they have sat for this long
+        poolValidationInterval = getEnvVarInt("MAIL_POOL_VALIDATION_INTERVAL", 10);
+        outboxBatchSize = getEnvVarInt("MAIL_OUTBOX_BATCH_SIZE", 50);
+        outboxBufferSize = getEnvVarInt("MAIL_OUTBOX_BUFFER_SIZE", 100);
+        outboxPollInterval = getEnvVarInt("MAIL_OUTBOX_POLL_INTERVAL", 1_000);
+        outboxMaxAttempts = getEnvVarInt("MAIL_OUTBOX_MAX_ATTEMPTS", 8);
+        outboxRetryBackoff = getEnvVarInt("MAIL_OUTBOX_RETRY_BACKOFF", 30);
+        outboxMaxRetryBackoff = getEnvVarInt("MAIL_OUTBOX_MAX_RETRY_BACKOFF", 3_600);
+        // A buffered email is handed back unsent once too little of its lease is left to send it
+        outboxLease = getEnvVarInt("MAIL_OUTBOX_LEASE", 300);
+        // Counting the outbox scans the whole table, so it runs far less often than the poll
+        outboxStatsInterval = getEnvVarInt("MAIL_OUTBOX_STATS_INTERVAL", 60);
+        // Dead emails keep their confirmation and reset links in plain text until purged
+        outboxDeadRetention = getEnvVarInt("MAIL_OUTBOX_DEAD_RETENTION", 7 * 24 * 60 * 60);
+        // Emails per second a campaign is sent at, whatever the pool could do
+        campaignRate = getEnvVarInt("MAIL_CAMPAIGN_RATE", 20);
+        campaignBatchSize = getEnvVarInt("MAIL_CAMPAIGN_BATCH_SIZE", 50);
+        campaignRenderThreads = getEnvVarInt("MAIL_CAMPAIGN_RENDER_THREADS", Runtime.getRuntime().availableProcessors());
     }
 
     public String getMailPassword() {
@@ -21,4 +66,84 @@ public class EmailConfig extends ConfigLoader {
         return mailUsername;
     }
 
+    public String getMailHost() {
+        return mailHost;
+    }
+
+    public int getMailPort() {
+        return mailPort;
+    }
+
+    public boolean isMailAuth() {
+        return mailAuth;
+    }
+
+    public boolean isMailStartTls() {
+        return mailStartTls;
+    }
+
+    public int getMailTimeout() {
+        return mailTimeout;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    public int getPoolValidationInterval() {
+        return poolValidationInterval;
+    }
+
+    public int getOutboxBatchSize() {
+        return outboxBatchSize;
+    }
+
+    public int getOutboxBufferSize() {
+        return outboxBufferSize;
+    }
+
+    public int getOutboxPollInterval() {
+        return outboxPollInterval;
+    }
+
+    public int getOutboxMaxAttempts() {
+        return outboxMaxAttempts;
+    }
+
+    public int getOutboxRetryBackoff() {
+        return outboxRetryBackoff;
+    }
+
+    public int getOutboxMaxRetryBackoff() {
+        return outboxMaxRetryBackoff;
+    }
+
+    public int getOutboxLease() {
+        return outboxLease;
+    }
+
+    public int getOutboxStatsInterval() {
+        return outboxStatsInterval;
+    }
+
+    public int getOutboxDeadRetention() {
+        return outboxDeadRetention;
+    }
+
+    public int getCampaignRate() {
+        return campaignRate;
+    }
+
+    public int getCampaignBatchSize() {
+        return campaignBatchSize;
+    }
+
+    public int getCampaignRenderThreads() {
+        return campaignRenderThreads;
+    }
+
 }
@@ -3,6 +3,7 @@ package com.oasisnourish.config;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.oasisnourish.enums.TokenValidationMode;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
@@ -12,6 +13,12 @@ public class JWTConfig extends ConfigLoader {
     private final int jwtAccessTokenExpires;
     private final int jwtRefreshTokenExpires;
     private final int jwtTokenMaxExpires;
+    private final TokenValidationMode validationMode;
+    private final int revocationSyncInterval;
+    private final int revocationFilterSize;
+    private final int refreshReuseWindow;
+    private final boolean refreshLockEnabled;
+    private final int refreshLockTimeout;
     private final Algorithm algorithm;
     private final JWTVerifier verifier;
 
@@ -25,6 +32,12 @@ public class JWTConfig extends ConfigLoader {
         jwtAccessTokenExpires = getEnvVarInt("JWT_ACCESS_TOKEN_EXPIRES", 3600);
         jwtRefreshTokenExpires = getEnvVarInt("JWT_REFRESH_TOKEN_EXPIRES", 86400);
         jwtTokenMaxExpires = getEnvVarInt("JWT_REQUIRE_FRESH_SIGN_IN", 259200);
+        validationMode = TokenValidationMode.fromMode(getEnvVar("JWT_VALIDATION_MODE", TokenValidationMode.ALLOWLIST.getMode()));
+        revocationSyncInterval = getEnvVarInt("JWT_REVOCATION_SYNC_INTERVAL", 30);
+        revocationFilterSize = getEnvVarInt("JWT_REVOCATION_FILTER_SIZE", 100_000);
+        refreshReuseWindow = getEnvVarInt("JWT_REFRESH_REUSE_WINDOW", 10);
+        refreshLockEnabled = getEnvVarBoolean("JWT_REFRESH_LOCK", false);
+        refreshLockTimeout = getEnvVarInt("JWT_REFRESH_LOCK_TIMEOUT", 2_000);
         algorithm = Algorithm.HMAC256(jwtSecret);
         verifier = JWT.require(algorithm).build();
     }
@@ -45,6 +58,30 @@ public class JWTConfig extends ConfigLoader {
         return jwtTokenMaxExpires;
     }
 
+    public TokenValidationMode getValidationMode() {
+        return validationMode;
+    }
+
+    public int getRevocationSyncInterval() {
+        return revocationSyncInterval;
+    }
+
+    public int getRevocationFilterSize() {
+        return revocationFilterSize;
+    }
+
+    public int getRefreshReuseWindow() {
+        return refreshReuseWindow;
+    }
+
+    public boolean isRefreshLockEnabled() {
+        return refreshLockEnabled;
+    }
+
+    public int getRefreshLockTimeout() {
+        return refreshLockTimeout;
+    }
+
     public JWTVerifier getVerifier() {
         return verifier;
     }
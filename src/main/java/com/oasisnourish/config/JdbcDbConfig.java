@@ -7,6 +7,15 @@ public class JdbcDbConfig extends ConfigLoader {
     private final String dbUrl;
     private final String dbUsername;
     private final String dbPassword;
+    private final int poolMaxSize;
+    private final int poolMinIdle;
+    private final int connectionTimeout;
+    private final int idleTimeout;
+    private final int maxLifetime;
+    private final int leakDetectionThreshold;
+    private final int prepareThreshold;
+    private final int preparedStatementCacheQueries;
+    private final boolean reWriteBatchedInserts;
 
     public JdbcDbConfig(Dotenv dotenv) {
         super(dotenv);
@@ -17,6 +26,16 @@ public class JdbcDbConfig extends ConfigLoader {
 
         this.dbUsername = getEnvVar("POSTGRES_USER", null);
         this.dbPassword = getEnvVar("POSTGRES_PASSWORD", null);
+
+        this.poolMaxSize = getEnvVarInt("DB_POOL_MAX_SIZE", 10);
+        this.poolMinIdle = getEnvVarInt("DB_POOL_MIN_IDLE", poolMaxSize);
+        this.connectionTimeout = getEnvVarInt("DB_CONNECTION_TIMEOUT", 30_000);
+        this.idleTimeout = getEnvVarInt("DB_IDLE_TIMEOUT", 600_000);
+        this.maxLifetime = getEnvVarInt("DB_MAX_LIFETIME", 1_800_000);
+        this.leakDetectionThreshold = getEnvVarInt("DB_LEAK_DETECTION_THRESHOLD", 0);
+        this.prepareThreshold = getEnvVarInt("DB_PREPARE_THRESHOLD", 5);
+        this.preparedStatementCacheQueries = getEnvVarInt("DB_PREPARED_STATEMENT_CACHE_QUERIES", 256);
+        this.reWriteBatchedInserts = getEnvVarBoolean("DB_REWRITE_BATCHED_INSERTS", true);
     }
 
     public String getDbUrl() {
@@ -30,4 +49,40 @@ public class JdbcDbConfig extends ConfigLoader {
     public String getDbPassword() {
         return dbPassword;
     }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public int getPoolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public int getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public int getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public int getPrepareThreshold() {
+        return prepareThreshold;
+    }
+
+    public int getPreparedStatementCacheQueries() {
+        return preparedStatementCacheQueries;
+    }
+
+    public boolean isReWriteBatchedInserts() {
+        return reWriteBatchedInserts;
+    }
 }
@@ -0,0 +1,43 @@
+package com.oasisnourish.config;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+public class PasswordConfig extends ConfigLoader {
+
+    private final int hashCost;
+    private final int hashTargetMillis;
+    private final int hashThreads;
+    private final int hashQueueSize;
+    private final int importThreads;
+
+    public PasswordConfig(Dotenv dotenv) {
+        super(dotenv);
+        // 0 calibrates the cost to PASSWORD_HASH_TARGET_MILLIS on startup
+        hashCost = getEnvVarInt("PASSWORD_HASH_COST", 0);
+        hashTargetMillis = getEnvVarInt("PASSWORD_HASH_TARGET_MILLIS", 250);
+        hashThreads = getEnvVarInt("PASSWORD_HASH_THREADS", Runtime.getRuntime().availableProcessors());
+        hashQueueSize = getEnvVarInt("PASSWORD_HASH_QUEUE_SIZE", 100);
+        // Bulk imports hash on their own workers, leaving the other cores to sign ins
+        importThreads = getEnvVarInt("PASSWORD_IMPORT_THREADS", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public int getHashCost() {
+        return hashCost;
+    }
+
+    public int getHashTargetMillis() {
+        return hashTargetMillis;
+    }
+
+    public int getHashThreads() {
+        return hashThreads;
+    }
+
+    public int getHashQueueSize() {
+        return hashQueueSize;
+    }
+
+    public int getImportThreads() {
+        return importThreads;
+    }
+}
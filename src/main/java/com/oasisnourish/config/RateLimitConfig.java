@@ -0,0 +1,47 @@
+package com.oasisnourish.config;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+public class RateLimitConfig extends ConfigLoader {
+
+    private final int signInMaxAttemptsPerIp;
+    private final int signInMaxAttemptsPerEmail;
+    private final int signInWindow;
+    private final int signInLocalBlockSize;
+    private final boolean enabled;
+    private final int syncInterval;
+
+    public RateLimitConfig(Dotenv dotenv) {
+        super(dotenv);
+        signInMaxAttemptsPerIp = getEnvVarInt("SIGN_IN_MAX_ATTEMPTS_PER_IP", 20);
+        signInMaxAttemptsPerEmail = getEnvVarInt("SIGN_IN_MAX_ATTEMPTS_PER_EMAIL", 5);
+        signInWindow = getEnvVarInt("SIGN_IN_RATE_LIMIT_WINDOW", 60);
+        signInLocalBlockSize = getEnvVarInt("SIGN_IN_LOCAL_BLOCK_SIZE", 10_000);
+        enabled = getEnvVarBoolean("RATE_LIMIT_ENABLED", true);
+        syncInterval = getEnvVarInt("RATE_LIMIT_SYNC_INTERVAL", 1_000);
+    }
+
+    public int getSignInMaxAttemptsPerIp() {
+        return signInMaxAttemptsPerIp;
+    }
+
+    public int getSignInMaxAttemptsPerEmail() {
+        return signInMaxAttemptsPerEmail;
+    }
+
+    public int getSignInWindow() {
+        return signInWindow;
+    }
+
+    public int getSignInLocalBlockSize() {
+        return signInLocalBlockSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSyncInterval() {
+        return syncInterval;
+    }
+}
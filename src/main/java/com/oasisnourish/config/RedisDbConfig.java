@@ -1,16 +1,61 @@
 package com.oasisnourish.config;
 
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.oasisnourish.enums.RedisMode;
+
 import io.github.cdimascio.dotenv.Dotenv;
+import redis.clients.jedis.HostAndPort;
 
 public class RedisDbConfig extends ConfigLoader {
 
+    private final RedisMode mode;
     private final String host;
     private final int port;
+    private final Set<HostAndPort> nodes;
+    private final String sentinelMaster;
+    private final String password;
+    private final int poolMaxTotal;
+    private final int poolMaxIdle;
+    private final int poolMinIdle;
+    private final int poolMaxWait;
+    private final int connectionTimeout;
+    private final int socketTimeout;
+    private final int clusterMaxAttempts;
 
     public RedisDbConfig(Dotenv dotenv) {
         super(dotenv);
+        mode = RedisMode.fromMode(getEnvVar("REDIS_MODE", RedisMode.STANDALONE.getMode()));
         host = getEnvVar("REDIS_HOST", null);
         port = getEnvVarInt("REDIS_PORT", 6379);
+        nodes = parseNodes(getEnvVar("REDIS_NODES", ""));
+        if (mode != RedisMode.STANDALONE && nodes.isEmpty()) {
+            throw new IllegalArgumentException("Environment variable REDIS_NODES is required in " + mode.getMode() + " mode.");
+        }
+        sentinelMaster = getEnvVar("REDIS_SENTINEL_MASTER", "mymaster");
+        password = getEnvVar("REDIS_PASSWORD", null);
+
+        poolMaxTotal = getEnvVarInt("REDIS_POOL_MAX_TOTAL", 16);
+        poolMaxIdle = getEnvVarInt("REDIS_POOL_MAX_IDLE", poolMaxTotal);
+        poolMinIdle = getEnvVarInt("REDIS_POOL_MIN_IDLE", 2);
+        poolMaxWait = getEnvVarInt("REDIS_POOL_MAX_WAIT", 2_000);
+        connectionTimeout = getEnvVarInt("REDIS_CONNECTION_TIMEOUT", 2_000);
+        socketTimeout = getEnvVarInt("REDIS_SOCKET_TIMEOUT", 2_000);
+        clusterMaxAttempts = getEnvVarInt("REDIS_CLUSTER_MAX_ATTEMPTS", 5);
+    }
+
+    private static Set<HostAndPort> parseNodes(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .map(HostAndPort::from)
+                .collect(Collectors.toSet());
+    }
+
+    public RedisMode getMode() {
+        return mode;
     }
 
     public String getHost() {
@@ -20,4 +65,44 @@ public class RedisDbConfig extends ConfigLoader {
     public int getPort() {
         return port;
     }
+
+    public Set<HostAndPort> getNodes() {
+        return nodes;
+    }
+
+    public String getSentinelMaster() {
+        return sentinelMaster;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getPoolMaxTotal() {
+        return poolMaxTotal;
+    }
+
+    public int getPoolMaxIdle() {
+        return poolMaxIdle;
+    }
+
+    public int getPoolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public int getPoolMaxWait() {
+        return poolMaxWait;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public int getClusterMaxAttempts() {
+        return clusterMaxAttempts;
+    }
 }
@@ -0,0 +1,60 @@
+package com.oasisnourish.config;
+
+import com.oasisnourish.enums.ExecutionMode;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+public class ServerConfig extends ConfigLoader {
+
+    private final int port;
+    private final ExecutionMode executionMode;
+    private final int maxThreads;
+    private final int minThreads;
+    private final int dbMaxConcurrency;
+    private final int dbAcquireTimeout;
+    private final int trustedProxies;
+
+    public ServerConfig(Dotenv dotenv) {
+        super(dotenv);
+        port = getEnvVarInt("SERVER_PORT", 7070);
+        executionMode = ExecutionMode.fromMode(getEnvVar("SERVER_EXECUTION_MODE", ExecutionMode.PLATFORM.getMode()));
+        maxThreads = getEnvVarInt("SERVER_MAX_THREADS", 250);
+        minThreads = getEnvVarInt("SERVER_MIN_THREADS", 8);
+        // Only used in virtual-db-limited mode. Equal to DB_POOL_MAX_SIZE, callers
+        // wait on the permit (DB_ACQUIRE_TIMEOUT) instead of inside the pool. Set it
+        // lower to cap queries on a database that cannot run a full pool's worth at
+        // once; a higher value only moves the queue back into the pool.
+        dbMaxConcurrency = getEnvVarInt("DB_MAX_CONCURRENCY", 10);
+        dbAcquireTimeout = getEnvVarInt("DB_ACQUIRE_TIMEOUT", 30_000);
+        // Reverse proxies in front of the server, so rate limits see client IPs rather than the proxy's
+        trustedProxies = getEnvVarInt("SERVER_TRUSTED_PROXIES", 0);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    public int getDbMaxConcurrency() {
+        return dbMaxConcurrency;
+    }
+
+    public int getDbAcquireTimeout() {
+        return dbAcquireTimeout;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+}
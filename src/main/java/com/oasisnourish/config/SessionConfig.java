@@ -0,0 +1,27 @@
+package com.oasisnourish.config;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+public class SessionConfig extends ConfigLoader {
+
+    private final boolean stateless;
+
+    public SessionConfig(Dotenv dotenv) {
+        super(dotenv);
+        String sessionMode = getEnvVar("SESSION_MODE", "session");
+        if (sessionMode != null && !sessionMode.equalsIgnoreCase("session") && !sessionMode.equalsIgnoreCase("stateless")) {
+            throw new IllegalArgumentException("Invalid session mode for SESSION_MODE: " + sessionMode);
+        }
+        stateless = "stateless".equalsIgnoreCase(sessionMode);
+    }
+
+    /**
+     * Whether auth state is kept per request only, rebuilt from the JWT
+     * cookies on every request, instead of in the servlet session.
+     *
+     * @return true in stateless mode.
+     */
+    public boolean isStateless() {
+        return stateless;
+    }
+}
@@ -1,5 +1,7 @@
 package com.oasisnourish.config;
 
+import java.util.Set;
+
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 
@@ -19,7 +21,8 @@ public class TemplateEngineConfig {
      *         suffix.
      *         <p>
      *         The template mode is set to "HTML" and the character encoding is set
-     *         to "UTF-8".
+     *         to "UTF-8". The email and campaign templates and the base layout are
+     *         parsed once and cached for as long as the server runs.
      *         </p>
      */
     public static TemplateEngine getTemplateEngine() {
@@ -28,6 +31,10 @@ public class TemplateEngineConfig {
         resolver.setSuffix(".html");
         resolver.setTemplateMode("HTML");
         resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheablePatterns(Set.of("user/*", "campaign/*", "base"));
+        resolver.setCacheable(true);
+        // Templates are packaged with the server and never change while it runs
+        resolver.setCacheTTLMs(null);
 
         TemplateEngine templateEngine = new TemplateEngine();
         templateEngine.setTemplateResolver(resolver);
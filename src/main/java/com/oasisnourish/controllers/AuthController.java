@@ -12,6 +12,7 @@ import com.oasisnourish.models.User;
 import com.oasisnourish.services.AuthService;
 import com.oasisnourish.services.JWTService;
 import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.AuthContextLoader;
 import com.oasisnourish.util.RoleValidator;
 import com.oasisnourish.util.SessionManager;
 
@@ -33,6 +34,7 @@ public class AuthController implements Handler {
     private final UserService userService;
     private final SessionManager sessionManager;
     private final RoleValidator roleValidator;
+    private final AuthContextLoader authContextLoader;
 
     /**
      * Constructs an AuthController with the necessary dependencies for handling
@@ -43,15 +45,18 @@ public class AuthController implements Handler {
      * @param jwtService Service for handling JWT generation and validation.
      * @param sessionManager Manages user sessions and cookies.
      * @param roleValidator Validates roles for authorization purposes.
+     * @param authContextLoader Loads the auth state of a request in one round
+     * trip.
      */
     public AuthController(UserService userService, AuthService authService,
             JWTService jwtService, SessionManager sessionManager,
-            RoleValidator roleValidator) {
+            RoleValidator roleValidator, AuthContextLoader authContextLoader) {
         this.jwtService = jwtService;
         this.userService = userService;
         this.authService = authService;
         this.sessionManager = sessionManager;
         this.roleValidator = roleValidator;
+        this.authContextLoader = authContextLoader;
     }
 
     /**
@@ -65,6 +70,46 @@ public class AuthController implements Handler {
         roleValidator.validateRole(ctx, jwtService, sessionManager.getJwtFromSession(ctx));
     }
 
+    /**
+     * Validates the route's roles for a request that carries no auth cookies,
+     * without touching the session or the token store.
+     *
+     * @param ctx Javalin HTTP context.
+     */
+    public void authorizeGuest(Context ctx) {
+        roleValidator.validateRole(ctx, jwtService, null);
+    }
+
+    /**
+     * Validates a guest-only route's roles against the role in the auth
+     * cookies, once the tokens are verified, without refreshing them. Invalid
+     * cookies are cleared and the request treated as a guest's.
+     *
+     * @param ctx Javalin HTTP context.
+     */
+    public void authorizeGuestRoute(Context ctx) {
+        roleValidator.validateRole(ctx, jwtService, sessionManager.verifyJwtFromCookies(ctx, jwtService));
+    }
+
+    /**
+     * Checks whether the request carries any auth cookies.
+     *
+     * @param ctx Javalin HTTP context.
+     * @return true if an access or refresh token cookie is present.
+     */
+    public boolean hasAuthCookies(Context ctx) {
+        return sessionManager.hasAuthCookies(ctx);
+    }
+
+    /**
+     * Preloads the token state and user the later auth stages need.
+     *
+     * @param ctx Javalin HTTP context.
+     */
+    public void loadAuthContext(Context ctx) {
+        sessionManager.loadAuthContext(ctx, authContextLoader);
+    }
+
     /**
      * Decodes the JWT from cookies to authenticate the user session.
      *
@@ -118,8 +163,7 @@ public class AuthController implements Handler {
                 .isPasswordRequired()
                 .get();
 
-        jwtService.getProvider().updateJwtMaxExpiryTime();
-        Map<String, JsonWebToken> tokens = authService.signInUser(userDto);
+        Map<String, JsonWebToken> tokens = authService.signInUser(userDto, ctx.ip());
         sessionManager.setTokensInCookies(ctx, tokens);
         ctx.status(HttpStatus.OK);
         ctx.result("Sign in successful.");
@@ -141,7 +185,6 @@ public class AuthController implements Handler {
      */
     public void signOutUser(Context ctx) {
         sessionManager.invalidateSession(ctx);
-        ctx.req().getSession().invalidate();
         ctx.status(HttpStatus.NO_CONTENT);
         ctx.result("Sign out successful.");
     }
@@ -185,8 +228,8 @@ public class AuthController implements Handler {
     }
 
     public void updateSessionUserIfChanged(Context ctx) {
-        User currUser = ctx.sessionAttribute("currentUser");
-        authService.updateSignedInUserIfChanged(currUser).ifPresent(tokens -> {
+        User currUser = sessionManager.getSignedInUser(ctx);
+        authService.updateSignedInUserIfChanged(currUser, sessionManager.getJwtFromSession(ctx)).ifPresent(tokens -> {
             sessionManager.setTokensInCookies(ctx, tokens);
             sessionManager.updateJwtInSession(tokens, ctx, jwtService);
             sessionManager.validateAndSetUserSession(ctx, jwtService, userService);
@@ -0,0 +1,169 @@
+package com.oasisnourish.controllers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.metrics.LatencyHistogram;
+import com.oasisnourish.metrics.MetricsSource;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.security.RouteRole;
+
+/**
+ * Runs the authentication stages of {@link AuthController} only for the
+ * routes that need them. Whether a route needs them is worked out once from
+ * the roles it was declared with in the router: routes open to guests only
+ * skip the session stages and check the role of the verified cookies, and
+ * requests without auth cookies skip straight to the role check. Static files
+ * never reach the pipeline because it is registered for matched endpoints
+ * only.
+ */
+public class AuthPipeline implements MetricsSource {
+
+    private static final String AUTHENTICATED_KEY = "authPipeline.authenticated";
+
+    private final AuthController authController;
+    private final Map<String, Boolean> routePlans = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram loadTime = new LatencyHistogram();
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+    private final LatencyHistogram validateTime = new LatencyHistogram();
+    private final LatencyHistogram authorizeTime = new LatencyHistogram();
+    private final LatencyHistogram syncTime = new LatencyHistogram();
+    private final LongAdder skippedGuestRoutes = new LongAdder();
+    private final LongAdder skippedNoCookies = new LongAdder();
+
+    /**
+     * Constructs an {@link AuthPipeline} running the stages of the given
+     * controller.
+     *
+     * @param authController the controller providing the auth stages.
+     */
+    public AuthPipeline(AuthController authController) {
+        this.authController = authController;
+    }
+
+    /**
+     * Works out the stages a route needs when it is added to the router.
+     *
+     * @param method the HTTP method of the route.
+     * @param path   the path of the route.
+     * @param roles  the roles the route was declared with.
+     */
+    public void registerRoute(HandlerType method, String path, Set<? extends RouteRole> roles) {
+        routePlans.put(getRouteKey(method, path), requiresAuthentication(roles));
+    }
+
+    /**
+     * Authenticates the request before the endpoint handler runs.
+     *
+     * @param ctx Javalin HTTP context.
+     */
+    public void before(Context ctx) {
+        boolean authenticate = routePlans.computeIfAbsent(
+                getRouteKey(ctx.method(), ctx.endpointHandlerPath()),
+                _ -> requiresAuthentication(ctx.routeRoles()));
+        if (!authenticate) {
+            skippedGuestRoutes.increment();
+            if (authController.hasAuthCookies(ctx)) {
+                // Signed in users stay off guest-only routes such as sign in
+                long start = System.nanoTime();
+                try {
+                    authController.authorizeGuestRoute(ctx);
+                } finally {
+                    authorizeTime.record(System.nanoTime() - start);
+                }
+            }
+            return;
+        }
+
+        if (!authController.hasAuthCookies(ctx)) {
+            skippedNoCookies.increment();
+            long start = System.nanoTime();
+            try {
+                authController.authorizeGuest(ctx);
+            } finally {
+                authorizeTime.record(System.nanoTime() - start);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            authController.loadAuthContext(ctx);
+        } finally {
+            loadTime.record(System.nanoTime() - start);
+        }
+
+        start = System.nanoTime();
+        try {
+            authController.decodeJWTFromCookie(ctx);
+        } finally {
+            decodeTime.record(System.nanoTime() - start);
+        }
+
+        ctx.attribute(AUTHENTICATED_KEY, true);
+        start = System.nanoTime();
+        try {
+            authController.handle(ctx);
+        } finally {
+            validateTime.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Re-issues the tokens of an authenticated request if the signed in user
+     * changed while the endpoint handler ran.
+     *
+     * @param ctx Javalin HTTP context.
+     */
+    public void after(Context ctx) {
+        if (ctx.attribute(AUTHENTICATED_KEY) == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            authController.updateSessionUserIfChanged(ctx);
+        } finally {
+            syncTime.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Checks whether a route with the given roles needs the request to be
+     * authenticated. Only routes declared for guests alone can do without.
+     *
+     * @param roles the roles the route was declared with.
+     * @return true unless the route is open to guests only.
+     */
+    static boolean requiresAuthentication(Set<? extends RouteRole> roles) {
+        return !(roles.size() == 1 && roles.contains(Role.GUEST));
+    }
+
+    private static String getRouteKey(HandlerType method, String path) {
+        return method + " " + path;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "authPipeline";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("skippedGuestRoutes", skippedGuestRoutes.sum());
+        metrics.put("skippedNoCookies", skippedNoCookies.sum());
+        metrics.put("load", loadTime.getStats());
+        metrics.put("decode", decodeTime.getStats());
+        metrics.put("validate", validateTime.getStats());
+        metrics.put("authorize", authorizeTime.getStats());
+        metrics.put("sync", syncTime.getStats());
+        return metrics;
+    }
+}
@@ -0,0 +1,79 @@
+package com.oasisnourish.controllers;
+
+import com.oasisnourish.dto.EmailCampaignInputDto;
+import com.oasisnourish.dto.EmailCampaignResponseDto;
+import com.oasisnourish.dto.validation.ValidatorFactory;
+import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.EmailCampaign;
+import com.oasisnourish.services.EmailCampaignService;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+/**
+ * Controller for the admin endpoints of bulk email campaigns.
+ */
+public class EmailCampaignController {
+
+    private final EmailCampaignService campaignService;
+
+    /**
+     * Constructs an {@link EmailCampaignController} with a given
+     * {@link EmailCampaignService}.
+     *
+     * @param campaignService the {@link EmailCampaignService} to handle
+     * campaign-related business logic.
+     */
+    public EmailCampaignController(EmailCampaignService campaignService) {
+        this.campaignService = campaignService;
+    }
+
+    /**
+     * Handles the request to start a campaign. The emails are sent in the
+     * background; poll the returned campaign for progress.
+     *
+     * @param ctx the {@link Javalin} context object containing the HTTP request
+     * and response.
+     */
+    public void createCampaign(Context ctx) {
+        EmailCampaignInputDto campaignDto = ValidatorFactory.getCampaignValidator(ctx.bodyValidator(EmailCampaignInputDto.class))
+                .isSubjectRequired()
+                .isTemplateValid()
+                .get();
+        EmailCampaign campaign = campaignService.startCampaign(campaignDto);
+        ctx.status(HttpStatus.ACCEPTED);
+        ctx.json(EmailCampaignResponseDto.fromModel(campaign));
+    }
+
+    /**
+     * Handles the request to get a campaign and its progress by its ID.
+     *
+     * @param ctx the {@link Javalin} context object containing the HTTP request
+     * and response.
+     * @throws NotFoundException if the campaign with the specified ID is not
+     * found.
+     */
+    public void findCampaignById(Context ctx) {
+        int campaignId = ctx.pathParamAsClass("campaignId", Integer.class).get();
+        EmailCampaign campaign = campaignService.findCampaignById(campaignId)
+                .orElseThrow(() -> new NotFoundException("Campaign does not exist."));
+
+        ctx.status(HttpStatus.OK);
+        ctx.json(EmailCampaignResponseDto.fromModel(campaign));
+    }
+
+    /**
+     * Handles the request to cancel a campaign by its ID.
+     *
+     * @param ctx the {@link Javalin} context object containing the HTTP request
+     * and response.
+     */
+    public void cancelCampaign(Context ctx) {
+        int campaignId = ctx.pathParamAsClass("campaignId", Integer.class).get();
+        EmailCampaign campaign = campaignService.cancelCampaign(campaignId);
+
+        ctx.status(HttpStatus.OK);
+        ctx.json(EmailCampaignResponseDto.fromModel(campaign));
+    }
+}
@@ -0,0 +1,34 @@
+package com.oasisnourish.controllers;
+
+import com.oasisnourish.metrics.MetricsRegistry;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+/**
+ * Controller exposing the application's runtime metrics.
+ */
+public class MetricsController {
+
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Constructs a {@link MetricsController} reporting from the given registry.
+     *
+     * @param metricsRegistry the registry holding the metrics sources.
+     */
+    public MetricsController(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Handles the request to get a snapshot of all metrics.
+     *
+     * @param ctx the Javalin context object containing the HTTP request and
+     * response.
+     */
+    public void getMetrics(Context ctx) {
+        ctx.status(HttpStatus.OK);
+        ctx.json(metricsRegistry.snapshot());
+    }
+}
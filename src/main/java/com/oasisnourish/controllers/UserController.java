@@ -1,17 +1,30 @@
 package com.oasisnourish.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oasisnourish.dto.PageResponseDto;
 import com.oasisnourish.dto.UserInputDto;
 import com.oasisnourish.dto.UserResponseDto;
 import com.oasisnourish.dto.validation.ValidatorFactory;
 import com.oasisnourish.enums.Role;
 import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.Page;
 import com.oasisnourish.models.User;
+import com.oasisnourish.models.UserImportResult;
 import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.CursorCodec;
+import com.oasisnourish.util.SessionManager;
+import com.oasisnourish.util.UserImportReader;
+import com.oasisnourish.util.UserImporter;
 
 import io.javalin.Javalin;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 import io.javalin.http.UnauthorizedResponse;
@@ -21,30 +34,84 @@ import io.javalin.http.UnauthorizedResponse;
  */
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private final UserService userService;
+    private final SessionManager sessionManager;
+    private final UserImporter userImporter;
 
     /**
      * Constructs a {@link UserController} with a given {@link UserService}.
      *
      * @param userService the {@link UserService} to handle user-related
      * business logic.
+     * @param sessionManager the {@link SessionManager} holding the signed-in
+     * user.
+     * @param userImporter the {@link UserImporter} bulk imports are run with.
      */
-    public UserController(UserService userService) {
+    public UserController(UserService userService, SessionManager sessionManager, UserImporter userImporter) {
         this.userService = userService;
+        this.sessionManager = sessionManager;
+        this.userImporter = userImporter;
     }
 
     /**
-     * Handles the request to get all users.
+     * Handles the request to get all users. Users are returned a page at a
+     * time, in ID order; pass the returned {@code nextCursor} as the
+     * {@code cursor} query parameter to get the next page. With
+     * {@code stream=true} every user is written as a single JSON array,
+     * straight from the database to the response.
      *
      * @param ctx the {@link Javalin} context object containing the HTTP request
      * and response.
+     * @throws BadRequestResponse if the cursor or page size is invalid.
      */
     public void findAllUsers(Context ctx) {
-        List<UserResponseDto> users = userService.findAllUsers().stream()
+        if ("true".equalsIgnoreCase(ctx.queryParam("stream"))) {
+            streamAllUsers(ctx);
+            return;
+        }
+
+        int limit = ctx.queryParamAsClass("limit", Integer.class)
+                .check(value -> value > 0 && value <= MAX_PAGE_SIZE, "Limit must be between 1 and " + MAX_PAGE_SIZE + ".")
+                .getOrDefault(DEFAULT_PAGE_SIZE);
+        String cursor = ctx.queryParam("cursor");
+        int afterId;
+        try {
+            afterId = cursor == null ? 0 : CursorCodec.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestResponse("Invalid cursor.");
+        }
+
+        Page<User> page = userService.findUsersPage(afterId, limit);
+        List<UserResponseDto> users = page.getItems().stream()
                 .map(UserResponseDto::fromModel)
                 .collect(Collectors.toList());
+        String nextCursor = page.hasMore() ? CursorCodec.encode(users.get(users.size() - 1).getId()) : null;
+
         ctx.status(HttpStatus.OK);
-        ctx.json(users);
+        ctx.json(new PageResponseDto<>(users, nextCursor));
+    }
+
+    private void streamAllUsers(Context ctx) {
+        ctx.status(HttpStatus.OK);
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(ctx.outputStream())) {
+            generator.writeStartArray();
+            userService.forEachUser(user -> {
+                try {
+                    generator.writeObject(UserResponseDto.fromModel(user));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -83,6 +150,34 @@ public class UserController {
         ctx.result("User has been created successfully.");
     }
 
+    /**
+     * Handles the request to import users in bulk from a CSV or NDJSON
+     * upload. The upload is read as it arrives rather than buffered. Invalid
+     * rows and rows whose email address is taken are skipped and reported
+     * without failing the rest of the import.
+     *
+     * @param ctx the {@link Javalin} context object containing the HTTP request
+     * and response.
+     * @throws BadRequestResponse if the content type is neither CSV nor NDJSON,
+     * or the CSV header lacks a required column.
+     */
+    public void importUsers(Context ctx) {
+        UserImportReader.Format format = UserImportReader.formatOf(ctx.contentType())
+                .orElseThrow(() -> new BadRequestResponse("Content type must be text/csv or application/x-ndjson."));
+
+        UserImportResult result;
+        try (UserImportReader reader = new UserImportReader(ctx.bodyInputStream(), format)) {
+            result = userImporter.importUsers(reader);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestResponse(e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ctx.status(HttpStatus.OK);
+        ctx.json(result);
+    }
+
     /**
      * Handles the request to update an existing user by ID.
      *
@@ -91,7 +186,7 @@ public class UserController {
      */
     public void updateUser(Context ctx) {
         // Only current user of admin can update
-        User currentUser = ctx.sessionAttribute("currentUser");
+        User currentUser = sessionManager.getSignedInUser(ctx);
         int userId = ctx.pathParamAsClass("userId", Integer.class).get();
 
         if (currentUser == null || !(currentUser.getId() == userId || currentUser.getRole() == Role.ADMIN)) {
@@ -117,7 +212,7 @@ public class UserController {
      * and response.
      */
     public void deleteUser(Context ctx) {
-        User currentUser = ctx.sessionAttribute("currentUser");
+        User currentUser = sessionManager.getSignedInUser(ctx);
         int userId = ctx.pathParamAsClass("userId", Integer.class).get();
 
         if (currentUser == null || !(currentUser.getId() == userId || currentUser.getRole() == Role.ADMIN)) {
@@ -0,0 +1,49 @@
+package com.oasisnourish.dao;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.oasisnourish.models.User;
+
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+
+/**
+ * A {@link UserDao} fronted by a local and a shared cache tier. Each tier can
+ * be consulted on its own, so callers can batch the shared tier's read with
+ * their other Redis reads; this node's tier is read with
+ * {@link #findCached(int)}.
+ */
+public interface CachingUserDao extends UserDao {
+
+    /**
+     * Queues a read of the user's shared snapshot on a pipeline.
+     *
+     * @param pipeline the pipeline to queue the read on.
+     * @param id       the ID of the user.
+     * @return the pending snapshot, to pass to {@link #fromShared(Map)} once
+     *         the pipeline is synced, or null if the shared tier is disabled.
+     */
+    Response<Map<String, String>> queueFindShared(AbstractPipeline pipeline, int id);
+
+    /**
+     * Reads a user from a snapshot queued with
+     * {@link #queueFindShared(AbstractPipeline, int)} and caches it on this
+     * node.
+     *
+     * @param snapshot the snapshot fields.
+     * @return an Optional containing the {@link User}, without a password
+     *         hash, or an empty Optional on a miss.
+     */
+    Optional<User> fromShared(Map<String, String> snapshot);
+
+    /**
+     * Looks a user up in the database, bypassing both tiers, and caches the
+     * result.
+     *
+     * @param id the ID of the user.
+     * @return an Optional containing the {@link User}, or an empty Optional if
+     *         no user has this ID.
+     */
+    Optional<User> findInDatabase(int id);
+}
@@ -16,4 +16,19 @@ public interface Consumer {
         void accept(ResultSet rs) throws SQLException;
     }
 
-}
\ No newline at end of file
+    @FunctionalInterface
+    public interface ResultSetMapper<R> {
+        R map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface EntityConsumer<T> {
+        void accept(T entity);
+    }
+
+    @FunctionalInterface
+    public interface BatchConsumer<E> {
+        void accept(PreparedStatement ps, E item) throws SQLException;
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.oasisnourish.dao;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,13 +19,6 @@ public interface Dao<T> {
      */
     Optional<T> find(int id);
 
-    /**
-     * Retrieves all entities of type T from the database.
-     *
-     * @return a List of all entities.
-     */
-    List<T> findAll();
-
     /**
      * Saves a new entity of type T to the database.
      *
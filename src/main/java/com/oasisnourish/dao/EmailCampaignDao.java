@@ -0,0 +1,60 @@
+package com.oasisnourish.dao;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.models.EmailCampaign;
+
+/**
+ * Data Access Object (DAO) interface for bulk email campaigns and their
+ * progress.
+ */
+public interface EmailCampaignDao {
+
+    /**
+     * Saves a new campaign, setting its ID.
+     *
+     * @param campaign the campaign to save.
+     */
+    void save(EmailCampaign campaign);
+
+    /**
+     * Finds a campaign by its ID.
+     *
+     * @param id the ID of the campaign.
+     * @return an Optional containing the campaign if found, or an empty
+     *         Optional if not found.
+     */
+    Optional<EmailCampaign> find(int id);
+
+    /**
+     * Claims the oldest running campaign no node is sending. The claim lapses
+     * at the end of the lease unless it is renewed, so a campaign left by a
+     * node that died is picked up again. Campaigns being claimed by another
+     * node are skipped rather than waited for.
+     *
+     * @param now        the current time.
+     * @param leaseUntil when the claim lapses if it is not renewed.
+     * @return an Optional containing the claimed campaign, or an empty Optional
+     *         if there is none to claim.
+     */
+    Optional<EmailCampaign> claimNext(LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * Records how far a campaign got and renews its claim.
+     *
+     * @param campaign   the campaign, with its last user ID and counts updated.
+     * @param leaseUntil when the claim lapses if it is not renewed again.
+     */
+    void saveProgress(EmailCampaign campaign, LocalDateTime leaseUntil);
+
+    /**
+     * Sets the status of a campaign and releases any claim on it.
+     *
+     * @param id     the ID of the campaign.
+     * @param status the new status.
+     * @param now    the current time.
+     */
+    void updateStatus(int id, CampaignStatus status, LocalDateTime now);
+}
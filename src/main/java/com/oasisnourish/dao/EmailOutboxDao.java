@@ -0,0 +1,90 @@
+package com.oasisnourish.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.oasisnourish.models.OutboxEmail;
+import com.oasisnourish.models.OutboxStats;
+
+/**
+ * Data Access Object (DAO) interface for the durable outbox emails are queued
+ * in before they are sent.
+ */
+public interface EmailOutboxDao {
+
+    /**
+     * Queues an email, setting its ID.
+     *
+     * @param email the pending email to queue.
+     */
+    void save(OutboxEmail email);
+
+    /**
+     * Claims the pending emails that are due, oldest due first, counting an
+     * attempt for each. A claimed email is not due again until the lease ends,
+     * so a node that dies while sending it leaves it to be retried. Emails
+     * claimed by another node are skipped rather than waited for.
+     *
+     * @param now        the current time.
+     * @param leaseUntil when the claim lapses if the email is neither sent nor
+     *                   rescheduled.
+     * @param limit      the maximum number of emails to claim.
+     * @return the claimed emails.
+     */
+    List<OutboxEmail> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+
+    /**
+     * Removes a sent email from the outbox.
+     *
+     * @param id the ID of the email.
+     */
+    void delete(long id);
+
+    /**
+     * Schedules another attempt for an email that could not be sent.
+     *
+     * @param id            the ID of the email.
+     * @param nextAttemptAt when to try again.
+     * @param error         why the attempt failed.
+     */
+    void reschedule(long id, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Hands a claimed email back unsent, giving back the attempt its claim
+     * counted. Nothing changes if the claim has lapsed and the email was
+     * claimed again since.
+     *
+     * @param id            the ID of the email.
+     * @param leaseUntil    the end of the lease the email was claimed with.
+     * @param nextAttemptAt when the email is due again.
+     * @return true if the email was handed back.
+     */
+    boolean release(long id, LocalDateTime leaseUntil, LocalDateTime nextAttemptAt);
+
+    /**
+     * Moves an email that will not be retried to the dead letter state.
+     *
+     * @param id     the ID of the email.
+     * @param error  why the last attempt failed.
+     * @param deadAt when the email was given up on, which its retention is
+     *               counted from.
+     */
+    void markDead(long id, String error, LocalDateTime deadAt);
+
+    /**
+     * Deletes the emails marked dead before the given time. Their bodies hold
+     * confirmation and reset links, so they are not kept forever.
+     *
+     * @param deadBefore the time before which dead emails are deleted.
+     * @return the number of emails deleted.
+     */
+    int deleteDeadBefore(LocalDateTime deadBefore);
+
+    /**
+     * Counts the pending and dead emails and finds the age of the oldest
+     * pending one.
+     *
+     * @return the outbox stats.
+     */
+    OutboxStats findStats();
+}
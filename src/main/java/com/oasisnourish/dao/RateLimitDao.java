@@ -0,0 +1,41 @@
+package com.oasisnourish.dao;
+
+import java.util.List;
+
+public interface RateLimitDao {
+
+    /**
+     * Takes one attempt from the limit of each key that allows it. Keys are
+     * charged independently, so an attempt rejected by one key still counts
+     * against the others.
+     *
+     * @param keys          the keys to charge the attempt to.
+     * @param maxAttempts   the attempts allowed per window, one per key.
+     * @param windowMillis  the length of the window.
+     * @return for each key, 0 if it allowed the attempt, or the milliseconds
+     *         until it will allow the next one.
+     */
+    List<Long> acquire(List<String> keys, List<Integer> maxAttempts, long windowMillis);
+
+    /**
+     * Gives an attempt taken by {@link #acquire(List, List, long)} back to a
+     * key's limit.
+     *
+     * @param key           the key the attempt was charged to.
+     * @param maxAttempts   the attempts allowed per window.
+     * @param windowMillis  the length of the window.
+     */
+    void release(String key, int maxAttempts, long windowMillis);
+
+    /**
+     * Adds to several counters in one round trip, each expiring after its own
+     * time to live.
+     *
+     * @param keys      the counters to add to.
+     * @param amounts   the amount to add to each counter.
+     * @param ttlMillis the time to live of each counter.
+     * @return the new value of each counter.
+     */
+    List<Long> incrementAll(List<String> keys, List<Long> amounts, List<Long> ttlMillis);
+
+}
@@ -0,0 +1,13 @@
+package com.oasisnourish.dao;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenDao {
+
+    void revoke(String tokenId, Instant expires);
+
+    boolean isRevoked(String tokenId);
+
+    List<String> findAllRevoked();
+}
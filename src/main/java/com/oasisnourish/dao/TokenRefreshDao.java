@@ -0,0 +1,30 @@
+package com.oasisnourish.dao;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface TokenRefreshDao {
+
+    /**
+     * Claims the refresh of a token for this node.
+     *
+     * @param refreshTokenId the {@code jti} claim of the refresh token.
+     * @param owner          a value unique to the caller.
+     * @param ttlMillis      how long the claim holds if it is not released.
+     * @return true if the claim was free and is now held by the caller.
+     */
+    boolean tryLock(String refreshTokenId, String owner, long ttlMillis);
+
+    void unlock(String refreshTokenId, String owner);
+
+    /**
+     * Shares the tokens a refresh produced with the other nodes.
+     *
+     * @param refreshTokenId the {@code jti} claim of the refresh token.
+     * @param tokens         the new tokens, by name.
+     * @param ttlMillis      how long the tokens are shared for.
+     */
+    void saveRefreshed(String refreshTokenId, Map<String, String> tokens, long ttlMillis);
+
+    Optional<Map<String, String>> findRefreshed(String refreshTokenId);
+}
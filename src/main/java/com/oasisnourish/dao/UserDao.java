@@ -1,7 +1,12 @@
 package com.oasisnourish.dao;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import com.oasisnourish.dao.Consumer.EntityConsumer;
 import com.oasisnourish.models.User;
 
 /**
@@ -20,10 +25,86 @@ public interface UserDao extends Dao<User> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Looks a user up without querying the database or any other store, for
+     * callers that can do without the user on a miss.
+     *
+     * @param id the ID of the user.
+     * @return an Optional containing the {@link User} if it is held in memory,
+     *         or an empty Optional otherwise.
+     */
+    default Optional<User> findCached(int id) {
+        return Optional.empty();
+    }
+
+    /**
+     * Updates a user. A null password keeps the stored hash, since users
+     * found through a cache carry none.
+     *
+     * @param user the user to update, which must already exist in the
+     *             database.
+     */
+    @Override
+    void update(User user);
+
     /**
      * Verfies a user&apos;s email address (or account).
      * 
      * @param email the email address to verify.
      */
     void verifyEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Finds the users that come after the given ID, in ID order. Uses the
+     * primary key index, so the cost does not grow with the page number.
+     *
+     * @param afterId the ID of the last user already seen, or 0 to start from
+     *                the beginning.
+     * @param limit   the maximum number of users to return.
+     * @return the next users in ID order.
+     */
+    List<User> findAfter(int afterId, int limit);
+
+    /**
+     * Passes every user, in ID order, to the consumer as it is read from the
+     * database.
+     *
+     * @param consumer receives each user.
+     */
+    void forEach(EntityConsumer<User> consumer);
+
+    /**
+     * Passes the users with a verified email address that come after the given
+     * ID, in ID order, to the consumer as they are read from the database.
+     *
+     * @param afterId  the ID of the last user already seen, or 0 to start from
+     *                 the beginning.
+     * @param limit    the maximum number of users to pass.
+     * @param consumer receives each user.
+     */
+    void forEachVerifiedAfter(int afterId, int limit, EntityConsumer<User> consumer);
+
+    /**
+     * Saves several new users in batches. Their IDs are not set.
+     *
+     * @param users the users to save.
+     */
+    void saveAll(List<User> users);
+
+    /**
+     * Bulk loads new users, skipping any whose email address is already
+     * taken. Their IDs are not set.
+     *
+     * @param users the users to load.
+     * @return the number of users saved.
+     */
+    int importAll(Iterator<User> users);
+
+    /**
+     * Finds which of the given email addresses are already taken.
+     *
+     * @param emails the email addresses to look up.
+     * @return the ones that belong to a user.
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+}
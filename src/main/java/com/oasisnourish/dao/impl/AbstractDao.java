@@ -1,21 +1,34 @@
 package com.oasisnourish.dao.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import com.oasisnourish.dao.Consumer.BatchConsumer;
+import com.oasisnourish.dao.Consumer.EntityConsumer;
 import com.oasisnourish.dao.Consumer.PreparedStatementConsumer;
 import com.oasisnourish.dao.Consumer.ResultSetConsumer;
+import com.oasisnourish.dao.Consumer.ResultSetMapper;
 import com.oasisnourish.dao.mappers.EntityRowMapper;
 import com.oasisnourish.db.JdbcConnection;
 import com.oasisnourish.exceptions.DatabaseAccessException;
 
 public abstract class AbstractDao<T> {
+    protected static final int STREAM_FETCH_SIZE = 500;
+    protected static final int BATCH_SIZE = 500;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     protected final JdbcConnection jdbcConnection;
     protected final EntityRowMapper<T> entityRowMapper;
 
@@ -37,13 +50,21 @@ public abstract class AbstractDao<T> {
     }
 
     protected List<T> queryList(String sql, PreparedStatementConsumer consumer) {
-        List<T> result = new ArrayList<>();
+        return queryList(sql, consumer, entityRowMapper::mapToEntity);
+    }
+
+    /**
+     * Runs a query and maps each row with the given mapper rather than the
+     * entity mapper, for queries that select single columns.
+     */
+    protected <R> List<R> queryList(String sql, PreparedStatementConsumer consumer, ResultSetMapper<R> mapper) {
+        List<R> result = new ArrayList<>();
         try (Connection connection = jdbcConnection.getConnection();
                 PreparedStatement ps = connection.prepareStatement(sql)) {
             consumer.accept(ps);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    result.add(entityRowMapper.mapToEntity(rs));
+                    result.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -52,6 +73,55 @@ public abstract class AbstractDao<T> {
         return result;
     }
 
+    /**
+     * Runs a query that returns a single row, such as an aggregate, and maps
+     * that row to a value rather than an entity.
+     */
+    protected <R> R queryValue(String sql, PreparedStatementConsumer consumer, ResultSetMapper<R> mapper) {
+        try (Connection connection = jdbcConnection.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            consumer.accept(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("No row returned.");
+                }
+                return mapper.map(rs);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Database query error", e);
+        }
+    }
+
+    /**
+     * Runs a query and hands each row to the consumer as it is read, without
+     * collecting the results. Rows are fetched from the server
+     * {@link #STREAM_FETCH_SIZE} at a time, so memory use does not grow with
+     * the size of the result.
+     */
+    protected void queryEach(String sql, PreparedStatementConsumer consumer, EntityConsumer<T> entityConsumer) {
+        try (Connection connection = jdbcConnection.getConnection()) {
+            // PostgreSQL only honours the fetch size inside a transaction
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                consumer.accept(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        entityConsumer.accept(entityRowMapper.mapToEntity(rs));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Database query error", e);
+        }
+    }
+
     protected void executeUpdate(String sql, PreparedStatementConsumer consumer, ResultSetConsumer resultSetConsumer) {
         try (Connection connection = jdbcConnection.getConnection();
                 PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -78,4 +148,153 @@ public abstract class AbstractDao<T> {
         }
     }
 
+    /**
+     * Runs an update that may affect any number of rows, including none, such
+     * as a bulk delete.
+     *
+     * @return the number of rows affected.
+     */
+    protected int executeUpdateCount(String sql, PreparedStatementConsumer consumer) {
+        try (Connection connection = jdbcConnection.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            consumer.accept(ps);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Database update error", e);
+        }
+    }
+
+    /**
+     * Runs a statement once per item, sending them to the server in JDBC
+     * batches of {@link #BATCH_SIZE} rather than one round trip each. All of
+     * the items are written in one transaction. With
+     * {@code reWriteBatchedInserts} the driver also folds each batch of
+     * inserts into multi-row inserts.
+     *
+     * @return the number of rows affected, counting a statement the driver
+     *         reports no count for as one row.
+     */
+    protected <E> int executeBatch(String sql, Iterable<E> items, BatchConsumer<E> consumer) {
+        try (Connection connection = jdbcConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int rows = 0;
+                int batched = 0;
+                for (E item : items) {
+                    consumer.accept(ps, item);
+                    ps.addBatch();
+                    if (++batched == BATCH_SIZE) {
+                        rows += countRows(ps.executeBatch());
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    rows += countRows(ps.executeBatch());
+                }
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Database update error", e);
+        }
+    }
+
+    /**
+     * Loads rows with {@code COPY ... FROM STDIN (FORMAT csv)}, which
+     * PostgreSQL takes in far faster than the same rows as inserts. Rows are
+     * sent as the items are read, so the items are never all in memory. The
+     * setup statements, the copy and the finishing statement run in one
+     * transaction on one connection, so rows can be copied into a temporary
+     * staging table and moved into place from there, which lets the finishing
+     * statement skip rows that conflict where the copy alone would fail.
+     *
+     * @param setupSql  statements run before the copy, such as creating a
+     *                  staging table.
+     * @param copySql   the {@code COPY ... FROM STDIN (FORMAT csv)} statement.
+     * @param items     the items to copy.
+     * @param toRow     the column values of an item, in the order of the
+     *                  copy's columns; null values are copied as NULL.
+     * @param finishSql a statement run after the copy, or null.
+     * @return the update count of the finishing statement, or the number of
+     *         rows copied if there is none.
+     */
+    protected <E> long copyIn(List<String> setupSql, String copySql, Iterator<E> items, Function<E, Object[]> toRow,
+            String finishSql) {
+        try (Connection connection = jdbcConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : setupSql) {
+                        statement.execute(sql);
+                    }
+                }
+                long rows;
+                CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+                try {
+                    StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE * 2);
+                    while (items.hasNext()) {
+                        appendCsvRow(buffer, toRow.apply(items.next()));
+                        if (buffer.length() >= COPY_BUFFER_SIZE) {
+                            writeToCopy(copyIn, buffer);
+                        }
+                    }
+                    writeToCopy(copyIn, buffer);
+                    rows = copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+                if (finishSql != null) {
+                    try (Statement statement = connection.createStatement()) {
+                        rows = statement.executeUpdate(finishSql);
+                    }
+                }
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseAccessException("Database update error", e);
+        }
+    }
+
+    private static int countRows(int[] counts) {
+        int rows = 0;
+        for (int count : counts) {
+            rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return rows;
+    }
+
+    private static void appendCsvRow(StringBuilder buffer, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            // Unquoted empty is NULL in CSV copies; anything else is quoted, so "" stays an empty string
+            if (values[i] != null) {
+                buffer.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        buffer.append('\n');
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
 }
@@ -0,0 +1,349 @@
+package com.oasisnourish.dao.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oasisnourish.cache.InvalidationChannel;
+import com.oasisnourish.cache.LocalCache;
+import com.oasisnourish.config.CacheConfig;
+import com.oasisnourish.dao.CachingUserDao;
+import com.oasisnourish.dao.Consumer.EntityConsumer;
+import com.oasisnourish.dao.UserDao;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.metrics.MetricsSource;
+import com.oasisnourish.models.User;
+
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+
+/**
+ * Cache-aside decorator for a {@link UserDao}. Lookups by ID are served from
+ * an in-process LRU tier, then from an optional Redis tier, and only then from
+ * the database. Writes go straight to the database and invalidate both tiers
+ * on every node.
+ * <p>
+ * Neither tier holds password hashes, so users found by ID may come back
+ * without one; {@link #update(User)} then keeps the stored hash. Password
+ * checks look users up by email, which always reads the database.
+ * <p>
+ * A lookup that reads the database while the same user is being invalidated
+ * must not put what it read back into the cache. Locally, a fill is undone if
+ * an invalidation ran meanwhile. In Redis, an invalidation leaves a short-lived
+ * tombstone, and fills only write to a key that does not exist.
+ */
+public class CachingUserDaoImpl implements CachingUserDao, MetricsSource {
+
+    static final String INVALIDATION_CHANNEL = "user-cache-invalidation";
+    static final String TOMBSTONE_FIELD = "tombstone";
+    static final int TOMBSTONE_TTL_SECONDS = 5;
+
+    // Writes the snapshot only if the key, or a tombstone left by an invalidation, is absent
+    private static final String FILL_SCRIPT
+            = "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+            + "redis.call('HSET', KEYS[1], unpack(ARGV, 2)) "
+            + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+            + "return 1";
+
+    private final UserDao userDao;
+    private final RedisConnection redisConnection;
+    private final boolean redisEnabled;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LocalCache<Integer, User> localCache;
+    private final InvalidationChannel invalidationChannel;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+
+    /**
+     * Constructs a {@link CachingUserDaoImpl} in front of the given DAO.
+     *
+     * @param userDao         the DAO that reads from and writes to the database.
+     * @param redisConnection the Redis connection used for the shared tier and
+     *                        for invalidation messages.
+     * @param cacheConfig     the cache sizing and TTL settings.
+     */
+    public CachingUserDaoImpl(UserDao userDao, RedisConnection redisConnection, CacheConfig cacheConfig) {
+        this(userDao, redisConnection, cacheConfig, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link CachingUserDaoImpl} using the given clock to expire
+     * local entries.
+     *
+     * @param userDao         the DAO that reads from and writes to the database.
+     * @param redisConnection the Redis connection used for the shared tier and
+     *                        for invalidation messages.
+     * @param cacheConfig     the cache sizing and TTL settings.
+     * @param clock           the clock used to expire local entries.
+     */
+    public CachingUserDaoImpl(UserDao userDao, RedisConnection redisConnection, CacheConfig cacheConfig, Clock clock) {
+        this.userDao = userDao;
+        this.redisConnection = redisConnection;
+        this.redisEnabled = cacheConfig.isUserCacheRedisEnabled();
+        this.ttl = Duration.ofSeconds(cacheConfig.getUserCacheTtl());
+        this.clock = clock;
+        this.localCache = new LocalCache<>(cacheConfig.getUserCacheMaxSize(), clock);
+        this.invalidationChannel = new InvalidationChannel(redisConnection, INVALIDATION_CHANNEL,
+                message -> invalidateLocal(Integer.valueOf(message)), this::invalidateAllLocal);
+    }
+
+    @Override
+    public Optional<User> find(int id) {
+        Optional<User> cached = findCached(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        if (redisEnabled) {
+            Optional<User> shared = fromShared(redisConnection.getJedis().hgetAll(getCacheKey(id)));
+            if (shared.isPresent()) {
+                return shared;
+            }
+        }
+
+        return findInDatabase(id);
+    }
+
+    @Override
+    public Optional<User> findCached(int id) {
+        return localCache.get(id).map(CachingUserDaoImpl::copy);
+    }
+
+    // Neither tier keeps the password hash
+    private void cacheLocal(User user) {
+        User cached = copy(user);
+        cached.setPassword(null);
+        localCache.put(user.getId(), cached, clock.instant().plus(ttl));
+    }
+
+    @Override
+    public Response<Map<String, String>> queueFindShared(AbstractPipeline pipeline, int id) {
+        return redisEnabled ? pipeline.hgetAll(getCacheKey(id)) : null;
+    }
+
+    @Override
+    public Optional<User> fromShared(Map<String, String> snapshot) {
+        Optional<User> shared = fromCacheFields(snapshot);
+        if (shared.isPresent()) {
+            redisHits.increment();
+            cacheLocal(shared.get());
+        } else {
+            redisMisses.increment();
+        }
+        return shared;
+    }
+
+    @Override
+    public Optional<User> findInDatabase(int id) {
+        long invalidationsBefore = invalidations.get();
+        Optional<User> user = userDao.find(id);
+        user.ifPresent(found -> cache(found, invalidationsBefore));
+        return user;
+    }
+
+    @Override
+    public void save(User user) {
+        userDao.save(user);
+    }
+
+    @Override
+    public void update(User user) {
+        userDao.update(user);
+        invalidate(user.getId());
+    }
+
+    @Override
+    public void delete(int id) {
+        userDao.delete(id);
+        invalidate(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return userDao.findByEmail(email);
+    }
+
+    @Override
+    public void verifyEmail(String email) {
+        userDao.verifyEmail(email);
+        userDao.findByEmail(email).ifPresent(user -> invalidate(user.getId()));
+    }
+
+    @Override
+    public List<User> findAfter(int afterId, int limit) {
+        return userDao.findAfter(afterId, limit);
+    }
+
+    @Override
+    public void forEach(EntityConsumer<User> consumer) {
+        userDao.forEach(consumer);
+    }
+
+    @Override
+    public void forEachVerifiedAfter(int afterId, int limit, EntityConsumer<User> consumer) {
+        userDao.forEachVerifiedAfter(afterId, limit, consumer);
+    }
+
+    @Override
+    public void saveAll(List<User> users) {
+        userDao.saveAll(users);
+    }
+
+    @Override
+    public int importAll(Iterator<User> users) {
+        return userDao.importAll(users);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return userDao.findExistingEmails(emails);
+    }
+
+    /**
+     * Drops a user from every cache tier on every node.
+     *
+     * @param id the ID of the user to drop.
+     */
+    public void invalidate(int id) {
+        invalidateLocal(id);
+        if (redisEnabled) {
+            String key = getCacheKey(id);
+            try (var pipeline = redisConnection.getJedis().pipelined()) {
+                pipeline.del(key);
+                pipeline.hset(key, TOMBSTONE_FIELD, "1");
+                pipeline.expire(key, TOMBSTONE_TTL_SECONDS);
+                pipeline.sync();
+            }
+        }
+        invalidationChannel.publish(String.valueOf(id));
+    }
+
+    private void invalidateLocal(int id) {
+        invalidations.incrementAndGet();
+        localCache.invalidate(id);
+    }
+
+    private void invalidateAllLocal() {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    public void startListening() {
+        invalidationChannel.start();
+    }
+
+    public void stopListening() {
+        invalidationChannel.stop();
+    }
+
+    private void cache(User user, long invalidationsBefore) {
+        cacheLocal(user);
+        // Checked after the put, so an invalidation either sees the entry or is seen here
+        if (invalidations.get() != invalidationsBefore) {
+            localCache.invalidate(user.getId());
+            return;
+        }
+        if (redisEnabled) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toSeconds()));
+            toCacheFields(user).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            redisConnection.getJedis().eval(FILL_SCRIPT, List.of(getCacheKey(user.getId())), args);
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "userCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("local", localCache.getStats());
+        if (redisEnabled) {
+            long hits = redisHits.sum();
+            long lookups = hits + redisMisses.sum();
+            metrics.put("redis", Map.of(
+                    "hits", hits,
+                    "misses", redisMisses.sum(),
+                    "hitRate", lookups == 0 ? 0.0 : (double) hits / lookups));
+        }
+        return metrics;
+    }
+
+    /**
+     * Gets the Redis key under which a user snapshot is cached.
+     *
+     * @param id the ID of the user.
+     * @return the Redis key of the user's snapshot.
+     */
+    static String getCacheKey(int id) {
+        return "user-cache:" + id;
+    }
+
+    /**
+     * Rebuilds a {@link User} from the fields of a cached Redis hash.
+     *
+     * @param fields the hash fields, as returned by HGETALL.
+     * @return an {@link Optional} containing the user, without a password
+     *         hash, or an empty {@link Optional} if the hash was missing or a
+     *         tombstone.
+     */
+    static Optional<User> fromCacheFields(Map<String, String> fields) {
+        if (fields == null || fields.isEmpty() || fields.containsKey(TOMBSTONE_FIELD)) {
+            return Optional.empty();
+        }
+        User user = new User(
+                Integer.parseInt(fields.get("id")),
+                fields.get("name"),
+                fields.get("email"),
+                null,
+                Role.valueOf(fields.get("role")));
+        String emailVerified = fields.get("emailVerified");
+        if (emailVerified != null && !emailVerified.isEmpty()) {
+            user.setEmailVerified(LocalDateTime.parse(emailVerified));
+        }
+        String version = fields.get("version");
+        if (version != null) {
+            user.setVersion(Integer.parseInt(version));
+        }
+        return Optional.of(user);
+    }
+
+    static Map<String, String> toCacheFields(User user) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("id", String.valueOf(user.getId()));
+        fields.put("name", user.getName());
+        fields.put("email", user.getEmail());
+        fields.put("role", user.getRole().name());
+        fields.put("emailVerified", user.getEmailVerified() == null ? "" : user.getEmailVerified().toString());
+        fields.put("version", String.valueOf(user.getVersion()));
+        return fields;
+    }
+
+    // Callers mutate the users they get back, so the cache never hands out its own instances
+    private static User copy(User user) {
+        User copy = new User(user.getId(), user.getName(), user.getEmail(), user.getPassword(), user.getRole());
+        copy.setEmailVerified(user.getEmailVerified());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package com.oasisnourish.dao.impl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.oasisnourish.dao.EmailCampaignDao;
+import com.oasisnourish.dao.mappers.EntityRowMapper;
+import com.oasisnourish.db.JdbcConnection;
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.models.EmailCampaign;
+
+/**
+ * Implementation of the {@link EmailCampaignDao} interface using JDBC, backed
+ * by the {@code email_campaigns} table.
+ */
+public class EmailCampaignDaoImpl extends AbstractDao<EmailCampaign> implements EmailCampaignDao {
+
+    private static final String INSERT_CAMPAIGN = "INSERT INTO email_campaigns (subject, template, variables, status, last_user_id, sent, failed, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String FIND_CAMPAIGN_BY_ID = "SELECT * FROM email_campaigns WHERE id = ?";
+    private static final String CLAIM_NEXT_CAMPAIGN = "UPDATE email_campaigns SET locked_until = ? "
+            + "WHERE id = (SELECT id FROM email_campaigns WHERE status = 'RUNNING' AND (locked_until IS NULL OR locked_until <= ?) "
+            + "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED) RETURNING *";
+    private static final String SAVE_PROGRESS = "UPDATE email_campaigns SET last_user_id = ?, sent = ?, failed = ?, locked_until = ?, updated_at = ? WHERE id = ?";
+    private static final String UPDATE_STATUS = "UPDATE email_campaigns SET status = ?, locked_until = NULL, updated_at = ? WHERE id = ?";
+
+    /**
+     * Constructs an {@link EmailCampaignDaoImpl} with the given database
+     * connection.
+     *
+     * @param jdbcConnection    the JDBC connection to use for database
+     *                          operations.
+     * @param campaignRowMapper the mapper between rows and
+     *                          {@link EmailCampaign}s.
+     */
+    public EmailCampaignDaoImpl(JdbcConnection jdbcConnection, EntityRowMapper<EmailCampaign> campaignRowMapper) {
+        super(jdbcConnection, campaignRowMapper);
+    }
+
+    @Override
+    public void save(EmailCampaign campaign) {
+        executeUpdate(INSERT_CAMPAIGN, ps -> entityRowMapper.mapToRow(ps, campaign, false), rs -> campaign.setId(rs.getInt(1)));
+    }
+
+    @Override
+    public Optional<EmailCampaign> find(int id) {
+        return querySingle(FIND_CAMPAIGN_BY_ID, ps -> ps.setInt(1, id));
+    }
+
+    @Override
+    public Optional<EmailCampaign> claimNext(LocalDateTime now, LocalDateTime leaseUntil) {
+        return querySingle(CLAIM_NEXT_CAMPAIGN, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(leaseUntil));
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+        });
+    }
+
+    @Override
+    public void saveProgress(EmailCampaign campaign, LocalDateTime leaseUntil) {
+        executeUpdate(SAVE_PROGRESS, ps -> {
+            ps.setInt(1, campaign.getLastUserId());
+            ps.setInt(2, campaign.getSent());
+            ps.setInt(3, campaign.getFailed());
+            ps.setTimestamp(4, Timestamp.valueOf(leaseUntil));
+            ps.setTimestamp(5, Timestamp.valueOf(campaign.getUpdatedAt()));
+            ps.setInt(6, campaign.getId());
+        }, null);
+    }
+
+    @Override
+    public void updateStatus(int id, CampaignStatus status, LocalDateTime now) {
+        executeUpdate(UPDATE_STATUS, ps -> {
+            ps.setString(1, status.name());
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            ps.setInt(3, id);
+        }, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.oasisnourish.dao.impl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.oasisnourish.dao.EmailOutboxDao;
+import com.oasisnourish.dao.mappers.EntityRowMapper;
+import com.oasisnourish.db.JdbcConnection;
+import com.oasisnourish.enums.EmailStatus;
+import com.oasisnourish.models.OutboxEmail;
+import com.oasisnourish.models.OutboxStats;
+
+/**
+ * Implementation of the {@link EmailOutboxDao} interface using JDBC, backed by
+ * the {@code email_outbox} table.
+ */
+public class EmailOutboxDaoImpl extends AbstractDao<OutboxEmail> implements EmailOutboxDao {
+
+    private static final String INSERT_EMAIL = "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String CLAIM_DUE_EMAILS = "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ? "
+            + "WHERE id IN (SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? "
+            + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING *";
+    private static final String DELETE_EMAIL_BY_ID = "DELETE FROM email_outbox WHERE id = ?";
+    private static final String RESCHEDULE_EMAIL = "UPDATE email_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String RELEASE_EMAIL = "UPDATE email_outbox SET attempts = attempts - 1, next_attempt_at = ? "
+            + "WHERE id = ? AND status = 'PENDING' AND next_attempt_at = ?";
+    private static final String MARK_EMAIL_DEAD = "UPDATE email_outbox SET status = ?, last_error = ?, dead_at = ? WHERE id = ?";
+    private static final String DELETE_DEAD_EMAILS = "DELETE FROM email_outbox WHERE status = 'DEAD' AND dead_at < ?";
+    private static final String FIND_STATS = "SELECT COUNT(*) FILTER (WHERE status = 'PENDING') AS pending, "
+            + "COUNT(*) FILTER (WHERE status = 'DEAD') AS dead, "
+            + "MIN(created_at) FILTER (WHERE status = 'PENDING') AS oldest_pending FROM email_outbox";
+
+    /**
+     * Constructs an {@link EmailOutboxDaoImpl} with the given database
+     * connection.
+     *
+     * @param jdbcConnection the JDBC connection to use for database operations.
+     * @param emailRowMapper the mapper between rows and {@link OutboxEmail}s.
+     */
+    public EmailOutboxDaoImpl(JdbcConnection jdbcConnection, EntityRowMapper<OutboxEmail> emailRowMapper) {
+        super(jdbcConnection, emailRowMapper);
+    }
+
+    @Override
+    public void save(OutboxEmail email) {
+        executeUpdate(INSERT_EMAIL, ps -> entityRowMapper.mapToRow(ps, email, false), rs -> email.setId(rs.getLong(1)));
+    }
+
+    @Override
+    public List<OutboxEmail> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        return queryList(CLAIM_DUE_EMAILS, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(leaseUntil));
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            ps.setInt(3, limit);
+        });
+    }
+
+    @Override
+    public void delete(long id) {
+        executeUpdate(DELETE_EMAIL_BY_ID, ps -> ps.setLong(1, id), null);
+    }
+
+    @Override
+    public void reschedule(long id, LocalDateTime nextAttemptAt, String error) {
+        executeUpdate(RESCHEDULE_EMAIL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(nextAttemptAt));
+            ps.setString(2, error);
+            ps.setLong(3, id);
+        }, null);
+    }
+
+    @Override
+    public boolean release(long id, LocalDateTime leaseUntil, LocalDateTime nextAttemptAt) {
+        return executeUpdateCount(RELEASE_EMAIL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(nextAttemptAt));
+            ps.setLong(2, id);
+            ps.setTimestamp(3, Timestamp.valueOf(leaseUntil));
+        }) > 0;
+    }
+
+    @Override
+    public void markDead(long id, String error, LocalDateTime deadAt) {
+        executeUpdate(MARK_EMAIL_DEAD, ps -> {
+            ps.setString(1, EmailStatus.DEAD.name());
+            ps.setString(2, error);
+            ps.setTimestamp(3, Timestamp.valueOf(deadAt));
+            ps.setLong(4, id);
+        }, null);
+    }
+
+    @Override
+    public int deleteDeadBefore(LocalDateTime deadBefore) {
+        return executeUpdateCount(DELETE_DEAD_EMAILS, ps -> ps.setTimestamp(1, Timestamp.valueOf(deadBefore)));
+    }
+
+    @Override
+    public OutboxStats findStats() {
+        return queryValue(FIND_STATS, _ -> {
+        }, rs -> {
+            Timestamp oldestPending = rs.getTimestamp("oldest_pending");
+            return new OutboxStats(rs.getLong("pending"), rs.getLong("dead"),
+                    oldestPending == null ? null : oldestPending.toLocalDateTime());
+        });
+    }
+}
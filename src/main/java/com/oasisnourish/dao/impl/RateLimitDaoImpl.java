@@ -0,0 +1,84 @@
+package com.oasisnourish.dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oasisnourish.dao.RateLimitDao;
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.Response;
+
+/**
+ * Rate limits stored in Redis with the generic cell rate algorithm: each key
+ * holds the time its limit is next fully replenished, so one value per key is
+ * enough for a smooth sliding window without storing every attempt. Times are
+ * read from the Redis clock, so every node agrees on them. Every script
+ * touches a single key, so the keys may live on different cluster nodes.
+ */
+public class RateLimitDaoImpl implements RateLimitDao {
+
+    // Charges the attempt only if the key allows it
+    private static final String ACQUIRE_SCRIPT
+            = "local time = redis.call('TIME') "
+            + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+            + "local tat = tonumber(redis.call('GET', KEYS[1])) or now "
+            + "if tat < now then tat = now end "
+            + "local nextTat = tat + tonumber(ARGV[2]) "
+            + "local wait = nextTat - now - tonumber(ARGV[1]) "
+            + "if wait > 0 then return wait end "
+            + "redis.call('SET', KEYS[1], nextTat, 'PX', nextTat - now) "
+            + "return 0";
+
+    // Gives back one attempt, never more than the key has used
+    private static final String RELEASE_SCRIPT
+            = "local tat = tonumber(redis.call('GET', KEYS[1])) "
+            + "if not tat then return 0 end "
+            + "local time = redis.call('TIME') "
+            + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+            + "tat = tat - tonumber(ARGV[1]) "
+            + "if tat <= now then redis.call('DEL', KEYS[1]) return 0 end "
+            + "redis.call('SET', KEYS[1], tat, 'PX', tat - now) "
+            + "return 1";
+
+    private final RedisConnection redisConnection;
+
+    public RateLimitDaoImpl(RedisConnection redisConnection) {
+        this.redisConnection = redisConnection;
+    }
+
+    @Override
+    public List<Long> acquire(List<String> keys, List<Integer> maxAttempts, long windowMillis) {
+        List<Response<Object>> waits = new ArrayList<>(keys.size());
+        try (var pipeline = redisConnection.getJedis().pipelined()) {
+            for (int i = 0; i < keys.size(); i++) {
+                waits.add(pipeline.eval(ACQUIRE_SCRIPT, List.of(keys.get(i)),
+                        List.of(String.valueOf(windowMillis), getSpacing(maxAttempts.get(i), windowMillis))));
+            }
+            pipeline.sync();
+        }
+        return waits.stream().map(wait -> (Long) wait.get()).toList();
+    }
+
+    @Override
+    public void release(String key, int maxAttempts, long windowMillis) {
+        redisConnection.getJedis().eval(RELEASE_SCRIPT, List.of(key), List.of(getSpacing(maxAttempts, windowMillis)));
+    }
+
+    @Override
+    public List<Long> incrementAll(List<String> keys, List<Long> amounts, List<Long> ttlMillis) {
+        List<Response<Long>> counts = new ArrayList<>(keys.size());
+        try (var pipeline = redisConnection.getJedis().pipelined()) {
+            for (int i = 0; i < keys.size(); i++) {
+                counts.add(pipeline.incrBy(keys.get(i), amounts.get(i)));
+                pipeline.pexpire(keys.get(i), ttlMillis.get(i));
+            }
+            pipeline.sync();
+        }
+        return counts.stream().map(Response::get).toList();
+    }
+
+    // The spacing between attempts that keeps a key at its limit
+    private static String getSpacing(int maxAttempts, long windowMillis) {
+        return String.valueOf(Math.max(windowMillis / maxAttempts, 1));
+    }
+}
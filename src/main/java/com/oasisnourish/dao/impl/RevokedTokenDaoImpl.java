@@ -0,0 +1,44 @@
+package com.oasisnourish.dao.impl;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.oasisnourish.dao.RevokedTokenDao;
+import com.oasisnourish.db.RedisConnection;
+
+/**
+ * Redis implementation of {@link RevokedTokenDao}. Revoked token IDs are kept
+ * in a single sorted set scored by the token's expiry, so entries can be
+ * dropped once the token would have been rejected as expired anyway.
+ */
+public class RevokedTokenDaoImpl implements RevokedTokenDao {
+
+    static final String REVOKED_TOKENS_KEY = "revoked-jwt";
+
+    private final RedisConnection redisConnection;
+
+    public RevokedTokenDaoImpl(RedisConnection redisConnection) {
+        this.redisConnection = redisConnection;
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expires) {
+        if (!expires.isAfter(Instant.now())) {
+            return; // Token has already expired
+        }
+        redisConnection.getJedis().zadd(REVOKED_TOKENS_KEY, expires.toEpochMilli(), tokenId);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Double expires = redisConnection.getJedis().zscore(REVOKED_TOKENS_KEY, tokenId);
+        return expires != null && expires > Instant.now().toEpochMilli();
+    }
+
+    @Override
+    public List<String> findAllRevoked() {
+        var jedis = redisConnection.getJedis();
+        jedis.zremrangeByScore(REVOKED_TOKENS_KEY, "-inf", String.valueOf(Instant.now().toEpochMilli()));
+        return jedis.zrange(REVOKED_TOKENS_KEY, 0, -1);
+    }
+}
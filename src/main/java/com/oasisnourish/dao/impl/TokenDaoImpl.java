@@ -4,8 +4,8 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 import com.oasisnourish.dao.TokenDao;
 import com.oasisnourish.db.RedisConnection;
@@ -14,8 +14,15 @@ import com.oasisnourish.models.AuthToken;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.Token;
 
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.args.ExpiryOption;
 
+/**
+ * Redis implementation of {@link TokenDao}. Each token is stored as a hash
+ * under {@code token:<token>} and referenced from a per-user sorted set
+ * {@code user:<userId>:tokens} scored by the token's expiry, so tokens can be
+ * looked up by user without scanning the keyspace.
+ */
 public class TokenDaoImpl<T extends Token> implements TokenDao<T> {
 
     private final RedisConnection redisConnection;
@@ -34,58 +41,98 @@ public class TokenDaoImpl<T extends Token> implements TokenDao<T> {
             return; // Token has already expired
         }
 
-        var jedis = redisConnection.getJedis();
         String key = getKey(tokenDetails.getToken());
-        jedis.hset(key, "token", tokenDetails.getToken());
-        jedis.hset(key, "tokenCategory", tokenDetails.getTokenCategory().getCategory());
-        jedis.hset(key, "tokenType", tokenDetails.getTokenType().getType());
-        jedis.hset(key, "tokenVersion", String.valueOf(tokenDetails.getTokenVersion()));
-        jedis.hset(key, "expires", String.valueOf(tokenDetails.getExpires()));
-        jedis.hset(key, "userId", String.valueOf(tokenDetails.getUserId()));
-        jedis.expire(key, ttl.toSeconds());
+        String indexKey = getUserIndexKey(tokenDetails.getUserId());
+        Map<String, String> fields = Map.of(
+                "token", tokenDetails.getToken(),
+                "tokenCategory", tokenDetails.getTokenCategory().getCategory(),
+                "tokenType", tokenDetails.getTokenType().getType(),
+                "tokenVersion", String.valueOf(tokenDetails.getTokenVersion()),
+                "expires", String.valueOf(tokenDetails.getExpires()),
+                "userId", String.valueOf(tokenDetails.getUserId()));
+
+        // Write the hash, its TTL and the user index in a single round-trip
+        try (var pipeline = redisConnection.getJedis().pipelined()) {
+            pipeline.hset(key, fields);
+            pipeline.expire(key, ttl.toSeconds());
+            // The index lives as long as its longest-lived token
+            pipeline.zadd(indexKey, tokenDetails.getExpires().toEpochMilli(), tokenDetails.getToken());
+            pipeline.expire(indexKey, ttl.toSeconds(), ExpiryOption.NX);
+            pipeline.expire(indexKey, ttl.toSeconds(), ExpiryOption.GT);
+            pipeline.sync();
+        }
     }
 
     @Override
     public Optional<T> findToken(String token) {
-        var jedis = redisConnection.getJedis();
-
-        String key = getKey(token);
-        if (jedis.exists(key)) {
-            return buildTokenFromRedis(key, jedis);
-        } else {
+        Map<String, String> fields = redisConnection.getJedis().hgetAll(getKey(token));
+        if (fields == null || fields.isEmpty()) {
             return Optional.empty();
         }
+        return buildToken(fields);
     }
 
     @Override
     public void deleteToken(String token) {
-        redisConnection.getJedis().del(getKey(token));
+        var jedis = redisConnection.getJedis();
+        String key = getKey(token);
+
+        // Read the owner and drop the hash in one round-trip; the index entry needs the owner
+        Response<String> userId;
+        try (var pipeline = jedis.pipelined()) {
+            userId = pipeline.hget(key, "userId");
+            pipeline.del(key);
+            pipeline.sync();
+        }
+        if (userId.get() != null) {
+            jedis.zrem(getUserIndexKey(Integer.parseInt(userId.get())), token);
+        }
     }
 
     @Override
     public List<T> findTokensByUserId(int userId) {
         var jedis = redisConnection.getJedis();
+        String indexKey = getUserIndexKey(userId);
+
+        // Drop index entries whose tokens have already expired
+        jedis.zremrangeByScore(indexKey, "-inf", String.valueOf(Instant.now().toEpochMilli()));
+        List<String> indexedTokens = jedis.zrange(indexKey, 0, -1);
+        if (indexedTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Response<Map<String, String>>> responses = new ArrayList<>(indexedTokens.size());
+        try (var pipeline = jedis.pipelined()) {
+            for (String indexedToken : indexedTokens) {
+                responses.add(pipeline.hgetAll(getKey(indexedToken)));
+            }
+            pipeline.sync();
+        }
 
         List<T> tokens = new ArrayList<>();
-        Set<String> keys = jedis.keys("token:*");
-        for (String key : keys) {
-            if (userIdMatches(jedis, key, userId)) {
-                buildTokenFromRedis(key, jedis).ifPresent((tokenObj) -> {
-                    tokens.add(tokenObj);
-                });
+        for (int i = 0; i < indexedTokens.size(); i++) {
+            Map<String, String> fields = responses.get(i).get();
+            if (fields == null || fields.isEmpty()) {
+                // Token was removed without its index entry being cleaned up
+                jedis.zrem(indexKey, indexedTokens.get(i));
+                continue;
             }
+            buildToken(fields).ifPresent(tokens::add);
         }
         return tokens;
     }
 
-    private Optional<T> buildTokenFromRedis(String key, JedisPooled jedis) {
-        String token = jedis.hget(key, "token");
-        String tokenCategoryStr = jedis.hget(key, "tokenCategory");
-        String tokenTypeStr = jedis.hget(key, "tokenType");
-        long tokenVersion = Long.parseLong(jedis.hget(key, "tokenVersion"));
-        Instant expires = Instant.parse(jedis.hget(key, "expires"));
-        int userId = Integer.parseInt(jedis.hget(key, "userId"));
+    private Optional<T> buildToken(Map<String, String> fields) {
+        return buildToken(
+                fields.get("token"),
+                fields.get("tokenCategory"),
+                fields.get("tokenType"),
+                Long.parseLong(fields.get("tokenVersion")),
+                Instant.parse(fields.get("expires")),
+                Integer.parseInt(fields.get("userId")));
+    }
 
+    private Optional<T> buildToken(String token, String tokenCategoryStr, String tokenTypeStr, long tokenVersion, Instant expires, int userId) {
         Tokens.Category tokenCategory = Tokens.Category.valueOf(tokenCategoryStr.toUpperCase());
 
         Token tokenObj = switch (tokenCategory) {
@@ -101,11 +148,17 @@ public class TokenDaoImpl<T extends Token> implements TokenDao<T> {
         return Optional.empty();
     }
 
-    private boolean userIdMatches(JedisPooled jedis, String key, int userId) {
-        return Integer.parseInt(jedis.hget(key, "userId")) == userId;
+    /**
+     * Gets the Redis key under which a token is stored.
+     *
+     * @param token the raw token string.
+     * @return the Redis key of the token.
+     */
+    public static String getKey(String token) {
+        return "token:" + token;
     }
 
-    private String getKey(String token) {
-        return "token:" + token;
+    private String getUserIndexKey(int userId) {
+        return "user:" + userId + ":tokens";
     }
 }
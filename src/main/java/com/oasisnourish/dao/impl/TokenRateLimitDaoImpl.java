@@ -1,10 +1,23 @@
 package com.oasisnourish.dao.impl;
 
+import java.util.List;
+
 import com.oasisnourish.dao.TokenRateLimitDao;
 import com.oasisnourish.db.RedisConnection;
 
 public class TokenRateLimitDaoImpl implements TokenRateLimitDao {
 
+    // Initialises the counter if it is missing and returns its value atomically
+    private static final String FIND_OR_INIT_SCRIPT
+            = "redis.call('SET', KEYS[1], ARGV[1], 'NX') "
+            + "return tonumber(redis.call('GET', KEYS[1]))";
+
+    // Increments the counter and restarts its window in one atomic step
+    private static final String INCREMENT_SCRIPT
+            = "local count = redis.call('INCR', KEYS[1]) "
+            + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+            + "return count";
+
     private final RedisConnection redisConnection;
 
     public TokenRateLimitDaoImpl(RedisConnection redisConnection) {
@@ -13,25 +26,12 @@ public class TokenRateLimitDaoImpl implements TokenRateLimitDao {
 
     @Override
     public long find(int userId) {
-        String key = getKey(userId);
-        var jedis = redisConnection.getJedis();
-
-        if (!jedis.exists(key)) {
-            jedis.set(key, "1");
-        }
-        return Long.parseLong(jedis.get(key));
+        return (Long) redisConnection.getJedis().eval(FIND_OR_INIT_SCRIPT, List.of(getKey(userId)), List.of("1"));
     }
 
     @Override
     public long increment(int userId, int expires) {
-        var jedis = redisConnection.getJedis();
-
-        String key = getKey(userId);
-        if (!jedis.exists(key)) {
-            jedis.set(key, "0");
-        }
-        jedis.expire(key, expires);
-        return jedis.incr(key);
+        return (Long) redisConnection.getJedis().eval(INCREMENT_SCRIPT, List.of(getKey(userId)), List.of(String.valueOf(expires)));
     }
 
     @Override
@@ -0,0 +1,65 @@
+package com.oasisnourish.dao.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.oasisnourish.dao.TokenRefreshDao;
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * Redis implementation of {@link TokenRefreshDao}. The claim on a refresh is a
+ * plain key under {@code jwt-refresh-lock:<jti>} holding its owner, and the
+ * refreshed tokens are a hash under {@code jwt-refresh:<jti>}.
+ */
+public class TokenRefreshDaoImpl implements TokenRefreshDao {
+
+    // Only the owner may release the claim, in case it expired and was taken by another node
+    private static final String UNLOCK_SCRIPT
+            = "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "  return redis.call('DEL', KEYS[1]) "
+            + "end "
+            + "return 0";
+
+    private final RedisConnection redisConnection;
+
+    public TokenRefreshDaoImpl(RedisConnection redisConnection) {
+        this.redisConnection = redisConnection;
+    }
+
+    @Override
+    public boolean tryLock(String refreshTokenId, String owner, long ttlMillis) {
+        return "OK".equals(redisConnection.getJedis().set(getLockKey(refreshTokenId), owner, SetParams.setParams().nx().px(ttlMillis)));
+    }
+
+    @Override
+    public void unlock(String refreshTokenId, String owner) {
+        redisConnection.getJedis().eval(UNLOCK_SCRIPT, List.of(getLockKey(refreshTokenId)), List.of(owner));
+    }
+
+    @Override
+    public void saveRefreshed(String refreshTokenId, Map<String, String> tokens, long ttlMillis) {
+        String key = getKey(refreshTokenId);
+        try (var pipeline = redisConnection.getJedis().pipelined()) {
+            pipeline.hset(key, tokens);
+            pipeline.pexpire(key, ttlMillis);
+            pipeline.sync();
+        }
+    }
+
+    @Override
+    public Optional<Map<String, String>> findRefreshed(String refreshTokenId) {
+        Map<String, String> tokens = redisConnection.getJedis().hgetAll(getKey(refreshTokenId));
+        return tokens == null || tokens.isEmpty() ? Optional.empty() : Optional.of(tokens);
+    }
+
+    static String getKey(String refreshTokenId) {
+        return "jwt-refresh:" + refreshTokenId;
+    }
+
+    static String getLockKey(String refreshTokenId) {
+        return "jwt-refresh-lock:" + refreshTokenId;
+    }
+}
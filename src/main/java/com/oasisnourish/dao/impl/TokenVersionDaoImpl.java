@@ -1,11 +1,18 @@
 package com.oasisnourish.dao.impl;
 
+import java.util.List;
+
 import com.oasisnourish.dao.TokenVersionDao;
 import com.oasisnourish.db.RedisConnection;
 import com.oasisnourish.enums.Tokens;
 
 public class TokenVersionDaoImpl implements TokenVersionDao {
 
+    // Initialises the counter if it is missing and returns its value atomically
+    private static final String FIND_OR_INIT_SCRIPT
+            = "redis.call('SET', KEYS[1], ARGV[1], 'NX') "
+            + "return tonumber(redis.call('GET', KEYS[1]))";
+
     private final RedisConnection redisConnection;
 
     public TokenVersionDaoImpl(RedisConnection redisConnection) {
@@ -15,26 +22,24 @@ public class TokenVersionDaoImpl implements TokenVersionDao {
     @Override
     public long find(int userId, Tokens.Category tokenCategory, Tokens.Type tokenType) {
         String key = getKey(userId, tokenCategory, tokenType);
-        var jedis = redisConnection.getJedis();
-
-        if (!jedis.exists(key)) {
-            jedis.set(key, "1");
-        }
-        return Long.parseLong(jedis.get(key));
+        return (Long) redisConnection.getJedis().eval(FIND_OR_INIT_SCRIPT, List.of(key), List.of("1"));
     }
 
     @Override
     public long increment(int userId, Tokens.Category tokenCategory, Tokens.Type tokenType) {
-        String key = getKey(userId, tokenCategory, tokenType);
-        var jedis = redisConnection.getJedis();
-
-        if (!jedis.exists(key)) {
-            jedis.set(key, "0");
-        }
-        return jedis.incr(key);
+        // INCR treats a missing key as 0, so no separate initialisation is needed
+        return redisConnection.getJedis().incr(getKey(userId, tokenCategory, tokenType));
     }
 
-    private String getKey(int userId, Tokens.Category tokenCategory, Tokens.Type tokenType) {
+    /**
+     * Gets the Redis key of a user's current version for a token type.
+     *
+     * @param userId        the ID of the user.
+     * @param tokenCategory the category of the token.
+     * @param tokenType     the type of the token.
+     * @return the Redis key of the version counter.
+     */
+    public static String getKey(int userId, Tokens.Category tokenCategory, Tokens.Type tokenType) {
         return "user:" + userId + ":token-category:" + tokenCategory.getCategory() + ":token-type:" + tokenType.getType();
     }
 }
@@ -2,9 +2,14 @@ package com.oasisnourish.dao.impl;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import com.oasisnourish.dao.Consumer.EntityConsumer;
 import com.oasisnourish.dao.UserDao;
 import com.oasisnourish.dao.mappers.EntityRowMapper;
 import com.oasisnourish.db.JdbcConnection;
@@ -18,12 +23,18 @@ import com.oasisnourish.models.User;
 public class UserDaoImpl extends AbstractDao<User> implements UserDao {
 
     private static final String FIND_USER_BY_ID = "SELECT * FROM users WHERE id = ?";
-    private static final String FIND_ALL_USERS = "SELECT * FROM users";
     private static final String INSERT_USER = "INSERT INTO users (name, email, password, role, email_verified) VALUES (?, ?, ?, ?, ?)";
-    private static final String UPDATE_USER = "UPDATE users SET name = ?, email = ?, password = ?, role = ?, email_verified = ? WHERE id = ?";
+    private static final String UPDATE_USER = "UPDATE users SET name = ?, email = ?, password = COALESCE(?, password), role = ?, email_verified = ?, version = version + 1 WHERE id = ?";
     private static final String DELETE_USER_BY_ID = "DELETE FROM users WHERE id = ?";
     private static final String FIND_USER_BY_EMAIL = "SELECT * FROM users WHERE email = ?";
-    private static final String VERIFY_EMAIL = "UPDATE users SET role = ?, email_verified = ? WHERE email = ?";
+    private static final String VERIFY_EMAIL = "UPDATE users SET role = ?, email_verified = ?, version = version + 1 WHERE email = ?";
+    private static final String FIND_USERS_AFTER_ID = "SELECT * FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String FIND_ALL_USERS_ORDERED = "SELECT * FROM users ORDER BY id";
+    private static final String FIND_VERIFIED_USERS_AFTER_ID = "SELECT * FROM users WHERE id > ? AND email_verified IS NOT NULL ORDER BY id LIMIT ?";
+    private static final String CREATE_IMPORT_TABLE = "CREATE TEMPORARY TABLE users_import (name VARCHAR(255), email VARCHAR(255), password VARCHAR(255), role VARCHAR(50), email_verified TIMESTAMP) ON COMMIT DROP";
+    private static final String COPY_IMPORTED_USERS = "COPY users_import (name, email, password, role, email_verified) FROM STDIN (FORMAT csv)";
+    private static final String MOVE_IMPORTED_USERS = "INSERT INTO users (name, email, password, role, email_verified) SELECT name, email, password, role, email_verified FROM users_import ON CONFLICT (email) DO NOTHING";
+    private static final String FIND_EXISTING_EMAILS = "SELECT email FROM users WHERE email = ANY(?)";
 
     /**
      * Constructs a {@link UserDaoImpl} with the given database connection.
@@ -39,12 +50,6 @@ public class UserDaoImpl extends AbstractDao<User> implements UserDao {
         return querySingle(FIND_USER_BY_ID, ps -> ps.setInt(1, id));
     }
 
-    @Override
-    public List<User> findAll() {
-        return queryList(FIND_ALL_USERS, _ -> {
-        });
-    }
-
     @Override
     public void save(User user) {
         executeUpdate(INSERT_USER, ps -> entityRowMapper.mapToRow(ps, user, false), rs -> user.setId(rs.getInt(1)));
@@ -73,4 +78,54 @@ public class UserDaoImpl extends AbstractDao<User> implements UserDao {
             ps.setString(3, email);
         }, null);
     }
+
+    @Override
+    public List<User> findAfter(int afterId, int limit) {
+        return queryList(FIND_USERS_AFTER_ID, ps -> {
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+        });
+    }
+
+    @Override
+    public void forEach(EntityConsumer<User> consumer) {
+        queryEach(FIND_ALL_USERS_ORDERED, _ -> {
+        }, consumer);
+    }
+
+    @Override
+    public void saveAll(List<User> users) {
+        executeBatch(INSERT_USER, users, (ps, user) -> entityRowMapper.mapToRow(ps, user, false));
+    }
+
+    /**
+     * Copies the users into a staging table, then moves them into
+     * {@code users}, where a taken email address skips the user rather than
+     * failing the whole copy.
+     */
+    @Override
+    public int importAll(Iterator<User> users) {
+        return (int) copyIn(List.of(CREATE_IMPORT_TABLE), COPY_IMPORTED_USERS, users, user -> new Object[]{
+            user.getName(),
+            user.getEmail(),
+            user.getPassword(),
+            user.getRole().name(),
+            user.getEmailVerified()
+        }, MOVE_IMPORTED_USERS);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return new HashSet<>(queryList(FIND_EXISTING_EMAILS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", emails.toArray())),
+                rs -> rs.getString("email")));
+    }
+
+    @Override
+    public void forEachVerifiedAfter(int afterId, int limit, EntityConsumer<User> consumer) {
+        queryEach(FIND_VERIFIED_USERS_AFTER_ID, ps -> {
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+        }, consumer);
+    }
 }
@@ -0,0 +1,65 @@
+package com.oasisnourish.dao.mappers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.models.EmailCampaign;
+
+/**
+ * Maps campaigns to and from rows, storing the template variables as a JSON
+ * object.
+ */
+public class EmailCampaignRowMapper implements EntityRowMapper<EmailCampaign> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public void mapToRow(PreparedStatement statement, EmailCampaign campaign, boolean includeId) throws SQLException {
+        statement.setString(1, campaign.getSubject());
+        statement.setString(2, campaign.getTemplate());
+        try {
+            statement.setString(3, OBJECT_MAPPER.writeValueAsString(campaign.getVariables()));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Could not write campaign variables", e);
+        }
+        statement.setString(4, campaign.getStatus().name());
+        statement.setInt(5, campaign.getLastUserId());
+        statement.setInt(6, campaign.getSent());
+        statement.setInt(7, campaign.getFailed());
+        statement.setTimestamp(8, Timestamp.valueOf(campaign.getCreatedAt()));
+        statement.setTimestamp(9, Timestamp.valueOf(campaign.getUpdatedAt()));
+
+        if (includeId) {
+            statement.setInt(10, campaign.getId());
+        }
+    }
+
+    @Override
+    public EmailCampaign mapToEntity(ResultSet resultSet) throws SQLException {
+        EmailCampaign campaign = new EmailCampaign();
+        campaign.setId(resultSet.getInt("id"));
+        campaign.setSubject(resultSet.getString("subject"));
+        campaign.setTemplate(resultSet.getString("template"));
+        try {
+            campaign.setVariables(OBJECT_MAPPER.readValue(resultSet.getString("variables"), VARIABLES_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Could not read campaign variables", e);
+        }
+        campaign.setStatus(CampaignStatus.valueOf(resultSet.getString("status")));
+        campaign.setLastUserId(resultSet.getInt("last_user_id"));
+        campaign.setSent(resultSet.getInt("sent"));
+        campaign.setFailed(resultSet.getInt("failed"));
+        campaign.setCreatedAt(resultSet.getTimestamp("created_at").toLocalDateTime());
+        campaign.setUpdatedAt(resultSet.getTimestamp("updated_at").toLocalDateTime());
+        return campaign;
+    }
+}
@@ -0,0 +1,42 @@
+package com.oasisnourish.dao.mappers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import com.oasisnourish.enums.EmailStatus;
+import com.oasisnourish.models.OutboxEmail;
+
+public class OutboxEmailRowMapper implements EntityRowMapper<OutboxEmail> {
+
+    @Override
+    public void mapToRow(PreparedStatement statement, OutboxEmail email, boolean includeId) throws SQLException {
+        statement.setString(1, email.getRecipient());
+        statement.setString(2, email.getSubject());
+        statement.setString(3, email.getBody());
+        statement.setString(4, email.getStatus().name());
+        statement.setInt(5, email.getAttempts());
+        statement.setTimestamp(6, Timestamp.valueOf(email.getNextAttemptAt()));
+        statement.setTimestamp(7, Timestamp.valueOf(email.getCreatedAt()));
+
+        if (includeId) {
+            statement.setLong(8, email.getId());
+        }
+    }
+
+    @Override
+    public OutboxEmail mapToEntity(ResultSet resultSet) throws SQLException {
+        OutboxEmail email = new OutboxEmail();
+        email.setId(resultSet.getLong("id"));
+        email.setRecipient(resultSet.getString("recipient"));
+        email.setSubject(resultSet.getString("subject"));
+        email.setBody(resultSet.getString("body"));
+        email.setStatus(EmailStatus.valueOf(resultSet.getString("status")));
+        email.setAttempts(resultSet.getInt("attempts"));
+        email.setNextAttemptAt(resultSet.getTimestamp("next_attempt_at").toLocalDateTime());
+        email.setCreatedAt(resultSet.getTimestamp("created_at").toLocalDateTime());
+        email.setLastError(resultSet.getString("last_error"));
+        return email;
+    }
+}
@@ -31,6 +31,7 @@ public class UserRowMapper implements EntityRowMapper<User> {
         user.setEmail(resultSet.getString("email"));
         user.setPassword(resultSet.getString("password"));
         user.setRole(Role.valueOf(resultSet.getString("role")));
+        user.setVersion(resultSet.getInt("version"));
 
         Timestamp emailVerifiedTs = resultSet.getTimestamp("email_verified");
         if (emailVerifiedTs != null) {
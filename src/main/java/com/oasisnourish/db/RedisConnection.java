@@ -1,6 +1,6 @@
 package com.oasisnourish.db;
 
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 /**
  * Interface for Redis connection handling.
@@ -9,9 +9,11 @@ import redis.clients.jedis.JedisPooled;
 public interface RedisConnection {
 
     /**
-     * Retrieves a {@link JedisPooled} instance to interact with Redis.
+     * Retrieves a {@link UnifiedJedis} instance to interact with Redis. The
+     * concrete client depends on the deployment: a pooled client for a single
+     * server, or a cluster or sentinel client.
      *
-     * @return a {@link JedisPooled} instance for Redis operations.
+     * @return a {@link UnifiedJedis} instance for Redis operations.
      */
-    JedisPooled getJedis();
+    UnifiedJedis getJedis();
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.oasisnourish.db.impl;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
 
 import com.oasisnourish.config.EnvConfig;
 import com.oasisnourish.config.JdbcDbConfig;
 import com.oasisnourish.db.JdbcConnection;
+import com.oasisnourish.metrics.HikariPoolMetrics;
+import com.oasisnourish.metrics.MetricsSource;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -16,9 +19,10 @@ import io.github.cdimascio.dotenv.Dotenv;
  * connections. This class handles the setup and retrieval of database
  * connections.
  */
-public class JdbcConnectionImpl implements JdbcConnection {
+public class JdbcConnectionImpl implements JdbcConnection, MetricsSource {
 
     private static final Dotenv dotenv = EnvConfig.getDotenv();
+    private static final HikariPoolMetrics poolMetrics = new HikariPoolMetrics();
     private static final HikariDataSource dataSource;
 
     static {
@@ -39,6 +43,20 @@ public class JdbcConnectionImpl implements JdbcConnection {
         config.setJdbcUrl(jdbcDbConfig.getDbUrl());
         config.setUsername(jdbcDbConfig.getDbUsername());
         config.setPassword(jdbcDbConfig.getDbPassword());
+
+        config.setMaximumPoolSize(jdbcDbConfig.getPoolMaxSize());
+        config.setMinimumIdle(jdbcDbConfig.getPoolMinIdle());
+        config.setConnectionTimeout(jdbcDbConfig.getConnectionTimeout());
+        config.setIdleTimeout(jdbcDbConfig.getIdleTimeout());
+        config.setMaxLifetime(jdbcDbConfig.getMaxLifetime());
+        config.setLeakDetectionThreshold(jdbcDbConfig.getLeakDetectionThreshold());
+
+        // PgJDBC driver settings
+        config.addDataSourceProperty("prepareThreshold", jdbcDbConfig.getPrepareThreshold());
+        config.addDataSourceProperty("preparedStatementCacheQueries", jdbcDbConfig.getPreparedStatementCacheQueries());
+        config.addDataSourceProperty("reWriteBatchedInserts", jdbcDbConfig.isReWriteBatchedInserts());
+
+        config.setMetricsTrackerFactory(poolMetrics);
         return new HikariDataSource(config);
     }
 
@@ -46,4 +64,14 @@ public class JdbcConnectionImpl implements JdbcConnection {
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
+
+    @Override
+    public String getMetricsName() {
+        return poolMetrics.getMetricsName();
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        return poolMetrics.getMetrics();
+    }
 }
@@ -1,20 +1,42 @@
 package com.oasisnourish.db.impl;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
 import com.oasisnourish.config.EnvConfig;
 import com.oasisnourish.config.RedisDbConfig;
 import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.metrics.LatencyHistogram;
+import com.oasisnourish.metrics.MetricsSource;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import redis.clients.jedis.ConnectionFactory;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisSentineled;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.providers.PooledConnectionProvider;
 
 /**
  * Implementation of {@link RedisConnection} using Jedis for Redis connections.
- * This class handles the setup and retrieval of Redis connections.
+ * This class handles the setup and retrieval of Redis connections in
+ * standalone, cluster or sentinel mode.
  */
-public class RedisConnectionImpl implements RedisConnection {
+public class RedisConnectionImpl implements RedisConnection, MetricsSource {
 
     private static final Dotenv dotenv = EnvConfig.getDotenv();
-    private static final JedisPooled jedis;
+    private static final RedisDbConfig redisDbConfig = new RedisDbConfig(dotenv);
+    private static final LatencyHistogram commandTime = new LatencyHistogram();
+    private static ConnectionPool pool;
+    private static final UnifiedJedis jedis;
 
     static {
         jedis = setUpRedisConnection();
@@ -23,16 +45,81 @@ public class RedisConnectionImpl implements RedisConnection {
     /**
      * Sets up the Redis connection using Jedis configuration.
      *
-     * @return a JedisPooled instance configured for Redis.
-     * @throws IllegalStateException if Redis environment variables are not set.
+     * @return a {@link UnifiedJedis} instance configured for the Redis mode.
+     * @throws IllegalArgumentException if Redis environment variables are
+     * invalid.
      */
-    private static JedisPooled setUpRedisConnection() {
-        var redisDbConfig = new RedisDbConfig(dotenv);
-        return new JedisPooled(redisDbConfig.getHost(), redisDbConfig.getPort());
+    private static UnifiedJedis setUpRedisConnection() {
+        JedisClientConfig clientConfig = DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(redisDbConfig.getConnectionTimeout())
+                .socketTimeoutMillis(redisDbConfig.getSocketTimeout())
+                .password(redisDbConfig.getPassword())
+                .build();
+
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setMaxTotal(redisDbConfig.getPoolMaxTotal());
+        poolConfig.setMaxIdle(redisDbConfig.getPoolMaxIdle());
+        poolConfig.setMinIdle(redisDbConfig.getPoolMinIdle());
+        poolConfig.setMaxWait(Duration.ofMillis(redisDbConfig.getPoolMaxWait()));
+
+        return switch (redisDbConfig.getMode()) {
+            case STANDALONE -> {
+                HostAndPort hostAndPort = new HostAndPort(redisDbConfig.getHost(), redisDbConfig.getPort());
+                pool = new ConnectionPool(
+                        new TimedConnectionFactory(new ConnectionFactory(hostAndPort, clientConfig), commandTime),
+                        poolConfig);
+                yield new JedisPooled(new PooledConnectionProvider(pool));
+            }
+            case CLUSTER -> new JedisCluster(
+                    redisDbConfig.getNodes(),
+                    clientConfig,
+                    redisDbConfig.getClusterMaxAttempts(),
+                    poolConfig);
+            case SENTINEL -> new JedisSentineled(
+                    redisDbConfig.getSentinelMaster(),
+                    clientConfig,
+                    poolConfig,
+                    redisDbConfig.getNodes(),
+                    DefaultJedisClientConfig.builder()
+                            .connectionTimeoutMillis(redisDbConfig.getConnectionTimeout())
+                            .socketTimeoutMillis(redisDbConfig.getSocketTimeout())
+                            .build());
+        };
     }
 
     @Override
-    public JedisPooled getJedis() {
+    public UnifiedJedis getJedis() {
         return jedis;
     }
+
+    @Override
+    public String getMetricsName() {
+        return "redis";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", redisDbConfig.getMode().getMode());
+        if (pool != null) {
+            metrics.put("pool", getPoolStats(pool));
+            metrics.put("commandTime", commandTime.getStats());
+        } else if (jedis instanceof JedisCluster cluster) {
+            Map<String, Object> nodes = new LinkedHashMap<>();
+            cluster.getClusterNodes().forEach((node, nodePool) -> nodes.put(node, getPoolStats(nodePool)));
+            metrics.put("nodes", nodes);
+        }
+        return metrics;
+    }
+
+    private static Map<String, Object> getPoolStats(GenericObjectPool<?> objectPool) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", objectPool.getNumActive());
+        stats.put("idle", objectPool.getNumIdle());
+        stats.put("waiters", objectPool.getNumWaiters());
+        stats.put("borrowed", objectPool.getBorrowedCount());
+        stats.put("meanBorrowWaitMillis", objectPool.getMeanBorrowWaitDuration().toNanos() / 1e6);
+        stats.put("maxBorrowWaitMillis", objectPool.getMaxBorrowWaitDuration().toNanos() / 1e6);
+        return stats;
+    }
 }
@@ -0,0 +1,82 @@
+package com.oasisnourish.db.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.oasisnourish.db.JdbcConnection;
+
+/**
+ * A {@link JdbcConnection} that caps how many callers may hold a connection at
+ * once. With virtual threads there is no thread pool to bound concurrency, so
+ * without a cap every request would queue inside the connection pool instead.
+ * A permit is taken when a connection is handed out and returned when it is
+ * closed.
+ */
+public class ThrottledJdbcConnection implements JdbcConnection {
+
+    private final JdbcConnection jdbcConnection;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    /**
+     * Constructs a {@link ThrottledJdbcConnection}.
+     *
+     * @param jdbcConnection       the connection source to throttle.
+     * @param maxConcurrency       the maximum number of connections handed out
+     *                             at once.
+     * @param acquireTimeoutMillis how long to wait for a permit before failing.
+     */
+    public ThrottledJdbcConnection(JdbcConnection jdbcConnection, int maxConcurrency, long acquireTimeoutMillis) {
+        this.jdbcConnection = jdbcConnection;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeoutMillis + "ms waiting for a database permit.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit.", e);
+        }
+
+        try {
+            return releaseOnClose(jdbcConnection.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (_, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package com.oasisnourish.db.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+
+import com.oasisnourish.metrics.LatencyHistogram;
+
+import redis.clients.jedis.Connection;
+
+/**
+ * Wraps a Jedis connection factory to time how long each connection is
+ * borrowed from the pool. A single command or pipeline borrows a connection
+ * for exactly one round trip, so this is the per-command latency seen by the
+ * caller, excluding the time spent waiting for the pool.
+ */
+class TimedConnectionFactory implements PooledObjectFactory<Connection> {
+
+    private final PooledObjectFactory<Connection> connectionFactory;
+    private final LatencyHistogram commandTime;
+
+    TimedConnectionFactory(PooledObjectFactory<Connection> connectionFactory, LatencyHistogram commandTime) {
+        this.connectionFactory = connectionFactory;
+        this.commandTime = commandTime;
+    }
+
+    @Override
+    public PooledObject<Connection> makeObject() throws Exception {
+        return connectionFactory.makeObject();
+    }
+
+    @Override
+    public void activateObject(PooledObject<Connection> pooledObject) throws Exception {
+        connectionFactory.activateObject(pooledObject);
+    }
+
+    @Override
+    public void passivateObject(PooledObject<Connection> pooledObject) throws Exception {
+        commandTime.record(Duration.between(pooledObject.getLastBorrowInstant(), Instant.now()).toNanos());
+        connectionFactory.passivateObject(pooledObject);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<Connection> pooledObject) {
+        return connectionFactory.validateObject(pooledObject);
+    }
+
+    @Override
+    public void destroyObject(PooledObject<Connection> pooledObject) throws Exception {
+        connectionFactory.destroyObject(pooledObject);
+    }
+
+    @Override
+    public void destroyObject(PooledObject<Connection> pooledObject, DestroyMode destroyMode) throws Exception {
+        connectionFactory.destroyObject(pooledObject, destroyMode);
+    }
+}
@@ -0,0 +1,88 @@
+package com.oasisnourish.dto;
+
+import java.util.Map;
+
+/**
+ * A Data Transfer Object (DTO) representing the input for starting a bulk
+ * email campaign.
+ */
+public class EmailCampaignInputDto {
+    private String subject;
+    private String template;
+    private Map<String, String> variables;
+
+    /**
+     * No-argument constructor for creating an {@link EmailCampaignInputDto}
+     * instance, which can be populated using setter methods.
+     */
+    public EmailCampaignInputDto() {
+    }
+
+    /**
+     * Parameterized constructor for creating an {@link EmailCampaignInputDto}
+     * instance with specified values for all fields.
+     *
+     * @param subject   the subject of every email.
+     * @param template  the campaign template each email is rendered from.
+     * @param variables the template variables shared by every email.
+     */
+    public EmailCampaignInputDto(String subject, String template, Map<String, String> variables) {
+        this.subject = subject;
+        this.template = template;
+        this.variables = variables;
+    }
+
+    /**
+     * Gets the subject of every email.
+     *
+     * @return the subject.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Sets the subject of every email.
+     *
+     * @param subject the subject to set.
+     */
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    /**
+     * Gets the campaign template each email is rendered from.
+     *
+     * @return the template name.
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Sets the campaign template each email is rendered from.
+     *
+     * @param template the template name to set.
+     */
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    /**
+     * Gets the template variables shared by every email.
+     *
+     * @return the template variables, or null if none were given.
+     */
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Sets the template variables shared by every email.
+     *
+     * @param variables the template variables to set.
+     */
+    public void setVariables(Map<String, String> variables) {
+        this.variables = variables;
+    }
+}
@@ -0,0 +1,105 @@
+package com.oasisnourish.dto;
+
+import java.time.format.DateTimeFormatter;
+
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.models.EmailCampaign;
+
+/**
+ * A Data Transfer Object (DTO) representing a bulk email campaign and how far
+ * it has got.
+ */
+public class EmailCampaignResponseDto {
+    private final int id;
+    private final String subject;
+    private final String template;
+    private final CampaignStatus status;
+    private final int lastUserId;
+    private final int sent;
+    private final int failed;
+    private final String createdAt;
+    private final String updatedAt;
+
+    /**
+     * Constructs an {@link EmailCampaignResponseDto}.
+     *
+     * @param id         the ID of the campaign.
+     * @param subject    the subject of every email.
+     * @param template   the template each email is rendered from.
+     * @param status     the status of the campaign.
+     * @param lastUserId the ID of the last user the campaign got to.
+     * @param sent       the number of emails sent so far.
+     * @param failed     the number of emails that could not be sent.
+     * @param createdAt  when the campaign was started.
+     * @param updatedAt  when the campaign last made progress.
+     */
+    public EmailCampaignResponseDto(int id, String subject, String template, CampaignStatus status, int lastUserId,
+            int sent, int failed, String createdAt, String updatedAt) {
+        this.id = id;
+        this.subject = subject;
+        this.template = template;
+        this.status = status;
+        this.lastUserId = lastUserId;
+        this.sent = sent;
+        this.failed = failed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public CampaignStatus getStatus() {
+        return status;
+    }
+
+    public int getLastUserId() {
+        return lastUserId;
+    }
+
+    public int getSent() {
+        return sent;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Converts the {@link EmailCampaign} object to
+     * {@link EmailCampaignResponseDto}.
+     *
+     * @param campaign an {@link EmailCampaign} object to convert.
+     * @return {@link EmailCampaignResponseDto} object with the campaign's
+     *         details.
+     */
+    public static EmailCampaignResponseDto fromModel(EmailCampaign campaign) {
+        return new EmailCampaignResponseDto(
+                campaign.getId(),
+                campaign.getSubject(),
+                campaign.getTemplate(),
+                campaign.getStatus(),
+                campaign.getLastUserId(),
+                campaign.getSent(),
+                campaign.getFailed(),
+                campaign.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                campaign.getUpdatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    }
+}
@@ -0,0 +1,62 @@
+package com.oasisnourish.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A Data Transfer Object (DTO) representing one page of a keyset-paginated
+ * listing.
+ *
+ * @param <T> the type of the items on the page.
+ */
+public class PageResponseDto<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructs a {@link PageResponseDto}.
+     *
+     * @param items      the items on the page.
+     * @param nextCursor the cursor for the next page, or null if this is the
+     *                   last page.
+     */
+    public PageResponseDto(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the items on the page.
+     *
+     * @return the items on the page.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor to pass back for the next page.
+     *
+     * @return the cursor for the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+
+        PageResponseDto<?> that = (PageResponseDto<?>) obj;
+
+        return Objects.equals(items, that.items) && Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, nextCursor);
+    }
+}
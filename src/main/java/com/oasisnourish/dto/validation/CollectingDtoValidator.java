@@ -0,0 +1,48 @@
+package com.oasisnourish.dto.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DtoValidator} for objects that did not come from a request body,
+ * such as the rows of an upload. Failed checks are collected rather than
+ * thrown, so each object can be rejected on its own.
+ *
+ * @param <T> the type of object to validate
+ */
+public class CollectingDtoValidator<T> implements DtoValidator<T> {
+    private final T value;
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Constructs a new {@link CollectingDtoValidator}.
+     *
+     * @param value the object to validate
+     */
+    public CollectingDtoValidator(T value) {
+        this.value = value;
+    }
+
+    @Override
+    public T get() {
+        return value;
+    }
+
+    @Override
+    public DtoValidator<T> check(String fieldName, Condition<T> condition, String message) {
+        if (!condition.test(value)) {
+            errors.add(message);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the messages of the checks that failed.
+     *
+     * @return the messages, in the order the checks were made; empty if the
+     *         object is valid
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,61 @@
+package com.oasisnourish.dto.validation;
+
+import com.oasisnourish.dto.EmailCampaignInputDto;
+
+/**
+ * Validator for {@link EmailCampaignInputDto} objects.
+ */
+public class EmailCampaignInputDtoValidator {
+
+    private final DtoValidator<EmailCampaignInputDto> validator;
+
+    /**
+     * Constructs a new {@link EmailCampaignInputDtoValidator}.
+     *
+     * @param validator the {@link DtoValidator} to use for validation
+     */
+    public EmailCampaignInputDtoValidator(DtoValidator<EmailCampaignInputDto> validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Retrieves the validated {@link EmailCampaignInputDto} object.
+     *
+     * @return the validated {@link EmailCampaignInputDto}
+     */
+    public EmailCampaignInputDto get() {
+        return validator.get();
+    }
+
+    /**
+     * Checks if the subject field is required and non-empty.
+     *
+     * @return the current instance of {@link EmailCampaignInputDtoValidator}
+     *         for method chaining
+     */
+    public EmailCampaignInputDtoValidator isSubjectRequired() {
+        validator.check("subject", (campaign) -> {
+            String subject = campaign.getSubject();
+            return subject != null && !subject.trim().isEmpty();
+        }, "Subject is required.");
+        return this;
+    }
+
+    /**
+     * Checks that the template is one of the campaign templates, so a campaign
+     * cannot be rendered from any other template on the classpath, and that it
+     * exists.
+     *
+     * @return the current instance of {@link EmailCampaignInputDtoValidator}
+     *         for method chaining
+     */
+    public EmailCampaignInputDtoValidator isTemplateValid() {
+        validator.check("template", (campaign) -> {
+            String template = campaign.getTemplate();
+            return template != null && template.matches("^campaign/[a-z0-9-]+$")
+                    && EmailCampaignInputDtoValidator.class.getClassLoader()
+                            .getResource("templates/" + template + ".html") != null;
+        }, "Template must be a campaign template, such as campaign/newsletter.");
+        return this;
+    }
+}
@@ -1,5 +1,6 @@
 package com.oasisnourish.dto.validation;
 
+import com.oasisnourish.dto.EmailCampaignInputDto;
 import com.oasisnourish.dto.UserInputDto;
 
 import io.javalin.validation.BodyValidator;
@@ -8,4 +9,9 @@ public class ValidatorFactory {
     public static UserInputDtoValidator getValidator(BodyValidator<UserInputDto> bodyValidator) {
         return new UserInputDtoValidator(new DtoValidatorImpl<>(bodyValidator));
     }
+
+    // Erases to the same signature as getValidator, so it needs its own name
+    public static EmailCampaignInputDtoValidator getCampaignValidator(BodyValidator<EmailCampaignInputDto> bodyValidator) {
+        return new EmailCampaignInputDtoValidator(new DtoValidatorImpl<>(bodyValidator));
+    }
 }
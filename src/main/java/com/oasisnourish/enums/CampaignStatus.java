@@ -0,0 +1,13 @@
+package com.oasisnourish.enums;
+
+/**
+ * Where a bulk email campaign stands.
+ */
+public enum CampaignStatus {
+    /** Still sending, or waiting for a node to pick it up again. */
+    RUNNING,
+    /** Every recipient has been sent to. */
+    COMPLETED,
+    /** Stopped by an admin before every recipient was sent to. */
+    CANCELLED
+}
@@ -0,0 +1,12 @@
+package com.oasisnourish.enums;
+
+/**
+ * Where an email in the outbox stands. Sent emails are removed from the
+ * outbox, so they have no status of their own.
+ */
+public enum EmailStatus {
+    /** Waiting for its first or next delivery attempt. */
+    PENDING,
+    /** Every attempt failed; the email is kept for inspection but not retried. */
+    DEAD
+}
@@ -0,0 +1,36 @@
+package com.oasisnourish.enums;
+
+/**
+ * How the server runs request handlers.
+ */
+public enum ExecutionMode {
+    /** Handlers run on Jetty's bounded pool of platform threads. */
+    PLATFORM,
+    /** Every request runs on its own virtual thread. */
+    VIRTUAL,
+    /**
+     * Requests run on virtual threads, and the number of requests holding a
+     * database connection at once is capped by a semaphore.
+     */
+    VIRTUAL_DB_LIMITED;
+
+    public String getMode() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Finds the execution mode with the given name.
+     *
+     * @param mode the mode name, e.g. {@code virtual-db-limited}.
+     * @return the matching {@link ExecutionMode}.
+     * @throws IllegalArgumentException if no mode has the given name.
+     */
+    public static ExecutionMode fromMode(String mode) {
+        for (ExecutionMode executionMode : values()) {
+            if (executionMode.getMode().equalsIgnoreCase(mode)) {
+                return executionMode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown execution mode: " + mode);
+    }
+}
@@ -0,0 +1,33 @@
+package com.oasisnourish.enums;
+
+/**
+ * How the application connects to Redis.
+ */
+public enum RedisMode {
+    /** A single Redis server behind a connection pool. */
+    STANDALONE,
+    /** A Redis Cluster, discovered from one or more seed nodes. */
+    CLUSTER,
+    /** A primary located through Redis Sentinel. */
+    SENTINEL;
+
+    public String getMode() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Finds the Redis mode with the given name.
+     *
+     * @param mode the mode name, e.g. {@code cluster}.
+     * @return the matching {@link RedisMode}.
+     * @throws IllegalArgumentException if no mode has the given name.
+     */
+    public static RedisMode fromMode(String mode) {
+        for (RedisMode redisMode : values()) {
+            if (redisMode.getMode().equalsIgnoreCase(mode)) {
+                return redisMode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown Redis mode: " + mode);
+    }
+}
@@ -0,0 +1,31 @@
+package com.oasisnourish.enums;
+
+/**
+ * How issued JWTs are checked on each request.
+ */
+public enum TokenValidationMode {
+    /** Every issued token is stored in Redis and must still be there. */
+    ALLOWLIST,
+    /** Signature, expiry and version are enough unless the token was revoked. */
+    REVOCATION;
+
+    public String getMode() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Finds the token validation mode with the given name.
+     *
+     * @param mode the mode name, e.g. {@code revocation}.
+     * @return the matching {@link TokenValidationMode}.
+     * @throws IllegalArgumentException if no mode has the given name.
+     */
+    public static TokenValidationMode fromMode(String mode) {
+        for (TokenValidationMode validationMode : values()) {
+            if (validationMode.getMode().equalsIgnoreCase(mode)) {
+                return validationMode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown token validation mode: " + mode);
+    }
+}
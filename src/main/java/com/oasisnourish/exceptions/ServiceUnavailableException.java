@@ -0,0 +1,19 @@
+package com.oasisnourish.exceptions;
+
+/**
+ * Exception thrown when the server is too busy to take on a request and the
+ * client should retry later.
+ * Typically used to shed load instead of queueing work without bound.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code ServiceUnavailableException} with the specified
+     * detail message.
+     *
+     * @param message the detail message explaining the reason for the exception.
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,65 @@
+package com.oasisnourish.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Collects HikariCP pool metrics. Registered on the pool as its
+ * {@link MetricsTrackerFactory}, it receives the pool's gauges and a callback
+ * for every connection acquisition.
+ */
+public class HikariPoolMetrics implements MetricsTrackerFactory, MetricsSource {
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram usageTime = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireTime.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageTime.record(elapsedBorrowedMillis * 1_000_000);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "jdbcPool";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            metrics.put("active", stats.getActiveConnections());
+            metrics.put("idle", stats.getIdleConnections());
+            metrics.put("pending", stats.getPendingThreads());
+            metrics.put("total", stats.getTotalConnections());
+            metrics.put("max", stats.getMaxConnections());
+        }
+        metrics.put("timeouts", timeouts.sum());
+        metrics.put("acquireTime", acquireTime.getStats());
+        metrics.put("usageTime", usageTime.getStats());
+        return metrics;
+    }
+}
@@ -0,0 +1,87 @@
+package com.oasisnourish.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power-of-two microsecond buckets. Bucket
+ * {@code i} counts samples below {@code 2^i} microseconds, so percentiles are
+ * reported as the upper bound of the bucket they fall in and are accurate to
+ * within a factor of two.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single sample.
+     *
+     * @param nanos the measured latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long sample = Math.max(nanos, 0);
+        long micros = sample / 1_000;
+        int bucket = micros == 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(sample);
+        maxNanos.accumulate(sample);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Estimates a percentile of the recorded samples.
+     *
+     * @param percentile the percentile, between 0 and 1.
+     * @return the upper bound of the bucket containing the percentile, in
+     *         milliseconds, or 0 if nothing was recorded.
+     */
+    public double getPercentileMillis(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return Math.min((1L << i) / 1_000.0, maxNanos.get() / 1e6);
+            }
+        }
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Returns a summary of the histogram suitable for the metrics endpoint.
+     *
+     * @return a map of summary statistic names to values.
+     */
+    public Map<String, Object> getStats() {
+        long total = getCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", total);
+        stats.put("meanMillis", total == 0 ? 0.0 : totalNanos.sum() / 1e6 / total);
+        stats.put("p50Millis", getPercentileMillis(0.50));
+        stats.put("p95Millis", getPercentileMillis(0.95));
+        stats.put("p99Millis", getPercentileMillis(0.99));
+        stats.put("maxMillis", maxNanos.get() / 1e6);
+        return stats;
+    }
+}
@@ -0,0 +1,37 @@
+package com.oasisnourish.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the {@link MetricsSource}s of the application so they can be
+ * reported together.
+ */
+public class MetricsRegistry {
+
+    private final List<MetricsSource> sources = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a source of metrics.
+     *
+     * @param source the source to register.
+     */
+    public void register(MetricsSource source) {
+        sources.add(source);
+    }
+
+    /**
+     * Takes a snapshot of every registered source.
+     *
+     * @return a map of metrics group names to their metric values.
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        for (MetricsSource source : sources) {
+            snapshot.put(source.getMetricsName(), source.getMetrics());
+        }
+        return snapshot;
+    }
+}
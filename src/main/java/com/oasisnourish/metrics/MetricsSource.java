@@ -0,0 +1,24 @@
+package com.oasisnourish.metrics;
+
+import java.util.Map;
+
+/**
+ * A component that publishes runtime metrics through the
+ * {@link MetricsRegistry}.
+ */
+public interface MetricsSource {
+
+    /**
+     * Gets the name the metrics are grouped under.
+     *
+     * @return the metrics group name.
+     */
+    String getMetricsName();
+
+    /**
+     * Takes a snapshot of the current metric values.
+     *
+     * @return a map of metric names to values.
+     */
+    Map<String, Object> getMetrics();
+}
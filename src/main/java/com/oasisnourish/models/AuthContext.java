@@ -0,0 +1,84 @@
+package com.oasisnourish.models;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.oasisnourish.enums.Tokens;
+
+/**
+ * The auth state one request needs, loaded up front: whether its tokens are
+ * still stored, the user's current token versions and, when the tokens could
+ * be trusted to name it, the user itself.
+ */
+public class AuthContext {
+
+    private final int userId;
+    private final Map<String, Boolean> storedTokens;
+    private final long accessTokenVersion;
+    private final long refreshTokenVersion;
+    private final boolean userLoaded;
+    private final User user;
+
+    /**
+     * Constructs an {@link AuthContext}.
+     *
+     * @param userId              the ID of the user the tokens claim to belong
+     *                            to.
+     * @param storedTokens        whether each of the request's tokens is still
+     *                            stored.
+     * @param accessTokenVersion  the user's current access token version.
+     * @param refreshTokenVersion the user's current refresh token version.
+     * @param user                the user, or null if it does not exist.
+     */
+    public AuthContext(int userId, Map<String, Boolean> storedTokens, long accessTokenVersion,
+            long refreshTokenVersion, User user) {
+        this(userId, storedTokens, accessTokenVersion, refreshTokenVersion, true, user);
+    }
+
+    /**
+     * Constructs an {@link AuthContext} that may leave the user out.
+     *
+     * @param userId              the ID of the user the tokens claim to belong
+     *                            to.
+     * @param storedTokens        whether each of the request's tokens is still
+     *                            stored.
+     * @param accessTokenVersion  the user's current access token version.
+     * @param refreshTokenVersion the user's current refresh token version.
+     * @param userLoaded          whether the user was looked up.
+     * @param user                the user, or null if it does not exist or
+     *                            was not looked up.
+     */
+    public AuthContext(int userId, Map<String, Boolean> storedTokens, long accessTokenVersion,
+            long refreshTokenVersion, boolean userLoaded, User user) {
+        this.userId = userId;
+        this.storedTokens = storedTokens;
+        this.accessTokenVersion = accessTokenVersion;
+        this.refreshTokenVersion = refreshTokenVersion;
+        this.userLoaded = userLoaded;
+        this.user = user;
+    }
+
+    public boolean isForUser(int userId) {
+        return this.userId == userId;
+    }
+
+    public boolean hasToken(String token) {
+        return storedTokens.containsKey(token);
+    }
+
+    public boolean isTokenStored(String token) {
+        return storedTokens.getOrDefault(token, false);
+    }
+
+    public long getTokenVersion(Tokens.Jwt tokenType) {
+        return tokenType == Tokens.Jwt.ACCESS_TOKEN ? accessTokenVersion : refreshTokenVersion;
+    }
+
+    public boolean isUserLoaded() {
+        return userLoaded;
+    }
+
+    public Optional<User> getUser() {
+        return Optional.ofNullable(user);
+    }
+}
@@ -0,0 +1,124 @@
+package com.oasisnourish.models;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.oasisnourish.enums.CampaignStatus;
+
+/**
+ * A bulk email sent to every user with a verified email address. Only the
+ * progress through the users is stored, not the recipients, so the send can
+ * continue from where it stopped after a restart.
+ */
+public class EmailCampaign {
+    private int id;
+    private String subject;
+    private String template;
+    private Map<String, String> variables;
+    private CampaignStatus status = CampaignStatus.RUNNING;
+    private int lastUserId;
+    private int sent;
+    private int failed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public EmailCampaign() {
+    }
+
+    /**
+     * Constructs a running {@link EmailCampaign} that has not sent anything
+     * yet.
+     *
+     * @param subject   the subject of every email.
+     * @param template  the template each email is rendered from.
+     * @param variables the template variables shared by every email.
+     * @param createdAt when the campaign was started.
+     */
+    public EmailCampaign(String subject, String template, Map<String, String> variables, LocalDateTime createdAt) {
+        this.subject = subject;
+        this.template = template;
+        this.variables = variables;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(Map<String, String> variables) {
+        this.variables = variables;
+    }
+
+    public CampaignStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CampaignStatus status) {
+        this.status = status;
+    }
+
+    public int getLastUserId() {
+        return lastUserId;
+    }
+
+    public void setLastUserId(int lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public int getSent() {
+        return sent;
+    }
+
+    public void setSent(int sent) {
+        this.sent = sent;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
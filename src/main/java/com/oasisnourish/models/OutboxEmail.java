@@ -0,0 +1,118 @@
+package com.oasisnourish.models;
+
+import java.time.LocalDateTime;
+
+import com.oasisnourish.enums.EmailStatus;
+
+/**
+ * An email waiting in the outbox, with its content already rendered so it can
+ * be sent by any node, after a restart.
+ */
+public class OutboxEmail {
+    private long id;
+    private String recipient;
+    private String subject;
+    private String body;
+    private EmailStatus status = EmailStatus.PENDING;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private String lastError;
+
+    public OutboxEmail() {
+    }
+
+    /**
+     * Constructs a pending {@link OutboxEmail} that is due immediately.
+     *
+     * @param recipient the email address to send to.
+     * @param subject   the subject of the email.
+     * @param body      the rendered HTML content.
+     * @param createdAt when the email was queued.
+     */
+    public OutboxEmail(String recipient, String subject, String body, LocalDateTime createdAt) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public EmailStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EmailStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the number of delivery attempts so far, including the one in
+     * progress.
+     *
+     * @return the number of attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,15 @@
+package com.oasisnourish.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state of the email outbox as a whole.
+ *
+ * @param pending       the number of emails waiting to be sent.
+ * @param dead          the number of emails that ran out of attempts.
+ * @param oldestPending when the oldest waiting email was queued, or null if
+ *                      none is waiting.
+ */
+public record OutboxStats(long pending, long dead, LocalDateTime oldestPending) {
+
+}
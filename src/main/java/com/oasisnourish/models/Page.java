@@ -0,0 +1,33 @@
+package com.oasisnourish.models;
+
+import java.util.List;
+
+/**
+ * A page of results from a keyset-paginated query.
+ *
+ * @param <T> the type of the items on the page.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final boolean hasMore;
+
+    /**
+     * Constructs a {@link Page}.
+     *
+     * @param items   the items on this page.
+     * @param hasMore whether there are more items after this page.
+     */
+    public Page(List<T> items, boolean hasMore) {
+        this.items = items;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
@@ -16,6 +16,7 @@ public class User {
     private String password;
     private Role role;
     private LocalDateTime emailVerified;
+    private int version = 1;
 
     /**
      * Default constructor initializing a user with empty name, email, and password.
@@ -190,6 +191,25 @@ public class User {
         this.emailVerified = emailVerified;
     }
 
+    /**
+     * Gets the user's change version, which is bumped every time the user is
+     * updated.
+     *
+     * @return the user's change version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the user's change version.
+     *
+     * @param version the change version to set
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of the User object.
      *
@@ -0,0 +1,17 @@
+package com.oasisnourish.models;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk user import.
+ *
+ * @param read     the number of rows read from the upload.
+ * @param imported the number of users saved.
+ * @param skipped  the number of valid rows skipped because their email
+ *                 address was already taken, or came earlier in the upload.
+ * @param invalid  the number of rows that could not be parsed or failed
+ *                 validation.
+ * @param errors   why rows were invalid, by line, up to a limit.
+ */
+public record UserImportResult(int read, int imported, int skipped, int invalid, List<String> errors) {
+}
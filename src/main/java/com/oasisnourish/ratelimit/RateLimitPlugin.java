@@ -0,0 +1,145 @@
+package com.oasisnourish.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.oasisnourish.exceptions.TooManyRequestsException;
+import com.oasisnourish.util.TimeFormatter;
+
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.plugin.Plugin;
+import io.javalin.security.RouteRole;
+
+/**
+ * Limits the request rate of matched endpoints with the quotas declared in its
+ * {@link Config}. A request is charged to the most specific quota for its
+ * route and its requester's role, in a bucket of its own requester; routes
+ * without a quota are not limited. Which quota a route and role use is worked
+ * out once and remembered.
+ */
+public class RateLimitPlugin extends Plugin<RateLimitPlugin.Config> {
+
+    private final Map<String, Optional<Rule>> resolvedRules = new ConcurrentHashMap<>();
+
+    public RateLimitPlugin(Consumer<Config> userConfig) {
+        super(userConfig, new Config());
+    }
+
+    @Override
+    public void onStart(JavalinConfig config) {
+        if (pluginConfig.rateLimiter == null) {
+            throw new IllegalStateException("The rate limit plugin needs a RateLimiter.");
+        }
+        config.router.mount(router -> router.beforeMatched(this::handle));
+    }
+
+    /**
+     * Charges the request to its quota.
+     *
+     * @param ctx Javalin HTTP context.
+     * @throws TooManyRequestsException if the quota is used up.
+     */
+    void handle(Context ctx) throws TooManyRequestsException {
+        HandlerType method = ctx.method();
+        String path = ctx.endpointHandlerPath();
+        RouteRole role = pluginConfig.roleResolver.apply(ctx);
+        Optional<Rule> rule = resolvedRules.computeIfAbsent(method + " " + path + " " + role,
+                _ -> pluginConfig.findRule(method, path, role));
+        if (rule.isEmpty()) {
+            return;
+        }
+
+        long wait = pluginConfig.rateLimiter.tryAcquire(rule.get().getId() + "|" + pluginConfig.subjectResolver.apply(ctx), rule.get().quota());
+        if (wait > 0) {
+            pluginConfig.rateLimiter.recordRejection(method + " " + path);
+            long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(wait + 999));
+            ctx.header("Retry-After", String.valueOf(seconds));
+            throw new TooManyRequestsException("Too many requests. Try again after " + new TimeFormatter().format(seconds) + ".");
+        }
+    }
+
+    /**
+     * The quotas and how requesters are told apart.
+     */
+    public static class Config {
+
+        /**
+         * The limiter holding the buckets.
+         */
+        public RateLimiter rateLimiter;
+
+        /**
+         * Resolves the role quotas are looked up by; quotas declared without a
+         * role apply to every role.
+         */
+        public Function<Context, RouteRole> roleResolver = _ -> null;
+
+        /**
+         * Resolves who a request is charged to, so each requester has buckets
+         * of their own.
+         */
+        public Function<Context, String> subjectResolver = Context::ip;
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        /**
+         * Declares a quota for every method of a path. A path ending in
+         * {@code *} covers every path starting with what comes before it.
+         *
+         * @param path  the route path, as declared in the router.
+         * @param role  the role the quota applies to, or null for every role.
+         * @param quota the quota, such as {@code 60/min}.
+         * @return this config.
+         */
+        public Config quota(String path, RouteRole role, String quota) {
+            return quota(null, path, role, quota);
+        }
+
+        /**
+         * Declares a quota for one method of a path.
+         *
+         * @see #quota(String, RouteRole, String)
+         */
+        public Config quota(HandlerType method, String path, RouteRole role, String quota) {
+            rules.add(new Rule(method, path, role, RateLimitQuota.parse(quota)));
+            return this;
+        }
+
+        Optional<Rule> findRule(HandlerType method, String path, RouteRole role) {
+            return rules.stream()
+                    .filter(rule -> rule.matches(method, path, role))
+                    .max(Comparator.comparingInt(Rule::getSpecificity));
+        }
+    }
+
+    record Rule(HandlerType method, String path, RouteRole role, RateLimitQuota quota) {
+
+        boolean matches(HandlerType requestMethod, String requestPath, RouteRole requestRole) {
+            return (method == null || method == requestMethod)
+                    && (role == null || role.equals(requestRole))
+                    && (isPrefix() ? requestPath.startsWith(path.substring(0, path.length() - 1)) : path.equals(requestPath));
+        }
+
+        // Exact paths beat prefixes, longer prefixes beat shorter ones, then a method or role narrows it further
+        int getSpecificity() {
+            return (isPrefix() ? 0 : 1 << 20) + (path.length() << 2) + (method != null ? 2 : 0) + (role != null ? 1 : 0);
+        }
+
+        String getId() {
+            return (method == null ? "*" : method.name()) + " " + path + " " + (role == null ? "*" : role);
+        }
+
+        private boolean isPrefix() {
+            return path.endsWith("*");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.oasisnourish.ratelimit;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How many requests may be made per period, written as
+ * {@code <requests>/<period>}, where the period is a unit ({@code s},
+ * {@code min}, {@code h} or {@code day}) optionally preceded by a count: for
+ * example {@code 60/min}, {@code 5/s} or {@code 100/15min}.
+ *
+ * @param limit  the number of requests allowed per period.
+ * @param period the period the requests are spread over.
+ */
+public record RateLimitQuota(int limit, Duration period) {
+
+    private static final Pattern FORMAT = Pattern.compile("(\\d+)\\s*/\\s*(\\d*)\\s*(s|sec|m|min|h|hour|d|day)");
+
+    public RateLimitQuota {
+        if (limit <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("A rate limit quota needs a positive limit and period.");
+        }
+    }
+
+    /**
+     * Parses a quota.
+     *
+     * @param quota the quota, such as {@code 60/min}.
+     * @return the parsed quota.
+     * @throws IllegalArgumentException if the quota is not in the expected form.
+     */
+    public static RateLimitQuota parse(String quota) throws IllegalArgumentException {
+        Matcher matcher = FORMAT.matcher(quota.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid rate limit quota: " + quota + ". Expected a form like 60/min or 100/15min.");
+        }
+        int limit = Integer.parseInt(matcher.group(1));
+        long units = matcher.group(2).isEmpty() ? 1 : Long.parseLong(matcher.group(2));
+        Duration unit = switch (matcher.group(3)) {
+            case "s", "sec" ->
+                Duration.ofSeconds(1);
+            case "m", "min" ->
+                Duration.ofMinutes(1);
+            case "h", "hour" ->
+                Duration.ofHours(1);
+            default ->
+                Duration.ofDays(1);
+        };
+        return new RateLimitQuota(limit, unit.multipliedBy(units));
+    }
+
+    @Override
+    public String toString() {
+        return limit + "/" + period.toSeconds() + "s";
+    }
+}
@@ -0,0 +1,188 @@
+package com.oasisnourish.ratelimit;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.config.RateLimitConfig;
+import com.oasisnourish.dao.RateLimitDao;
+import com.oasisnourish.metrics.MetricsSource;
+
+/**
+ * Request rate limits kept as {@link TokenBucket token buckets} in memory on
+ * every node, so a request never waits on Redis. Each node reports what its
+ * buckets used to Redis in one batch per sync interval and takes what the
+ * other nodes used out of its own buckets, so together the nodes stay close
+ * to the quota; they can overshoot it by at most what is used within one
+ * interval.
+ */
+public class RateLimiter implements MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    private final RateLimitDao rateLimitDao;
+    private final int syncInterval;
+    private final Clock clock;
+    private final LongSupplier nanoTime;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Map<String, LongAdder> rejectedByRoute = new ConcurrentHashMap<>();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder syncFailures = new LongAdder();
+
+    public RateLimiter(RateLimitDao rateLimitDao, RateLimitConfig rateLimitConfig) {
+        this(rateLimitDao, rateLimitConfig, Clock.systemUTC(), System::nanoTime);
+    }
+
+    /**
+     * Constructs a {@link RateLimiter}.
+     *
+     * @param rateLimitDao    the DAO holding every node's counts.
+     * @param rateLimitConfig the sync interval setting.
+     * @param clock           the clock Redis windows are aligned to.
+     * @param nanoTime        the time source buckets refill by.
+     */
+    RateLimiter(RateLimitDao rateLimitDao, RateLimitConfig rateLimitConfig, Clock clock, LongSupplier nanoTime) {
+        this.rateLimitDao = rateLimitDao;
+        this.syncInterval = rateLimitConfig.getSyncInterval();
+        this.clock = clock;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Takes one request from a bucket, creating the bucket if needed.
+     *
+     * @param key   the bucket, unique per quota and requester.
+     * @param quota the quota the bucket enforces.
+     * @return 0 if the request is allowed, or the milliseconds until it would
+     *         be.
+     */
+    public long tryAcquire(String key, RateLimitQuota quota) {
+        long now = nanoTime.getAsLong();
+        long[] wait = new long[1];
+        // Taken under the key's lock, so sync cannot drop the bucket between lookup and use
+        buckets.compute(key, (_, bucket) -> {
+            TokenBucket current = bucket != null ? bucket : new TokenBucket(quota, now);
+            wait[0] = current.tryAcquire(now);
+            return current;
+        });
+        if (wait[0] == 0) {
+            allowed.increment();
+            return 0;
+        }
+        rejected.increment();
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(wait[0]), 1);
+    }
+
+    /**
+     * Counts a rejected request against the route it was for.
+     *
+     * @param route the method and path of the route.
+     */
+    public void recordRejection(String route) {
+        rejectedByRoute.computeIfAbsent(route, _ -> new LongAdder()).increment();
+    }
+
+    /**
+     * Reports what every bucket used since the last sync and learns what the
+     * other nodes used, in one round trip. Full buckets with nothing to report
+     * are dropped.
+     */
+    public void sync() {
+        long now = nanoTime.getAsLong();
+        long nowMillis = clock.millis();
+        List<TokenBucket> synced = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Long> amounts = new ArrayList<>();
+        List<Long> ttls = new ArrayList<>();
+        List<Long> windows = new ArrayList<>();
+        for (String key : buckets.keySet()) {
+            // Checked and removed under the key's lock, so no request is charged to a dropped bucket
+            TokenBucket bucket = buckets.computeIfPresent(key, (_, current) -> current.isIdle(now) ? null : current);
+            if (bucket == null) {
+                continue;
+            }
+            long period = bucket.getPeriodMillis();
+            long window = nowMillis / period;
+            synced.add(bucket);
+            keys.add(KEY_PREFIX + key + ":" + window);
+            amounts.add(bucket.takePending());
+            ttls.add(period * 2);
+            windows.add(window);
+        }
+        if (synced.isEmpty()) {
+            return;
+        }
+
+        List<Long> totals;
+        try {
+            totals = rateLimitDao.incrementAll(keys, amounts, ttls);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < synced.size(); i++) {
+                synced.get(i).restorePending(amounts.get(i));
+            }
+            syncFailures.increment();
+            throw e;
+        }
+        for (int i = 0; i < synced.size(); i++) {
+            synced.get(i).reconcile(windows.get(i), amounts.get(i), totals.get(i));
+        }
+        syncs.increment();
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-limit-sync").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // Buckets keep limiting locally; what they used is reported on the next run
+            LOGGER.warn("Could not sync the rate limits: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "rateLimit";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> byRoute = new TreeMap<>();
+        rejectedByRoute.forEach((route, count) -> byRoute.put(route, count.sum()));
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("buckets", buckets.size());
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("rejectedByRoute", byRoute);
+        metrics.put("syncs", syncs.sum());
+        metrics.put("syncFailures", syncFailures.sum());
+        return metrics;
+    }
+}
@@ -0,0 +1,102 @@
+package com.oasisnourish.ratelimit;
+
+/**
+ * A token bucket held by one node. Requests are served from the local tokens
+ * only; what other nodes used is learnt when the bucket is reconciled with
+ * Redis and taken out of the local tokens then.
+ */
+final class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final long periodMillis;
+    private double tokens;
+    private long refilledAt;
+
+    private long pending;
+    private long window = -1;
+    private long ownInWindow;
+    private long othersInWindow;
+
+    TokenBucket(RateLimitQuota quota, long nowNanos) {
+        this.capacity = quota.limit();
+        this.tokensPerNano = (double) quota.limit() / quota.period().toNanos();
+        this.periodMillis = quota.period().toMillis();
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * Takes a token if one is left.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}.
+     * @return 0 if a token was taken, or the nanoseconds until one will be.
+     */
+    synchronized long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens--;
+            pending++;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Hands over the tokens taken since the last reconciliation.
+     *
+     * @return the number of tokens taken.
+     */
+    synchronized long takePending() {
+        long taken = pending;
+        pending = 0;
+        return taken;
+    }
+
+    /**
+     * Puts back tokens handed over by {@link #takePending()} that could not
+     * be reported, so the next reconciliation reports them.
+     *
+     * @param taken the number of tokens handed over.
+     */
+    synchronized void restorePending(long taken) {
+        pending += taken;
+    }
+
+    /**
+     * Takes what other nodes used out of the local tokens.
+     *
+     * @param window   the Redis window the count belongs to.
+     * @param reported the tokens this node added to the count.
+     * @param total    the count of every node in the window.
+     */
+    synchronized void reconcile(long window, long reported, long total) {
+        if (window != this.window) {
+            this.window = window;
+            ownInWindow = 0;
+            othersInWindow = 0;
+        }
+        ownInWindow += reported;
+        long others = Math.max(total - ownInWindow, 0);
+        tokens = Math.max(tokens - (others - othersInWindow), 0);
+        othersInWindow = others;
+    }
+
+    /**
+     * Checks whether the bucket is full with nothing left to report, so it can
+     * be dropped and recreated on the next request.
+     */
+    synchronized boolean isIdle(long nowNanos) {
+        refill(nowNanos);
+        return pending == 0 && tokens >= capacity;
+    }
+
+    long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    private void refill(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - refilledAt) * tokensPerNano);
+        refilledAt = nowNanos;
+    }
+}
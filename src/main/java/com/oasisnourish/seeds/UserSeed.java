@@ -1,6 +1,9 @@
 package com.oasisnourish.seeds;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -28,22 +31,31 @@ public class UserSeed implements DatabaseSeed {
                 { "Emily", "emily@test.com", "Password246!", "USER" }
         };
 
+        List<String> emails = new ArrayList<>();
+        for (String[] userData : users) {
+            emails.add(userData[1]);
+        }
+        Set<String> existing = userDao.findExistingEmails(emails);
+
+        List<User> newUsers = new ArrayList<>();
         for (String[] userData : users) {
             String name = userData[0];
             String email = userData[1];
-            String password = passwordEncoder.encode(userData[2]);
             Role role = Role.valueOf(userData[3]);
 
-            // Check if user already exists
-            if (userDao.findByEmail(email).isEmpty()) {
+            // Only pay for the hash if the user does not exist yet
+            if (!existing.contains(email)) {
+                String password = passwordEncoder.encode(userData[2]);
                 User user = new User(name, email, password, role);
                 if (user.getRole() != Role.GUEST && user.getRole() != Role.UNVERIFIED_USER) {
                     user.setEmailVerified(LocalDateTime.now());
                 }
-                userDao.save(user);
-
+                newUsers.add(user);
             }
         }
+        if (!newUsers.isEmpty()) {
+            userDao.saveAll(newUsers);
+        }
     }
 
 }
@@ -3,6 +3,7 @@ package com.oasisnourish.services;
 import java.util.Map;
 import java.util.Optional;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.oasisnourish.dto.UserInputDto;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
@@ -34,11 +35,13 @@ public interface AuthService {
      *
      * @param userDto The data transfer object containing the user's email and
      * password for authentication.
+     * @param clientIp The IP address the sign in attempt comes from, used to
+     * throttle repeated attempts.
      * @return An {@link Map} containing the authenticated {@link User} object
      * if authentication is successful, or an empty {@link Optional} if
      * authentication fails due to incorrect credentials.
      */
-    Map<String, JsonWebToken> signInUser(UserInputDto userDto);
+    Map<String, JsonWebToken> signInUser(UserInputDto userDto, String clientIp);
 
     /**
      * Sends a confirmation token to the user's email address.
@@ -60,5 +63,15 @@ public interface AuthService {
 
     void sendResetPasswordToken(String email);
 
-    Optional<Map<String, JsonWebToken>> updateSignedInUserIfChanged(User signedInUser);
+    /**
+     * Re-issues the tokens of the signed in user if the user changed since
+     * they were issued. Unchanged users are recognised from the user cache
+     * without any I/O.
+     *
+     * @param signedInUser the signed in user, or null.
+     * @param jwt          the user's access token, or null.
+     * @return an {@link Optional} containing the new tokens, or an empty
+     *         {@link Optional} if the user did not change.
+     */
+    Optional<Map<String, JsonWebToken>> updateSignedInUserIfChanged(User signedInUser, DecodedJWT jwt);
 }
@@ -0,0 +1,43 @@
+package com.oasisnourish.services;
+
+import java.util.Optional;
+
+import com.oasisnourish.dto.EmailCampaignInputDto;
+import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.EmailCampaign;
+
+/**
+ * Service interface for bulk email campaigns sent to every user with a
+ * verified email address.
+ */
+public interface EmailCampaignService {
+
+    /**
+     * Starts a campaign. The emails are sent in the background; this returns
+     * as soon as the campaign is stored.
+     *
+     * @param campaignDto the subject, template and template variables of the
+     *                    campaign.
+     * @return the started campaign.
+     */
+    EmailCampaign startCampaign(EmailCampaignInputDto campaignDto);
+
+    /**
+     * Finds a campaign, with how far it has got, by its ID.
+     *
+     * @param id the ID of the campaign.
+     * @return an Optional containing the campaign if found, or an empty
+     *         Optional if not found.
+     */
+    Optional<EmailCampaign> findCampaignById(int id);
+
+    /**
+     * Cancels a running campaign. Emails already sent stay sent; the batch
+     * being sent when the campaign is cancelled may still go out.
+     *
+     * @param id the ID of the campaign.
+     * @return the campaign.
+     * @throws NotFoundException if the campaign does not exist.
+     */
+    EmailCampaign cancelCampaign(int id);
+}
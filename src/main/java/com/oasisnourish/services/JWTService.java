@@ -1,5 +1,6 @@
 package com.oasisnourish.services;
 
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
@@ -13,8 +14,12 @@ public interface JWTService extends TokenService<JsonWebToken> {
 
     Map<String, JsonWebToken> createTokens(User user);
 
+    Map<String, JsonWebToken> createTokens(User user, Instant maxExpiry);
+
     Optional<DecodedJWT> decodeToken(String token);
 
+    Optional<DecodedJWT> decodeToken(String token, boolean tokenStored);
+
     long getCurrentTokenVersion(int userId, Tokens.Jwt tokenType);
 
     JWTProvider getProvider();
@@ -1,9 +1,10 @@
 package com.oasisnourish.services;
 
-import java.util.List;
 import java.util.Optional;
 
+import com.oasisnourish.dao.Consumer.EntityConsumer;
 import com.oasisnourish.dto.UserInputDto;
+import com.oasisnourish.models.Page;
 import com.oasisnourish.models.User;
 
 /**
@@ -20,11 +21,42 @@ public interface UserService {
     Optional<User> findUserById(int id);
 
     /**
-     * Retrieves all users.
+     * Finds a user by ID in memory only, without any I/O.
      *
-     * @return a list of all users.
+     * @param id the ID of the user to find.
+     * @return an {@link Optional} containing the user if it is cached on this
+     *         node, or empty otherwise.
+     */
+    Optional<User> findCachedUserById(int id);
+
+    /**
+     * Retrieves a page of users in ID order.
+     *
+     * @param afterId the ID of the last user on the previous page, or 0 for the
+     *                first page.
+     * @param limit   the maximum number of users on the page.
+     * @return the page of users.
+     */
+    Page<User> findUsersPage(int afterId, int limit);
+
+    /**
+     * Streams every user, in ID order, to the consumer without loading them
+     * all into memory.
+     *
+     * @param consumer receives each user.
+     */
+    void forEachUser(EntityConsumer<User> consumer);
+
+    /**
+     * Streams the users with a verified email address that come after the
+     * given ID, in ID order, to the consumer.
+     *
+     * @param afterId  the ID of the last user already seen, or 0 to start from
+     *                 the beginning.
+     * @param limit    the maximum number of users to stream.
+     * @param consumer receives each user.
      */
-    List<User> findAllUsers();
+    void forEachVerifiedUserAfter(int afterId, int limit, EntityConsumer<User> consumer);
 
     /**
      * Saves a new user.
@@ -3,9 +3,12 @@ package com.oasisnourish.services.impl;
 import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.thymeleaf.context.IContext;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.oasisnourish.dto.UserInputDto;
 import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.exceptions.InvalidTokenException;
@@ -19,6 +22,8 @@ import com.oasisnourish.services.EmailService;
 import com.oasisnourish.services.JWTService;
 import com.oasisnourish.services.UserService;
 import com.oasisnourish.util.EmailContentBuilder;
+import com.oasisnourish.util.SignInThrottle;
+import com.oasisnourish.util.jwt.JWTProvider;
 
 import io.javalin.http.UnauthorizedResponse;
 
@@ -28,12 +33,15 @@ import io.javalin.http.UnauthorizedResponse;
  */
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     private final UserService userService;
     private final EmailService emailService;
     private final AuthTokenService authTokenService;
     private final JWTService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final EmailContentBuilder emailContentBuilder;
+    private final SignInThrottle signInThrottle;
 
     /**
      * Constructs an {@link AuthServiceImpl} with the necessary services.
@@ -42,15 +50,18 @@ public class AuthServiceImpl implements AuthService {
      * @param emailService The service for sending emails.
      * @param tokenService The service for token generation and validation.
      * @param emailContentBuilder The utility for building email contexts.
+     * @param signInThrottle The limiter of sign in attempts.
      */
     public AuthServiceImpl(UserService userService, EmailService emailService, AuthTokenService authTokenService,
-            JWTService jwtService, PasswordEncoder passwordEncoder, EmailContentBuilder emailContentBuilder) {
+            JWTService jwtService, PasswordEncoder passwordEncoder, EmailContentBuilder emailContentBuilder,
+            SignInThrottle signInThrottle) {
         this.userService = userService;
         this.emailService = emailService;
         this.jwtService = jwtService;
         this.authTokenService = authTokenService;
         this.passwordEncoder = passwordEncoder;
         this.emailContentBuilder = emailContentBuilder;
+        this.signInThrottle = signInThrottle;
     }
 
     @Override
@@ -60,16 +71,37 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public Map<String, JsonWebToken> signInUser(UserInputDto userDto) {
+    public Map<String, JsonWebToken> signInUser(UserInputDto userDto, String clientIp) {
+        // Throttled before the user lookup and the password check, which are what an attack would cost
+        signInThrottle.acquire(clientIp, userDto.getEmail());
+
         var user = userService.findUserByEmail(userDto.getEmail())
                 .filter(u -> passwordEncoder.matches(userDto.getPassword(), u.getPassword()))
                 .orElseThrow(() -> new UnauthorizedResponse("Invalid email or password."));
+        signInThrottle.recordSuccess(userDto.getEmail());
+
+        // The plain password is only at hand now, so hashes made at an older cost are upgraded here
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user = rehashPassword(user, userDto.getPassword());
+        }
 
         Map<String, JsonWebToken> tokens = jwtService.createTokens(user);
         return tokens;
 
     }
 
+    // Best effort: the password was already checked, so a failed upgrade must not fail the sign in
+    private User rehashPassword(User user, String password) {
+        try {
+            userService.updatePassword(user.getId(), password);
+            // The update bumped the user's version, which the tokens have to carry
+            return userService.findUserById(user.getId()).orElse(user);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not upgrade the password hash of user {}: {}", user.getId(), e.getMessage());
+            return user;
+        }
+    }
+
     @Override
     public void sendConfirmationToken(int userId) {
         var user = userService.findUserById(userId).orElseThrow(() -> new NotFoundException("User does not exist."));
@@ -121,14 +153,23 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public Optional<Map<String, JsonWebToken>> updateSignedInUserIfChanged(User signedInUser) {
-        if (signedInUser != null) {
-            var user = userService.findUserById(signedInUser.getId());
-            if (user.isPresent() && !signedInUser.equals(signedInUser)) {
-                Map<String, JsonWebToken> tokens = jwtService.createTokens(user.get());
-                return Optional.of(tokens);
-            }
+    public Optional<Map<String, JsonWebToken>> updateSignedInUserIfChanged(User signedInUser, DecodedJWT jwt) {
+        if (signedInUser == null || jwt == null) {
+            return Optional.empty();
+        }
+        Optional<Integer> tokenVersion = JWTProvider.readUserVersion(jwt);
+        Optional<User> user = userService.findCachedUserById(signedInUser.getId());
+        if (user.isPresent() && tokenVersion.isPresent() && user.get().getVersion() == tokenVersion.get()) {
+            return Optional.empty();
+        }
+
+        // Changes made on this node drop the user from its cache, so only a miss needs a lookup
+        if (user.isEmpty()) {
+            user = userService.findUserById(signedInUser.getId());
+        }
+        if (user.isEmpty() || tokenVersion.equals(Optional.of(user.get().getVersion()))) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        return Optional.of(jwtService.createTokens(user.get(), JWTProvider.readMaxExpiry(jwt).orElse(null)));
     }
 }
@@ -0,0 +1,346 @@
+package com.oasisnourish.services.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.config.EmailConfig;
+import com.oasisnourish.dao.EmailCampaignDao;
+import com.oasisnourish.dto.EmailCampaignInputDto;
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.exceptions.ServiceUnavailableException;
+import com.oasisnourish.metrics.MetricsSource;
+import com.oasisnourish.models.EmailCampaign;
+import com.oasisnourish.models.User;
+import com.oasisnourish.services.EmailCampaignService;
+import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.EmailContentBuilder;
+import com.oasisnourish.util.EmailTemplateRenderer;
+import com.oasisnourish.util.SmtpTransportPool;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Implementation of the {@link EmailCampaignService} interface. A single
+ * runner claims running campaigns one at a time and streams their recipients
+ * from the users table in ID order, a chunk at a time through a database
+ * cursor, so no campaign is ever held in memory whatever its size. A chunk is
+ * read in full and its cursor closed before any of it is sent, so no database
+ * connection is held while rendering, pacing or talking to SMTP. Each batch
+ * of recipients is rendered in parallel, paced to the campaign rate, and sent
+ * over one pooled SMTP connection. The last user ID sent to is stored after
+ * every batch, so a campaign continues from there after a restart, on this or
+ * another node; the batch in flight when a node dies is sent again.
+ */
+public class EmailCampaignServiceImpl implements EmailCampaignService, MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailCampaignServiceImpl.class);
+
+    /**
+     * Users read per cursor; bounds both the recipients held in memory and how
+     * long the cursor's transaction stays open.
+     */
+    static final int CHUNK_SIZE = 1_000;
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final long POLL_INTERVAL_MILLIS = 60_000;
+
+    private final EmailCampaignDao campaignDao;
+    private final UserService userService;
+    private final EmailContentBuilder emailContentBuilder;
+    private final EmailTemplateRenderer templateRenderer;
+    private final SmtpTransportPool transportPool;
+    private final String from;
+    private final int batchSize;
+    private final long nanosPerEmail;
+    private final Clock clock;
+    private final ExecutorService renderPool;
+    private ScheduledExecutorService runner;
+    private volatile boolean stopped;
+    // Only touched by the runner thread
+    private long nextSendAt = System.nanoTime();
+
+    private volatile int activeCampaign;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder pacedNanos = new LongAdder();
+
+    public EmailCampaignServiceImpl(EmailCampaignDao campaignDao, UserService userService,
+            EmailContentBuilder emailContentBuilder, EmailTemplateRenderer templateRenderer,
+            SmtpTransportPool transportPool, EmailConfig emailConfig) {
+        this(campaignDao, userService, emailContentBuilder, templateRenderer, transportPool, emailConfig,
+                Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an {@link EmailCampaignServiceImpl}.
+     *
+     * @param campaignDao         the DAO of the campaigns and their progress.
+     * @param userService         the service the recipients are streamed from.
+     * @param emailContentBuilder builds the context of each email.
+     * @param templateRenderer    renders the campaign templates.
+     * @param transportPool       the pool of SMTP connections emails are sent
+     *                            over.
+     * @param emailConfig         the sender address and the campaign settings.
+     * @param clock               the clock progress is stamped with.
+     */
+    EmailCampaignServiceImpl(EmailCampaignDao campaignDao, UserService userService,
+            EmailContentBuilder emailContentBuilder, EmailTemplateRenderer templateRenderer,
+            SmtpTransportPool transportPool, EmailConfig emailConfig, Clock clock) {
+        this.campaignDao = campaignDao;
+        this.userService = userService;
+        this.emailContentBuilder = emailContentBuilder;
+        this.templateRenderer = templateRenderer;
+        this.transportPool = transportPool;
+        this.from = emailConfig.getMailUsername();
+        this.batchSize = emailConfig.getCampaignBatchSize();
+        if (emailConfig.getCampaignRate() <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("MAIL_CAMPAIGN_RATE and MAIL_CAMPAIGN_BATCH_SIZE must be positive.");
+        }
+        this.nanosPerEmail = TimeUnit.SECONDS.toNanos(1) / emailConfig.getCampaignRate();
+        this.clock = clock;
+        this.renderPool = Executors.newFixedThreadPool(emailConfig.getCampaignRenderThreads(),
+                Thread.ofPlatform().name("campaign-render-", 0).daemon().factory());
+    }
+
+    @Override
+    public EmailCampaign startCampaign(EmailCampaignInputDto campaignDto) {
+        Map<String, String> variables = campaignDto.getVariables() == null ? Map.of() : campaignDto.getVariables();
+        EmailCampaign campaign = new EmailCampaign(campaignDto.getSubject(), campaignDto.getTemplate(), variables,
+                LocalDateTime.now(clock));
+        campaignDao.save(campaign);
+        if (runner != null) {
+            // Queued behind any campaign being sent, rather than waiting for the next poll
+            runner.execute(this::runDueCampaignsQuietly);
+        }
+        return campaign;
+    }
+
+    @Override
+    public Optional<EmailCampaign> findCampaignById(int id) {
+        return campaignDao.find(id);
+    }
+
+    @Override
+    public EmailCampaign cancelCampaign(int id) {
+        EmailCampaign campaign = campaignDao.find(id)
+                .orElseThrow(() -> new NotFoundException("Campaign does not exist."));
+        if (campaign.getStatus() == CampaignStatus.RUNNING) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            campaignDao.updateStatus(id, CampaignStatus.CANCELLED, now);
+            campaign.setStatus(CampaignStatus.CANCELLED);
+            campaign.setUpdatedAt(now);
+        }
+        return campaign;
+    }
+
+    /**
+     * Starts the runner, which picks up campaigns left running by a restart
+     * straight away and then polls for ones whose node has died.
+     */
+    public void start() {
+        runner = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("email-campaign-runner").daemon().factory());
+        runner.scheduleWithFixedDelay(this::runDueCampaignsQuietly, 0, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sending. The campaign being sent is handed back with its progress,
+     * to be continued after the restart or by another node.
+     */
+    public void stop() {
+        stopped = true;
+        if (runner != null) {
+            runner.shutdownNow();
+        }
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Claims and sends running campaigns, one after the other, until none is
+     * left to claim.
+     */
+    void runDueCampaigns() {
+        while (!stopped) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            Optional<EmailCampaign> claimed = campaignDao.claimNext(now, now.plus(LEASE));
+            if (claimed.isEmpty()) {
+                return;
+            }
+            run(claimed.get());
+        }
+    }
+
+    /**
+     * Sends a claimed campaign to every verified user after its last user ID,
+     * until it is done, cancelled or the service stops.
+     *
+     * @param campaign the claimed campaign.
+     */
+    void run(EmailCampaign campaign) {
+        activeCampaign = campaign.getId();
+        LOGGER.info("Sending campaign {} from user {}", campaign.getId(), campaign.getLastUserId());
+        try {
+            List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+            do {
+                chunk.clear();
+                // Read the whole chunk first, so the cursor and its transaction are closed before any sending
+                userService.forEachVerifiedUserAfter(campaign.getLastUserId(), CHUNK_SIZE, chunk::add);
+                for (int start = 0; start < chunk.size() && isSending(campaign); start += batchSize) {
+                    sendBatch(campaign, chunk.subList(start, Math.min(start + batchSize, chunk.size())));
+                }
+            } while (chunk.size() == CHUNK_SIZE && isSending(campaign));
+
+            LocalDateTime now = LocalDateTime.now(clock);
+            if (stopped) {
+                campaign.setUpdatedAt(now);
+                campaignDao.saveProgress(campaign, now);
+            } else if (campaign.getStatus() == CampaignStatus.RUNNING) {
+                campaignDao.updateStatus(campaign.getId(), CampaignStatus.COMPLETED, now);
+                campaign.setStatus(CampaignStatus.COMPLETED);
+                LOGGER.info("Campaign {} completed: {} sent, {} failed", campaign.getId(), campaign.getSent(),
+                        campaign.getFailed());
+            }
+        } finally {
+            activeCampaign = 0;
+        }
+    }
+
+    private boolean isSending(EmailCampaign campaign) {
+        return !stopped && campaign.getStatus() == CampaignStatus.RUNNING;
+    }
+
+    private void sendBatch(EmailCampaign campaign, List<User> users) {
+        // An admin may have cancelled the campaign, through this node or another
+        CampaignStatus status = campaignDao.find(campaign.getId())
+                .map(EmailCampaign::getStatus)
+                .orElse(CampaignStatus.CANCELLED);
+        if (status != CampaignStatus.RUNNING) {
+            campaign.setStatus(status);
+            return;
+        }
+
+        List<CompletableFuture<MimeMessage>> rendering = new ArrayList<>(users.size());
+        for (User user : users) {
+            rendering.add(CompletableFuture.supplyAsync(() -> buildMessage(campaign, user), renderPool));
+        }
+        List<MimeMessage> messages = new ArrayList<>(users.size());
+        int failedNow = 0;
+        for (CompletableFuture<MimeMessage> message : rendering) {
+            try {
+                messages.add(message.join());
+            } catch (CompletionException e) {
+                failedNow++;
+                LOGGER.warn("Could not build an email of campaign {}: {}", campaign.getId(), e.getCause().getMessage());
+            }
+        }
+
+        if (!pace(messages.size())) {
+            stopped = true;
+            return;
+        }
+        int sentNow = messages.size();
+        try {
+            Map<MimeMessage, MessagingException> failures = transportPool.sendBatch(messages);
+            sentNow -= failures.size();
+            failedNow += failures.size();
+        } catch (MessagingException e) {
+            // Nothing was sent; the campaign is picked up again from its last batch once the lease runs out
+            throw new ServiceUnavailableException("No SMTP connection came free: " + e.getMessage());
+        }
+
+        campaign.setLastUserId(users.get(users.size() - 1).getId());
+        campaign.setSent(campaign.getSent() + sentNow);
+        campaign.setFailed(campaign.getFailed() + failedNow);
+        LocalDateTime now = LocalDateTime.now(clock);
+        campaign.setUpdatedAt(now);
+        campaignDao.saveProgress(campaign, now.plus(LEASE));
+        sent.add(sentNow);
+        failed.add(failedNow);
+        batches.increment();
+    }
+
+    private MimeMessage buildMessage(EmailCampaign campaign, User user) {
+        try {
+            String html = templateRenderer.render(campaign.getTemplate(),
+                    emailContentBuilder.buildCampaignContext(user, campaign.getVariables()));
+            MimeMessage message = new MimeMessage(transportPool.getSession());
+            message.setFrom(new InternetAddress(from));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(user.getEmail()));
+            message.setSubject(campaign.getSubject());
+            message.setContent(html, "text/html");
+            return message;
+        } catch (MessagingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Waits until the given number of emails can be sent without going over
+     * the campaign rate.
+     *
+     * @param emails the number of emails about to be sent.
+     * @return false if interrupted while waiting.
+     */
+    private boolean pace(int emails) {
+        long now = System.nanoTime();
+        long wait = nextSendAt - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            pacedNanos.add(wait);
+            now = nextSendAt;
+        }
+        nextSendAt = now + emails * nanosPerEmail;
+        return true;
+    }
+
+    private void runDueCampaignsQuietly() {
+        try {
+            runDueCampaigns();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the campaign is claimed again once its lease runs out
+            LOGGER.warn("Could not send a campaign: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "emailCampaigns";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("activeCampaign", activeCampaign);
+        metrics.put("sent", sent.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("pacedMillis", TimeUnit.NANOSECONDS.toMillis(pacedNanos.sum()));
+        return metrics;
+    }
+}
@@ -1,5 +1,6 @@
 package com.oasisnourish.services.impl;
 
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
@@ -10,41 +11,122 @@ import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
 import com.oasisnourish.services.JWTService;
+import com.oasisnourish.util.jwt.DecodedJWTCache;
 import com.oasisnourish.util.jwt.JWTProvider;
+import com.oasisnourish.util.jwt.RevocationList;
 
 public class JWTServiceImpl extends TokenServiceImpl<JsonWebToken> implements JWTService {
 
     private final TokenVersionDao tokenVersionDao;
     private final JWTProvider provider;
+    private final DecodedJWTCache jwtCache;
+    private final RevocationList revocationList;
 
-    public JWTServiceImpl(TokenDao<JsonWebToken> tokenDao, TokenVersionDao tokenVersionDao, JWTProvider provider) {
+    /**
+     * Constructs a {@link JWTServiceImpl} that only accepts tokens still
+     * stored in the token DAO.
+     */
+    public JWTServiceImpl(TokenDao<JsonWebToken> tokenDao, TokenVersionDao tokenVersionDao, JWTProvider provider, DecodedJWTCache jwtCache) {
+        this(tokenDao, tokenVersionDao, provider, jwtCache, null);
+    }
+
+    /**
+     * Constructs a {@link JWTServiceImpl} that accepts any correctly signed,
+     * unexpired token unless it is on the revocation list. Tokens are then
+     * never written to the token DAO.
+     */
+    public JWTServiceImpl(TokenDao<JsonWebToken> tokenDao, TokenVersionDao tokenVersionDao, JWTProvider provider, DecodedJWTCache jwtCache, RevocationList revocationList) {
         super(tokenDao);
         this.tokenVersionDao = tokenVersionDao;
         this.provider = provider;
+        this.jwtCache = jwtCache;
+        this.revocationList = revocationList;
     }
 
     @Override
     public Map<String, JsonWebToken> createTokens(User user) {
-        provider.updateJwtCurrentTime();
+        return createTokens(user, null);
+    }
+
+    @Override
+    public Map<String, JsonWebToken> createTokens(User user, Instant maxExpiry) {
+        // Both tokens share one issue time, read per call so concurrent requests never see each other's
+        Instant issuedAt = provider.now();
+        Instant sessionMaxExpiry = maxExpiry != null ? maxExpiry : provider.getMaxExpiry(issuedAt);
 
         long tokenVersion = tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN);
-        JsonWebToken accessToken = provider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, tokenVersion);
+        JsonWebToken accessToken = provider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, tokenVersion, issuedAt, sessionMaxExpiry);
         tokenVersion = tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN);
-        JsonWebToken refreshToken = provider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, tokenVersion);
-        tokenDao.saveToken(accessToken);
-        tokenDao.saveToken(refreshToken);
+        JsonWebToken refreshToken = provider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, tokenVersion, issuedAt, sessionMaxExpiry);
+        if (revocationList == null) {
+            tokenDao.saveToken(accessToken);
+            tokenDao.saveToken(refreshToken);
+        }
+        // Versions were bumped, so previously cached tokens of this user are stale
+        jwtCache.invalidateUser(user.getId());
 
         return Map.of("JWT_ACCESS_TOKEN", accessToken, "JWT_REFRESH_TOKEN", refreshToken);
     }
 
     @Override
     public Optional<DecodedJWT> decodeToken(String token) {
-        if (tokenDao.findToken(token).isPresent()) {
-            return provider.validateToken(token);
+        // A hit skips the allowlist check; DecodedJWTCache documents how stale it can be
+        Optional<DecodedJWT> cached = jwtCache.get(token);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        if (revocationList != null || tokenDao.findToken(token).isPresent()) {
+            return validateAndCache(token);
         }
         return Optional.empty();
     }
 
+    @Override
+    public Optional<DecodedJWT> decodeToken(String token, boolean tokenStored) {
+        if (!tokenStored) {
+            return Optional.empty();
+        }
+        Optional<DecodedJWT> cached = jwtCache.get(token);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return validateAndCache(token);
+    }
+
+    private Optional<DecodedJWT> validateAndCache(String token) {
+        Optional<DecodedJWT> decoded = provider.validateToken(token);
+        if (revocationList != null) {
+            decoded = decoded.filter(jwt -> !revocationList.isRevoked(jwt.getId()));
+        }
+        decoded.ifPresent(jwt -> jwtCache.put(token, jwt));
+        return decoded;
+    }
+
+    @Override
+    public Optional<JsonWebToken> findToken(String token) {
+        if (revocationList == null) {
+            return super.findToken(token);
+        }
+        return decodeToken(token).map(jwt -> new JsonWebToken(
+                token,
+                Tokens.Jwt.valueOf(jwt.getClaim("type").asString().toUpperCase()),
+                jwt.getClaim("version").asLong(),
+                jwt.getExpiresAt().toInstant(),
+                jwt.getClaim("userId").asInt()));
+    }
+
+    @Override
+    public void deleteToken(String token) {
+        if (revocationList == null) {
+            super.deleteToken(token);
+        } else {
+            // Expired or forged tokens are rejected anyway, so only valid ones need revoking
+            provider.validateToken(token).ifPresent(jwt -> revocationList.revoke(jwt.getId(), jwt.getExpiresAt().toInstant()));
+        }
+        jwtCache.invalidateToken(token);
+    }
+
     @Override
     public long getCurrentTokenVersion(int userId, Tokens.Jwt tokenType) {
         return tokenVersionDao.find(userId, Tokens.Category.JWT, tokenType);
@@ -5,10 +5,12 @@ import java.util.Optional;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.oasisnourish.dao.Consumer.EntityConsumer;
 import com.oasisnourish.dao.UserDao;
 import com.oasisnourish.dto.UserInputDto;
 import com.oasisnourish.exceptions.EmailExistsException;
 import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.Page;
 import com.oasisnourish.models.User;
 import com.oasisnourish.services.UserService;
 
@@ -31,8 +33,26 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> findAllUsers() {
-        return userDao.findAll();
+    public Optional<User> findCachedUserById(int id) {
+        return userDao.findCached(id);
+    }
+
+    @Override
+    public Page<User> findUsersPage(int afterId, int limit) {
+        // Fetch one extra row to learn whether another page follows
+        List<User> users = userDao.findAfter(afterId, limit + 1);
+        boolean hasMore = users.size() > limit;
+        return new Page<>(hasMore ? users.subList(0, limit) : users, hasMore);
+    }
+
+    @Override
+    public void forEachUser(EntityConsumer<User> consumer) {
+        userDao.forEach(consumer);
+    }
+
+    @Override
+    public void forEachVerifiedUserAfter(int afterId, int limit, EntityConsumer<User> consumer) {
+        userDao.forEachVerifiedAfter(afterId, limit, consumer);
     }
 
     @Override
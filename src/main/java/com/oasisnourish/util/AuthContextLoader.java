@@ -0,0 +1,159 @@
+package com.oasisnourish.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.oasisnourish.dao.CachingUserDao;
+import com.oasisnourish.dao.impl.TokenDaoImpl;
+import com.oasisnourish.dao.impl.TokenVersionDaoImpl;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.enums.TokenValidationMode;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.metrics.MetricsSource;
+import com.oasisnourish.models.AuthContext;
+import com.oasisnourish.models.User;
+
+import redis.clients.jedis.Response;
+
+/**
+ * Loads the {@link AuthContext} of a request in a single pipelined Redis
+ * round trip: whether its tokens are still stored, the user's current token
+ * versions and, on a local cache miss, the user's cached snapshot. The
+ * database is only queried when the snapshot is missing too.
+ * <p>
+ * The user ID is read from tokens that are not verified yet, so the shared
+ * tier and the database are only used when one of the tokens naming that
+ * user turns out to be stored. Tokens are not stored in
+ * {@link TokenValidationMode#REVOCATION} mode, so there the user is only
+ * taken from the local cache and is otherwise left for the caller to look up
+ * once the token is verified.
+ */
+public class AuthContextLoader implements MetricsSource {
+
+    private final RedisConnection redisConnection;
+    private final CachingUserDao userDao;
+    private final boolean checkStoredTokens;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder redisRoundTrips = new LongAdder();
+    private final LongAdder databaseRoundTrips = new LongAdder();
+
+    /**
+     * Constructs an {@link AuthContextLoader}.
+     *
+     * @param redisConnection the Redis connection holding tokens, versions and
+     *                        user snapshots.
+     * @param userDao         the cached user DAO to consult and fill.
+     * @param validationMode  how tokens are validated.
+     */
+    public AuthContextLoader(RedisConnection redisConnection, CachingUserDao userDao, TokenValidationMode validationMode) {
+        this.redisConnection = redisConnection;
+        this.userDao = userDao;
+        this.checkStoredTokens = validationMode == TokenValidationMode.ALLOWLIST;
+    }
+
+    /**
+     * Loads the auth state for a request carrying the given tokens. The tokens
+     * are only parsed here to find their user; they are verified later.
+     *
+     * @param accessToken  the raw access token, or null.
+     * @param refreshToken the raw refresh token, or null.
+     * @return an {@link Optional} containing the context, or an empty
+     *         {@link Optional} if neither token names a user.
+     */
+    public Optional<AuthContext> load(String accessToken, String refreshToken) {
+        Optional<Integer> userId = peekUserId(accessToken).or(() -> peekUserId(refreshToken));
+        if (userId.isEmpty()) {
+            return Optional.empty();
+        }
+        int id = userId.get();
+        loads.increment();
+
+        Optional<User> user = userDao.findCached(id);
+        Map<String, Response<Boolean>> storedTokens = new LinkedHashMap<>();
+        Response<String> accessVersion;
+        Response<String> refreshVersion;
+        Response<Map<String, String>> snapshot = null;
+        try (var pipeline = redisConnection.getJedis().pipelined()) {
+            if (checkStoredTokens && accessToken != null) {
+                storedTokens.put(accessToken, pipeline.exists(TokenDaoImpl.getKey(accessToken)));
+            }
+            if (checkStoredTokens && refreshToken != null) {
+                storedTokens.put(refreshToken, pipeline.exists(TokenDaoImpl.getKey(refreshToken)));
+            }
+            accessVersion = pipeline.get(TokenVersionDaoImpl.getKey(id, Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN));
+            refreshVersion = pipeline.get(TokenVersionDaoImpl.getKey(id, Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN));
+            if (user.isEmpty() && checkStoredTokens) {
+                snapshot = userDao.queueFindShared(pipeline, id);
+            }
+            pipeline.sync();
+        }
+        redisRoundTrips.increment();
+
+        Map<String, Boolean> stored = new LinkedHashMap<>();
+        storedTokens.forEach((token, exists) -> stored.put(token, Boolean.TRUE.equals(exists.get())));
+
+        boolean userLoaded = user.isPresent();
+        if (!userLoaded && isStoredForUser(stored, id)) {
+            userLoaded = true;
+            if (snapshot != null) {
+                user = userDao.fromShared(snapshot.get());
+            }
+            if (user.isEmpty()) {
+                databaseRoundTrips.increment();
+                user = userDao.findInDatabase(id);
+            }
+        }
+
+        return Optional.of(new AuthContext(id, stored, parseVersion(accessVersion.get()),
+                parseVersion(refreshVersion.get()), userLoaded, user.orElse(null)));
+    }
+
+    // A stored token was issued by this server, so the user ID it names can be trusted
+    private static boolean isStoredForUser(Map<String, Boolean> storedTokens, int userId) {
+        for (Map.Entry<String, Boolean> entry : storedTokens.entrySet()) {
+            if (entry.getValue() && peekUserId(entry.getKey()).equals(Optional.of(userId))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Optional<Integer> peekUserId(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(JWT.decode(token).getClaim("userId").asInt());
+        } catch (JWTDecodeException e) {
+            return Optional.empty();
+        }
+    }
+
+    // A missing counter reads as 1, matching what TokenVersionDao.find initialises it to
+    private static long parseVersion(String version) {
+        return version == null ? 1 : Long.parseLong(version);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "authContext";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long total = loads.sum();
+        long redis = redisRoundTrips.sum();
+        long database = databaseRoundTrips.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("loads", total);
+        metrics.put("redisRoundTrips", redis);
+        metrics.put("databaseRoundTrips", database);
+        metrics.put("roundTripsPerRequest", total == 0 ? 0.0 : (double) (redis + database) / total);
+        return metrics;
+    }
+}
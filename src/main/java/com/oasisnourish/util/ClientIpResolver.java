@@ -0,0 +1,43 @@
+package com.oasisnourish.util;
+
+import io.javalin.http.Context;
+
+/**
+ * Works out the IP a request comes from when the server sits behind reverse
+ * proxies. Each proxy appends the address it received the request from to
+ * {@code X-Forwarded-For}, so the client is the entry the outermost trusted
+ * proxy added; anything to its left was sent by the client and cannot be
+ * trusted.
+ */
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final int trustedProxies;
+
+    /**
+     * Constructs a {@link ClientIpResolver}.
+     *
+     * @param trustedProxies the number of proxies in front of the server, or 0
+     *                       if clients connect to it directly.
+     */
+    public ClientIpResolver(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    /**
+     * Resolves the client IP of a request.
+     *
+     * @param ctx Javalin HTTP context.
+     * @return the client IP.
+     */
+    public String resolve(Context ctx) {
+        String remoteAddress = ctx.req().getRemoteAddr();
+        String forwardedFor = ctx.header(FORWARDED_FOR_HEADER);
+        if (trustedProxies == 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddress;
+        }
+        String[] hops = forwardedFor.split(",");
+        return hops[Math.max(hops.length - trustedProxies, 0)].trim();
+    }
+}
@@ -0,0 +1,47 @@
+package com.oasisnourish.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used for keyset pagination. A cursor
+ * wraps the ID of the last item on a page, so clients pass it back rather than
+ * building queries from IDs themselves.
+ */
+public class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encodes the ID of the last item on a page as a cursor.
+     *
+     * @param lastId the ID of the last item on the page.
+     * @return an opaque, URL-safe cursor.
+     */
+    public static String encode(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back into the ID it was created from.
+     *
+     * @param cursor the cursor to decode.
+     * @return the ID of the last item of the previous page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static int decode(String cursor) {
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!value.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+        int lastId = Integer.parseInt(value.substring(PREFIX.length()));
+        if (lastId < 0) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+        return lastId;
+    }
+}
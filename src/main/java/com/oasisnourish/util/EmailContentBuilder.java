@@ -1,33 +1,71 @@
 package com.oasisnourish.util;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import org.thymeleaf.context.Context;
 import org.thymeleaf.context.IContext;
 
 import com.oasisnourish.config.AuthTokenConfig;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.AuthToken;
 import com.oasisnourish.models.Token;
 import com.oasisnourish.models.User;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
 /**
- * A utility class to build email contexts for different types of emails.
+ * A utility class to build email contexts for different types of emails. The
+ * variables that are the same for every email are built once and shared.
  */
 public class EmailContentBuilder {
 
-    private final Dotenv dotenv;
+    private final Map<String, Object> sharedVariables;
 
     public EmailContentBuilder(Dotenv dotenv) {
-        this.dotenv = dotenv;
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("baseUrl", dotenv.get("BASE_URL", "http://localhost:7070"));
+        variables.put("timeFormatter", new TimeFormatter());
+        variables.put("authTokenConfig", new AuthTokenConfig(dotenv));
+        this.sharedVariables = Collections.unmodifiableMap(variables);
     }
 
     public IContext buildEmailTokenContext(User user, Token token) {
-        Context context = new Context();
+        Context context = new Context(Locale.getDefault(), sharedVariables);
         context.setVariable("user", user);
         context.setVariable("token", token);
-        context.setVariable("baseUrl", dotenv.get("BASE_URL", "http://localhost:7070"));
+        return context;
+    }
 
-        context.setVariable("timeFormatter", new TimeFormatter());
-        context.setVariable("authTokenConfig", new AuthTokenConfig(dotenv));
+    /**
+     * Builds a context for a made-up user and token, for rendering the email
+     * templates before any real email is sent.
+     *
+     * @return a context with every variable the email templates use.
+     */
+    public IContext buildSampleEmailTokenContext() {
+        User user = new User(0, "Sample User", "sample@oasisnourish.com", "", Role.UNVERIFIED_USER);
+        Token token = new AuthToken("sample-token", Tokens.Auth.ACCOUNT_CONFIRMATION_TOKEN, 1, Instant.now(), user.getId());
+        return buildEmailTokenContext(user, token);
+    }
+
+    /**
+     * Builds the context of one email of a campaign. The campaign variables
+     * cannot replace the shared ones or the user.
+     *
+     * @param user      the recipient.
+     * @param variables the template variables of the campaign.
+     * @return the context for the campaign template.
+     */
+    public IContext buildCampaignContext(User user, Map<String, String> variables) {
+        Context context = new Context(Locale.getDefault());
+        context.setVariables(variables);
+        context.setVariables(sharedVariables);
+        context.setVariable("user", user);
         return context;
     }
 
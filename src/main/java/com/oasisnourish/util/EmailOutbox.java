@@ -0,0 +1,320 @@
+package com.oasisnourish.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.config.EmailConfig;
+import com.oasisnourish.dao.EmailOutboxDao;
+import com.oasisnourish.metrics.MetricsSource;
+import com.oasisnourish.models.OutboxEmail;
+import com.oasisnourish.models.OutboxStats;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends emails through a durable outbox, so an email accepted by
+ * {@link #enqueue} is sent even if the server restarts before it goes out.
+ * A dispatcher claims due emails from the outbox in batches into a bounded
+ * buffer, and one sender per SMTP connection sends them from there. The
+ * dispatcher only claims as many as the buffer has room for, so a slow SMTP
+ * server leaves emails waiting in the database rather than in memory. An email
+ * whose lease would run out before it could be sent is handed back rather
+ * than risk a second node sending it too. A failed
+ * email is retried with exponential backoff until it runs out of attempts and
+ * is marked dead. Dead emails are deleted once they have been dead for their
+ * retention, in the same periodic pass that refreshes the outbox stats.
+ */
+public class EmailOutbox implements MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutbox.class);
+
+    private final EmailOutboxDao outboxDao;
+    private final SmtpTransportPool transportPool;
+    private final String from;
+    private final int senders;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final Duration lease;
+    private final Duration sendWindow;
+    private final long statsIntervalMillis;
+    private final Duration deadRetention;
+    private final Clock clock;
+    private final BlockingQueue<OutboxEmail> buffer;
+    private volatile OutboxStats stats = new OutboxStats(0, 0, null);
+    private volatile boolean running;
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService senderPool;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+
+    public EmailOutbox(EmailOutboxDao outboxDao, SmtpTransportPool transportPool, EmailConfig emailConfig) {
+        this(outboxDao, transportPool, emailConfig, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an {@link EmailOutbox}.
+     *
+     * @param outboxDao     the DAO of the outbox table.
+     * @param transportPool the pool of SMTP connections emails are sent over.
+     * @param emailConfig   the sender address and the outbox settings.
+     * @param clock         the clock attempts are scheduled with.
+     */
+    EmailOutbox(EmailOutboxDao outboxDao, SmtpTransportPool transportPool, EmailConfig emailConfig, Clock clock) {
+        this.outboxDao = outboxDao;
+        this.transportPool = transportPool;
+        this.from = emailConfig.getMailUsername();
+        this.senders = emailConfig.getPoolSize();
+        this.batchSize = emailConfig.getOutboxBatchSize();
+        this.pollIntervalMillis = emailConfig.getOutboxPollInterval();
+        this.maxAttempts = emailConfig.getOutboxMaxAttempts();
+        this.retryBackoffMillis = TimeUnit.SECONDS.toMillis(emailConfig.getOutboxRetryBackoff());
+        this.maxRetryBackoffMillis = TimeUnit.SECONDS.toMillis(emailConfig.getOutboxMaxRetryBackoff());
+        this.lease = Duration.ofSeconds(emailConfig.getOutboxLease());
+        // Waiting for a connection, sending, and reconnecting and resending over a stale one each take up to MAIL_TIMEOUT
+        this.sendWindow = Duration.ofMillis(4L * emailConfig.getMailTimeout());
+        if (lease.compareTo(sendWindow) <= 0) {
+            throw new IllegalArgumentException("MAIL_OUTBOX_LEASE must be longer than four MAIL_TIMEOUTs.");
+        }
+        this.statsIntervalMillis = TimeUnit.SECONDS.toMillis(emailConfig.getOutboxStatsInterval());
+        this.deadRetention = Duration.ofSeconds(emailConfig.getOutboxDeadRetention());
+        this.clock = clock;
+        this.buffer = new ArrayBlockingQueue<>(emailConfig.getOutboxBufferSize());
+    }
+
+    /**
+     * Queues an email in the outbox. Once this returns, the email is stored
+     * and will be sent.
+     *
+     * @param to      the email address of the recipient.
+     * @param subject the subject of the email.
+     * @param body    the rendered HTML content.
+     */
+    public void enqueue(String to, String subject, String body) {
+        outboxDao.save(new OutboxEmail(to, subject, body, LocalDateTime.now(clock)));
+        enqueued.increment();
+    }
+
+    public void start() {
+        running = true;
+        senderPool = Executors.newFixedThreadPool(senders,
+                Thread.ofPlatform().name("email-sender-", 0).daemon().factory());
+        for (int i = 0; i < senders; i++) {
+            senderPool.execute(this::sendLoop);
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("email-outbox-dispatcher").daemon().factory());
+        dispatcher.scheduleWithFixedDelay(this::dispatchQuietly, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::cleanUpQuietly, 0, statsIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops claiming and sending emails. Emails being sent are finished;
+     * buffered ones are handed back to the outbox to be sent after the
+     * restart, or by another node.
+     */
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+        if (senderPool != null) {
+            senderPool.shutdown();
+        }
+        List<OutboxEmail> unsent = new ArrayList<>();
+        buffer.drainTo(unsent);
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (OutboxEmail email : unsent) {
+            handBack(email, now);
+        }
+    }
+
+    /**
+     * Claims due emails into the buffer, batch after batch, until the outbox
+     * has no more due or the buffer is full.
+     */
+    void dispatch() {
+        int wanted;
+        int claimedNow;
+        do {
+            wanted = Math.min(batchSize, buffer.remainingCapacity());
+            if (wanted == 0) {
+                break;
+            }
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<OutboxEmail> due = outboxDao.claimDue(now, now.plus(lease), wanted);
+            claimedNow = due.size();
+            claimed.add(claimedNow);
+            // Only the dispatcher adds to the buffer, so the room counted above is still there
+            buffer.addAll(due);
+        } while (claimedNow == wanted);
+    }
+
+    /**
+     * Deletes the dead emails past their retention, then refreshes the
+     * outbox stats.
+     */
+    void cleanUp() {
+        purged.add(outboxDao.deleteDeadBefore(LocalDateTime.now(clock).minus(deadRetention)));
+        stats = outboxDao.findStats();
+    }
+
+    /**
+     * Sends an email and removes it from the outbox, or schedules its next
+     * attempt if it could not be sent.
+     *
+     * @param email the claimed email.
+     */
+    void deliver(OutboxEmail email) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        // The email sat in the buffer too long; once the lease lapses another sender may claim it
+        if (now.plus(sendWindow).isAfter(email.getNextAttemptAt())) {
+            expired.increment();
+            handBack(email, now);
+            return;
+        }
+        try {
+            MimeMessage message = new MimeMessage(transportPool.getSession());
+            message.setFrom(new InternetAddress(from));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipient()));
+            message.setSubject(email.getSubject());
+            message.setContent(email.getBody(), "text/html");
+            transportPool.send(message);
+        } catch (MessagingException e) {
+            fail(email, e);
+            return;
+        }
+        sent.increment();
+        outboxDao.delete(email.getId());
+    }
+
+    /**
+     * Gets how long to wait after the given number of failed attempts: the
+     * retry backoff, doubled after each further failure, up to the maximum.
+     *
+     * @param attempts the number of failed attempts so far.
+     * @return the delay before the next attempt.
+     */
+    Duration getRetryDelay(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Duration.ofMillis(Math.min(retryBackoffMillis << doublings, maxRetryBackoffMillis));
+    }
+
+    /**
+     * Hands an unsent email back to the outbox, due straight away and without
+     * using up an attempt.
+     */
+    private void handBack(OutboxEmail email, LocalDateTime now) {
+        try {
+            outboxDao.release(email.getId(), email.getNextAttemptAt(), now);
+        } catch (RuntimeException e) {
+            // Its lease runs out instead
+            LOGGER.warn("Could not hand email {} back to the outbox: {}", email.getId(), e.getMessage());
+        }
+    }
+
+    private void fail(OutboxEmail email, MessagingException e) {
+        // A malformed address will not get any better with retries
+        if (email.getAttempts() >= maxAttempts || e instanceof AddressException) {
+            outboxDao.markDead(email.getId(), e.getMessage(), LocalDateTime.now(clock));
+            deadLettered.increment();
+            LOGGER.error("Gave up on email {} after {} attempts: {}", email.getId(), email.getAttempts(), e.getMessage());
+            return;
+        }
+        Duration delay = getRetryDelay(email.getAttempts());
+        outboxDao.reschedule(email.getId(), LocalDateTime.now(clock).plus(delay), e.getMessage());
+        retried.increment();
+        LOGGER.warn("Could not send email {}, retrying in {}s: {}", email.getId(), delay.toSeconds(), e.getMessage());
+    }
+
+    private void sendLoop() {
+        while (running) {
+            OutboxEmail email;
+            try {
+                email = buffer.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (email == null) {
+                continue;
+            }
+            try {
+                deliver(email);
+            } catch (RuntimeException e) {
+                // The outbox could not be updated; the email is tried again once its lease runs out
+                LOGGER.warn("Could not update email {} in the outbox: {}", email.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next poll tries again
+            LOGGER.warn("Could not claim emails from the outbox: {}", e.getMessage());
+        }
+    }
+
+    private void cleanUpQuietly() {
+        try {
+            cleanUp();
+        } catch (RuntimeException e) {
+            // The stats stay as they were until the next run
+            LOGGER.warn("Could not clean up the outbox: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "emailOutbox";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        OutboxStats current = stats;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pending", current.pending());
+        metrics.put("dead", current.dead());
+        metrics.put("oldestPendingAgeSeconds", current.oldestPending() == null
+                ? 0 : Math.max(0, Duration.between(current.oldestPending(), LocalDateTime.now(clock)).toSeconds()));
+        metrics.put("buffered", buffer.size());
+        metrics.put("bufferCapacity", buffer.size() + buffer.remainingCapacity());
+        metrics.put("enqueued", enqueued.sum());
+        metrics.put("claimed", claimed.sum());
+        metrics.put("sent", sent.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("expired", expired.sum());
+        metrics.put("deadLettered", deadLettered.sum());
+        metrics.put("purged", purged.sum());
+        return metrics;
+    }
+}
@@ -0,0 +1,85 @@
+package com.oasisnourish.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import com.oasisnourish.metrics.LatencyHistogram;
+import com.oasisnourish.metrics.MetricsSource;
+
+/**
+ * Renders the email templates and times each render per template. The
+ * templates are rendered a number of times at startup, so parsing and caching
+ * them and the base layout, loading the classes behind expression evaluation
+ * and the early JIT work all happen before the first real email rather than
+ * during it.
+ */
+public class EmailTemplateRenderer implements MetricsSource {
+
+    /** The email templates; each of them pulls in the base layout. */
+    public static final List<String> TEMPLATES = List.of("user/welcome", "user/confirm", "user/reset-password");
+
+    private static final int WARM_UP_RENDERS = 50;
+
+    private final TemplateEngine templateEngine;
+    private final Map<String, LatencyHistogram> renderTimes = new ConcurrentHashMap<>();
+    private volatile long warmUpMillis;
+
+    public EmailTemplateRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+        for (String template : TEMPLATES) {
+            renderTimes.put(template, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Renders every email template with the given context. Warm-up renders are
+     * not counted in the render times.
+     *
+     * @param sampleContext a context with every variable the templates use.
+     */
+    public void warmUp(IContext sampleContext) {
+        long start = System.nanoTime();
+        for (int i = 0; i < WARM_UP_RENDERS; i++) {
+            for (String template : TEMPLATES) {
+                templateEngine.process(template, sampleContext);
+            }
+        }
+        warmUpMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Renders a template.
+     *
+     * @param templateName the name of the template.
+     * @param context      the context containing variables for the template.
+     * @return the rendered HTML.
+     */
+    public String render(String templateName, IContext context) {
+        long start = System.nanoTime();
+        try {
+            return templateEngine.process(templateName, context);
+        } finally {
+            renderTimes.computeIfAbsent(templateName, _ -> new LatencyHistogram()).record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "emailTemplates";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("warmUpMillis", warmUpMillis);
+        new TreeMap<>(renderTimes).forEach((template, renderTime) -> metrics.put(template, renderTime.getStats()));
+        return metrics;
+    }
+}
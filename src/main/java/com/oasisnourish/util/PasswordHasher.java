@@ -0,0 +1,188 @@
+package com.oasisnourish.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.oasisnourish.config.PasswordConfig;
+import com.oasisnourish.exceptions.ServiceUnavailableException;
+import com.oasisnourish.metrics.LatencyHistogram;
+import com.oasisnourish.metrics.MetricsSource;
+
+/**
+ * A BCrypt {@link PasswordEncoder} that hashes on its own bounded pool of
+ * worker threads instead of the caller's. A burst of sign ins can then only
+ * keep as many cores busy as the pool has workers, leaving the rest for
+ * cheap requests. Once the pool's queue is full further hashes are refused
+ * with a {@link ServiceUnavailableException} rather than left to pile up.
+ */
+public class PasswordHasher implements PasswordEncoder, MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHasher.class);
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final int queueSize;
+    private final ThreadPoolExecutor executor;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram hashTime = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs a {@link PasswordHasher} from the configured settings,
+     * calibrating the cost when none is set.
+     *
+     * @param passwordConfig the cost and pool settings.
+     */
+    public PasswordHasher(PasswordConfig passwordConfig) {
+        this(passwordConfig.getHashCost() > 0 ? passwordConfig.getHashCost() : calibrate(passwordConfig.getHashTargetMillis()),
+                passwordConfig.getHashThreads(),
+                passwordConfig.getHashQueueSize());
+    }
+
+    /**
+     * Constructs a {@link PasswordHasher}.
+     *
+     * @param cost      the BCrypt cost new hashes are made at.
+     * @param threads   the number of hashing workers.
+     * @param queueSize how many hashes may wait for a worker.
+     */
+    public PasswordHasher(int cost, int threads, int queueSize) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.queueSize = queueSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                Thread.ofPlatform().name("password-hasher-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checks whether a hash was made at a lower cost than new hashes are. The
+     * cost is read from the hash itself, so nothing is hashed here.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    <T> T run(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                waitTime.record(start - queuedAt);
+                try {
+                    return task.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("The server is busy. Please try again shortly.");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Picks the highest cost whose hashes take no longer than the target on
+     * this machine, timing one hash at {@link #MIN_COST}.
+     *
+     * @param targetMillis the target time of one hash.
+     * @return the calibrated cost.
+     */
+    static int calibrate(int targetMillis) {
+        // The first hash pays for class loading and JIT, so it is not the one timed
+        new BCryptPasswordEncoder(4).encode("calibration");
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(MIN_COST).encode("calibration");
+        int calibrated = costForTarget(System.nanoTime() - start, targetMillis);
+        LOGGER.info("Calibrated the password hash cost to {} for a {}ms target.", calibrated, targetMillis);
+        return calibrated;
+    }
+
+    /**
+     * Works out the highest cost within the target from the time of one hash
+     * at {@link #MIN_COST}. Each step of cost doubles the work.
+     *
+     * @param minCostNanos the time of one hash at {@link #MIN_COST}.
+     * @param targetMillis the target time of one hash.
+     * @return the cost, between {@link #MIN_COST} and {@link #MAX_COST}.
+     */
+    static int costForTarget(long minCostNanos, int targetMillis) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        int cost = MIN_COST;
+        long nanos = Math.max(minCostNanos, 1);
+        while (cost < MAX_COST && nanos * 2 <= targetNanos) {
+            nanos *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "passwordHasher";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cost", cost);
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("queueSize", queueSize);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("wait", waitTime.getStats());
+        metrics.put("hash", hashTime.getStats());
+        return metrics;
+    }
+}
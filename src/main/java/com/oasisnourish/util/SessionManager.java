@@ -6,12 +6,17 @@ import java.util.Map;
 import java.util.Optional;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.config.SessionConfig;
 import com.oasisnourish.dto.UserResponseDto;
+import com.oasisnourish.enums.Role;
 import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.AuthContext;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
 import com.oasisnourish.services.JWTService;
 import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.jwt.JWTProvider;
+import com.oasisnourish.util.jwt.TokenRefreshCoalescer;
 
 import io.github.cdimascio.dotenv.Dotenv;
 import io.javalin.http.Context;
@@ -23,82 +28,172 @@ public class SessionManager {
 
     private static final String JWT_ACCESS_KEY = "JWT_ACCESS_TOKEN";
     private static final String JWT_REFRESH_KEY = "JWT_REFRESH_TOKEN";
+    private static final String CURRENT_USER_KEY = "currentUser";
+    private static final String AUTH_CONTEXT_KEY = "authContext";
     private final Dotenv dotenv;
+    private final boolean stateless;
+    private final TokenRefreshCoalescer refreshCoalescer;
 
     public SessionManager(Dotenv dotenv) {
+        this(dotenv, null);
+    }
+
+    /**
+     * Constructs a {@link SessionManager} whose cookie refreshes share one new
+     * token pair per refresh token.
+     *
+     * @param dotenv           the environment settings.
+     * @param refreshCoalescer the coalescer of concurrent refreshes, or null
+     *                         to mint a pair for every refresh.
+     */
+    public SessionManager(Dotenv dotenv, TokenRefreshCoalescer refreshCoalescer) {
         this.dotenv = dotenv;
+        this.stateless = new SessionConfig(dotenv).isStateless();
+        this.refreshCoalescer = refreshCoalescer;
     }
 
     public void updateJwtInSession(Map<String, JsonWebToken> tokens, Context ctx, JWTService jwtService) {
+        // The preloaded versions are stale now that new tokens were issued
+        ctx.attribute(AUTH_CONTEXT_KEY, null);
         jwtService.decodeToken(tokens.get(JWT_ACCESS_KEY).getToken()).ifPresent((jwt) -> {
-            ctx.sessionAttribute(JWT_ACCESS_KEY, jwt);
+            setAttribute(ctx, JWT_ACCESS_KEY, jwt);
         });
         jwtService.decodeToken(tokens.get(JWT_REFRESH_KEY).getToken()).ifPresent((jwt) -> {
-            ctx.sessionAttribute(JWT_REFRESH_KEY, jwt);
+            setAttribute(ctx, JWT_REFRESH_KEY, jwt);
         });
     }
 
+    /**
+     * Loads everything the rest of the request's auth stages need in one go,
+     * so they do not each go back to Redis and the database.
+     *
+     * @param ctx               Javalin HTTP context.
+     * @param authContextLoader the loader fetching the auth state.
+     */
+    public void loadAuthContext(Context ctx, AuthContextLoader authContextLoader) {
+        authContextLoader.load(ctx.cookie(JWT_ACCESS_KEY), ctx.cookie(JWT_REFRESH_KEY))
+                .ifPresent(authContext -> ctx.attribute(AUTH_CONTEXT_KEY, authContext));
+    }
+
     public void decodeJWTFromCookie(Context ctx, JWTService jwtService, UserService userService) {
         String access = ctx.cookie(JWT_ACCESS_KEY);
         String refresh = ctx.cookie(JWT_REFRESH_KEY);
+        AuthContext authContext = ctx.attribute(AUTH_CONTEXT_KEY);
 
         if (access != null) {
-            Optional<DecodedJWT> decodedAccess = jwtService.decodeToken(access);
+            Optional<DecodedJWT> decodedAccess = decodeToken(authContext, jwtService, access);
             if (decodedAccess.isPresent()) {
-                ctx.sessionAttribute(JWT_ACCESS_KEY, decodedAccess.get());
+                setAttribute(ctx, JWT_ACCESS_KEY, decodedAccess.get());
             } else {
-                ctx.sessionAttribute(JWT_ACCESS_KEY, null);
+                setAttribute(ctx, JWT_ACCESS_KEY, null);
             }
         }
 
-        if (refresh != null && (access == null || !jwtService.findToken(access).isPresent())) {
-            Optional<DecodedJWT> decodedRefresh = jwtService.decodeToken(refresh);
+        if (refresh != null && (access == null || !isTokenStored(authContext, jwtService, access))) {
+            Optional<DecodedJWT> decodedRefresh = decodeToken(authContext, jwtService, refresh);
             decodedRefresh.ifPresentOrElse(jwt -> {
-                ctx.sessionAttribute(JWT_REFRESH_KEY, jwt);
-                int userId = jwt.getClaim("userId").asInt();
-                Optional<User> user = userService.findUserById(userId);
-                if (user.isPresent()) {
-                    Map<String, JsonWebToken> newTokens = jwtService.createTokens(user.get());
+                setAttribute(ctx, JWT_REFRESH_KEY, jwt);
+                Optional<Map<String, JsonWebToken>> refreshedTokens = refreshTokens(jwt, jwtService, userService);
+                if (refreshedTokens.isPresent()) {
+                    Map<String, JsonWebToken> newTokens = refreshedTokens.get();
+                    ctx.attribute(AUTH_CONTEXT_KEY, null);
                     setTokensInCookies(ctx, newTokens);
-                    ctx.sessionAttribute(JWT_ACCESS_KEY, jwtService.decodeToken(newTokens.get(JWT_ACCESS_KEY).getToken()).get());
+                    setAttribute(ctx, JWT_ACCESS_KEY, jwtService.decodeToken(newTokens.get(JWT_ACCESS_KEY).getToken()).get());
                 } else {
                     invalidateSession(ctx);
                 }
-            }, () -> ctx.sessionAttribute(JWT_REFRESH_KEY, null));
+            }, () -> setAttribute(ctx, JWT_REFRESH_KEY, null));
         }
     }
 
+    public boolean hasAuthCookies(Context ctx) {
+        return ctx.cookie(JWT_ACCESS_KEY) != null || ctx.cookie(JWT_REFRESH_KEY) != null;
+    }
+
+    /**
+     * Verifies the auth cookies of a request to a guest-only route, without
+     * refreshing them. Only a token the server still accepts keeps its sender
+     * off the route: one that was revoked, deleted, outdated or signed with
+     * an old secret makes the request a guest's, and the stale cookies are
+     * cleared so the user can sign in again.
+     *
+     * @param ctx        Javalin HTTP context.
+     * @param jwtService the service the tokens are verified with.
+     * @return the valid access token, else the valid refresh token, else null.
+     */
+    public DecodedJWT verifyJwtFromCookies(Context ctx, JWTService jwtService) {
+        DecodedJWT jwt = verifyToken(jwtService, ctx.cookie(JWT_ACCESS_KEY), Tokens.Jwt.ACCESS_TOKEN);
+        if (jwt == null) {
+            jwt = verifyToken(jwtService, ctx.cookie(JWT_REFRESH_KEY), Tokens.Jwt.REFRESH_TOKEN);
+        }
+        if (jwt == null) {
+            invalidateSession(ctx);
+        }
+        return jwt;
+    }
+
     public DecodedJWT getJwtFromSession(Context ctx) {
-        return ctx.sessionAttribute(JWT_ACCESS_KEY);
+        return getAttribute(ctx, JWT_ACCESS_KEY);
+    }
+
+    public User getSignedInUser(Context ctx) {
+        return getAttribute(ctx, CURRENT_USER_KEY);
+    }
+
+    public Role getSignedInRole(Context ctx) {
+        User user = getSignedInUser(ctx);
+        return user != null ? user.getRole() : Role.GUEST;
+    }
+
+    /**
+     * Identifies who a request comes from: the signed in user, or the client
+     * IP for guests.
+     *
+     * @param ctx Javalin HTTP context.
+     * @return a key unique to the requester.
+     */
+    public String getRequesterKey(Context ctx) {
+        User user = getSignedInUser(ctx);
+        return user != null ? "user:" + user.getId() : "ip:" + ctx.ip();
     }
 
     public void validateAndSetUserSession(Context ctx, JWTService jwtService, UserService userService) {
-        DecodedJWT jwt = ctx.sessionAttribute(JWT_ACCESS_KEY);
+        DecodedJWT jwt = getAttribute(ctx, JWT_ACCESS_KEY);
         if (jwt == null) {
             return;
         }
 
         int userId = jwt.getClaim("userId").asInt();
         long version = jwt.getClaim("version").asLong();
+        AuthContext authContext = getAuthContext(ctx, userId);
 
-        if (version != jwtService.getCurrentTokenVersion(userId, Tokens.Jwt.ACCESS_TOKEN)) {
+        if (version != getCurrentTokenVersion(authContext, jwtService, userId, Tokens.Jwt.ACCESS_TOKEN)) {
             invalidateSession(ctx);
             throw new UnauthorizedResponse("Invalid token: version outdated.");
         }
 
-        userService.findUserById(userId).ifPresentOrElse(
-                user -> ctx.sessionAttribute("currentUser", user),
+        Optional<User> user = authContext != null && authContext.isUserLoaded()
+                ? authContext.getUser()
+                : userService.findUserById(userId);
+        user.ifPresentOrElse(
+                user -> setAttribute(ctx, CURRENT_USER_KEY, user),
                 () -> invalidateSession(ctx));
     }
 
     public void invalidateSession(Context ctx) {
-        ctx.req().getSession().invalidate();
+        if (stateless) {
+            ctx.attribute(JWT_ACCESS_KEY, null);
+            ctx.attribute(JWT_REFRESH_KEY, null);
+            ctx.attribute(CURRENT_USER_KEY, null);
+        } else {
+            ctx.req().getSession().invalidate();
+        }
         ctx.removeCookie(JWT_ACCESS_KEY);
         ctx.removeCookie(JWT_REFRESH_KEY);
     }
 
     public void getCurrentUser(Context ctx) {
-        User user = ctx.sessionAttribute("currentUser");
+        User user = getAttribute(ctx, CURRENT_USER_KEY);
         if (user != null) {
             ctx.json(UserResponseDto.fromModel(user));
         } else {
@@ -107,7 +202,11 @@ public class SessionManager {
     }
 
     public void refreshToken(Context ctx, JWTService jwtService) {
-        DecodedJWT jwt = ctx.sessionAttribute(JWT_REFRESH_KEY);
+        DecodedJWT jwt = getAttribute(ctx, JWT_REFRESH_KEY);
+        if (jwt == null && stateless && ctx.cookie(JWT_REFRESH_KEY) != null) {
+            // Nothing carries the refresh token over from an earlier request
+            jwt = jwtService.decodeToken(ctx.cookie(JWT_REFRESH_KEY)).orElse(null);
+        }
         if (jwt == null) {
             return;
         }
@@ -115,14 +214,15 @@ public class SessionManager {
         int userId = jwt.getClaim("userId").asInt();
         long version = jwt.getClaim("version").asLong();
 
-        User user = ctx.sessionAttribute("currentUser");
+        User user = getAttribute(ctx, CURRENT_USER_KEY);
+        AuthContext authContext = getAuthContext(ctx, userId);
 
-        if (version != jwtService.getCurrentTokenVersion(userId, Tokens.Jwt.REFRESH_TOKEN) || user == null) {
+        if (version != getCurrentTokenVersion(authContext, jwtService, userId, Tokens.Jwt.REFRESH_TOKEN) || user == null) {
             invalidateSession(ctx);
             throw new UnauthorizedResponse("Cannot refresh token: version outdated.");
         }
 
-        Map<String, JsonWebToken> tokens = jwtService.createTokens(user);
+        Map<String, JsonWebToken> tokens = jwtService.createTokens(user, JWTProvider.readMaxExpiry(jwt).orElse(null));
         setTokensInCookies(ctx, tokens);
         ctx.status(200).result("Tokens refresh successful.");
     }
@@ -132,6 +232,68 @@ public class SessionManager {
         ctx.cookie(createTokenCookie(tokens.get(JWT_REFRESH_KEY)));
     }
 
+    private Optional<Map<String, JsonWebToken>> refreshTokens(DecodedJWT refreshToken, JWTService jwtService, UserService userService) {
+        if (refreshCoalescer != null) {
+            return refreshCoalescer.refresh(refreshToken, jwtService, userService);
+        }
+        int userId = refreshToken.getClaim("userId").asInt();
+        return userService.findUserById(userId)
+                .map(user -> jwtService.createTokens(user, JWTProvider.readMaxExpiry(refreshToken).orElse(null)));
+    }
+
+    private AuthContext getAuthContext(Context ctx, int userId) {
+        AuthContext authContext = ctx.attribute(AUTH_CONTEXT_KEY);
+        return authContext != null && authContext.isForUser(userId) ? authContext : null;
+    }
+
+    // Each lookup falls back to its own round trip when nothing was preloaded for the token
+    private Optional<DecodedJWT> decodeToken(AuthContext authContext, JWTService jwtService, String token) {
+        if (authContext != null && authContext.hasToken(token)) {
+            return jwtService.decodeToken(token, authContext.isTokenStored(token));
+        }
+        return jwtService.decodeToken(token);
+    }
+
+    private static DecodedJWT verifyToken(JWTService jwtService, String token, Tokens.Jwt tokenType) {
+        if (token == null) {
+            return null;
+        }
+        return jwtService.decodeToken(token)
+                .filter(jwt -> jwt.getClaim("version").asLong() == jwtService.getCurrentTokenVersion(
+                        jwt.getClaim("userId").asInt(), tokenType))
+                .orElse(null);
+    }
+
+    private boolean isTokenStored(AuthContext authContext, JWTService jwtService, String token) {
+        if (authContext != null && authContext.hasToken(token)) {
+            return authContext.isTokenStored(token);
+        }
+        return jwtService.findToken(token).isPresent();
+    }
+
+    private long getCurrentTokenVersion(AuthContext authContext, JWTService jwtService, int userId, Tokens.Jwt tokenType) {
+        if (authContext != null) {
+            return authContext.getTokenVersion(tokenType);
+        }
+        return jwtService.getCurrentTokenVersion(userId, tokenType);
+    }
+
+    // Stateless mode keeps auth state on the request only, so no node holds a session per user
+    private <T> T getAttribute(Context ctx, String key) {
+        if (stateless) {
+            return ctx.attribute(key);
+        }
+        return ctx.sessionAttribute(key);
+    }
+
+    private void setAttribute(Context ctx, String key, Object value) {
+        if (stateless) {
+            ctx.attribute(key, value);
+        } else {
+            ctx.sessionAttribute(key, value);
+        }
+    }
+
     private Cookie createTokenCookie(JsonWebToken token) {
         String environment = dotenv.get("ENV", "development");
         Cookie cookie = new Cookie(Tokens.Jwt.ACCESS_TOKEN == token.getTokenType() ? JWT_ACCESS_KEY : JWT_REFRESH_KEY, token.getToken());
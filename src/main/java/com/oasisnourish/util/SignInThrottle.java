@@ -0,0 +1,127 @@
+package com.oasisnourish.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oasisnourish.cache.LocalCache;
+import com.oasisnourish.config.RateLimitConfig;
+import com.oasisnourish.dao.RateLimitDao;
+import com.oasisnourish.exceptions.TooManyRequestsException;
+import com.oasisnourish.metrics.MetricsSource;
+
+/**
+ * Limits sign in attempts per client IP and per email before any database or
+ * password work is done for them. The limits are shared by every node through
+ * Redis; once a key is over its limit this node remembers it until the key
+ * may try again, so a sustained attack is turned away without even a Redis
+ * round trip. A successful sign in gives its attempt back to the email, so
+ * only failed attempts use up an account's limit.
+ */
+public class SignInThrottle implements MetricsSource {
+
+    private static final String KEY_PREFIX = "sign-in-rate-limit:";
+
+    private final RateLimitDao rateLimitDao;
+    private final List<Integer> maxAttempts;
+    private final long windowMillis;
+    private final Clock clock;
+    private final LocalCache<String, Instant> blockedKeys;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedLocally = new LongAdder();
+    private final LongAdder rejectedByRedis = new LongAdder();
+
+    public SignInThrottle(RateLimitDao rateLimitDao, RateLimitConfig rateLimitConfig) {
+        this(rateLimitDao, rateLimitConfig, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link SignInThrottle}.
+     *
+     * @param rateLimitDao    the DAO holding the shared limits.
+     * @param rateLimitConfig the limits and window.
+     * @param clock           the clock local blocks expire by.
+     */
+    public SignInThrottle(RateLimitDao rateLimitDao, RateLimitConfig rateLimitConfig, Clock clock) {
+        this.rateLimitDao = rateLimitDao;
+        this.maxAttempts = List.of(rateLimitConfig.getSignInMaxAttemptsPerIp(), rateLimitConfig.getSignInMaxAttemptsPerEmail());
+        this.windowMillis = TimeUnit.SECONDS.toMillis(rateLimitConfig.getSignInWindow());
+        this.clock = clock;
+        this.blockedKeys = new LocalCache<>(rateLimitConfig.getSignInLocalBlockSize(), clock);
+    }
+
+    /**
+     * Charges a sign in attempt to the client IP and the email it is for.
+     *
+     * @param clientIp the IP the attempt comes from.
+     * @param email    the email the attempt signs in to.
+     * @throws TooManyRequestsException if either is over its limit.
+     */
+    public void acquire(String clientIp, String email) throws TooManyRequestsException {
+        List<String> keys = List.of(getKey("ip", clientIp), getKey("email", email));
+        for (String key : keys) {
+            Optional<Instant> blockedUntil = blockedKeys.get(key);
+            if (blockedUntil.isPresent()) {
+                rejectedLocally.increment();
+                throw tooManyAttempts(blockedUntil.get().toEpochMilli() - clock.millis());
+            }
+        }
+
+        List<Long> waits = rateLimitDao.acquire(keys, maxAttempts, windowMillis);
+        long wait = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            long keyWait = waits.get(i);
+            if (keyWait > 0) {
+                // Only the keys that are over their limit are blocked, so one cannot lock out the other
+                Instant blockedUntil = clock.instant().plusMillis(keyWait);
+                blockedKeys.put(keys.get(i), blockedUntil, blockedUntil);
+                wait = Math.max(wait, keyWait);
+            }
+        }
+        if (wait > 0) {
+            rejectedByRedis.increment();
+            throw tooManyAttempts(wait);
+        }
+        allowed.increment();
+    }
+
+    /**
+     * Gives the attempt of a successful sign in back to the email's limit.
+     *
+     * @param email the email that was signed in to.
+     */
+    public void recordSuccess(String email) {
+        rateLimitDao.release(getKey("email", email), maxAttempts.get(1), windowMillis);
+    }
+
+    private static String getKey(String type, String value) {
+        return KEY_PREFIX + type + ":" + (value == null ? "" : value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static TooManyRequestsException tooManyAttempts(long waitMillis) {
+        long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+        return new TooManyRequestsException("Too many sign in attempts. Try again after " + new TimeFormatter().format(seconds) + ".");
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "signInThrottle";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejectedLocally", rejectedLocally.sum());
+        metrics.put("rejectedByRedis", rejectedByRedis.sum());
+        metrics.put("blockedKeys", blockedKeys.size());
+        return metrics;
+    }
+}
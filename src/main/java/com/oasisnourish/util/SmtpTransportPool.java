@@ -0,0 +1,294 @@
+package com.oasisnourish.util;
+
+import java.time.Clock;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.config.EmailConfig;
+import com.oasisnourish.metrics.MetricsSource;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * A pool of connected, authenticated SMTP {@link Transport transports}, so
+ * sending an email does not pay for a new TCP connection, STARTTLS handshake
+ * and login every time. Connections are handed out most recently used first;
+ * one that sat idle for a while is checked with a NOOP before it is reused,
+ * and one idle for longer than the idle timeout is closed. A send that fails
+ * on a pooled connection is retried once on a new one, since the server may
+ * have dropped it. Several messages can be sent in a row over the same
+ * connection.
+ */
+public class SmtpTransportPool implements MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final Clock clock;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+    private ScheduledExecutorService evictor;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+
+    public SmtpTransportPool(EmailConfig emailConfig) {
+        this(emailConfig, Session.getInstance(createProperties(emailConfig)), Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link SmtpTransportPool}.
+     *
+     * @param emailConfig the SMTP server, credentials and pool settings.
+     * @param session     the mail session transports are created from.
+     * @param clock       the clock idle times are measured with.
+     */
+    SmtpTransportPool(EmailConfig emailConfig, Session session, Clock clock) {
+        this.session = session;
+        this.host = emailConfig.getMailHost();
+        this.port = emailConfig.getMailPort();
+        this.username = emailConfig.isMailAuth() ? emailConfig.getMailUsername() : null;
+        this.password = emailConfig.isMailAuth() ? emailConfig.getMailPassword() : null;
+        this.poolSize = emailConfig.getPoolSize();
+        this.acquireTimeoutMillis = emailConfig.getMailTimeout();
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(emailConfig.getPoolIdleTimeout());
+        this.validationIntervalMillis = TimeUnit.SECONDS.toMillis(emailConfig.getPoolValidationInterval());
+        this.clock = clock;
+        this.permits = new Semaphore(poolSize);
+    }
+
+    /**
+     * Gets the session messages sent through the pool should be created with.
+     *
+     * @return the mail session.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Sends a message over a pooled connection, waiting for one to become free
+     * if all of them are in use.
+     *
+     * @param message the message to send.
+     * @throws MessagingException if the message could not be sent.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        MessagingException failure = sendBatch(List.of(message)).get(message);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sends several messages one after the other over a single pooled
+     * connection. A message that fails because of the connection is retried
+     * once on a new one; a message that cannot be sent does not stop the rest.
+     *
+     * @param messages the messages to send.
+     * @return why each message that could not be sent failed; empty if all
+     *         were sent.
+     * @throws MessagingException if no connection became free in time.
+     */
+    public Map<MimeMessage, MessagingException> sendBatch(List<MimeMessage> messages) throws MessagingException {
+        for (MimeMessage message : messages) {
+            message.saveChanges();
+        }
+        Map<MimeMessage, MessagingException> failures = new LinkedHashMap<>();
+        acquirePermit();
+        PooledTransport transport = null;
+        try {
+            for (MimeMessage message : messages) {
+                MessagingException failure = null;
+                for (int attempt = 0; attempt < 2; attempt++) {
+                    try {
+                        if (transport == null) {
+                            transport = attempt == 0 ? borrow() : connect();
+                        }
+                        transport.transport().sendMessage(message, message.getAllRecipients());
+                        failure = null;
+                        break;
+                    } catch (SendFailedException e) {
+                        // The server refused the message, not the connection
+                        failure = e;
+                        break;
+                    } catch (MessagingException e) {
+                        if (transport != null) {
+                            close(transport);
+                            transport = null;
+                        }
+                        failure = e;
+                        if (attempt == 0) {
+                            reconnects.increment();
+                        }
+                    }
+                }
+                if (failure == null) {
+                    sent.increment();
+                } else {
+                    sendFailures.increment();
+                    failures.put(message, failure);
+                }
+            }
+        } finally {
+            if (transport != null) {
+                release(transport);
+            }
+            permits.release();
+        }
+        return failures;
+    }
+
+    public void start() {
+        evictor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("smtp-pool-evictor").daemon().factory());
+        evictor.scheduleWithFixedDelay(this::evictIdle, idleTimeoutMillis, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            close(transport);
+        }
+    }
+
+    /**
+     * Closes the connections that have been idle for longer than the idle
+     * timeout.
+     */
+    void evictIdle() {
+        long now = clock.millis();
+        for (PooledTransport transport : idle) {
+            if (now - transport.releasedAt() >= idleTimeoutMillis && idle.removeFirstOccurrence(transport)) {
+                close(transport);
+                evicted.increment();
+            }
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection became free within " + acquireTimeoutMillis + "ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection.", e);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            long idleFor = clock.millis() - transport.releasedAt();
+            if (idleFor >= idleTimeoutMillis) {
+                close(transport);
+                evicted.increment();
+                continue;
+            }
+            // isConnected sends a NOOP, so only connections that sat for a while pay for it
+            if (idleFor >= validationIntervalMillis && !transport.transport().isConnected()) {
+                close(transport);
+                validationFailures.increment();
+                continue;
+            }
+            reused.increment();
+            return transport;
+        }
+        return connect();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        created.increment();
+        return new PooledTransport(transport, clock.millis());
+    }
+
+    private void release(PooledTransport transport) {
+        if (closed) {
+            close(transport);
+            return;
+        }
+        idle.offerFirst(new PooledTransport(transport.transport(), clock.millis()));
+    }
+
+    private static void close(PooledTransport transport) {
+        try {
+            transport.transport().close();
+        } catch (MessagingException e) {
+            LOGGER.debug("Could not close an SMTP connection cleanly: {}", e.getMessage());
+        }
+    }
+
+    private static Properties createProperties(EmailConfig emailConfig) {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", emailConfig.getMailHost());
+        props.put("mail.smtp.port", String.valueOf(emailConfig.getMailPort()));
+        props.put("mail.smtp.auth", String.valueOf(emailConfig.isMailAuth()));
+        props.put("mail.smtp.starttls.enable", String.valueOf(emailConfig.isMailStartTls()));
+        props.put("mail.smtp.connectiontimeout", String.valueOf(emailConfig.getMailTimeout()));
+        props.put("mail.smtp.timeout", String.valueOf(emailConfig.getMailTimeout()));
+        props.put("mail.smtp.writetimeout", String.valueOf(emailConfig.getMailTimeout()));
+        return props;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "smtpPool";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", poolSize);
+        metrics.put("active", poolSize - permits.availablePermits());
+        metrics.put("idle", idle.size());
+        metrics.put("created", created.sum());
+        metrics.put("reused", reused.sum());
+        metrics.put("evicted", evicted.sum());
+        metrics.put("validationFailures", validationFailures.sum());
+        metrics.put("reconnects", reconnects.sum());
+        metrics.put("sent", sent.sum());
+        metrics.put("sendFailures", sendFailures.sum());
+        return metrics;
+    }
+
+    private record PooledTransport(Transport transport, long releasedAt) {
+
+    }
+}
@@ -0,0 +1,222 @@
+package com.oasisnourish.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oasisnourish.dto.UserInputDto;
+
+/**
+ * Reads users from an uploaded CSV or NDJSON file a line at a time, so the
+ * file is never held in memory. A CSV file starts with a header naming its
+ * columns, of which name, email and password are read; quoted fields may hold
+ * commas and doubled quotes but not line breaks. An NDJSON file holds one JSON
+ * object per line. Blank lines are skipped, and a line that cannot be parsed
+ * becomes a row with an error rather than failing the whole file.
+ */
+public class UserImportReader implements Iterator<UserImportReader.Row>, Closeable {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * A line of the upload: the user it holds, or why it could not be parsed.
+     *
+     * @param line  the line number, from 1.
+     * @param user  the user, or null if the line could not be parsed.
+     * @param error why the line could not be parsed, or null.
+     */
+    public record Row(int line, UserInputDto user, String error) {
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final BufferedReader reader;
+    private final Format format;
+    private int lineNumber;
+    private int nameColumn = -1;
+    private int emailColumn = -1;
+    private int passwordColumn = -1;
+    private Row next;
+
+    public UserImportReader(InputStream input, Format format) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+    }
+
+    /**
+     * Gets the format of an upload from its content type.
+     *
+     * @param contentType the content type of the upload.
+     * @return the format, or an empty Optional if the content type is neither
+     *         CSV nor NDJSON.
+     */
+    public static Optional<Format> formatOf(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        return switch (contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT)) {
+            case "text/csv" -> Optional.of(Format.CSV);
+            case "application/x-ndjson", "application/jsonl" -> Optional.of(Format.NDJSON);
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the CSV header lacks a name, email
+     *                                  or password column.
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row readRow() {
+        String line;
+        while ((line = readLine()) != null) {
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.NDJSON) {
+                return parseJson(line);
+            }
+            if (emailColumn < 0) {
+                readHeader(line);
+                continue;
+            }
+            return parseCsv(line);
+        }
+        return null;
+    }
+
+    private Row parseJson(String line) {
+        try {
+            UserInputDto user = OBJECT_MAPPER.readValue(line, UserInputDto.class);
+            // A "null" line parses to no user at all
+            return user != null ? new Row(lineNumber, user, null) : new Row(lineNumber, null, "Invalid JSON.");
+        } catch (JsonProcessingException e) {
+            return new Row(lineNumber, null, "Invalid JSON.");
+        }
+    }
+
+    private void readHeader(String line) {
+        List<String> columns = parseCsvLine(line);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "name" -> nameColumn = i;
+                case "email" -> emailColumn = i;
+                case "password" -> passwordColumn = i;
+                default -> {
+                    // Other columns are ignored
+                }
+            }
+        }
+        if (nameColumn < 0 || emailColumn < 0 || passwordColumn < 0) {
+            throw new IllegalArgumentException("The CSV header must name the name, email and password columns.");
+        }
+    }
+
+    private Row parseCsv(String line) {
+        List<String> fields;
+        try {
+            fields = parseCsvLine(line);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNumber, null, e.getMessage());
+        }
+        if (fields.size() <= Math.max(nameColumn, Math.max(emailColumn, passwordColumn))) {
+            return new Row(lineNumber, null, "Missing columns.");
+        }
+        UserInputDto user = new UserInputDto(0, fields.get(nameColumn).trim(), fields.get(emailColumn).trim(),
+                fields.get(passwordColumn));
+        return new Row(lineNumber, user, null);
+    }
+
+    /**
+     * Splits a CSV line into its fields, unquoting quoted ones.
+     *
+     * @param line the line.
+     * @return the fields.
+     * @throws IllegalArgumentException if a quote is left open.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quote.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
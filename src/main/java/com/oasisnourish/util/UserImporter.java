@@ -0,0 +1,222 @@
+package com.oasisnourish.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.oasisnourish.config.PasswordConfig;
+import com.oasisnourish.dao.UserDao;
+import com.oasisnourish.dto.UserInputDto;
+import com.oasisnourish.dto.validation.CollectingDtoValidator;
+import com.oasisnourish.dto.validation.UserInputDtoValidator;
+import com.oasisnourish.metrics.LatencyHistogram;
+import com.oasisnourish.metrics.MetricsSource;
+import com.oasisnourish.models.User;
+import com.oasisnourish.models.UserImportResult;
+
+/**
+ * Imports users in bulk from the rows of an upload. Rows are validated as they
+ * are read and imported a chunk at a time: the passwords of a chunk are hashed
+ * in parallel on the importer's own workers, so an import cannot take the
+ * {@link PasswordHasher}'s workers from sign ins, and the chunk is then loaded
+ * with a single COPY. Each chunk is committed on its own, so a failure keeps
+ * the chunks already imported: the import stops there and reports what it has
+ * done so far. Rows whose email address is taken, or came earlier in the
+ * upload, are skipped before their password is hashed.
+ * Imported users have to confirm their email address, as after signing up.
+ */
+public class UserImporter implements MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImporter.class);
+
+    static final int CHUNK_SIZE = 1_000;
+    static final int MAX_ERRORS = 100;
+
+    private final UserDao userDao;
+    private final PasswordEncoder encoder;
+    private final int threads;
+    private final ExecutorService executor;
+
+    private final LongAdder imported = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LatencyHistogram chunkTime = new LatencyHistogram();
+
+    /**
+     * Constructs a {@link UserImporter} that hashes at the same cost as the
+     * {@link PasswordHasher}.
+     *
+     * @param userDao        the DAO the users are saved with.
+     * @param passwordHasher the hasher whose cost the imported passwords are
+     *                       hashed at.
+     * @param passwordConfig the number of hashing workers.
+     */
+    public UserImporter(UserDao userDao, PasswordHasher passwordHasher, PasswordConfig passwordConfig) {
+        this(userDao, new BCryptPasswordEncoder(passwordHasher.getCost()), passwordConfig.getImportThreads());
+    }
+
+    UserImporter(UserDao userDao, PasswordEncoder encoder, int threads) {
+        this.userDao = userDao;
+        this.encoder = encoder;
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("user-import-hasher-", 0).daemon().factory());
+    }
+
+    /**
+     * Imports the users of an upload.
+     *
+     * @param rows the rows of the upload.
+     * @return how many rows were imported, skipped and invalid.
+     */
+    public UserImportResult importUsers(Iterator<UserImportReader.Row> rows) {
+        int read = 0;
+        int importedUsers = 0;
+        int skippedUsers = 0;
+        int invalidUsers = 0;
+        List<String> errors = new ArrayList<>();
+        Map<String, UserInputDto> chunk = new LinkedHashMap<>();
+        int chunkLine = 0;
+
+        while (rows.hasNext()) {
+            UserImportReader.Row row = rows.next();
+            read++;
+            List<String> rowErrors = row.error() != null ? List.of(row.error()) : validate(row.user());
+            if (!rowErrors.isEmpty()) {
+                invalidUsers++;
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add("Line " + row.line() + ": " + String.join(" ", rowErrors));
+                }
+                continue;
+            }
+            if (chunk.isEmpty()) {
+                chunkLine = row.line();
+            }
+            if (chunk.putIfAbsent(row.user().getEmail(), row.user()) != null) {
+                skippedUsers++;
+            } else if (chunk.size() == CHUNK_SIZE) {
+                int count = importChunkQuietly(chunk.values(), chunkLine, errors);
+                if (count < 0) {
+                    chunk.clear();
+                    break;
+                }
+                importedUsers += count;
+                skippedUsers += chunk.size() - count;
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int count = importChunkQuietly(chunk.values(), chunkLine, errors);
+            if (count >= 0) {
+                importedUsers += count;
+                skippedUsers += chunk.size() - count;
+            }
+        }
+
+        imported.add(importedUsers);
+        skipped.add(skippedUsers);
+        invalid.add(invalidUsers);
+        return new UserImportResult(read, importedUsers, skippedUsers, invalidUsers, errors);
+    }
+
+    private static List<String> validate(UserInputDto user) {
+        CollectingDtoValidator<UserInputDto> validator = new CollectingDtoValidator<>(user);
+        new UserInputDtoValidator(validator)
+                .isNameRequired()
+                .isEmailRequired()
+                .isEmailValid()
+                .isPasswordRequired()
+                .isPasswordLengthValid()
+                .isPasswordPatternValid();
+        return validator.getErrors();
+    }
+
+    /**
+     * Imports a chunk, reporting a failure as an error rather than losing the
+     * counts of the chunks already committed.
+     *
+     * @param chunk  the users of the chunk.
+     * @param line   the line of the chunk's first user.
+     * @param errors the errors the failure is added to.
+     * @return the number of users imported, or -1 if the chunk failed.
+     */
+    private int importChunkQuietly(Collection<UserInputDto> chunk, int line, List<String> errors) {
+        try {
+            return importChunk(chunk);
+        } catch (RuntimeException e) {
+            LOGGER.error("User import stopped at line {}: {}", line, e.getMessage());
+            errors.add("Line " + line + ": Import stopped; rows from here on were not imported.");
+            return -1;
+        }
+    }
+
+    private int importChunk(Collection<UserInputDto> chunk) {
+        long start = System.nanoTime();
+        Set<String> existingEmails = userDao.findExistingEmails(chunk.stream().map(UserInputDto::getEmail).toList());
+        List<Future<User>> hashes = new ArrayList<>(chunk.size());
+        for (UserInputDto user : chunk) {
+            if (!existingEmails.contains(user.getEmail())) {
+                hashes.add(executor.submit(() -> new User(user.getName(), user.getEmail(), encoder.encode(user.getPassword()))));
+            }
+        }
+        if (hashes.isEmpty()) {
+            return 0;
+        }
+
+        List<User> users = new ArrayList<>(hashes.size());
+        try {
+            for (Future<User> hash : hashes) {
+                users.add(hash.get());
+            }
+        } catch (InterruptedException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords.", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+
+        // A user signing up since the lookup is skipped by the insert, not counted here
+        int count = userDao.importAll(users.iterator());
+        chunkTime.record(System.nanoTime() - start);
+        return count;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "userImport";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", threads);
+        metrics.put("imported", imported.sum());
+        metrics.put("skipped", skipped.sum());
+        metrics.put("invalid", invalid.sum());
+        metrics.put("chunk", chunkTime.getStats());
+        return metrics;
+    }
+}
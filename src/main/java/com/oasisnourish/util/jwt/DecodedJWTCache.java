@@ -0,0 +1,155 @@
+package com.oasisnourish.util.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.cache.InvalidationChannel;
+import com.oasisnourish.cache.LocalCache;
+import com.oasisnourish.config.CacheConfig;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.metrics.MetricsSource;
+
+/**
+ * Near-cache of verified JWTs keyed by the raw token string. Entries never
+ * outlive the token's own expiry and are invalidated across nodes through a
+ * Redis pub/sub channel when a token is deleted or a user's token versions
+ * change. The cached tokens are indexed by user, so dropping a user's tokens
+ * does not scan the cache.
+ * <p>
+ * A hit is served without checking the token allowlist in Redis. A token
+ * deleted on another node is therefore still accepted here until that node's
+ * invalidation message arrives; if the listener loses its connection the
+ * whole cache is dropped, and no entry is kept longer than
+ * {@code JWT_CACHE_MAX_TTL} in any case.
+ */
+public class DecodedJWTCache implements MetricsSource {
+
+    static final String INVALIDATION_CHANNEL = "jwt-cache-invalidation";
+    private static final String TOKEN_MESSAGE_PREFIX = "token:";
+    private static final String USER_MESSAGE_PREFIX = "user:";
+
+    private final LocalCache<String, DecodedJWT> cache;
+    private final Map<Integer, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    private final InvalidationChannel invalidationChannel;
+    private final Duration maxTtl;
+    private final Clock clock;
+
+    public DecodedJWTCache(RedisConnection redisConnection, CacheConfig cacheConfig) {
+        this(redisConnection, cacheConfig, Clock.systemUTC());
+    }
+
+    public DecodedJWTCache(RedisConnection redisConnection, CacheConfig cacheConfig, Clock clock) {
+        this.maxTtl = Duration.ofSeconds(cacheConfig.getJwtCacheMaxTtl());
+        this.clock = clock;
+        this.cache = new LocalCache<>(cacheConfig.getJwtCacheMaxSize(), clock, this::unindex);
+        this.invalidationChannel = new InvalidationChannel(redisConnection, INVALIDATION_CHANNEL,
+                this::handleInvalidation, cache::invalidateAll);
+    }
+
+    public Optional<DecodedJWT> get(String token) {
+        return cache.get(token);
+    }
+
+    /**
+     * Caches a verified token until its expiry, capped by the configured
+     * maximum TTL.
+     *
+     * @param token the raw token string.
+     * @param jwt   the verified token.
+     */
+    public void put(String token, DecodedJWT jwt) {
+        Instant expiresAt = clock.instant().plus(maxTtl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().toInstant().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAt().toInstant();
+        }
+        Integer userId = jwt.getClaim("userId").asInt();
+        if (userId == null) {
+            cache.put(token, jwt, expiresAt);
+            return;
+        }
+        // Indexed first, so a concurrent evictUser never misses a cached token
+        tokensByUser.compute(userId, (_, tokens) -> {
+            Set<String> indexed = tokens != null ? tokens : new HashSet<>();
+            indexed.add(token);
+            return indexed;
+        });
+        if (!cache.put(token, jwt, expiresAt)) {
+            unindex(token, jwt);
+        }
+    }
+
+    /**
+     * Drops a token from this node's cache and tells the other nodes to do
+     * the same.
+     *
+     * @param token the raw token string.
+     */
+    public void invalidateToken(String token) {
+        cache.invalidate(token);
+        invalidationChannel.publish(TOKEN_MESSAGE_PREFIX + token);
+    }
+
+    /**
+     * Drops every cached token of a user from this node's cache and tells the
+     * other nodes to do the same.
+     *
+     * @param userId the ID of the user whose tokens should be dropped.
+     */
+    public void invalidateUser(int userId) {
+        evictUser(userId);
+        invalidationChannel.publish(USER_MESSAGE_PREFIX + userId);
+    }
+
+    public void startListening() {
+        invalidationChannel.start();
+    }
+
+    public void stopListening() {
+        invalidationChannel.stop();
+    }
+
+    void handleInvalidation(String message) {
+        if (message.startsWith(TOKEN_MESSAGE_PREFIX)) {
+            cache.invalidate(message.substring(TOKEN_MESSAGE_PREFIX.length()));
+        } else if (message.startsWith(USER_MESSAGE_PREFIX)) {
+            evictUser(Integer.parseInt(message.substring(USER_MESSAGE_PREFIX.length())));
+        }
+    }
+
+    private void evictUser(int userId) {
+        Set<String> tokens = tokensByUser.remove(userId);
+        if (tokens != null) {
+            tokens.forEach(cache::invalidate);
+        }
+    }
+
+    private void unindex(String token, DecodedJWT jwt) {
+        Integer userId = jwt.getClaim("userId").asInt();
+        if (userId != null) {
+            tokensByUser.computeIfPresent(userId, (_, tokens) -> {
+                tokens.remove(token);
+                return tokens.isEmpty() ? null : tokens;
+            });
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "jwtCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(cache.getStats());
+        metrics.put("users", tokensByUser.size());
+        return metrics;
+    }
+}
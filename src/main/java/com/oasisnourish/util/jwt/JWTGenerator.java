@@ -1,25 +1,55 @@
 package com.oasisnourish.util.jwt;
 
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.oasisnourish.enums.Role;
 import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.models.User;
 
 public class JWTGenerator {
 
+    static final String MAX_EXPIRY_CLAIM = "maxExp";
+    static final String USER_VERSION_CLAIM = "userVersion";
+
+    // Role claims are fixed strings, so they are not rebuilt for every token
+    private static final Map<Role, String> ROLE_CLAIMS = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            ROLE_CLAIMS.put(role, role.name().toLowerCase());
+        }
+    }
+
     public String generate(User user, Algorithm algorithm, Tokens.Jwt tokenType, long tokenVersion, Instant issuedAt, Instant expiresAt) {
-        JWTCreator.Builder token = JWT.create()
+        return createToken(user, tokenType, tokenVersion, issuedAt, expiresAt).sign(algorithm);
+    }
+
+    /**
+     * Generates a token carrying the max expiry of the session it belongs to.
+     *
+     * @see #generate(User, Algorithm, Tokens.Jwt, long, Instant, Instant)
+     */
+    public String generate(User user, Algorithm algorithm, Tokens.Jwt tokenType, long tokenVersion, Instant issuedAt, Instant expiresAt, Instant maxExpiresAt) {
+        return createToken(user, tokenType, tokenVersion, issuedAt, expiresAt)
+                .withClaim(MAX_EXPIRY_CLAIM, maxExpiresAt)
+                .sign(algorithm);
+    }
+
+    private static JWTCreator.Builder createToken(User user, Tokens.Jwt tokenType, long tokenVersion, Instant issuedAt, Instant expiresAt) {
+        return JWT.create()
                 .withJWTId(UUID.randomUUID().toString())
                 .withIssuedAt(issuedAt)
                 .withExpiresAt(expiresAt)
                 .withClaim("version", tokenVersion)
                 .withClaim("type", tokenType.getType())
                 .withClaim("userId", user.getId())
-                .withClaim("role", user.getRole().name().toLowerCase());
-        return token.sign(algorithm);
+                .withClaim("role", ROLE_CLAIMS.get(user.getRole()))
+                .withClaim(USER_VERSION_CLAIM, user.getVersion());
     }
 }
@@ -1,42 +1,93 @@
 package com.oasisnourish.util.jwt;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.oasisnourish.config.JWTConfig;
 import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
 
+/**
+ * Mints and verifies JWTs. It holds no per-token state, so it can be shared by
+ * concurrent requests: the issue time and the session's max expiry of every
+ * token are passed in by the caller, and the max expiry travels in the
+ * token's {@value JWTGenerator#MAX_EXPIRY_CLAIM} claim so a refresh can keep
+ * the cap of the sign in it descends from.
+ */
 public class JWTProvider {
 
     private final JWTGenerator generator;
     private final JWTConfig config;
-    private Instant jwtCurrentTime;
-    private Instant jwtMaxExpiryTime;
+    private final Clock clock;
 
     public JWTProvider(JWTGenerator generator, JWTConfig config) {
+        this(generator, config, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link JWTProvider} reading the time from the given clock.
+     *
+     * @param generator the generator signing the tokens.
+     * @param config    the expiry and signing settings.
+     * @param clock     the clock issue times are read from.
+     */
+    public JWTProvider(JWTGenerator generator, JWTConfig config, Clock clock) {
         this.generator = generator;
         this.config = config;
-        jwtCurrentTime = Instant.now();
-        jwtMaxExpiryTime = jwtCurrentTime.plusSeconds(config.getJwtTokenMaxExpires());
+        this.clock = clock;
+    }
+
+    /**
+     * Reads the issue time for a new set of tokens. JWT dates only hold whole
+     * seconds, so the time is truncated to match what the token will carry.
+     *
+     * @return the current time, in whole seconds.
+     */
+    public Instant now() {
+        return clock.instant().truncatedTo(ChronoUnit.SECONDS);
     }
 
-    public JsonWebToken generateToken(User user, Tokens.Jwt tokenType, long tokenVersion) {
+    /**
+     * Works out the latest expiry of the tokens of a session signed in at the
+     * given time.
+     *
+     * @param signedInAt when the session was signed in.
+     * @return the time no token of the session may outlive.
+     */
+    public Instant getMaxExpiry(Instant signedInAt) {
+        return signedInAt.plusSeconds(config.getJwtTokenMaxExpires());
+    }
+
+    /**
+     * Generates a token expiring after its type's lifetime, or at the
+     * session's max expiry if that comes first.
+     *
+     * @param user         the user the token is issued to.
+     * @param tokenType    the type of token.
+     * @param tokenVersion the token version.
+     * @param issuedAt     the issue time, as returned by {@link #now()}.
+     * @param maxExpiry    the session's max expiry.
+     * @return the generated token.
+     */
+    public JsonWebToken generateToken(User user, Tokens.Jwt tokenType, long tokenVersion, Instant issuedAt, Instant maxExpiry) {
         Instant jwtTokenExpires = switch (tokenType) {
             case ACCESS_TOKEN ->
-                jwtCurrentTime.plusSeconds(config.getJwtAccessTokenExpires());
+                issuedAt.plusSeconds(config.getJwtAccessTokenExpires());
             case REFRESH_TOKEN ->
-                jwtCurrentTime.plusSeconds(config.getJwtRefreshTokenExpires());
+                issuedAt.plusSeconds(config.getJwtRefreshTokenExpires());
         };
 
-        if (jwtTokenExpires.isAfter(jwtMaxExpiryTime)) {
-            jwtTokenExpires = jwtMaxExpiryTime;
+        if (jwtTokenExpires.isAfter(maxExpiry)) {
+            jwtTokenExpires = maxExpiry;
         }
 
-        String token = generator.generate(user, config.getAlgorithm(), tokenType, tokenVersion, jwtCurrentTime, jwtTokenExpires);
+        String token = generator.generate(user, config.getAlgorithm(), tokenType, tokenVersion, issuedAt, jwtTokenExpires, maxExpiry);
         return new JsonWebToken(token, tokenType, tokenVersion, jwtTokenExpires, user.getId());
     }
 
@@ -48,19 +99,33 @@ public class JWTProvider {
         }
     }
 
-    public void updateJwtCurrentTime() {
-        jwtCurrentTime = Instant.now();
-    }
-
-    public void updateJwtMaxExpiryTime() {
-        jwtMaxExpiryTime = jwtCurrentTime.plusSeconds(config.getJwtTokenMaxExpires());
-    }
-
-    public Instant getJwtCurrentTime() {
-        return jwtCurrentTime;
+    /**
+     * Reads the max expiry of the session a token belongs to.
+     *
+     * @param jwt the decoded token.
+     * @return an {@link Optional} containing the max expiry, or an empty
+     *         {@link Optional} if the token does not carry one.
+     */
+    public static Optional<Instant> readMaxExpiry(DecodedJWT jwt) {
+        if (jwt == null) {
+            return Optional.empty();
+        }
+        Claim claim = jwt.getClaim(JWTGenerator.MAX_EXPIRY_CLAIM);
+        return claim == null || claim.isMissing() || claim.isNull() ? Optional.empty() : Optional.ofNullable(claim.asInstant());
     }
 
-    public Instant getJwtMaxExpiryTime() {
-        return jwtMaxExpiryTime;
+    /**
+     * Reads the change version of the user a token was issued to.
+     *
+     * @param jwt the decoded token.
+     * @return an {@link Optional} containing the user's change version, or an
+     *         empty {@link Optional} if the token does not carry one.
+     */
+    public static Optional<Integer> readUserVersion(DecodedJWT jwt) {
+        if (jwt == null) {
+            return Optional.empty();
+        }
+        Claim claim = jwt.getClaim(JWTGenerator.USER_VERSION_CLAIM);
+        return claim == null || claim.isMissing() || claim.isNull() ? Optional.empty() : Optional.ofNullable(claim.asInt());
     }
 }
@@ -0,0 +1,177 @@
+package com.oasisnourish.util.jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oasisnourish.cache.BloomFilter;
+import com.oasisnourish.cache.InvalidationChannel;
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.dao.RevokedTokenDao;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.metrics.MetricsSource;
+
+/**
+ * The set of revoked JWT IDs, mirrored on every node as a {@link BloomFilter}.
+ * A token the filter has never seen is known not to be revoked without asking
+ * Redis; only filter hits, genuine or false positive, are confirmed there.
+ * Revocations reach the other nodes through a pub/sub channel, and the filter
+ * is rebuilt from Redis periodically to drop expired entries and pick up
+ * anything a node missed while disconnected. Revocations that arrive while a
+ * rebuild is reading Redis are replayed into the new filter before it
+ * replaces the old one.
+ */
+public class RevocationList implements MetricsSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RevocationList.class);
+    static final String REVOCATION_CHANNEL = "jwt-revocation";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenDao revokedTokenDao;
+    private final int filterSize;
+    private final int syncInterval;
+    private final InvalidationChannel revocationChannel;
+    private final Object filterLock = new Object();
+    private volatile BloomFilter filter;
+    private List<String> revokedDuringSync;
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder filterMisses = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private volatile int revokedCount;
+
+    /**
+     * Constructs a {@link RevocationList}.
+     *
+     * @param redisConnection the Redis connection used to broadcast
+     *                        revocations.
+     * @param revokedTokenDao the DAO holding the revoked token IDs.
+     * @param jwtConfig       the filter size and sync interval settings.
+     */
+    public RevocationList(RedisConnection redisConnection, RevokedTokenDao revokedTokenDao, JWTConfig jwtConfig) {
+        this.revokedTokenDao = revokedTokenDao;
+        this.filterSize = jwtConfig.getRevocationFilterSize();
+        this.syncInterval = jwtConfig.getRevocationSyncInterval();
+        this.filter = new BloomFilter(filterSize, FALSE_POSITIVE_RATE);
+        this.revocationChannel = new InvalidationChannel(redisConnection, REVOCATION_CHANNEL,
+                this::addToFilter, this::syncQuietly);
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param tokenId the token's {@code jti} claim.
+     * @return true if the token was revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            filterMisses.increment();
+            return false;
+        }
+        filterHits.increment();
+        boolean revoked = revokedTokenDao.isRevoked(tokenId);
+        if (!revoked) {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes a token on every node until it expires.
+     *
+     * @param tokenId the token's {@code jti} claim.
+     * @param expires when the token expires.
+     */
+    public void revoke(String tokenId, Instant expires) {
+        revokedTokenDao.revoke(tokenId, expires);
+        addToFilter(tokenId);
+        revocationChannel.publish(tokenId);
+    }
+
+    /**
+     * Rebuilds the filter from the revoked token IDs in Redis.
+     */
+    public synchronized void sync() {
+        synchronized (filterLock) {
+            revokedDuringSync = new ArrayList<>();
+        }
+        try {
+            List<String> revoked = revokedTokenDao.findAllRevoked();
+            BloomFilter rebuilt = new BloomFilter(Math.max(filterSize, revoked.size()), FALSE_POSITIVE_RATE);
+            revoked.forEach(rebuilt::put);
+            synchronized (filterLock) {
+                // Revoked after the read above, so missing from it
+                revokedDuringSync.forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+            revokedCount = revoked.size();
+            syncs.increment();
+        } finally {
+            synchronized (filterLock) {
+                revokedDuringSync = null;
+            }
+        }
+    }
+
+    public void start() {
+        sync();
+        revocationChannel.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("jwt-revocation-sync").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, syncInterval, syncInterval, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        revocationChannel.stop();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void addToFilter(String tokenId) {
+        synchronized (filterLock) {
+            filter.put(tokenId);
+            if (revokedDuringSync != null) {
+                revokedDuringSync.add(tokenId);
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // Keep the current filter; the next run retries
+            LOGGER.warn("Could not sync the JWT revocation list: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "jwtRevocation";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long hits = filterHits.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("revoked", revokedCount);
+        metrics.put("filterMisses", filterMisses.sum());
+        metrics.put("filterHits", hits);
+        metrics.put("falsePositives", falsePositives.sum());
+        metrics.put("falsePositiveRate", hits == 0 ? 0.0 : (double) falsePositives.sum() / hits);
+        metrics.put("syncs", syncs.sum());
+        return metrics;
+    }
+}
@@ -0,0 +1,212 @@
+package com.oasisnourish.util.jwt;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.cache.LocalCache;
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.dao.TokenRefreshDao;
+import com.oasisnourish.metrics.MetricsSource;
+import com.oasisnourish.models.JsonWebToken;
+import com.oasisnourish.models.User;
+import com.oasisnourish.services.JWTService;
+import com.oasisnourish.services.UserService;
+
+/**
+ * Makes concurrent refreshes of the same refresh token share one new token
+ * pair. A browser waking up fires several API calls at once, all carrying the
+ * same expired access token; minting a pair for each would bump the user's
+ * token versions once per call and leave all but the last pair outdated.
+ * Refreshes in flight on this node are joined, and the pair is reused for a
+ * short window afterwards for calls that arrive late. With the Redis lock
+ * enabled, nodes also claim the refresh in Redis and share the pair there.
+ */
+public class TokenRefreshCoalescer implements MetricsSource {
+
+    private static final long POLL_INTERVAL_MILLIS = 25;
+    private static final int MAX_RECENT = 10_000;
+
+    private final TokenRefreshDao refreshDao;
+    private final long reuseWindowMillis;
+    private final long lockTimeoutMillis;
+    private final Clock clock;
+    private final Map<String, CompletableFuture<Optional<Map<String, JsonWebToken>>>> inFlight = new ConcurrentHashMap<>();
+    private final LocalCache<String, Map<String, JsonWebToken>> recent;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder mints = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder sharedByOtherNodes = new LongAdder();
+    private final LongAdder lockTimeouts = new LongAdder();
+
+    public TokenRefreshCoalescer(TokenRefreshDao refreshDao, JWTConfig jwtConfig) {
+        this(refreshDao, jwtConfig, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link TokenRefreshCoalescer}.
+     *
+     * @param refreshDao the DAO sharing refreshes between nodes, used only if
+     *                   the Redis lock is enabled.
+     * @param jwtConfig  the reuse window and Redis lock settings.
+     * @param clock      the clock the reuse window is measured with.
+     */
+    TokenRefreshCoalescer(TokenRefreshDao refreshDao, JWTConfig jwtConfig, Clock clock) {
+        this.refreshDao = jwtConfig.isRefreshLockEnabled() ? refreshDao : null;
+        this.reuseWindowMillis = TimeUnit.SECONDS.toMillis(jwtConfig.getRefreshReuseWindow());
+        this.lockTimeoutMillis = jwtConfig.getRefreshLockTimeout();
+        this.clock = clock;
+        this.recent = new LocalCache<>(MAX_RECENT, clock);
+    }
+
+    /**
+     * Issues new tokens for the user of a refresh token, sharing them with
+     * every other refresh of the same token.
+     *
+     * @param refreshToken the decoded, valid refresh token.
+     * @param jwtService   the service minting the tokens.
+     * @param userService  the service finding the token's user.
+     * @return an {@link Optional} containing the new tokens, or an empty
+     *         {@link Optional} if the user no longer exists.
+     */
+    public Optional<Map<String, JsonWebToken>> refresh(DecodedJWT refreshToken, JWTService jwtService, UserService userService) {
+        refreshes.increment();
+        String tokenId = refreshToken.getId();
+        Optional<Map<String, JsonWebToken>> recentTokens = recent.get(tokenId);
+        if (recentTokens.isPresent()) {
+            reused.increment();
+            return recentTokens;
+        }
+
+        CompletableFuture<Optional<Map<String, JsonWebToken>>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<Map<String, JsonWebToken>>> running = inFlight.putIfAbsent(tokenId, flight);
+        if (running != null) {
+            joined.increment();
+            return await(running);
+        }
+
+        try {
+            // The previous flight may have finished between the first look and claiming this one
+            Optional<Map<String, JsonWebToken>> tokens = recent.get(tokenId);
+            if (tokens.isEmpty()) {
+                tokens = refreshShared(refreshToken, jwtService, userService);
+                tokens.ifPresent(issued -> recent.put(tokenId, issued, clock.instant().plusMillis(reuseWindowMillis)));
+            }
+            flight.complete(tokens);
+            return tokens;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(tokenId, flight);
+        }
+    }
+
+    private Optional<Map<String, JsonWebToken>> refreshShared(DecodedJWT refreshToken, JWTService jwtService, UserService userService) {
+        if (refreshDao == null) {
+            return mint(refreshToken, jwtService, userService);
+        }
+
+        String tokenId = refreshToken.getId();
+        String owner = UUID.randomUUID().toString();
+        long deadline = clock.millis() + lockTimeoutMillis;
+        while (true) {
+            Optional<Map<String, JsonWebToken>> shared = findShared(tokenId, jwtService);
+            if (shared.isPresent()) {
+                sharedByOtherNodes.increment();
+                return shared;
+            }
+            if (refreshDao.tryLock(tokenId, owner, lockTimeoutMillis)) {
+                try {
+                    Optional<Map<String, JsonWebToken>> tokens = mint(refreshToken, jwtService, userService);
+                    tokens.ifPresent(issued -> refreshDao.saveRefreshed(tokenId, toTokenStrings(issued), reuseWindowMillis));
+                    return tokens;
+                } finally {
+                    refreshDao.unlock(tokenId, owner);
+                }
+            }
+            if (clock.millis() >= deadline) {
+                // The node holding the claim is stuck or gone; a second pair beats failing the request
+                lockTimeouts.increment();
+                return mint(refreshToken, jwtService, userService);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return mint(refreshToken, jwtService, userService);
+            }
+        }
+    }
+
+    private Optional<Map<String, JsonWebToken>> mint(DecodedJWT refreshToken, JWTService jwtService, UserService userService) {
+        Optional<User> user = userService.findUserById(refreshToken.getClaim("userId").asInt());
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        mints.increment();
+        return Optional.of(jwtService.createTokens(user.get(), JWTProvider.readMaxExpiry(refreshToken).orElse(null)));
+    }
+
+    // The shared pair only carries the raw tokens; the rest is read back the way any presented token is
+    private Optional<Map<String, JsonWebToken>> findShared(String tokenId, JWTService jwtService) {
+        Optional<Map<String, String>> shared = refreshDao.findRefreshed(tokenId);
+        if (shared.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, JsonWebToken> tokens = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : shared.get().entrySet()) {
+            Optional<JsonWebToken> token = jwtService.findToken(entry.getValue());
+            if (token.isEmpty()) {
+                return Optional.empty();
+            }
+            tokens.put(entry.getKey(), token.get());
+        }
+        return Optional.of(tokens);
+    }
+
+    private static Map<String, String> toTokenStrings(Map<String, JsonWebToken> tokens) {
+        Map<String, String> tokenStrings = new LinkedHashMap<>();
+        tokens.forEach((name, token) -> tokenStrings.put(name, token.getToken()));
+        return tokenStrings;
+    }
+
+    private static Optional<Map<String, JsonWebToken>> await(CompletableFuture<Optional<Map<String, JsonWebToken>>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "jwtRefresh";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("refreshes", refreshes.sum());
+        metrics.put("mints", mints.sum());
+        metrics.put("joined", joined.sum());
+        metrics.put("reused", reused.sum());
+        metrics.put("sharedByOtherNodes", sharedByOtherNodes.sum());
+        metrics.put("lockTimeouts", lockTimeouts.sum());
+        metrics.put("inFlight", inFlight.size());
+        return metrics;
+    }
+}
@@ -0,0 +1,182 @@
+package com.oasisnourish;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test for the authenticated read routes. It runs against a server that
+ * is already up, so start the app once per execution mode
+ * ({@code SERVER_EXECUTION_MODE=platform|virtual|virtual-db-limited}) and run
+ * this test against each:
+ *
+ * <pre>
+ * LOAD_TEST_BASE_URL=http://localhost:7070 LOAD_TEST_LABEL=virtual mvn test -Dtest=RouteLoadTest
+ * </pre>
+ *
+ * Throughput and latency are logged per route, and each route fails if its
+ * p99 exceeds {@code LOAD_TEST_MAX_P99_MS} (500ms) or its error rate exceeds
+ * {@code LOAD_TEST_MAX_ERROR_RATE} (1%). Every request comes from one signed
+ * in user, so start the server with {@code RATE_LIMIT_ENABLED=false}: a
+ * rate limited request fails the route on its own rather than counting as an
+ * error. Skipped unless {@code LOAD_TEST_BASE_URL} is set.
+ */
+@EnabledIfEnvironmentVariable(named = "LOAD_TEST_BASE_URL", matches = ".+")
+public class RouteLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteLoadTest.class);
+
+    private static final String BASE_URL = System.getenv("LOAD_TEST_BASE_URL");
+    private static final String LABEL = env("LOAD_TEST_LABEL", "unlabelled");
+    private static final String EMAIL = env("LOAD_TEST_EMAIL", "charlie@test.com");
+    private static final String PASSWORD = env("LOAD_TEST_PASSWORD", "Password789!");
+    private static final String USER_ID = env("LOAD_TEST_USER_ID", "1");
+    private static final int CONCURRENCY = Integer.parseInt(env("LOAD_TEST_CONCURRENCY", "200"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.parseLong(env("LOAD_TEST_SECONDS", "30")));
+    private static final double MAX_P99_MILLIS = Double.parseDouble(env("LOAD_TEST_MAX_P99_MS", "500"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(env("LOAD_TEST_MAX_ERROR_RATE", "0.01"));
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+
+    private static HttpClient client;
+
+    @BeforeAll
+    public static void signIn() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Sign in failed: " + response.body());
+    }
+
+    @Test
+    public void testCurrentUserRoute() throws InterruptedException {
+        report("/api/auth/me", run("/api/auth/me"));
+    }
+
+    @Test
+    public void testFindUserByIdRoute() throws InterruptedException {
+        report("/api/users/" + USER_ID, run("/api/users/" + USER_ID));
+    }
+
+    private Result run(String route) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + route)).GET().build();
+        drive(request, WARM_UP, Optional.empty());
+
+        Result result = new Result();
+        drive(request, DURATION, Optional.of(result));
+        return result;
+    }
+
+    private void drive(HttpRequest request, Duration duration, Optional<Result> result) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 429) {
+                                result.ifPresent(r -> r.rateLimited.increment());
+                                continue;
+                            }
+                            if (response.statusCode() != 200) {
+                                result.ifPresent(r -> r.errors.increment());
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            result.ifPresent(r -> r.errors.increment());
+                            continue;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    result.ifPresent(r -> r.addAll(latencies));
+                });
+            }
+        }
+    }
+
+    private void report(String route, Result result) {
+        List<Long> latencies = result.sorted();
+        double seconds = DURATION.toNanos() / 1e9;
+        long errors = result.errors.sum();
+        double p99 = percentile(latencies, 0.99);
+        double errorRate = (double) errors / Math.max(latencies.size() + errors, 1);
+        LOGGER.info(String.format("[%s] %s: %d requests, %.1f req/s, p50 %.2f ms, p99 %.2f ms, %d errors",
+                LABEL,
+                route,
+                latencies.size(),
+                latencies.size() / seconds,
+                percentile(latencies, 0.50),
+                p99,
+                errors));
+        long rateLimited = result.rateLimited.sum();
+        assertEquals(0, rateLimited, String.format(
+                "%d requests to %s were rate limited; start the server with RATE_LIMIT_ENABLED=false for load runs",
+                rateLimited, route));
+        assertTrue(!latencies.isEmpty(), "No successful requests to " + route);
+        assertTrue(p99 <= MAX_P99_MILLIS,
+                String.format("p99 of %s was %.2f ms, over the %.0f ms limit", route, p99, MAX_P99_MILLIS));
+        assertTrue(errorRate <= MAX_ERROR_RATE,
+                String.format("Error rate of %s was %.2f%%, over the %.2f%% limit", route, errorRate * 100, MAX_ERROR_RATE * 100));
+    }
+
+    private static double percentile(List<Long> sortedLatencies, double percentile) {
+        if (sortedLatencies.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.size()) - 1;
+        return sortedLatencies.get(Math.max(index, 0)) / 1e6;
+    }
+
+    private static String env(String key, String defaultValue) {
+        String value = System.getenv(key);
+        return value == null ? defaultValue : value;
+    }
+
+    private static class Result {
+
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+
+        void addAll(List<Long> values) {
+            latencies.addAll(values);
+        }
+
+        List<Long> sorted() {
+            List<Long> copy = new ArrayList<>(latencies);
+            Collections.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.oasisnourish.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPooled;
+
+@ExtendWith(MockitoExtension.class)
+public class InvalidationChannelTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    private final List<String> applied = new ArrayList<>();
+
+    @Test
+    public void publish_TagsMessageWithOrigin() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        InvalidationChannel channel = newChannel();
+
+        channel.publish("1");
+
+        verify(jedis).publish("test-channel", channel.getOrigin() + "|1");
+    }
+
+    @Test
+    public void receive_IgnoresOwnMessages() {
+        InvalidationChannel channel = newChannel();
+
+        channel.receive(channel.getOrigin() + "|1");
+        channel.receive("other-node|2");
+        channel.receive("3");
+
+        assertEquals(List.of("2", "3"), applied);
+    }
+
+    private InvalidationChannel newChannel() {
+        return new InvalidationChannel(redisConnection, "test-channel", applied::add, () -> {
+        });
+    }
+}
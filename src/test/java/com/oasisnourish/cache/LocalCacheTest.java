@@ -0,0 +1,97 @@
+package com.oasisnourish.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LocalCacheTest {
+
+    private final Instant now = Instant.parse("2024-01-01T00:00:00Z");
+    private LocalCache<String, String> cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new LocalCache<>(2, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void testGet_ReturnsCachedValueAndCountsHit() {
+        cache.put("a", "1", now.plusSeconds(60));
+
+        assertEquals("1", cache.get("a").get());
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testGet_MissingKeyCountsMiss() {
+        assertTrue(cache.get("missing").isEmpty());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testGet_ExpiredEntryIsDropped() {
+        LocalCache<String, String> lateCache = new LocalCache<>(2, Clock.fixed(now.plusSeconds(5), ZoneOffset.UTC));
+        lateCache.put("a", "1", now.plusSeconds(10));
+
+        LocalCache<String, String> expiredCache = new LocalCache<>(2, Clock.fixed(now.plusSeconds(15), ZoneOffset.UTC));
+        expiredCache.put("a", "1", now.plusSeconds(10));
+
+        assertTrue(lateCache.get("a").isPresent());
+        assertTrue(expiredCache.get("a").isEmpty());
+        assertEquals(0, expiredCache.size());
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsed() {
+        cache.put("a", "1", now.plusSeconds(60));
+        cache.put("b", "2", now.plusSeconds(60));
+        cache.get("a");
+        cache.put("c", "3", now.plusSeconds(60));
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testInvalidateIf_RemovesMatchingEntries() {
+        cache.put("a", "1", now.plusSeconds(60));
+        cache.put("b", "2", now.plusSeconds(60));
+
+        cache.invalidateIf((key, value) -> value.equals("1"));
+
+        assertTrue(cache.get("a").isEmpty());
+        assertTrue(cache.get("b").isPresent());
+    }
+
+    @Test
+    public void testRemovalListener_ReportsEvictedAndInvalidatedEntries() {
+        List<String> removed = new ArrayList<>();
+        LocalCache<String, String> listenedCache = new LocalCache<>(2, Clock.fixed(now, ZoneOffset.UTC),
+                (key, value) -> removed.add(key + "=" + value));
+        listenedCache.put("a", "1", now.plusSeconds(60));
+        listenedCache.put("b", "2", now.plusSeconds(60));
+        listenedCache.put("c", "3", now.plusSeconds(60));
+        listenedCache.invalidate("b");
+        listenedCache.invalidate("missing");
+        listenedCache.invalidateAll();
+
+        assertEquals(List.of("a=1", "b=2", "c=3"), removed);
+    }
+
+    @Test
+    public void testPut_ReportsWhetherValueWasStored() {
+        assertTrue(cache.put("a", "1", now.plusSeconds(60)));
+        assertFalse(cache.put("b", "2", now));
+    }
+}
@@ -3,7 +3,9 @@ package com.oasisnourish.controllers;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -12,28 +14,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.oasisnourish.dto.UserInputDto;
+import com.oasisnourish.enums.Role;
 import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
 import com.oasisnourish.services.AuthService;
 import com.oasisnourish.services.JWTService;
 import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.AuthContextLoader;
 import com.oasisnourish.util.RoleValidator;
 import com.oasisnourish.util.SessionManager;
-import com.oasisnourish.util.jwt.JWTProvider;
 
+import io.github.cdimascio.dotenv.Dotenv;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 import io.javalin.validation.BodyValidator;
 import io.javalin.validation.Validator;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthControllerTest {
@@ -53,6 +56,9 @@ public class AuthControllerTest {
     @Mock
     private RoleValidator roleValidator;
 
+    @Mock
+    private AuthContextLoader authContextLoader;
+
     @Mock
     private Context ctx;
 
@@ -87,12 +93,12 @@ public class AuthControllerTest {
 
         when(ctx.bodyValidator(UserInputDto.class)).thenReturn(bodyValidator);
         when(bodyValidator.get()).thenReturn(userDto);
-        when(jwtService.getProvider()).thenReturn(mock(JWTProvider.class));
-        when(authService.signInUser(userDto)).thenReturn(tokens);
+        when(ctx.ip()).thenReturn("127.0.0.1");
+        when(authService.signInUser(userDto, "127.0.0.1")).thenReturn(tokens);
 
         authController.signInUser(ctx);
 
-        verify(authService).signInUser(userDto);
+        verify(authService).signInUser(userDto, "127.0.0.1");
         verify(sessionManager).setTokensInCookies(ctx, tokens);
         verify(ctx).status(HttpStatus.OK);
         verify(ctx).result("Sign in successful.");
@@ -153,17 +159,11 @@ public class AuthControllerTest {
 
     @Test
     void testSignOutUser() {
-        HttpServletRequest req = mock(HttpServletRequest.class);
-        HttpSession session = mock(HttpSession.class);
-
         doNothing().when(sessionManager).invalidateSession(ctx);
-        when(ctx.req()).thenReturn(req);
-        when(req.getSession()).thenReturn(session);
 
         authController.signOutUser(ctx);
 
         verify(sessionManager).invalidateSession(ctx);
-        verify(session).invalidate();
         verify(ctx).status(HttpStatus.NO_CONTENT);
         verify(ctx).result("Sign out successful.");
     }
@@ -181,14 +181,60 @@ public class AuthControllerTest {
         verify(roleValidator).validateRole(ctx, jwtService, decodedJwt);
     }
 
+    @Test
+    void testLoadAuthContext() {
+        authController.loadAuthContext(ctx);
+
+        verify(sessionManager).loadAuthContext(ctx, authContextLoader);
+    }
+
+    @Test
+    void testAuthorizeGuest() {
+        authController.authorizeGuest(ctx);
+
+        verify(roleValidator).validateRole(ctx, jwtService, null);
+        verify(sessionManager, never()).validateAndSetUserSession(ctx, jwtService, userService);
+    }
+
+    @Test
+    void testAuthorizeGuestRoute() {
+        DecodedJWT jwt = mock(DecodedJWT.class);
+        when(sessionManager.verifyJwtFromCookies(ctx, jwtService)).thenReturn(jwt);
+
+        authController.authorizeGuestRoute(ctx);
+
+        verify(roleValidator).validateRole(ctx, jwtService, jwt);
+        verify(sessionManager, never()).decodeJWTFromCookie(ctx, jwtService, userService);
+    }
+
+    @Test
+    void testAuthorizeGuestRoute_StaleCookiesCanStillSignIn() {
+        Dotenv dotenv = mock(Dotenv.class);
+        when(dotenv.get("SESSION_MODE", "session")).thenReturn("stateless");
+        AuthController guestRouteController = new AuthController(userService, authService, jwtService,
+                new SessionManager(dotenv), new RoleValidator(), authContextLoader);
+        // POST /api/auth/signin is open to guests only
+        when(ctx.routeRoles()).thenReturn(Set.of(Role.GUEST));
+        when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn("revoked-access-token");
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("revoked-refresh-token");
+        when(jwtService.decodeToken(anyString())).thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> guestRouteController.authorizeGuestRoute(ctx));
+        verify(ctx).removeCookie("JWT_ACCESS_TOKEN");
+        verify(ctx).removeCookie("JWT_REFRESH_TOKEN");
+    }
+
     @Test
     void testUpdateSessionUserIfChanged() {
         JsonWebToken jwtAccessToken = new JsonWebToken("accessToken", Tokens.Jwt.ACCESS_TOKEN, 1L, Instant.now().plusSeconds(30L), user.getId());
         JsonWebToken jwtRefreshToken = new JsonWebToken("refreshToken", Tokens.Jwt.REFRESH_TOKEN, 1L, Instant.now().plusSeconds(60L), user.getId());
         Map<String, JsonWebToken> tokens = Map.of("JWT_ACCESS_TOKEN", jwtAccessToken, "JWT_REFRESH_TOKEN", jwtRefreshToken);
 
-        when(ctx.sessionAttribute("currentUser")).thenReturn(user);
-        when(authService.updateSignedInUserIfChanged(user)).thenReturn(Optional.of(tokens));
+        DecodedJWT jwt = mock(DecodedJWT.class);
+
+        when(sessionManager.getSignedInUser(ctx)).thenReturn(user);
+        when(sessionManager.getJwtFromSession(ctx)).thenReturn(jwt);
+        when(authService.updateSignedInUserIfChanged(user, jwt)).thenReturn(Optional.of(tokens));
 
         authController.updateSessionUserIfChanged(ctx);
 
@@ -0,0 +1,131 @@
+package com.oasisnourish.controllers;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.enums.Role;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.UnauthorizedResponse;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthPipelineTest {
+
+    @Mock
+    private AuthController authController;
+
+    @Mock
+    private Context ctx;
+
+    @InjectMocks
+    private AuthPipeline authPipeline;
+
+    @Test
+    public void testRequiresAuthentication() {
+        assertFalse(AuthPipeline.requiresAuthentication(Set.of(Role.GUEST)));
+        assertTrue(AuthPipeline.requiresAuthentication(Set.of(Role.ADMIN)));
+        assertTrue(AuthPipeline.requiresAuthentication(Set.of(Role.GUEST, Role.USER)));
+        assertTrue(AuthPipeline.requiresAuthentication(Set.of()));
+    }
+
+    @Test
+    public void testBefore_GuestOnlyRouteSkipsEveryStage() {
+        authPipeline.registerRoute(HandlerType.POST, "/api/auth/signin", Set.of(Role.GUEST));
+        when(ctx.method()).thenReturn(HandlerType.POST);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/auth/signin");
+        when(authController.hasAuthCookies(ctx)).thenReturn(false);
+
+        authPipeline.before(ctx);
+
+        verify(authController, never()).authorizeGuestRoute(ctx);
+        verify(authController, never()).loadAuthContext(ctx);
+        assertEquals(1L, authPipeline.getMetrics().get("skippedGuestRoutes"));
+    }
+
+    @Test
+    public void testBefore_GuestOnlyRouteWithCookiesChecksCookieRole() {
+        authPipeline.registerRoute(HandlerType.POST, "/api/auth/signin", Set.of(Role.GUEST));
+        when(ctx.method()).thenReturn(HandlerType.POST);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/auth/signin");
+        when(authController.hasAuthCookies(ctx)).thenReturn(true);
+        doThrow(new UnauthorizedResponse()).when(authController).authorizeGuestRoute(ctx);
+
+        assertThrows(UnauthorizedResponse.class, () -> authPipeline.before(ctx));
+
+        verify(authController, never()).loadAuthContext(ctx);
+        verify(authController, never()).decodeJWTFromCookie(ctx);
+        verify(authController, never()).handle(ctx);
+    }
+
+    @Test
+    public void testBefore_NoCookiesOnlyChecksRoles() {
+        authPipeline.registerRoute(HandlerType.GET, "/api/auth/me", Set.of(Role.USER));
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/auth/me");
+        when(authController.hasAuthCookies(ctx)).thenReturn(false);
+        doThrow(new UnauthorizedResponse()).when(authController).authorizeGuest(ctx);
+
+        assertThrows(UnauthorizedResponse.class, () -> authPipeline.before(ctx));
+
+        verify(authController, never()).loadAuthContext(ctx);
+        verify(authController, never()).decodeJWTFromCookie(ctx);
+        verify(authController, never()).handle(ctx);
+        assertEquals(1L, authPipeline.getMetrics().get("skippedNoCookies"));
+    }
+
+    @Test
+    public void testBefore_WithCookiesRunsDecodeAndValidate() {
+        authPipeline.registerRoute(HandlerType.GET, "/api/auth/me", Set.of(Role.USER));
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/auth/me");
+        when(authController.hasAuthCookies(ctx)).thenReturn(true);
+
+        authPipeline.before(ctx);
+
+        verify(authController).loadAuthContext(ctx);
+        verify(authController).decodeJWTFromCookie(ctx);
+        verify(authController).handle(ctx);
+        verify(ctx).attribute("authPipeline.authenticated", true);
+        assertEquals(1L, ((Map<?, ?>) authPipeline.getMetrics().get("validate")).get("count"));
+    }
+
+    @Test
+    public void testBefore_UnregisteredRouteUsesRouteRoles() {
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/unknown");
+        when(ctx.routeRoles()).thenReturn(Set.of(Role.GUEST));
+        when(authController.hasAuthCookies(ctx)).thenReturn(false);
+
+        authPipeline.before(ctx);
+        authPipeline.before(ctx);
+
+        verify(ctx).routeRoles();
+        verify(authController, never()).authorizeGuestRoute(ctx);
+    }
+
+    @Test
+    public void testAfter_SyncsOnlyAuthenticatedRequests() {
+        when(ctx.attribute("authPipeline.authenticated")).thenReturn(null);
+        authPipeline.after(ctx);
+        verify(authController, never()).updateSessionUserIfChanged(ctx);
+
+        when(ctx.attribute("authPipeline.authenticated")).thenReturn(true);
+        authPipeline.after(ctx);
+        verify(authController).updateSessionUserIfChanged(ctx);
+    }
+}
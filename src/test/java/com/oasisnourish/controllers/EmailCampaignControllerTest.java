@@ -0,0 +1,124 @@
+package com.oasisnourish.controllers;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.dto.EmailCampaignInputDto;
+import com.oasisnourish.dto.EmailCampaignResponseDto;
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.EmailCampaign;
+import com.oasisnourish.services.EmailCampaignService;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import io.javalin.validation.BodyValidator;
+import io.javalin.validation.Validator;
+
+/**
+ * Unit tests for the {@link EmailCampaignController} class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EmailCampaignControllerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private EmailCampaignService campaignService;
+
+    @Mock
+    private Context ctx;
+
+    @Mock
+    private BodyValidator<EmailCampaignInputDto> bodyValidator;
+
+    @Mock
+    private Validator<Integer> paramValidator;
+
+    @InjectMocks
+    private EmailCampaignController campaignController;
+
+    @Test
+    public void testCreateCampaign() {
+        EmailCampaignInputDto campaignDto = new EmailCampaignInputDto("Summer sale", "campaign/newsletter",
+                Map.of("heading", "Summer sale"));
+        EmailCampaign campaign = campaign(CampaignStatus.RUNNING);
+        when(ctx.bodyValidator(EmailCampaignInputDto.class)).thenReturn(bodyValidator);
+        when(bodyValidator.check(anyString(), any(), anyString())).thenReturn(bodyValidator);
+        when(bodyValidator.get()).thenReturn(campaignDto);
+        when(campaignService.startCampaign(campaignDto)).thenReturn(campaign);
+
+        campaignController.createCampaign(ctx);
+
+        verify(ctx).status(HttpStatus.ACCEPTED);
+        EmailCampaignResponseDto response = captureJson();
+        assertEquals(3, response.getId());
+        assertEquals(CampaignStatus.RUNNING, response.getStatus());
+        assertEquals("2024-01-01T00:00:00", response.getCreatedAt());
+    }
+
+    @Test
+    public void testFindCampaignById_CampaignFound() {
+        EmailCampaign campaign = campaign(CampaignStatus.RUNNING);
+        campaign.setSent(40);
+        when(ctx.pathParamAsClass("campaignId", Integer.class)).thenReturn(paramValidator);
+        when(paramValidator.get()).thenReturn(3);
+        when(campaignService.findCampaignById(3)).thenReturn(Optional.of(campaign));
+
+        campaignController.findCampaignById(ctx);
+
+        verify(ctx).status(HttpStatus.OK);
+        assertEquals(40, captureJson().getSent());
+    }
+
+    @Test
+    public void testFindCampaignById_CampaignNotFound() {
+        when(ctx.pathParamAsClass("campaignId", Integer.class)).thenReturn(paramValidator);
+        when(paramValidator.get()).thenReturn(3);
+        when(campaignService.findCampaignById(3)).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> campaignController.findCampaignById(ctx));
+        assertEquals("Campaign does not exist.", exception.getMessage());
+    }
+
+    @Test
+    public void testCancelCampaign() {
+        when(ctx.pathParamAsClass("campaignId", Integer.class)).thenReturn(paramValidator);
+        when(paramValidator.get()).thenReturn(3);
+        when(campaignService.cancelCampaign(3)).thenReturn(campaign(CampaignStatus.CANCELLED));
+
+        campaignController.cancelCampaign(ctx);
+
+        verify(ctx).status(HttpStatus.OK);
+        assertEquals(CampaignStatus.CANCELLED, captureJson().getStatus());
+    }
+
+    private EmailCampaignResponseDto captureJson() {
+        ArgumentCaptor<EmailCampaignResponseDto> captor = ArgumentCaptor.forClass(EmailCampaignResponseDto.class);
+        verify(ctx).json(captor.capture());
+        return captor.getValue();
+    }
+
+    private static EmailCampaign campaign(CampaignStatus status) {
+        EmailCampaign campaign = new EmailCampaign("Summer sale", "campaign/newsletter", Map.of(), NOW);
+        campaign.setId(3);
+        campaign.setStatus(status);
+        return campaign;
+    }
+}
@@ -1,6 +1,10 @@
 package com.oasisnourish.controllers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,20 +18,32 @@ import org.mockito.Mock;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.oasisnourish.dao.Consumer.EntityConsumer;
+import com.oasisnourish.dto.PageResponseDto;
 import com.oasisnourish.dto.UserInputDto;
 import com.oasisnourish.dto.UserResponseDto;
 import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.Page;
 import com.oasisnourish.models.User;
+import com.oasisnourish.models.UserImportResult;
 import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.CursorCodec;
+import com.oasisnourish.util.SessionManager;
+import com.oasisnourish.util.UserImporter;
 
+import io.javalin.http.BadRequestResponse;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
 import io.javalin.validation.BodyValidator;
 import io.javalin.validation.Validator;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 
 /**
  * Unit tests for the {@link UserController} class. This class tests the methods
@@ -39,6 +55,12 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SessionManager sessionManager;
+
+    @Mock
+    private UserImporter userImporter;
+
     @Mock
     private Context ctx;
 
@@ -52,19 +74,97 @@ public class UserControllerTest {
     private UserController userController;
 
     /**
-     * Tests the findAllUsers method to ensure it returns a list of users.
+     * Tests the findAllUsers method to ensure it returns the first page of
+     * users with a cursor for the next page.
      */
     @Test
-    public void testFindAllUsers() {
+    public void testFindAllUsers_FirstPage() {
         User user1 = new User(1, "Alice", "alice@test.com", "Password123!");
         User user2 = new User(2, "Bob", "bob@test.com", "Password456!");
         List<User> usersList = Arrays.asList(user1, user2);
-        when(userService.findAllUsers()).thenReturn(usersList);
+        mockLimit(2);
+        when(userService.findUsersPage(0, 2)).thenReturn(new Page<>(usersList, true));
+
+        userController.findAllUsers(ctx);
+
+        verify(ctx).status(HttpStatus.OK);
+        verify(ctx).json(new PageResponseDto<>(
+                usersList.stream().map(UserResponseDto::fromModel).collect(Collectors.toList()),
+                CursorCodec.encode(2)));
+    }
+
+    /**
+     * Tests the findAllUsers method to ensure the cursor selects the next page
+     * and the last page has no cursor.
+     */
+    @Test
+    public void testFindAllUsers_LastPage() {
+        User user3 = new User(3, "Charlie", "charlie@test.com", "Password789!");
+        mockLimit(2);
+        when(ctx.queryParam("stream")).thenReturn(null);
+        when(ctx.queryParam("cursor")).thenReturn(CursorCodec.encode(2));
+        when(userService.findUsersPage(2, 2)).thenReturn(new Page<>(List.of(user3), false));
+
+        userController.findAllUsers(ctx);
+
+        verify(ctx).json(new PageResponseDto<>(List.of(UserResponseDto.fromModel(user3)), null));
+    }
+
+    /**
+     * Tests the findAllUsers method when the cursor is not one we issued.
+     */
+    @Test
+    public void testFindAllUsers_InvalidCursor() {
+        mockLimit(2);
+        when(ctx.queryParam("stream")).thenReturn(null);
+        when(ctx.queryParam("cursor")).thenReturn("not-a-cursor");
+
+        assertThrows(BadRequestResponse.class, () -> userController.findAllUsers(ctx));
+    }
+
+    /**
+     * Tests the findAllUsers method in streaming mode writes a JSON array
+     * directly to the response.
+     */
+    @Test
+    public void testFindAllUsers_Stream() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(ctx.queryParam("stream")).thenReturn("true");
+        when(ctx.outputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        doAnswer(invocation -> {
+            EntityConsumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(new User(1, "Alice", "alice@test.com", "Password123!"));
+            consumer.accept(new User(2, "Bob", "bob@test.com", "Password456!"));
+            return null;
+        }).when(userService).forEachUser(any());
 
         userController.findAllUsers(ctx);
 
+        String json = body.toString();
         verify(ctx).status(HttpStatus.OK);
-        verify(ctx).json(usersList.stream().map(UserResponseDto::fromModel).collect(Collectors.toList()));
+        assertEquals('[', json.charAt(0));
+        assertEquals(']', json.charAt(json.length() - 1));
+        assertEquals(2, json.split("\"email\"").length - 1);
+    }
+
+    private void mockLimit(int limit) {
+        when(ctx.queryParamAsClass("limit", Integer.class)).thenReturn(paramValidator);
+        when(paramValidator.check(any(), anyString())).thenReturn(paramValidator);
+        when(paramValidator.getOrDefault(50)).thenReturn(limit);
     }
 
     /**
@@ -120,7 +220,7 @@ public class UserControllerTest {
      */
     @Test
     public void testUpdateUser() {
-        when(ctx.sessionAttribute("currentUser")).thenReturn(new User(1, "", "", ""));
+        when(sessionManager.getSignedInUser(ctx)).thenReturn(new User(1, "", "", ""));
 
         UserInputDto userDto = new UserInputDto(1, "Alice", "alice@test.com", "Password123!");
         when(ctx.pathParamAsClass("userId", Integer.class)).thenReturn(paramValidator);
@@ -141,7 +241,7 @@ public class UserControllerTest {
      */
     @Test
     public void testDeleteUser() {
-        when(ctx.sessionAttribute("currentUser")).thenReturn(new User(1, "", "", ""));
+        when(sessionManager.getSignedInUser(ctx)).thenReturn(new User(1, "", "", ""));
         when(ctx.pathParamAsClass("userId", Integer.class)).thenReturn(paramValidator);
         when(paramValidator.get()).thenReturn(1);
 
@@ -150,4 +250,38 @@ public class UserControllerTest {
         verify(userService).deleteUser(1);
         verify(ctx).status(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Tests the importUsers method to ensure an upload is imported and the
+     * result returned.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportUsers() {
+        UserImportResult result = new UserImportResult(1, 1, 0, 0, List.of());
+        when(ctx.contentType()).thenReturn("text/csv");
+        when(ctx.bodyInputStream()).thenReturn(new ByteArrayInputStream(
+                "name,email,password\nAlice,alice@test.com,Password123!\n".getBytes(StandardCharsets.UTF_8)));
+        when(userImporter.importUsers(any(Iterator.class))).thenReturn(result);
+
+        userController.importUsers(ctx);
+
+        verify(ctx).status(HttpStatus.OK);
+        verify(ctx).json(result);
+    }
+
+    /**
+     * Tests the importUsers method to ensure an upload that is neither CSV nor
+     * NDJSON is rejected.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportUsers_UnsupportedContentType() {
+        when(ctx.contentType()).thenReturn("application/json");
+
+        BadRequestResponse exception = assertThrows(BadRequestResponse.class, () -> userController.importUsers(ctx));
+
+        assertEquals("Content type must be text/csv or application/x-ndjson.", exception.getMessage());
+        verify(userImporter, never()).importUsers(any(Iterator.class));
+    }
 }
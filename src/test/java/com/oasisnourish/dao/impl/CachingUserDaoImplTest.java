@@ -0,0 +1,251 @@
+package com.oasisnourish.dao.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.config.CacheConfig;
+import com.oasisnourish.dao.UserDao;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.models.User;
+
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingUserDaoImplTest {
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @Mock
+    private Pipeline pipeline;
+
+    @Mock
+    private CacheConfig cacheConfig;
+
+    private final User user = new User(1, "John Doe", "john@example.com", "hashed", Role.USER);
+
+    private CachingUserDaoImpl createDao(boolean redisEnabled) {
+        when(cacheConfig.getUserCacheMaxSize()).thenReturn(100);
+        when(cacheConfig.getUserCacheTtl()).thenReturn(600);
+        when(cacheConfig.isUserCacheRedisEnabled()).thenReturn(redisEnabled);
+        return new CachingUserDaoImpl(userDao, redisConnection, cacheConfig);
+    }
+
+    @Test
+    public void testFind_LocalHitSkipsDatabase() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(userDao.find(1)).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), cachingUserDao.find(1));
+        assertEquals(Optional.of(user), cachingUserDao.find(1));
+
+        verify(userDao, times(1)).find(1);
+    }
+
+    @Test
+    public void testFind_ReturnsCopies() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(userDao.find(1)).thenReturn(Optional.of(user));
+
+        User first = cachingUserDao.find(1).orElseThrow();
+        first.setName("Changed");
+        User second = cachingUserDao.find(1).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("John Doe", second.getName());
+    }
+
+    @Test
+    public void testFind_NotFoundIsNotCached() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(userDao.find(2)).thenReturn(Optional.empty());
+
+        assertTrue(cachingUserDao.find(2).isEmpty());
+        assertTrue(cachingUserDao.find(2).isEmpty());
+
+        verify(userDao, times(2)).find(2);
+    }
+
+    @Test
+    public void testFind_RedisHitSkipsDatabase() {
+        CachingUserDaoImpl cachingUserDao = createDao(true);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.hgetAll("user-cache:1")).thenReturn(CachingUserDaoImpl.toCacheFields(user));
+
+        assertEquals(Optional.of(user), cachingUserDao.find(1));
+
+        verify(userDao, never()).find(1);
+    }
+
+    @Test
+    public void testFind_RedisMissLoadsAndStoresUserWithoutPassword() {
+        CachingUserDaoImpl cachingUserDao = createDao(true);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.hgetAll("user-cache:1")).thenReturn(Map.of());
+        when(userDao.find(1)).thenReturn(Optional.of(user));
+
+        assertEquals("hashed", cachingUserDao.find(1).orElseThrow().getPassword());
+        assertNull(cachingUserDao.find(1).orElseThrow().getPassword());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedis).eval(anyString(), eq(List.of("user-cache:1")), args.capture());
+        assertEquals("600", args.getValue().get(0));
+        assertTrue(args.getValue().containsAll(List.of("email", "john@example.com")));
+        assertFalse(args.getValue().contains("password"));
+        assertFalse(args.getValue().contains("hashed"));
+    }
+
+    @Test
+    public void testFind_FillRacingAnInvalidationIsDropped() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(userDao.find(1)).thenAnswer(_ -> {
+            // The user changes after the read, before the read is cached
+            cachingUserDao.invalidate(1);
+            return Optional.of(user);
+        });
+
+        cachingUserDao.find(1);
+
+        assertTrue(cachingUserDao.findCached(1).isEmpty());
+    }
+
+    @Test
+    public void testUpdate_InvalidatesEveryTier() {
+        CachingUserDaoImpl cachingUserDao = createDao(true);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.hgetAll("user-cache:1")).thenReturn(Map.of());
+        when(jedis.pipelined()).thenReturn(pipeline);
+        when(userDao.find(1)).thenReturn(Optional.of(user));
+        cachingUserDao.find(1);
+
+        cachingUserDao.update(user);
+        cachingUserDao.find(1);
+
+        verify(userDao).update(user);
+        verify(pipeline).del("user-cache:1");
+        verify(pipeline).hset("user-cache:1", CachingUserDaoImpl.TOMBSTONE_FIELD, "1");
+        verify(pipeline).expire("user-cache:1", CachingUserDaoImpl.TOMBSTONE_TTL_SECONDS);
+        verify(jedis).publish(eq(CachingUserDaoImpl.INVALIDATION_CHANNEL), endsWith("|1"));
+        verify(userDao, times(2)).find(1);
+    }
+
+    @Test
+    public void testFindCached_NeverQueriesAndMissesAfterChange() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(userDao.find(1)).thenReturn(Optional.of(user));
+
+        assertTrue(cachingUserDao.findCached(1).isEmpty());
+        cachingUserDao.find(1);
+        assertEquals(Optional.of(user), cachingUserDao.findCached(1));
+
+        cachingUserDao.update(user);
+        assertTrue(cachingUserDao.findCached(1).isEmpty());
+
+        verify(userDao, times(1)).find(1);
+    }
+
+    @Test
+    public void testDelete_InvalidatesUser() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+
+        cachingUserDao.delete(1);
+
+        verify(userDao).delete(1);
+        verify(jedis, never()).del(anyString());
+        verify(jedis).publish(eq(CachingUserDaoImpl.INVALIDATION_CHANNEL), endsWith("|1"));
+    }
+
+    @Test
+    public void testVerifyEmail_InvalidatesUserById() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(userDao.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        cachingUserDao.verifyEmail(user.getEmail());
+
+        verify(userDao).verifyEmail(user.getEmail());
+        verify(jedis).publish(eq(CachingUserDaoImpl.INVALIDATION_CHANNEL), endsWith("|1"));
+    }
+
+    @Test
+    public void testSave_DoesNotTouchCache() {
+        CachingUserDaoImpl cachingUserDao = createDao(true);
+
+        cachingUserDao.save(user);
+
+        verify(userDao).save(user);
+        verify(redisConnection, never()).getJedis();
+    }
+
+    @Test
+    public void testCacheFields_RoundTrip() {
+        User verified = new User(3, "Jane Doe", "jane@example.com", "hashed", Role.ADMIN);
+        verified.setEmailVerified(LocalDateTime.of(2024, 1, 1, 12, 0));
+        verified.setVersion(4);
+
+        assertEquals(Optional.of(verified), CachingUserDaoImpl.fromCacheFields(CachingUserDaoImpl.toCacheFields(verified)));
+        assertEquals(4, CachingUserDaoImpl.fromCacheFields(CachingUserDaoImpl.toCacheFields(verified)).get().getVersion());
+        assertEquals(Optional.of(user), CachingUserDaoImpl.fromCacheFields(CachingUserDaoImpl.toCacheFields(user)));
+        assertFalse(CachingUserDaoImpl.fromCacheFields(Map.of()).isPresent());
+        assertFalse(CachingUserDaoImpl.toCacheFields(user).containsKey("password"));
+        assertNull(CachingUserDaoImpl.fromCacheFields(CachingUserDaoImpl.toCacheFields(user)).get().getPassword());
+        assertFalse(CachingUserDaoImpl.fromCacheFields(Map.of(CachingUserDaoImpl.TOMBSTONE_FIELD, "1")).isPresent());
+    }
+
+    @Test
+    public void testGetMetrics_ReportsHitRate() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(userDao.find(1)).thenReturn(Optional.of(user));
+        cachingUserDao.find(1);
+        cachingUserDao.find(1);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> local = (Map<String, Object>) cachingUserDao.getMetrics().get("local");
+
+        assertEquals(1L, local.get("hits"));
+        assertEquals(1L, local.get("misses"));
+        assertEquals(0.5, local.get("hitRate"));
+    }
+
+    @Test
+    public void testFindByEmail_Delegates() {
+        CachingUserDaoImpl cachingUserDao = createDao(false);
+        when(userDao.findByEmail(anyString())).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), cachingUserDao.findByEmail(user.getEmail()));
+        verify(jedis, never()).hset(anyString(), anyMap());
+    }
+}
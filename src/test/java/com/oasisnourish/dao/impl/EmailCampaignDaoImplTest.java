@@ -0,0 +1,148 @@
+package com.oasisnourish.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.dao.mappers.EntityRowMapper;
+import com.oasisnourish.db.JdbcConnection;
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.models.EmailCampaign;
+
+/**
+ * Unit tests for {@link EmailCampaignDaoImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EmailCampaignDaoImplTest {
+
+    private static final String INSERT_CAMPAIGN = "INSERT INTO email_campaigns (subject, template, variables, status, last_user_id, sent, failed, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String FIND_CAMPAIGN_BY_ID = "SELECT * FROM email_campaigns WHERE id = ?";
+    private static final String CLAIM_NEXT_CAMPAIGN = "UPDATE email_campaigns SET locked_until = ? "
+            + "WHERE id = (SELECT id FROM email_campaigns WHERE status = 'RUNNING' AND (locked_until IS NULL OR locked_until <= ?) "
+            + "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED) RETURNING *";
+    private static final String SAVE_PROGRESS = "UPDATE email_campaigns SET last_user_id = ?, sent = ?, failed = ?, locked_until = ?, updated_at = ? WHERE id = ?";
+    private static final String UPDATE_STATUS = "UPDATE email_campaigns SET status = ?, locked_until = NULL, updated_at = ? WHERE id = ?";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private JdbcConnection jdbcConnection;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private EntityRowMapper<EmailCampaign> campaignRowMapper;
+
+    @InjectMocks
+    private EmailCampaignDaoImpl campaignDao;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(jdbcConnection.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    public void testSave() throws SQLException {
+        EmailCampaign campaign = new EmailCampaign("Summer sale", "campaign/newsletter", Map.of(), NOW);
+        when(connection.prepareStatement(INSERT_CAMPAIGN, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.getGeneratedKeys()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getInt(1)).thenReturn(3);
+
+        campaignDao.save(campaign);
+
+        verify(campaignRowMapper).mapToRow(preparedStatement, campaign, false);
+        assertEquals(3, campaign.getId());
+    }
+
+    @Test
+    public void testFind() throws SQLException {
+        EmailCampaign campaign = new EmailCampaign("Summer sale", "campaign/newsletter", Map.of(), NOW);
+        when(connection.prepareStatement(FIND_CAMPAIGN_BY_ID)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(campaignRowMapper.mapToEntity(resultSet)).thenReturn(campaign);
+
+        assertEquals(Optional.of(campaign), campaignDao.find(3));
+        verify(preparedStatement).setInt(1, 3);
+    }
+
+    @Test
+    public void testClaimNext() throws SQLException {
+        EmailCampaign campaign = new EmailCampaign("Summer sale", "campaign/newsletter", Map.of(), NOW);
+        when(connection.prepareStatement(CLAIM_NEXT_CAMPAIGN)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(campaignRowMapper.mapToEntity(resultSet)).thenReturn(campaign);
+
+        assertEquals(Optional.of(campaign), campaignDao.claimNext(NOW, NOW.plusMinutes(5)));
+        verify(preparedStatement).setTimestamp(1, Timestamp.valueOf(NOW.plusMinutes(5)));
+        verify(preparedStatement).setTimestamp(2, Timestamp.valueOf(NOW));
+    }
+
+    @Test
+    public void testClaimNext_NoneToClaim() throws SQLException {
+        when(connection.prepareStatement(CLAIM_NEXT_CAMPAIGN)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        assertTrue(campaignDao.claimNext(NOW, NOW.plusMinutes(5)).isEmpty());
+    }
+
+    @Test
+    public void testSaveProgress() throws SQLException {
+        EmailCampaign campaign = new EmailCampaign("Summer sale", "campaign/newsletter", Map.of(), NOW);
+        campaign.setId(3);
+        campaign.setLastUserId(120);
+        campaign.setSent(98);
+        campaign.setFailed(2);
+        when(connection.prepareStatement(SAVE_PROGRESS, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        campaignDao.saveProgress(campaign, NOW.plusMinutes(5));
+
+        verify(preparedStatement).setInt(1, 120);
+        verify(preparedStatement).setInt(2, 98);
+        verify(preparedStatement).setInt(3, 2);
+        verify(preparedStatement).setTimestamp(4, Timestamp.valueOf(NOW.plusMinutes(5)));
+        verify(preparedStatement).setTimestamp(5, Timestamp.valueOf(NOW));
+        verify(preparedStatement).setInt(6, 3);
+    }
+
+    @Test
+    public void testUpdateStatus() throws SQLException {
+        when(connection.prepareStatement(UPDATE_STATUS, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        campaignDao.updateStatus(3, CampaignStatus.CANCELLED, NOW);
+
+        verify(preparedStatement).setString(1, "CANCELLED");
+        verify(preparedStatement).setTimestamp(2, Timestamp.valueOf(NOW));
+        verify(preparedStatement).setInt(3, 3);
+    }
+}
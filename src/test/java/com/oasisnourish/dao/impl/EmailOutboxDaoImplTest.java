@@ -0,0 +1,194 @@
+package com.oasisnourish.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.dao.mappers.EntityRowMapper;
+import com.oasisnourish.db.JdbcConnection;
+import com.oasisnourish.models.OutboxEmail;
+import com.oasisnourish.models.OutboxStats;
+
+/**
+ * Unit tests for {@link EmailOutboxDaoImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDaoImplTest {
+
+    private static final String INSERT_EMAIL = "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String CLAIM_DUE_EMAILS = "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ? "
+            + "WHERE id IN (SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? "
+            + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING *";
+    private static final String DELETE_EMAIL_BY_ID = "DELETE FROM email_outbox WHERE id = ?";
+    private static final String RESCHEDULE_EMAIL = "UPDATE email_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String RELEASE_EMAIL = "UPDATE email_outbox SET attempts = attempts - 1, next_attempt_at = ? "
+            + "WHERE id = ? AND status = 'PENDING' AND next_attempt_at = ?";
+    private static final String MARK_EMAIL_DEAD = "UPDATE email_outbox SET status = ?, last_error = ?, dead_at = ? WHERE id = ?";
+    private static final String DELETE_DEAD_EMAILS = "DELETE FROM email_outbox WHERE status = 'DEAD' AND dead_at < ?";
+    private static final String FIND_STATS = "SELECT COUNT(*) FILTER (WHERE status = 'PENDING') AS pending, "
+            + "COUNT(*) FILTER (WHERE status = 'DEAD') AS dead, "
+            + "MIN(created_at) FILTER (WHERE status = 'PENDING') AS oldest_pending FROM email_outbox";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private JdbcConnection jdbcConnection;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private EntityRowMapper<OutboxEmail> emailRowMapper;
+
+    @InjectMocks
+    private EmailOutboxDaoImpl outboxDao;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(jdbcConnection.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    public void testSave() throws SQLException {
+        OutboxEmail email = new OutboxEmail("john.doe@test.com", "Welcome", "<p>Hi</p>", NOW);
+        when(connection.prepareStatement(INSERT_EMAIL, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.getGeneratedKeys()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(7L);
+
+        outboxDao.save(email);
+
+        verify(emailRowMapper).mapToRow(preparedStatement, email, false);
+        assertEquals(7L, email.getId());
+    }
+
+    @Test
+    public void testClaimDue() throws SQLException {
+        OutboxEmail email = new OutboxEmail("john.doe@test.com", "Welcome", "<p>Hi</p>", NOW);
+        when(connection.prepareStatement(CLAIM_DUE_EMAILS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(emailRowMapper.mapToEntity(resultSet)).thenReturn(email);
+
+        List<OutboxEmail> claimed = outboxDao.claimDue(NOW, NOW.plusMinutes(5), 50);
+
+        assertEquals(List.of(email), claimed);
+        verify(preparedStatement).setTimestamp(1, Timestamp.valueOf(NOW.plusMinutes(5)));
+        verify(preparedStatement).setTimestamp(2, Timestamp.valueOf(NOW));
+        verify(preparedStatement).setInt(3, 50);
+    }
+
+    @Test
+    public void testDelete() throws SQLException {
+        when(connection.prepareStatement(DELETE_EMAIL_BY_ID, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        outboxDao.delete(7);
+
+        verify(preparedStatement).setLong(1, 7);
+    }
+
+    @Test
+    public void testReschedule() throws SQLException {
+        when(connection.prepareStatement(RESCHEDULE_EMAIL, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        outboxDao.reschedule(7, NOW.plusSeconds(30), "Connection refused");
+
+        verify(preparedStatement).setTimestamp(1, Timestamp.valueOf(NOW.plusSeconds(30)));
+        verify(preparedStatement).setString(2, "Connection refused");
+        verify(preparedStatement).setLong(3, 7);
+    }
+
+    @Test
+    public void testRelease() throws SQLException {
+        when(connection.prepareStatement(RELEASE_EMAIL)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        assertTrue(outboxDao.release(7, NOW.plusMinutes(5), NOW));
+
+        verify(preparedStatement).setTimestamp(1, Timestamp.valueOf(NOW));
+        verify(preparedStatement).setLong(2, 7);
+        verify(preparedStatement).setTimestamp(3, Timestamp.valueOf(NOW.plusMinutes(5)));
+    }
+
+    @Test
+    public void testRelease_ClaimedAgain() throws SQLException {
+        when(connection.prepareStatement(RELEASE_EMAIL)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(0);
+
+        assertFalse(outboxDao.release(7, NOW.plusMinutes(5), NOW));
+    }
+
+    @Test
+    public void testMarkDead() throws SQLException {
+        when(connection.prepareStatement(MARK_EMAIL_DEAD, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        outboxDao.markDead(7, "Invalid address", NOW);
+
+        verify(preparedStatement).setString(1, "DEAD");
+        verify(preparedStatement).setString(2, "Invalid address");
+        verify(preparedStatement).setTimestamp(3, Timestamp.valueOf(NOW));
+        verify(preparedStatement).setLong(4, 7);
+    }
+
+    @Test
+    public void testDeleteDeadBefore() throws SQLException {
+        when(connection.prepareStatement(DELETE_DEAD_EMAILS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(0);
+
+        assertEquals(0, outboxDao.deleteDeadBefore(NOW));
+
+        verify(preparedStatement).setTimestamp(1, Timestamp.valueOf(NOW));
+    }
+
+    @Test
+    public void testFindStats() throws SQLException {
+        when(connection.prepareStatement(FIND_STATS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("pending")).thenReturn(3L);
+        when(resultSet.getLong("dead")).thenReturn(1L);
+        when(resultSet.getTimestamp("oldest_pending")).thenReturn(Timestamp.valueOf(NOW));
+
+        assertEquals(new OutboxStats(3, 1, NOW), outboxDao.findStats());
+    }
+
+    @Test
+    public void testFindStats_EmptyOutbox() throws SQLException {
+        when(connection.prepareStatement(FIND_STATS)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("pending")).thenReturn(0L);
+        when(resultSet.getLong("dead")).thenReturn(0L);
+        when(resultSet.getTimestamp("oldest_pending")).thenReturn(null);
+
+        assertNull(outboxDao.findStats().oldestPending());
+    }
+}
@@ -0,0 +1,92 @@
+package com.oasisnourish.dao.impl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitDaoImplTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @Mock
+    private Pipeline pipeline;
+
+    @InjectMocks
+    private RateLimitDaoImpl rateLimitDao;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAcquire_RunsOneScriptPerKeyInOnePipeline() {
+        when(jedis.pipelined()).thenReturn(pipeline);
+        Response<Object> ipWait = mock(Response.class);
+        Response<Object> emailWait = mock(Response.class);
+        when(pipeline.eval(anyString(), eq(List.of("sign-in-rate-limit:ip:127.0.0.1")), eq(List.of("60000", "3000"))))
+                .thenReturn(ipWait);
+        when(pipeline.eval(anyString(), eq(List.of("sign-in-rate-limit:email:john.doe@test.com")), eq(List.of("60000", "12000"))))
+                .thenReturn(emailWait);
+        when(ipWait.get()).thenReturn(0L);
+        when(emailWait.get()).thenReturn(250L);
+
+        List<Long> waits = rateLimitDao.acquire(
+                List.of("sign-in-rate-limit:ip:127.0.0.1", "sign-in-rate-limit:email:john.doe@test.com"),
+                List.of(20, 5), 60_000);
+
+        assertEquals(List.of(0L, 250L), waits);
+        verify(pipeline).sync();
+    }
+
+    @Test
+    public void testRelease_GivesBackOneSpacing() {
+        rateLimitDao.release("sign-in-rate-limit:email:john.doe@test.com", 5, 60_000);
+
+        verify(jedis).eval(anyString(), eq(List.of("sign-in-rate-limit:email:john.doe@test.com")), eq(List.of("12000")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementAll_AddsAndExpiresEveryKeyInOnePipeline() {
+        when(jedis.pipelined()).thenReturn(pipeline);
+        Response<Long> first = mock(Response.class);
+        Response<Long> second = mock(Response.class);
+        when(pipeline.incrBy("rate-limit:a:1", 3L)).thenReturn(first);
+        when(pipeline.incrBy("rate-limit:b:2", 1L)).thenReturn(second);
+        when(first.get()).thenReturn(7L);
+        when(second.get()).thenReturn(1L);
+
+        List<Long> totals = rateLimitDao.incrementAll(List.of("rate-limit:a:1", "rate-limit:b:2"),
+                List.of(3L, 1L), List.of(120_000L, 2_000L));
+
+        assertEquals(List.of(7L, 1L), totals);
+        verify(pipeline).pexpire("rate-limit:a:1", 120_000L);
+        verify(pipeline).pexpire("rate-limit:b:2", 2_000L);
+        verify(pipeline).sync();
+        verify(jedis).pipelined();
+    }
+}
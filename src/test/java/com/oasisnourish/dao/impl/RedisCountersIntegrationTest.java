@@ -0,0 +1,108 @@
+package com.oasisnourish.dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.oasisnourish.enums.Tokens;
+
+import redis.clients.jedis.JedisPooled;
+
+/**
+ * Runs the token version and token rate limit counters against a real Redis,
+ * with many callers incrementing the same key at once, to show that no
+ * increment is lost. Skipped unless {@code REDIS_TEST_HOST} is set:
+ *
+ * <pre>
+ * REDIS_TEST_HOST=localhost REDIS_TEST_PORT=6379 mvn test -Dtest=RedisCountersIntegrationTest
+ * </pre>
+ */
+@EnabledIfEnvironmentVariable(named = "REDIS_TEST_HOST", matches = ".+")
+public class RedisCountersIntegrationTest {
+
+    private static final int THREADS = 64;
+    private static final int INCREMENTS_PER_THREAD = 100;
+    private static final long TOTAL = (long) THREADS * INCREMENTS_PER_THREAD;
+
+    private JedisPooled jedis;
+    private int userId;
+
+    @BeforeEach
+    public void setUp() {
+        jedis = new JedisPooled(System.getenv("REDIS_TEST_HOST"),
+                Integer.parseInt(System.getenv().getOrDefault("REDIS_TEST_PORT", "6379")));
+        // A user ID no real user has, so the test never touches live keys
+        userId = -ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jedis.del("user:" + userId + ":token-rate-limit",
+                TokenVersionDaoImpl.getKey(userId, Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN));
+        jedis.close();
+    }
+
+    @Test
+    public void tokenVersionIncrement_ConcurrentCallersLoseNoIncrements() throws Exception {
+        TokenVersionDaoImpl tokenVersionDao = new TokenVersionDaoImpl(() -> jedis);
+
+        Set<Long> versions = runConcurrently(
+                () -> tokenVersionDao.increment(userId, Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN));
+
+        assertEquals(TOTAL, versions.size());
+        assertTrue(versions.contains(TOTAL));
+        assertEquals(TOTAL, tokenVersionDao.find(userId, Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void tokenRateLimitIncrement_ConcurrentCallersLoseNoIncrementsAndKeepTtl() throws Exception {
+        TokenRateLimitDaoImpl tokenRateLimitDao = new TokenRateLimitDaoImpl(() -> jedis);
+
+        Set<Long> counts = runConcurrently(() -> tokenRateLimitDao.increment(userId, 300));
+
+        assertEquals(TOTAL, counts.size());
+        assertEquals(TOTAL, tokenRateLimitDao.find(userId));
+        long ttl = tokenRateLimitDao.ttl(userId);
+        assertTrue(ttl > 0 && ttl <= 300, "Expected the window to be set, but the TTL was " + ttl);
+    }
+
+    private static Set<Long> runConcurrently(Callable<Long> increment) throws Exception {
+        Set<Long> results = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                        results.add(increment.call());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,74 @@
+package com.oasisnourish.dao.impl;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPooled;
+
+@ExtendWith(MockitoExtension.class)
+public class RevokedTokenDaoImplTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @InjectMocks
+    private RevokedTokenDaoImpl revokedTokenDao;
+
+    @Test
+    public void testRevoke_ScoresByExpiry() {
+        Instant expires = Instant.now().plusSeconds(60);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+
+        revokedTokenDao.revoke("jti", expires);
+
+        verify(jedis).zadd(RevokedTokenDaoImpl.REVOKED_TOKENS_KEY, expires.toEpochMilli(), "jti");
+    }
+
+    @Test
+    public void testRevoke_ExpiredTokenIsSkipped() {
+        revokedTokenDao.revoke("jti", Instant.now().minusSeconds(1));
+
+        verify(jedis, never()).zadd(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    public void testIsRevoked() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.zscore(RevokedTokenDaoImpl.REVOKED_TOKENS_KEY, "revoked")).thenReturn((double) Instant.now().plusSeconds(60).toEpochMilli());
+        when(jedis.zscore(RevokedTokenDaoImpl.REVOKED_TOKENS_KEY, "expired")).thenReturn((double) Instant.now().minusSeconds(60).toEpochMilli());
+        when(jedis.zscore(RevokedTokenDaoImpl.REVOKED_TOKENS_KEY, "valid")).thenReturn(null);
+
+        assertTrue(revokedTokenDao.isRevoked("revoked"));
+        assertFalse(revokedTokenDao.isRevoked("expired"));
+        assertFalse(revokedTokenDao.isRevoked("valid"));
+    }
+
+    @Test
+    public void testFindAllRevoked_DropsExpiredEntries() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.zrange(RevokedTokenDaoImpl.REVOKED_TOKENS_KEY, 0, -1)).thenReturn(List.of("a", "b"));
+
+        assertEquals(List.of("a", "b"), revokedTokenDao.findAllRevoked());
+        verify(jedis).zremrangeByScore(eq(RevokedTokenDaoImpl.REVOKED_TOKENS_KEY), eq("-inf"), anyString());
+    }
+}
@@ -2,10 +2,9 @@ package com.oasisnourish.dao.impl;
 
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -13,11 +12,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,6 +30,9 @@ import com.oasisnourish.models.AuthToken;
 import com.oasisnourish.models.Token;
 
 import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.args.ExpiryOption;
 
 @ExtendWith(MockitoExtension.class)
 public class TokenDaoImplTest {
@@ -39,6 +43,9 @@ public class TokenDaoImplTest {
     @Mock
     private JedisPooled jedis;
 
+    @Mock
+    private Pipeline pipeline;
+
     private TokenDaoImpl<AuthToken> authTokenDao;
 
     @BeforeEach
@@ -52,14 +59,23 @@ public class TokenDaoImplTest {
     public void testSaveToken() {
         AuthToken authToken = new AuthToken("testToken", Tokens.Auth.PASSWORD_RESET_TOKEN, 1L, Instant.now().plusSeconds(60L), 1);
         String key = "token:" + authToken.getToken();
+        String indexKey = "user:1:tokens";
+
+        when(jedis.pipelined()).thenReturn(pipeline);
 
         authTokenDao.saveToken(authToken);
-        verifyTokenFields(key, authToken);
+        verify(pipeline).hset(key, tokenFields(authToken));
 
         ArgumentCaptor<Long> ttlCaptor = ArgumentCaptor.forClass(Long.class);
-        verify(jedis).expire(eq(key), ttlCaptor.capture());
+        verify(pipeline).expire(eq(key), ttlCaptor.capture());
         long ttlValue = ttlCaptor.getValue();
         assertTrue(ttlValue >= 59 && ttlValue <= 60, "Expected TTL to be within 59 to 60 seconds, but got " + ttlValue);
+
+        verify(pipeline).zadd(indexKey, authToken.getExpires().toEpochMilli(), authToken.getToken());
+        verify(pipeline).expire(indexKey, ttlValue, ExpiryOption.NX);
+        verify(pipeline).expire(indexKey, ttlValue, ExpiryOption.GT);
+        verify(pipeline).sync();
+        verify(jedis, never()).hset(anyString(), anyString(), anyString());
     }
 
     @Test
@@ -68,8 +84,9 @@ public class TokenDaoImplTest {
 
         authTokenDao.saveToken(authToken);
 
-        verify(jedis, never()).hset(anyString(), anyString(), anyString());
-        verify(jedis, never()).expire(anyString(), anyInt());
+        verify(jedis, never()).pipelined();
+        verify(jedis, never()).expire(anyString(), anyLong());
+        verify(jedis, never()).zadd(anyString(), anyDouble(), anyString());
     }
 
     @Test
@@ -79,8 +96,7 @@ public class TokenDaoImplTest {
         String key = "token:" + token;
 
         AuthToken expectedToken = new AuthToken(token, Tokens.Auth.ACCOUNT_CONFIRMATION_TOKEN, 1, Instant.now().plusSeconds(60L), userId);
-        when(jedis.exists(key)).thenReturn(true);
-        mockRedisTokenFields(key, expectedToken);
+        when(jedis.hgetAll(key)).thenReturn(tokenFields(expectedToken));
 
         Optional<AuthToken> result = authTokenDao.findToken(token);
 
@@ -88,6 +104,7 @@ public class TokenDaoImplTest {
         assertEquals(AuthToken.class, result.get().getClass());
         AuthToken actualToken = (AuthToken) result.get();
         assertEquals(expectedToken, actualToken);
+        verify(jedis, never()).exists(key);
     }
 
     @Test
@@ -95,7 +112,7 @@ public class TokenDaoImplTest {
         String token = "nonexistentToken";
         String key = "token:" + token;
 
-        when(jedis.exists(key)).thenReturn(false);
+        when(jedis.hgetAll(key)).thenReturn(Map.of());
 
         Optional<AuthToken> result = authTokenDao.findToken(token);
 
@@ -108,48 +125,102 @@ public class TokenDaoImplTest {
         String token = "deleteToken";
         String key = "token:" + token;
 
+        @SuppressWarnings("unchecked")
+        Response<String> userId = mock(Response.class);
+        when(userId.get()).thenReturn("1");
+        when(jedis.pipelined()).thenReturn(pipeline);
+        when(pipeline.hget(key, "userId")).thenReturn(userId);
+
+        authTokenDao.deleteToken(token);
+
+        verify(pipeline).del(key);
+        verify(pipeline).sync();
+        verify(jedis).zrem("user:1:tokens", token);
+        verify(jedis, never()).hget(key, "userId");
+    }
+
+    @Test
+    void testDeleteToken_MissingToken() {
+        String token = "missingToken";
+        String key = "token:" + token;
+
+        @SuppressWarnings("unchecked")
+        Response<String> userId = mock(Response.class);
+        when(jedis.pipelined()).thenReturn(pipeline);
+        when(pipeline.hget(key, "userId")).thenReturn(userId);
+
         authTokenDao.deleteToken(token);
 
-        verify(jedis).del(key);
+        verify(pipeline).del(key);
+        verify(jedis, never()).zrem(anyString(), anyString());
     }
 
     @Test
     public void testFindAllTokens() {
         int userId = 1;
-        String pattern = "token:*";
+        String indexKey = "user:" + userId + ":tokens";
 
         Token token1 = new AuthToken("token1", Tokens.Auth.ACCOUNT_CONFIRMATION_TOKEN, 1L, Instant.now().plusSeconds(60L), userId);
         Token token2 = new AuthToken("token2", Tokens.Auth.PASSWORD_RESET_TOKEN, 1L, Instant.now().plusSeconds(90L), userId);
 
-        Set<String> keys = new HashSet<>();
-        keys.add("token:" + token1.getToken());
-        keys.add("token:" + token2.getToken());
-
-        when(jedis.keys(pattern)).thenReturn(keys);
-        mockRedisTokenFields("token:" + token1.getToken(), token1);
-        mockRedisTokenFields("token:" + token2.getToken(), token2);
+        when(jedis.zrange(indexKey, 0, -1)).thenReturn(Arrays.asList(token1.getToken(), token2.getToken()));
+        when(jedis.pipelined()).thenReturn(pipeline);
+        mockPipelinedTokenFields("token:" + token1.getToken(), token1);
+        mockPipelinedTokenFields("token:" + token2.getToken(), token2);
 
         List<AuthToken> tokens = authTokenDao.findTokensByUserId(userId);
 
         assertEquals(Arrays.asList(token1, token2), tokens);
+        verify(jedis).zremrangeByScore(eq(indexKey), eq("-inf"), anyString());
+        verify(jedis, never()).keys(anyString());
+        verify(pipeline).sync();
+    }
+
+    @Test
+    public void testFindAllTokens_RemovesStaleIndexEntries() {
+        int userId = 1;
+        String indexKey = "user:" + userId + ":tokens";
+
+        when(jedis.zrange(indexKey, 0, -1)).thenReturn(List.of("staleToken"));
+        when(jedis.pipelined()).thenReturn(pipeline);
+        @SuppressWarnings("unchecked")
+        Response<Map<String, String>> response = mock(Response.class);
+        when(response.get()).thenReturn(Map.of());
+        when(pipeline.hgetAll("token:staleToken")).thenReturn(response);
+
+        List<AuthToken> tokens = authTokenDao.findTokensByUserId(userId);
+
+        assertTrue(tokens.isEmpty());
+        verify(jedis).zrem(indexKey, "staleToken");
+    }
+
+    @Test
+    public void testFindAllTokens_EmptyIndex() {
+        int userId = 1;
+
+        when(jedis.zrange("user:" + userId + ":tokens", 0, -1)).thenReturn(List.of());
+
+        List<AuthToken> tokens = authTokenDao.findTokensByUserId(userId);
+
+        assertTrue(tokens.isEmpty());
+        verify(jedis, never()).pipelined();
     }
 
-    private void verifyTokenFields(String key, Token token) {
-        verify(jedis).hset(key, "token", token.getToken());
-        verify(jedis).hset(key, "tokenCategory", token.getTokenCategory().getCategory());
-        verify(jedis).hset(key, "tokenType", token.getTokenType().getType());
-        verify(jedis).hset(key, "tokenVersion", String.valueOf(token.getTokenVersion()));
-        verify(jedis).hset(key, "expires", String.valueOf(token.getExpires()));
-        verify(jedis).hset(key, "userId", String.valueOf(token.getUserId()));
+    private Map<String, String> tokenFields(Token token) {
+        return Map.of(
+                "token", token.getToken(),
+                "tokenCategory", token.getTokenCategory().getCategory(),
+                "tokenType", token.getTokenType().getType(),
+                "tokenVersion", String.valueOf(token.getTokenVersion()),
+                "expires", String.valueOf(token.getExpires()),
+                "userId", String.valueOf(token.getUserId()));
     }
 
-    private void mockRedisTokenFields(String key, Token token) {
-        when(jedis.hget(key, "token")).thenReturn(token.getToken());
-        when(jedis.hget(key, "tokenType")).thenReturn(token.getTokenType().getType());
-        when(jedis.hget(key, "tokenVersion")).thenReturn(String.valueOf(token.getTokenVersion()));
-        when(jedis.hget(key, "expires")).thenReturn(String.valueOf(token.getExpires()));
-        when(jedis.hget(key, "userId")).thenReturn(String.valueOf(token.getUserId()));
-        when(jedis.hget(key, "tokenCategory")).thenReturn(token.getTokenCategory().getCategory());
+    private void mockPipelinedTokenFields(String key, Token token) {
+        @SuppressWarnings("unchecked")
+        Response<Map<String, String>> response = mock(Response.class);
+        when(response.get()).thenReturn(tokenFields(token));
+        when(pipeline.hgetAll(key)).thenReturn(response);
     }
 
 }
@@ -1,11 +1,16 @@
 package com.oasisnourish.dao.impl;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -36,14 +41,13 @@ public class TokenRateLimitDaoImplTest {
         int userId = 1;
         String key = "user:" + userId + ":token-rate-limit";
 
-        when(jedis.exists(key)).thenReturn(true);
-        when(jedis.get(key)).thenReturn("3");
+        when(jedis.eval(anyString(), eq(List.of(key)), eq(List.of("1")))).thenReturn(3L);
 
         long result = tokenRateLimitDao.find(userId);
 
         assertEquals(3, result);
-        verify(jedis).exists(key);
-        verify(jedis).get(key);
+        verify(jedis, never()).exists(key);
+        verify(jedis, never()).get(key);
     }
 
     @Test
@@ -51,50 +55,28 @@ public class TokenRateLimitDaoImplTest {
         int userId = 1;
         String key = "user:" + userId + ":token-rate-limit";
 
-        when(jedis.exists(key)).thenReturn(false);
-        when(jedis.get(key)).thenReturn("1");
+        when(jedis.eval(anyString(), eq(List.of(key)), eq(List.of("1")))).thenReturn(1L);
 
         long result = tokenRateLimitDao.find(userId);
 
         assertEquals(1, result);
-        verify(jedis).exists(key);
-        verify(jedis).set(key, "1");
-        verify(jedis).get(key);
+        verify(jedis, never()).set(key, "1");
     }
 
     @Test
-    public void testIncrement_KeyExists() {
+    public void testIncrement() {
         int userId = 1;
         int expires = 300;
         String key = "user:" + userId + ":token-rate-limit";
 
-        when(jedis.exists(key)).thenReturn(true);
-        when(jedis.incr(key)).thenReturn(4L);
+        when(jedis.eval(anyString(), eq(List.of(key)), eq(List.of("300")))).thenReturn(4L);
 
         long result = tokenRateLimitDao.increment(userId, expires);
 
         assertEquals(4, result);
-        verify(jedis).exists(key);
-        verify(jedis).expire(key, expires);
-        verify(jedis).incr(key);
-    }
-
-    @Test
-    public void testIncrement_KeyDoesNotExist() {
-        int userId = 1;
-        int expires = 300;
-        String key = "user:" + userId + ":token-rate-limit";
-
-        when(jedis.exists(key)).thenReturn(false);
-        when(jedis.incr(key)).thenReturn(1L);
-
-        long result = tokenRateLimitDao.increment(userId, expires);
-
-        assertEquals(1, result);
-        verify(jedis).exists(key);
-        verify(jedis).set(key, "0");
-        verify(jedis).expire(key, expires);
-        verify(jedis).incr(key);
+        verify(jedis, never()).exists(key);
+        verify(jedis, never()).expire(key, expires);
+        verify(jedis, never()).incr(key);
     }
 
     @Test
@@ -0,0 +1,83 @@
+package com.oasisnourish.dao.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.params.SetParams;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRefreshDaoImplTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @Mock
+    private Pipeline pipeline;
+
+    @InjectMocks
+    private TokenRefreshDaoImpl tokenRefreshDao;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+    }
+
+    @Test
+    public void testTryLock() {
+        when(jedis.set(eq("jwt-refresh-lock:jti"), eq("owner"), any(SetParams.class))).thenReturn("OK", (String) null);
+
+        assertTrue(tokenRefreshDao.tryLock("jti", "owner", 2_000));
+        assertFalse(tokenRefreshDao.tryLock("jti", "owner", 2_000));
+    }
+
+    @Test
+    public void testUnlock_OnlyReleasesOwnLock() {
+        tokenRefreshDao.unlock("jti", "owner");
+
+        verify(jedis).eval(anyString(), eq(List.of("jwt-refresh-lock:jti")), eq(List.of("owner")));
+    }
+
+    @Test
+    public void testSaveRefreshed() {
+        when(jedis.pipelined()).thenReturn(pipeline);
+        Map<String, String> tokens = Map.of("JWT_ACCESS_TOKEN", "access-token", "JWT_REFRESH_TOKEN", "refresh-token");
+
+        tokenRefreshDao.saveRefreshed("jti", tokens, 10_000);
+
+        verify(pipeline).hset("jwt-refresh:jti", tokens);
+        verify(pipeline).pexpire("jwt-refresh:jti", 10_000L);
+        verify(pipeline).sync();
+    }
+
+    @Test
+    public void testFindRefreshed() {
+        when(jedis.hgetAll("jwt-refresh:jti")).thenReturn(Map.of("JWT_ACCESS_TOKEN", "access-token"));
+        when(jedis.hgetAll("jwt-refresh:other")).thenReturn(Map.of());
+
+        assertEquals(Optional.of(Map.of("JWT_ACCESS_TOKEN", "access-token")), tokenRefreshDao.findRefreshed("jti"));
+        assertEquals(Optional.empty(), tokenRefreshDao.findRefreshed("other"));
+    }
+}
@@ -1,11 +1,16 @@
 package com.oasisnourish.dao.impl;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -39,50 +44,34 @@ public class TokenVersionDaoImplTest {
 
     @Test
     public void testFind_KeyExists() {
-        when(jedis.exists(key)).thenReturn(true);
-        when(jedis.get(key)).thenReturn("3");
+        when(jedis.eval(anyString(), eq(List.of(key)), eq(List.of("1")))).thenReturn(3L);
 
         long version = tokenVersionDao.find(userId, tokenCategory, tokenType);
+
         assertEquals(3, version);
-        verify(jedis).exists(key);
-        verify(jedis).get(key);
+        verify(jedis, never()).exists(key);
+        verify(jedis, never()).get(key);
     }
 
     @Test
     void testFind_KeyDoesNotExist() {
-        when(jedis.exists(key)).thenReturn(false);
-        when(jedis.get(key)).thenReturn("1");
+        when(jedis.eval(anyString(), eq(List.of(key)), eq(List.of("1")))).thenReturn(1L);
 
         long version = tokenVersionDao.find(userId, tokenCategory, tokenType);
 
         assertEquals(1, version);
-        verify(jedis).exists(key);
-        verify(jedis).set(key, "1");
-        verify(jedis).get(key);
+        verify(jedis, never()).set(key, "1");
     }
 
     @Test
-    void testIncrement_KeyExists() {
-        when(jedis.exists(key)).thenReturn(true);
+    void testIncrement() {
         when(jedis.incr(key)).thenReturn(4L);
 
         long version = tokenVersionDao.increment(userId, tokenCategory, tokenType);
 
         assertEquals(4, version);
-        verify(jedis).exists(key);
-        verify(jedis).incr(key);
-    }
-
-    @Test
-    void testIncrement_KeyDoesNotExist() {
-        when(jedis.exists(key)).thenReturn(false);
-        when(jedis.incr(key)).thenReturn(1L);
-
-        long version = tokenVersionDao.increment(userId, tokenCategory, tokenType);
-
-        assertEquals(1, version);
-        verify(jedis).exists(key);
-        verify(jedis).set(key, "0");
         verify(jedis).incr(key);
+        verify(jedis, never()).exists(key);
+        verify(jedis, never()).set(key, "0");
     }
 }
@@ -1,31 +1,45 @@
 package com.oasisnourish.dao.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 
 import com.oasisnourish.dao.mappers.EntityRowMapper;
 import com.oasisnourish.db.JdbcConnection;
 import com.oasisnourish.enums.Role;
+import com.oasisnourish.exceptions.DatabaseAccessException;
 import com.oasisnourish.models.User;
 
 /**
@@ -40,12 +54,19 @@ import com.oasisnourish.models.User;
 public class UserDaoImplTest {
 
     private static final String FIND_USER_BY_ID = "SELECT * FROM users WHERE id = ?";
-    private static final String FIND_ALL_USERS = "SELECT * FROM users";
     private static final String INSERT_USER = "INSERT INTO users (name, email, password, role, email_verified) VALUES (?, ?, ?, ?, ?)";
-    private static final String UPDATE_USER = "UPDATE users SET name = ?, email = ?, password = ?, role = ?, email_verified = ? WHERE id = ?";
+    private static final String UPDATE_USER = "UPDATE users SET name = ?, email = ?, password = COALESCE(?, password), role = ?, email_verified = ?, version = version + 1 WHERE id = ?";
     private static final String DELETE_USER_BY_ID = "DELETE FROM users WHERE id = ?";
     private static final String FIND_USER_BY_EMAIL = "SELECT * FROM users WHERE email = ?";
-    private static final String VERIFY_EMAIL = "UPDATE users SET role = ?, email_verified = ? WHERE email = ?";
+    private static final String VERIFY_EMAIL = "UPDATE users SET role = ?, email_verified = ?, version = version + 1 WHERE email = ?";
+    private static final String FIND_USERS_AFTER_ID = "SELECT * FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String FIND_ALL_USERS_ORDERED = "SELECT * FROM users ORDER BY id";
+    private static final String FIND_VERIFIED_USERS_AFTER_ID = "SELECT * FROM users WHERE id > ? AND email_verified IS NOT NULL ORDER BY id LIMIT ?";
+    private static final String FIND_EXISTING_EMAILS = "SELECT email FROM users WHERE email = ANY(?)";
+    private static final String CREATE_IMPORT_TABLE = "CREATE TEMPORARY TABLE users_import (name VARCHAR(255), email VARCHAR(255), password VARCHAR(255), role VARCHAR(50), email_verified TIMESTAMP) ON COMMIT DROP";
+    private static final String COPY_IMPORTED_USERS = "COPY users_import (name, email, password, role, email_verified) FROM STDIN (FORMAT csv)";
+    private static final String MOVE_IMPORTED_USERS = "INSERT INTO users (name, email, password, role, email_verified) "
+            + "SELECT name, email, password, role, email_verified FROM users_import ON CONFLICT (email) DO NOTHING";
 
     @Mock
     private JdbcConnection jdbcConnection;
@@ -98,26 +119,71 @@ public class UserDaoImplTest {
     }
 
     /**
-     * Tests retrieving all users from the database when users exist.
+     * Tests retrieving the page of users after a given ID.
      *
      * @throws SQLException if a SQL error occurs during the test.
      */
     @Test
-    public void testFindAll() throws SQLException {
-        when(connection.prepareStatement(FIND_ALL_USERS)).thenReturn(preparedStatement);
+    public void testFindAfter() throws SQLException {
+        when(connection.prepareStatement(FIND_USERS_AFTER_ID)).thenReturn(preparedStatement);
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        User user = new User(3, "John Doe", "john.doe@test.com", "password123", Role.USER);
+        when(resultSet.next()).thenReturn(true, false);
+        when(userRowMapper.mapToEntity(resultSet)).thenReturn(user);
 
+        List<User> users = userDao.findAfter(2, 10);
+
+        assertEquals(List.of(user), users);
+        verify(preparedStatement).setInt(1, 2);
+        verify(preparedStatement).setInt(2, 10);
+    }
+
+    /**
+     * Tests streaming all users through a cursor-backed result set.
+     *
+     * @throws SQLException if a SQL error occurs during the test.
+     */
+    @Test
+    public void testForEach() throws SQLException {
+        when(connection.prepareStatement(FIND_ALL_USERS_ORDERED)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
         List<User> expectedUsers = Arrays.asList(
                 new User(1, "John Doe", "john.doe@test.com", "password123", Role.USER),
                 new User(2, "Jane Doe", "jane.doe@test.com", "password456", Role.ADMIN));
-
         when(resultSet.next()).thenReturn(true, true, false);
         when(userRowMapper.mapToEntity(resultSet)).thenAnswer(AdditionalAnswers.returnsElementsOf(expectedUsers));
 
-        List<User> actualUsers = userDao.findAll();
+        List<User> streamedUsers = new ArrayList<>();
+        userDao.forEach(streamedUsers::add);
 
-        assertEquals(expectedUsers.size(), actualUsers.size());
-        assertEquals(expectedUsers, actualUsers);
+        assertEquals(expectedUsers, streamedUsers);
+        verify(connection).setAutoCommit(false);
+        verify(preparedStatement).setFetchSize(AbstractDao.STREAM_FETCH_SIZE);
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    /**
+     * Tests streaming the verified users after an ID through a cursor-backed
+     * result set.
+     *
+     * @throws SQLException if a SQL error occurs during the test.
+     */
+    @Test
+    public void testForEachVerifiedAfter() throws SQLException {
+        when(connection.prepareStatement(FIND_VERIFIED_USERS_AFTER_ID)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        User user = new User(3, "John Doe", "john.doe@test.com", "password123", Role.USER);
+        when(resultSet.next()).thenReturn(true, false);
+        when(userRowMapper.mapToEntity(resultSet)).thenReturn(user);
+
+        List<User> streamedUsers = new ArrayList<>();
+        userDao.forEachVerifiedAfter(2, 1_000, streamedUsers::add);
+
+        assertEquals(List.of(user), streamedUsers);
+        verify(preparedStatement).setInt(1, 2);
+        verify(preparedStatement).setInt(2, 1_000);
+        verify(preparedStatement).setFetchSize(AbstractDao.STREAM_FETCH_SIZE);
     }
 
     /**
@@ -214,4 +280,97 @@ public class UserDaoImplTest {
 
         verify(preparedStatement, times(1)).executeUpdate();
     }
+
+    /**
+     * Tests saving users in a single batch and transaction.
+     *
+     * @throws SQLException if a SQL error occurs during the test.
+     */
+    @Test
+    public void testSaveAll() throws SQLException {
+        User alice = new User("Alice", "alice@test.com", "encodedPassword");
+        User bob = new User("Bob", "bob@test.com", "encodedPassword");
+        when(connection.prepareStatement(INSERT_USER)).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1, Statement.SUCCESS_NO_INFO});
+
+        userDao.saveAll(List.of(alice, bob));
+
+        verify(userRowMapper).mapToRow(preparedStatement, alice, false);
+        verify(userRowMapper).mapToRow(preparedStatement, bob, false);
+        verify(preparedStatement, times(2)).addBatch();
+        verify(preparedStatement, times(1)).executeBatch();
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+    }
+
+    /**
+     * Tests that a failed batch is rolled back.
+     *
+     * @throws SQLException if a SQL error occurs during the test.
+     */
+    @Test
+    public void testSaveAll_RollsBackOnFailure() throws SQLException {
+        when(connection.prepareStatement(INSERT_USER)).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenThrow(new SQLException("duplicate key"));
+
+        assertThrows(DatabaseAccessException.class,
+                () -> userDao.saveAll(List.of(new User("Alice", "alice@test.com", "encodedPassword"))));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+    }
+
+    /**
+     * Tests importing users through COPY into a temporary table, then moving
+     * the ones whose email address is free into the users table.
+     *
+     * @throws SQLException if a SQL error occurs during the test.
+     */
+    @Test
+    public void testImportAll() throws SQLException {
+        Statement statement = mock(Statement.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(COPY_IMPORTED_USERS)).thenReturn(copyIn);
+        when(copyIn.endCopy()).thenReturn(2L);
+        when(statement.executeUpdate(MOVE_IMPORTED_USERS)).thenReturn(1);
+
+        int imported = userDao.importAll(List.of(
+                new User("Alice \"Al\" Smith", "alice@test.com", "encodedPassword"),
+                new User("Bob", "bob@test.com", "encodedPassword")).iterator());
+
+        assertEquals(1, imported);
+        verify(statement).execute(CREATE_IMPORT_TABLE);
+        ArgumentCaptor<byte[]> rows = ArgumentCaptor.forClass(byte[].class);
+        verify(copyIn).writeToCopy(rows.capture(), anyInt(), anyInt());
+        assertEquals("\"Alice \"\"Al\"\" Smith\",\"alice@test.com\",\"encodedPassword\",\"UNVERIFIED_USER\",\n"
+                + "\"Bob\",\"bob@test.com\",\"encodedPassword\",\"UNVERIFIED_USER\",\n",
+                new String(rows.getValue(), StandardCharsets.UTF_8));
+        verify(connection).commit();
+    }
+
+    /**
+     * Tests finding which of a set of email addresses are taken.
+     *
+     * @throws SQLException if a SQL error occurs during the test.
+     */
+    @Test
+    public void testFindExistingEmails() throws SQLException {
+        Array array = mock(Array.class);
+        when(connection.prepareStatement(FIND_EXISTING_EMAILS)).thenReturn(preparedStatement);
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf(any(), any())).thenReturn(array);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString("email")).thenReturn("alice@test.com");
+
+        Set<String> existing = userDao.findExistingEmails(List.of("alice@test.com", "bob@test.com"));
+
+        assertEquals(Set.of("alice@test.com"), existing);
+        verify(preparedStatement).setArray(1, array);
+    }
 }
@@ -50,8 +50,10 @@ public class UserRowMapperTest {
     public void testMapToEntity() throws SQLException {
         User expectedUser = new User(1, "John Doe", "john.doe@test.com", "password123", Role.USER);
         expectedUser.setEmailVerified(LocalDateTime.of(2024, 1, 1, 0, 0));
+        expectedUser.setVersion(3);
 
         when(resultSet.getInt("id")).thenReturn(expectedUser.getId());
+        when(resultSet.getInt("version")).thenReturn(expectedUser.getVersion());
         when(resultSet.getString("name")).thenReturn(expectedUser.getName());
         when(resultSet.getString("email")).thenReturn(expectedUser.getEmail());
         when(resultSet.getString("password")).thenReturn(expectedUser.getPassword());
@@ -62,6 +64,7 @@ public class UserRowMapperTest {
 
         User actualUser = userRowMapper.mapToEntity(resultSet);
         assertEquals(expectedUser, actualUser);
+        assertEquals(3, actualUser.getVersion());
     }
 
     /**
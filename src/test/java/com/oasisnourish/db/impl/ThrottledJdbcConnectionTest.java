@@ -0,0 +1,85 @@
+package com.oasisnourish.db.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.db.JdbcConnection;
+
+@ExtendWith(MockitoExtension.class)
+public class ThrottledJdbcConnectionTest {
+
+    @Mock
+    private JdbcConnection jdbcConnection;
+
+    @Mock
+    private Connection connection;
+
+    private ThrottledJdbcConnection throttledJdbcConnection;
+
+    @BeforeEach
+    public void setUp() {
+        throttledJdbcConnection = new ThrottledJdbcConnection(jdbcConnection, 2, 10);
+    }
+
+    @Test
+    public void testGetConnection_HoldsPermitUntilClosed() throws SQLException {
+        when(jdbcConnection.getConnection()).thenReturn(connection);
+
+        Connection throttled = throttledJdbcConnection.getConnection();
+        assertEquals(1, throttledJdbcConnection.getAvailablePermits());
+
+        throttled.close();
+        assertEquals(2, throttledJdbcConnection.getAvailablePermits());
+        verify(connection).close();
+    }
+
+    @Test
+    public void testGetConnection_CloseTwiceReleasesOnce() throws SQLException {
+        when(jdbcConnection.getConnection()).thenReturn(connection);
+
+        Connection throttled = throttledJdbcConnection.getConnection();
+        throttled.close();
+        throttled.close();
+
+        assertEquals(2, throttledJdbcConnection.getAvailablePermits());
+    }
+
+    @Test
+    public void testGetConnection_TimesOutWhenNoPermits() throws SQLException {
+        when(jdbcConnection.getConnection()).thenReturn(connection);
+        throttledJdbcConnection.getConnection();
+        throttledJdbcConnection.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, throttledJdbcConnection::getConnection);
+    }
+
+    @Test
+    public void testGetConnection_ReleasesPermitWhenPoolFails() throws SQLException {
+        when(jdbcConnection.getConnection()).thenThrow(new SQLException("Pool exhausted"));
+
+        assertThrows(SQLException.class, throttledJdbcConnection::getConnection);
+        assertEquals(2, throttledJdbcConnection.getAvailablePermits());
+    }
+
+    @Test
+    public void testGetConnection_PropagatesDelegateExceptions() throws SQLException {
+        when(jdbcConnection.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenThrow(new SQLException("Syntax error"));
+
+        Connection throttled = throttledJdbcConnection.getConnection();
+
+        SQLException exception = assertThrows(SQLException.class, () -> throttled.prepareStatement("SELECT 1"));
+        assertEquals("Syntax error", exception.getMessage());
+    }
+}
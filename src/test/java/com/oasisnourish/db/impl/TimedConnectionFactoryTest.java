@@ -0,0 +1,52 @@
+package com.oasisnourish.db.impl;
+
+import java.time.Instant;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.metrics.LatencyHistogram;
+
+import redis.clients.jedis.Connection;
+
+@ExtendWith(MockitoExtension.class)
+public class TimedConnectionFactoryTest {
+
+    @Mock
+    private PooledObjectFactory<Connection> connectionFactory;
+
+    @Mock
+    private PooledObject<Connection> pooledObject;
+
+    private final LatencyHistogram commandTime = new LatencyHistogram();
+
+    @Test
+    public void testPassivateObject_RecordsBorrowDuration() throws Exception {
+        TimedConnectionFactory factory = new TimedConnectionFactory(connectionFactory, commandTime);
+        when(pooledObject.getLastBorrowInstant()).thenReturn(Instant.now().minusMillis(5));
+
+        factory.passivateObject(pooledObject);
+
+        verify(connectionFactory).passivateObject(pooledObject);
+        assertEquals(1L, commandTime.getCount());
+        assertTrue(commandTime.getPercentileMillis(1.0) >= 5.0);
+    }
+
+    @Test
+    public void testActivateObject_DelegatesWithoutRecording() throws Exception {
+        TimedConnectionFactory factory = new TimedConnectionFactory(connectionFactory, commandTime);
+
+        factory.activateObject(pooledObject);
+
+        verify(connectionFactory).activateObject(pooledObject);
+        assertEquals(0L, commandTime.getCount());
+    }
+}
@@ -0,0 +1,55 @@
+package com.oasisnourish.metrics;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+@ExtendWith(MockitoExtension.class)
+public class HikariPoolMetricsTest {
+
+    @Mock
+    private PoolStats poolStats;
+
+    private final HikariPoolMetrics poolMetrics = new HikariPoolMetrics();
+
+    @Test
+    public void testGetMetrics_ReportsPoolGauges() {
+        when(poolStats.getActiveConnections()).thenReturn(3);
+        when(poolStats.getIdleConnections()).thenReturn(7);
+        when(poolStats.getPendingThreads()).thenReturn(2);
+        when(poolStats.getTotalConnections()).thenReturn(10);
+        when(poolStats.getMaxConnections()).thenReturn(10);
+        poolMetrics.create("pool", poolStats);
+
+        Map<String, Object> metrics = poolMetrics.getMetrics();
+
+        assertEquals(3, metrics.get("active"));
+        assertEquals(7, metrics.get("idle"));
+        assertEquals(2, metrics.get("pending"));
+        assertEquals(10, metrics.get("total"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTracker_RecordsAcquisitionsAndTimeouts() {
+        IMetricsTracker tracker = poolMetrics.create("pool", poolStats);
+
+        tracker.recordConnectionAcquiredNanos(500_000);
+        tracker.recordConnectionAcquiredNanos(1_500_000);
+        tracker.recordConnectionTimeout();
+
+        Map<String, Object> metrics = poolMetrics.getMetrics();
+        Map<String, Object> acquireTime = (Map<String, Object>) metrics.get("acquireTime");
+
+        assertEquals(2L, acquireTime.get("count"));
+        assertEquals(1L, metrics.get("timeouts"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.oasisnourish.metrics;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void testEmptyHistogram() {
+        Map<String, Object> stats = histogram.getStats();
+
+        assertEquals(0L, stats.get("count"));
+        assertEquals(0.0, stats.get("meanMillis"));
+        assertEquals(0.0, histogram.getPercentileMillis(0.99));
+    }
+
+    @Test
+    public void testPercentiles_WithinBucketBounds() {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000_000); // 1ms
+        }
+        histogram.record(100_000_000); // 100ms
+
+        double p50 = histogram.getPercentileMillis(0.50);
+        double p99 = histogram.getPercentileMillis(0.99);
+        double max = histogram.getPercentileMillis(1.0);
+
+        assertTrue(p50 >= 1.0 && p50 <= 2.0, "p50 was " + p50);
+        assertTrue(p99 >= 1.0 && p99 <= 2.0, "p99 was " + p99);
+        assertEquals(100.0, max);
+        assertEquals(100L, histogram.getCount());
+    }
+
+    @Test
+    public void testMeanAndMax() {
+        histogram.record(2_000_000);
+        histogram.record(4_000_000);
+
+        Map<String, Object> stats = histogram.getStats();
+
+        assertEquals(3.0, stats.get("meanMillis"));
+        assertEquals(4.0, stats.get("maxMillis"));
+    }
+
+    @Test
+    public void testRecord_ClampsNegativeAndHugeSamples() {
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE / 2);
+
+        assertEquals(2L, histogram.getCount());
+        assertEquals(0.001, histogram.getPercentileMillis(0.5));
+    }
+}
@@ -0,0 +1,116 @@
+package com.oasisnourish.ratelimit;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.exceptions.TooManyRequestsException;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitPluginTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private Context ctx;
+
+    private Role role;
+    private RateLimitPlugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        role = Role.GUEST;
+        plugin = new RateLimitPlugin(rateLimits -> {
+            rateLimits.rateLimiter = rateLimiter;
+            rateLimits.roleResolver = _ -> role;
+            rateLimits.quota("/api/*", Role.GUEST, "60/min")
+                    .quota("/api/*", Role.USER, "300/min")
+                    .quota(HandlerType.POST, "/api/auth/signin", Role.GUEST, "20/min")
+                    .quota(HandlerType.POST, "/api/auth/refresh", null, "30/min");
+        });
+    }
+
+    @Test
+    public void testConfig_MostSpecificRuleWins() {
+        RateLimitPlugin.Config config = new RateLimitPlugin.Config()
+                .quota("/api/*", Role.GUEST, "60/min")
+                .quota("/api/auth/*", null, "40/min")
+                .quota(HandlerType.POST, "/api/auth/signin", Role.GUEST, "20/min");
+
+        assertEquals(20, config.findRule(HandlerType.POST, "/api/auth/signin", Role.GUEST).orElseThrow().quota().limit());
+        assertEquals(40, config.findRule(HandlerType.GET, "/api/auth/signin", Role.GUEST).orElseThrow().quota().limit());
+        assertEquals(60, config.findRule(HandlerType.GET, "/api/users", Role.GUEST).orElseThrow().quota().limit());
+        assertTrue(config.findRule(HandlerType.GET, "/api/users", Role.ADMIN).isEmpty());
+        assertTrue(config.findRule(HandlerType.GET, "/metrics", Role.GUEST).isEmpty());
+    }
+
+    @Test
+    public void testHandle_ChargesRequesterBucketOfMatchedRule() {
+        when(ctx.method()).thenReturn(HandlerType.POST);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/auth/signin");
+        when(ctx.ip()).thenReturn("127.0.0.1");
+        when(rateLimiter.tryAcquire("POST /api/auth/signin GUEST|127.0.0.1",
+                new RateLimitQuota(20, Duration.ofMinutes(1)))).thenReturn(0L);
+
+        plugin.handle(ctx);
+
+        verify(rateLimiter, never()).recordRejection(anyString());
+    }
+
+    @Test
+    public void testHandle_RuleWithoutRoleAppliesToEveryRole() {
+        role = Role.USER;
+        when(ctx.method()).thenReturn(HandlerType.POST);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/auth/refresh");
+        when(ctx.ip()).thenReturn("127.0.0.1");
+        when(rateLimiter.tryAcquire("POST /api/auth/refresh *|127.0.0.1",
+                new RateLimitQuota(30, Duration.ofMinutes(1)))).thenReturn(0L);
+
+        plugin.handle(ctx);
+
+        verify(rateLimiter).tryAcquire(anyString(), any());
+    }
+
+    @Test
+    public void testHandle_RouteWithoutQuotaIsNotLimited() {
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/metrics");
+
+        plugin.handle(ctx);
+
+        verifyNoInteractions(rateLimiter);
+    }
+
+    @Test
+    public void testHandle_RejectionSetsRetryAfterAndCountsRoute() {
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/users/{userId}");
+        when(ctx.ip()).thenReturn("127.0.0.1");
+        when(rateLimiter.tryAcquire("* /api/* GUEST|127.0.0.1",
+                new RateLimitQuota(60, Duration.ofMinutes(1)))).thenReturn(1_500L);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> plugin.handle(ctx));
+
+        assertEquals("Too many requests. Try again after 2 seconds.", exception.getMessage());
+        verify(ctx).header("Retry-After", "2");
+        verify(rateLimiter).recordRejection("GET /api/users/{userId}");
+    }
+}
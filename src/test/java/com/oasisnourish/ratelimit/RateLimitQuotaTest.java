@@ -0,0 +1,31 @@
+package com.oasisnourish.ratelimit;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class RateLimitQuotaTest {
+
+    @Test
+    public void testParse_SingleUnit() {
+        assertEquals(new RateLimitQuota(60, Duration.ofMinutes(1)), RateLimitQuota.parse("60/min"));
+        assertEquals(new RateLimitQuota(5, Duration.ofSeconds(1)), RateLimitQuota.parse("5/s"));
+        assertEquals(new RateLimitQuota(1000, Duration.ofDays(1)), RateLimitQuota.parse("1000/day"));
+    }
+
+    @Test
+    public void testParse_CountedUnit() {
+        assertEquals(new RateLimitQuota(100, Duration.ofMinutes(15)), RateLimitQuota.parse(" 100 / 15MIN "));
+        assertEquals(new RateLimitQuota(10, Duration.ofHours(2)), RateLimitQuota.parse("10/2h"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "60", "60/", "/min", "60/week", "0/min", "60/0min", "-1/min"})
+    public void testParse_InvalidQuota(String quota) {
+        assertThrows(IllegalArgumentException.class, () -> RateLimitQuota.parse(quota));
+    }
+}
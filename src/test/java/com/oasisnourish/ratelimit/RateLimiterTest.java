@@ -0,0 +1,134 @@
+package com.oasisnourish.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyList;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.config.RateLimitConfig;
+import com.oasisnourish.dao.RateLimitDao;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimiterTest {
+
+    private static final RateLimitQuota QUOTA = new RateLimitQuota(3, Duration.ofMinutes(1));
+    // 2024-01-01T00:00:00Z is minute window 28401120
+    private static final String WINDOW = ":28401120";
+
+    @Mock
+    private RateLimitDao rateLimitDao;
+
+    @Mock
+    private RateLimitConfig rateLimitConfig;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        when(rateLimitConfig.getSyncInterval()).thenReturn(1_000);
+        rateLimiter = new RateLimiter(rateLimitDao, rateLimitConfig,
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC), nanoTime::get);
+    }
+
+    @Test
+    public void testTryAcquire_RejectsOverQuotaWithWait() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("a", QUOTA));
+        }
+        assertEquals(20_000, rateLimiter.tryAcquire("a", QUOTA), 1);
+        assertEquals(0, rateLimiter.tryAcquire("b", QUOTA));
+
+        Map<String, Object> metrics = rateLimiter.getMetrics();
+        assertEquals(4L, metrics.get("allowed"));
+        assertEquals(1L, metrics.get("rejected"));
+    }
+
+    @Test
+    public void testSync_ReportsEveryBucketInOneBatch() {
+        rateLimiter.tryAcquire("a", QUOTA);
+        rateLimiter.tryAcquire("a", QUOTA);
+        rateLimiter.tryAcquire("b", QUOTA);
+        when(rateLimitDao.incrementAll(anyList(), anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            List<Long> amounts = invocation.getArgument(1);
+            List<Long> ttls = invocation.getArgument(2);
+            assertEquals(Map.of("rate-limit:a" + WINDOW, 2L, "rate-limit:b" + WINDOW, 1L),
+                    Map.of(keys.get(0), amounts.get(0), keys.get(1), amounts.get(1)));
+            assertEquals(List.of(120_000L, 120_000L), ttls);
+            // Another node already used the rest of a's quota
+            return keys.stream().map(key -> key.startsWith("rate-limit:a") ? 3L : 1L).toList();
+        });
+
+        rateLimiter.sync();
+
+        assertTrue(rateLimiter.tryAcquire("a", QUOTA) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("b", QUOTA));
+        assertEquals(1L, rateLimiter.getMetrics().get("syncs"));
+    }
+
+    @Test
+    public void testSync_DropsIdleBucketsWithoutRoundTrip() {
+        rateLimiter.tryAcquire("a", QUOTA);
+        when(rateLimitDao.incrementAll(List.of("rate-limit:a" + WINDOW), List.of(1L), List.of(120_000L)))
+                .thenReturn(List.of(1L));
+        rateLimiter.sync();
+
+        nanoTime.set(TimeUnit.MINUTES.toNanos(1));
+        rateLimiter.sync();
+
+        assertEquals(0, rateLimiter.getMetrics().get("buckets"));
+        assertEquals(1L, rateLimiter.getMetrics().get("syncs"));
+    }
+
+    @Test
+    public void testSync_FailureKeepsUsageForNextSync() {
+        rateLimiter.tryAcquire("a", QUOTA);
+        when(rateLimitDao.incrementAll(List.of("rate-limit:a" + WINDOW), List.of(1L), List.of(120_000L)))
+                .thenThrow(new RuntimeException("Redis down"));
+
+        assertThrows(RuntimeException.class, rateLimiter::sync);
+        assertEquals(1L, rateLimiter.getMetrics().get("syncFailures"));
+
+        rateLimiter.tryAcquire("a", QUOTA);
+        when(rateLimitDao.incrementAll(List.of("rate-limit:a" + WINDOW), List.of(2L), List.of(120_000L)))
+                .thenReturn(List.of(2L));
+        rateLimiter.sync();
+
+        verify(rateLimitDao).incrementAll(List.of("rate-limit:a" + WINDOW), List.of(2L), List.of(120_000L));
+    }
+
+    @Test
+    public void testSync_NothingToReport() {
+        rateLimiter.sync();
+
+        verify(rateLimitDao, never()).incrementAll(anyList(), anyList(), anyList());
+    }
+
+    @Test
+    public void testRecordRejection_CountsPerRoute() {
+        rateLimiter.recordRejection("POST /api/auth/signin");
+        rateLimiter.recordRejection("POST /api/auth/signin");
+        rateLimiter.recordRejection("GET /api/auth/me");
+
+        assertEquals(Map.of("GET /api/auth/me", 1L, "POST /api/auth/signin", 2L),
+                rateLimiter.getMetrics().get("rejectedByRoute"));
+    }
+}
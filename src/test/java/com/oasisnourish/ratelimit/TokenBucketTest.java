@@ -0,0 +1,88 @@
+package com.oasisnourish.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // 10 requests per 10 seconds: one token a second
+    private final TokenBucket bucket = new TokenBucket(new RateLimitQuota(10, Duration.ofSeconds(10)), 0);
+
+    @Test
+    public void testTryAcquire_EmptiesThenWaitsForRefill() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertEquals(SECOND, bucket.tryAcquire(0), 1);
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2), 1);
+        assertEquals(0, bucket.tryAcquire(2 * SECOND));
+    }
+
+    @Test
+    public void testTakePending_HandsOverTakenTokensOnce() {
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(2, bucket.takePending());
+        assertEquals(0, bucket.takePending());
+
+        bucket.restorePending(2);
+        assertEquals(2, bucket.takePending());
+    }
+
+    @Test
+    public void testReconcile_TakesOutWhatOtherNodesUsed() {
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        long reported = bucket.takePending();
+
+        // Another node used 5 in the same window
+        bucket.reconcile(1, reported, 7);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+
+    @Test
+    public void testReconcile_OnlyTakesOutNewUsageOfOtherNodes() {
+        bucket.reconcile(1, 0, 4);
+        bucket.reconcile(1, 0, 6);
+
+        // 4 and then 2 more, not 4 and then 6
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+
+    @Test
+    public void testReconcile_NewWindowStartsCountingAgain() {
+        bucket.reconcile(1, 0, 4);
+        bucket.reconcile(2, 0, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+
+    @Test
+    public void testIsIdle_OnlyWhenFullAndReported() {
+        assertTrue(bucket.isIdle(0));
+
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isIdle(0));
+
+        bucket.takePending();
+        assertFalse(bucket.isIdle(SECOND / 2));
+        assertTrue(bucket.isIdle(2 * SECOND));
+    }
+}
@@ -7,24 +7,33 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.thymeleaf.context.IContext;
 
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.oasisnourish.dto.UserInputDto;
+import com.oasisnourish.enums.Role;
 import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.exceptions.InvalidTokenException;
 import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.exceptions.ServiceUnavailableException;
+import com.oasisnourish.exceptions.TooManyRequestsException;
 import com.oasisnourish.models.AuthToken;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
@@ -33,6 +42,7 @@ import com.oasisnourish.services.EmailService;
 import com.oasisnourish.services.JWTService;
 import com.oasisnourish.services.UserService;
 import com.oasisnourish.util.EmailContentBuilder;
+import com.oasisnourish.util.SignInThrottle;
 
 import io.javalin.http.UnauthorizedResponse;
 
@@ -51,12 +61,15 @@ public class AuthServiceImplTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private EmailContentBuilder emailContentBuilder;
+    @Mock
+    private SignInThrottle signInThrottle;
 
     @InjectMocks
     private AuthServiceImpl authService;
 
     private final UserInputDto userDto = new UserInputDto(1, "John Doe", "john.doe@test.com", "plainPassword");
     private final User user = new User(1, userDto.getName(), userDto.getEmail(), "encodedPassword");
+    private final String clientIp = "127.0.0.1";
 
     @Test
     public void testSignUpUser() {
@@ -82,11 +95,60 @@ public class AuthServiceImplTest {
         when(passwordEncoder.matches(userDto.getPassword(), user.getPassword())).thenReturn(true);
         when(jwtService.createTokens(user)).thenReturn(Map.of("JWT_ACCESS_TOKEN", accessToken, "JWT_REFRESH_TOKEN", refreshToken));
 
-        Map<String, JsonWebToken> tokens = authService.signInUser(userDto);
+        Map<String, JsonWebToken> tokens = authService.signInUser(userDto, clientIp);
 
         assertNotNull(tokens);
         assertEquals(accessToken, tokens.get("JWT_ACCESS_TOKEN"));
         assertEquals(refreshToken, tokens.get("JWT_REFRESH_TOKEN"));
+        verify(userService, never()).updatePassword(anyInt(), anyString());
+        verify(signInThrottle).recordSuccess(userDto.getEmail());
+    }
+
+    @Test
+    public void testSignInUser_RehashesOutdatedPassword() {
+        JsonWebToken accessToken = new JsonWebToken("accessToken", Tokens.Jwt.ACCESS_TOKEN, 1, Instant.now().plusSeconds(30L), user.getId());
+        JsonWebToken refreshToken = new JsonWebToken("refreshToken", Tokens.Jwt.REFRESH_TOKEN, 1, Instant.now().plusSeconds(60L), user.getId());
+
+        when(userService.findUserByEmail(userDto.getEmail())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(userDto.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(user.getPassword())).thenReturn(true);
+        User rehashedUser = new User(user.getId(), user.getName(), user.getEmail(), "rehashedPassword");
+        rehashedUser.setVersion(user.getVersion() + 1);
+        when(userService.findUserById(user.getId())).thenReturn(Optional.of(rehashedUser));
+        when(jwtService.createTokens(rehashedUser)).thenReturn(Map.of("JWT_ACCESS_TOKEN", accessToken, "JWT_REFRESH_TOKEN", refreshToken));
+
+        authService.signInUser(userDto, clientIp);
+
+        verify(userService).updatePassword(user.getId(), userDto.getPassword());
+        verify(jwtService).createTokens(rehashedUser);
+    }
+
+    @Test
+    public void testSignInUser_FailedRehashStillSignsIn() {
+        JsonWebToken accessToken = new JsonWebToken("accessToken", Tokens.Jwt.ACCESS_TOKEN, 1, Instant.now().plusSeconds(30L), user.getId());
+        JsonWebToken refreshToken = new JsonWebToken("refreshToken", Tokens.Jwt.REFRESH_TOKEN, 1, Instant.now().plusSeconds(60L), user.getId());
+
+        when(userService.findUserByEmail(userDto.getEmail())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(userDto.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(user.getPassword())).thenReturn(true);
+        doThrow(new ServiceUnavailableException("Password hashing is overloaded."))
+                .when(userService).updatePassword(user.getId(), userDto.getPassword());
+        when(jwtService.createTokens(user)).thenReturn(Map.of("JWT_ACCESS_TOKEN", accessToken, "JWT_REFRESH_TOKEN", refreshToken));
+
+        Map<String, JsonWebToken> tokens = authService.signInUser(userDto, clientIp);
+
+        assertEquals(accessToken, tokens.get("JWT_ACCESS_TOKEN"));
+        verify(userService, never()).findUserById(user.getId());
+    }
+
+    @Test
+    public void testSignInUser_ThrottledBeforeLookup() {
+        doThrow(new TooManyRequestsException("Too many sign in attempts.")).when(signInThrottle).acquire(clientIp, userDto.getEmail());
+
+        assertThrows(TooManyRequestsException.class, () -> authService.signInUser(userDto, clientIp));
+
+        verify(userService, never()).findUserByEmail(anyString());
+        verify(passwordEncoder, never()).matches(any(), anyString());
     }
 
     @Test
@@ -94,8 +156,9 @@ public class AuthServiceImplTest {
         when(userService.findUserByEmail(userDto.getEmail())).thenReturn(Optional.of(user));
         when(passwordEncoder.matches(userDto.getPassword(), user.getPassword())).thenReturn(false);
 
-        UnauthorizedResponse exception = assertThrows(UnauthorizedResponse.class, () -> authService.signInUser(userDto));
+        UnauthorizedResponse exception = assertThrows(UnauthorizedResponse.class, () -> authService.signInUser(userDto, clientIp));
         assertEquals("Invalid email or password.", exception.getMessage());
+        verify(signInThrottle, never()).recordSuccess(anyString());
     }
 
     @Test
@@ -185,4 +248,58 @@ public class AuthServiceImplTest {
         assertEquals("The authentication token is either invalid or has expired. Please request a new one.", exception.getMessage());
     }
 
+    @Test
+    public void testUpdateSignedInUserIfChanged_UnchangedUserNeedsNoQuery() {
+        DecodedJWT jwt = mockUserVersionClaim(user.getVersion());
+        when(userService.findCachedUserById(user.getId())).thenReturn(Optional.of(user));
+
+        assertTrue(authService.updateSignedInUserIfChanged(user, jwt).isEmpty());
+
+        verify(userService, never()).findUserById(anyInt());
+        verify(jwtService, never()).createTokens(any(), any());
+    }
+
+    @Test
+    public void testUpdateSignedInUserIfChanged_ChangedOnThisNode() {
+        DecodedJWT jwt = mockUserVersionClaim(user.getVersion());
+        Claim maxExpiryClaim = mock(Claim.class);
+        Instant maxExpiry = Instant.now().plusSeconds(3600L);
+        User verifiedUser = new User(user.getId(), user.getName(), user.getEmail(), user.getPassword(), Role.USER);
+        verifiedUser.setVersion(user.getVersion() + 1);
+        Map<String, JsonWebToken> tokens = Map.of();
+
+        when(userService.findCachedUserById(user.getId())).thenReturn(Optional.empty());
+        when(userService.findUserById(user.getId())).thenReturn(Optional.of(verifiedUser));
+        when(jwt.getClaim("maxExp")).thenReturn(maxExpiryClaim);
+        when(maxExpiryClaim.asInstant()).thenReturn(maxExpiry);
+        when(jwtService.createTokens(verifiedUser, maxExpiry)).thenReturn(tokens);
+
+        assertEquals(Optional.of(tokens), authService.updateSignedInUserIfChanged(user, jwt));
+    }
+
+    @Test
+    public void testUpdateSignedInUserIfChanged_EvictedButUnchanged() {
+        DecodedJWT jwt = mockUserVersionClaim(user.getVersion());
+        when(userService.findCachedUserById(user.getId())).thenReturn(Optional.empty());
+        when(userService.findUserById(user.getId())).thenReturn(Optional.of(user));
+
+        assertTrue(authService.updateSignedInUserIfChanged(user, jwt).isEmpty());
+
+        verify(jwtService, never()).createTokens(any(), any());
+    }
+
+    @Test
+    public void testUpdateSignedInUserIfChanged_NoSignedInUser() {
+        assertTrue(authService.updateSignedInUserIfChanged(null, null).isEmpty());
+
+        verify(userService, never()).findCachedUserById(anyInt());
+    }
+
+    private DecodedJWT mockUserVersionClaim(int version) {
+        DecodedJWT jwt = mock(DecodedJWT.class);
+        Claim versionClaim = mock(Claim.class);
+        when(jwt.getClaim("userVersion")).thenReturn(versionClaim);
+        when(versionClaim.asInt()).thenReturn(version);
+        return jwt;
+    }
 }
@@ -0,0 +1,287 @@
+package com.oasisnourish.services.impl;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.context.IContext;
+
+import com.oasisnourish.config.EmailConfig;
+import com.oasisnourish.dao.Consumer.EntityConsumer;
+import com.oasisnourish.dao.EmailCampaignDao;
+import com.oasisnourish.dto.EmailCampaignInputDto;
+import com.oasisnourish.enums.CampaignStatus;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.EmailCampaign;
+import com.oasisnourish.models.User;
+import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.EmailContentBuilder;
+import com.oasisnourish.util.EmailTemplateRenderer;
+import com.oasisnourish.util.SmtpTransportPool;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailCampaignServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime LEASE_UNTIL = NOW.plusMinutes(5);
+
+    @Mock
+    private EmailCampaignDao campaignDao;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EmailContentBuilder emailContentBuilder;
+
+    @Mock
+    private EmailTemplateRenderer templateRenderer;
+
+    @Mock
+    private SmtpTransportPool transportPool;
+
+    @Mock
+    private EmailConfig emailConfig;
+
+    @Mock
+    private IContext context;
+
+    private EmailCampaignServiceImpl campaignService;
+
+    @BeforeEach
+    public void setUp() {
+        when(emailConfig.getMailUsername()).thenReturn("mailer@test.com");
+        when(emailConfig.getCampaignBatchSize()).thenReturn(2);
+        // Fast enough that pacing never waits in these tests
+        when(emailConfig.getCampaignRate()).thenReturn(1_000_000);
+        when(emailConfig.getCampaignRenderThreads()).thenReturn(2);
+        campaignService = new EmailCampaignServiceImpl(campaignDao, userService, emailContentBuilder,
+                templateRenderer, transportPool, emailConfig,
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        campaignService.stop();
+    }
+
+    @Test
+    public void startCampaign_SavesRunningCampaign() {
+        EmailCampaign campaign = campaignService.startCampaign(
+                new EmailCampaignInputDto("Summer sale", "campaign/newsletter", null));
+
+        verify(campaignDao).save(campaign);
+        assertEquals(CampaignStatus.RUNNING, campaign.getStatus());
+        assertEquals(Map.of(), campaign.getVariables());
+        assertEquals(NOW, campaign.getCreatedAt());
+        assertEquals(0, campaign.getLastUserId());
+    }
+
+    @Test
+    public void cancelCampaign_CancelsRunningCampaign() {
+        when(campaignDao.find(3)).thenReturn(Optional.of(campaign(0)));
+
+        EmailCampaign campaign = campaignService.cancelCampaign(3);
+
+        verify(campaignDao).updateStatus(3, CampaignStatus.CANCELLED, NOW);
+        assertEquals(CampaignStatus.CANCELLED, campaign.getStatus());
+    }
+
+    @Test
+    public void cancelCampaign_LeavesCompletedCampaign() {
+        EmailCampaign completed = campaign(0);
+        completed.setStatus(CampaignStatus.COMPLETED);
+        when(campaignDao.find(3)).thenReturn(Optional.of(completed));
+
+        assertEquals(CampaignStatus.COMPLETED, campaignService.cancelCampaign(3).getStatus());
+        verify(campaignDao, never()).updateStatus(anyInt(), any(), any());
+    }
+
+    @Test
+    public void cancelCampaign_NotFound() {
+        when(campaignDao.find(3)).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> campaignService.cancelCampaign(3));
+        assertEquals("Campaign does not exist.", exception.getMessage());
+    }
+
+    @Test
+    public void run_SendsInBatchesAndCompletes() throws Exception {
+        EmailCampaign campaign = campaign(0);
+        streamUsers(0, user(1), user(2), user(3));
+        stubRendering();
+        when(campaignDao.find(3)).thenReturn(Optional.of(campaign(0)));
+        when(transportPool.sendBatch(anyList())).thenReturn(Map.of());
+
+        campaignService.run(campaign);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MimeMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transportPool, times(2)).sendBatch(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        assertEquals("john.doe.1@test.com", captor.getAllValues().get(0).get(0).getAllRecipients()[0].toString());
+        assertEquals("Summer sale", captor.getAllValues().get(0).get(0).getSubject());
+        verify(campaignDao, times(2)).saveProgress(campaign, LEASE_UNTIL);
+        verify(campaignDao).updateStatus(3, CampaignStatus.COMPLETED, NOW);
+        assertEquals(3, campaign.getLastUserId());
+        assertEquals(3, campaign.getSent());
+        assertEquals(0, campaign.getFailed());
+        assertEquals(3L, campaignService.getMetrics().get("sent"));
+        assertEquals(2L, campaignService.getMetrics().get("batches"));
+    }
+
+    @Test
+    public void run_ClosesCursorBeforeSending() throws Exception {
+        EmailCampaign campaign = campaign(0);
+        AtomicBoolean streaming = new AtomicBoolean();
+        doAnswer(invocation -> {
+            EntityConsumer<User> consumer = invocation.getArgument(2);
+            streaming.set(true);
+            consumer.accept(user(1));
+            consumer.accept(user(2));
+            consumer.accept(user(3));
+            streaming.set(false);
+            return null;
+        }).when(userService).forEachVerifiedUserAfter(eq(0), eq(EmailCampaignServiceImpl.CHUNK_SIZE), any());
+        stubRendering();
+        when(campaignDao.find(3)).thenReturn(Optional.of(campaign(0)));
+        when(transportPool.sendBatch(anyList())).thenAnswer(invocation -> {
+            assertFalse(streaming.get());
+            return Map.of();
+        });
+
+        campaignService.run(campaign);
+
+        verify(transportPool, times(2)).sendBatch(anyList());
+        assertEquals(3, campaign.getLastUserId());
+    }
+
+    @Test
+    public void constructor_RejectsNonPositiveRate() {
+        when(emailConfig.getCampaignRate()).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> new EmailCampaignServiceImpl(campaignDao, userService,
+                emailContentBuilder, templateRenderer, transportPool, emailConfig));
+    }
+
+    @Test
+    public void run_ResumesAfterLastUser() throws Exception {
+        EmailCampaign campaign = campaign(500);
+        campaign.setSent(500);
+        streamUsers(500, user(501));
+        stubRendering();
+        when(campaignDao.find(3)).thenReturn(Optional.of(campaign(500)));
+        when(transportPool.sendBatch(anyList())).thenReturn(Map.of());
+
+        campaignService.run(campaign);
+
+        assertEquals(501, campaign.getLastUserId());
+        assertEquals(501, campaign.getSent());
+        verify(campaignDao).updateStatus(3, CampaignStatus.COMPLETED, NOW);
+    }
+
+    @Test
+    public void run_CountsEmailsThatCannotBeBuilt() throws Exception {
+        EmailCampaign campaign = campaign(0);
+        User malformed = user(1);
+        malformed.setEmail("john.doe@test.com>");
+        streamUsers(0, malformed, user(2));
+        stubRendering();
+        when(campaignDao.find(3)).thenReturn(Optional.of(campaign(0)));
+        when(transportPool.sendBatch(anyList())).thenReturn(Map.of());
+
+        campaignService.run(campaign);
+
+        verify(transportPool).sendBatch(argThat(messages -> messages.size() == 1));
+        assertEquals(1, campaign.getSent());
+        assertEquals(1, campaign.getFailed());
+        assertEquals(2, campaign.getLastUserId());
+    }
+
+    @Test
+    public void run_StopsWhenCancelled() throws Exception {
+        EmailCampaign campaign = campaign(0);
+        EmailCampaign cancelled = campaign(0);
+        cancelled.setStatus(CampaignStatus.CANCELLED);
+        streamUsers(0, user(1), user(2), user(3));
+        when(campaignDao.find(3)).thenReturn(Optional.of(cancelled));
+
+        campaignService.run(campaign);
+
+        verify(transportPool, never()).sendBatch(anyList());
+        verify(campaignDao, never()).saveProgress(any(), any());
+        verify(campaignDao, never()).updateStatus(3, CampaignStatus.COMPLETED, NOW);
+        assertEquals(0, campaign.getLastUserId());
+    }
+
+    @Test
+    public void runDueCampaigns_ClaimsUntilNoneAreLeft() {
+        when(campaignDao.claimNext(NOW, LEASE_UNTIL)).thenReturn(Optional.of(campaign(0)), Optional.empty());
+        streamUsers(0);
+
+        campaignService.runDueCampaigns();
+
+        verify(campaignDao, times(2)).claimNext(NOW, LEASE_UNTIL);
+        verify(campaignDao).updateStatus(3, CampaignStatus.COMPLETED, NOW);
+    }
+
+    private void streamUsers(int afterId, User... users) {
+        doAnswer(invocation -> {
+            EntityConsumer<User> consumer = invocation.getArgument(2);
+            for (User user : users) {
+                consumer.accept(user);
+            }
+            return null;
+        }).when(userService).forEachVerifiedUserAfter(eq(afterId), eq(EmailCampaignServiceImpl.CHUNK_SIZE), any());
+    }
+
+    private void stubRendering() {
+        when(transportPool.getSession()).thenReturn(Session.getInstance(new Properties()));
+        when(emailContentBuilder.buildCampaignContext(any(User.class), eq(Map.of("heading", "Summer sale"))))
+                .thenReturn(context);
+        when(templateRenderer.render("campaign/newsletter", context)).thenReturn("<p>Hi</p>");
+    }
+
+    private static EmailCampaign campaign(int lastUserId) {
+        EmailCampaign campaign = new EmailCampaign("Summer sale", "campaign/newsletter",
+                Map.of("heading", "Summer sale"), NOW);
+        campaign.setId(3);
+        campaign.setLastUserId(lastUserId);
+        return campaign;
+    }
+
+    private static User user(int id) {
+        return new User(id, "John Doe", "john.doe." + id + "@test.com", "encodedPassword", Role.USER);
+    }
+}
@@ -1,6 +1,7 @@
 package com.oasisnourish.services.impl;
 
 import java.time.Instant;
+import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,9 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -25,7 +30,9 @@ import com.oasisnourish.enums.Role;
 import com.oasisnourish.enums.Tokens;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
+import com.oasisnourish.util.jwt.DecodedJWTCache;
 import com.oasisnourish.util.jwt.JWTProvider;
+import com.oasisnourish.util.jwt.RevocationList;
 
 @ExtendWith(MockitoExtension.class)
 public class JWTServiceImplTest {
@@ -39,15 +46,22 @@ public class JWTServiceImplTest {
     @Mock
     private JWTProvider provider;
 
+    @Mock
+    private DecodedJWTCache jwtCache;
+
     @InjectMocks
     private JWTServiceImpl jwtService;
 
+    // Created per test rather than as a @Mock, so @InjectMocks keeps building the allowlist service
+    private RevocationList revocationList;
+
     private final User user = new User(1, "John Doe", "john.doe@test.com", "password123", Role.USER);
 
     private final String accessToken = UUID.randomUUID().toString();
     private final String refreshToken = UUID.randomUUID().toString();
     private final long tokenVersion = 1L;
     private final Instant currentTime = Instant.now();
+    private final Instant maxExpiry = currentTime.plusSeconds(3600L);
     private final JsonWebToken jwtAccessToken = new JsonWebToken(accessToken, Tokens.Jwt.ACCESS_TOKEN, tokenVersion, currentTime.plusSeconds(60L), user.getId());
     private final JsonWebToken jwtRefreshToken = new JsonWebToken(refreshToken, Tokens.Jwt.REFRESH_TOKEN, tokenVersion, currentTime.plusSeconds(120L), user.getId());
 
@@ -74,10 +88,12 @@ public class JWTServiceImplTest {
 
     @Test
     public void createToken_Success() {
+        when(provider.now()).thenReturn(currentTime);
+        when(provider.getMaxExpiry(currentTime)).thenReturn(maxExpiry);
         when(tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN)).thenReturn(tokenVersion);
-        when(provider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, tokenVersion)).thenReturn(jwtAccessToken);
+        when(provider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, tokenVersion, currentTime, maxExpiry)).thenReturn(jwtAccessToken);
         when(tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN)).thenReturn(tokenVersion);
-        when(provider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, tokenVersion)).thenReturn(jwtRefreshToken);
+        when(provider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, tokenVersion, currentTime, maxExpiry)).thenReturn(jwtRefreshToken);
 
         Map<String, JsonWebToken> tokens = jwtService.createTokens(user);
 
@@ -86,7 +102,23 @@ public class JWTServiceImplTest {
         assertEquals(2, tokens.size());
         assertEquals(jwtAccessToken, tokens.get("JWT_ACCESS_TOKEN"));
         assertEquals(jwtRefreshToken, tokens.get("JWT_REFRESH_TOKEN"));
+        verify(jwtCache).invalidateUser(user.getId());
+    }
+
+    @Test
+    public void createTokens_KeepsSessionMaxExpiry() {
+        Instant sessionMaxExpiry = currentTime.plusSeconds(90L);
+        when(provider.now()).thenReturn(currentTime);
+        when(tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN)).thenReturn(tokenVersion);
+        when(provider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, tokenVersion, currentTime, sessionMaxExpiry)).thenReturn(jwtAccessToken);
+        when(tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN)).thenReturn(tokenVersion);
+        when(provider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, tokenVersion, currentTime, sessionMaxExpiry)).thenReturn(jwtRefreshToken);
 
+        Map<String, JsonWebToken> tokens = jwtService.createTokens(user, sessionMaxExpiry);
+
+        verify(provider, never()).getMaxExpiry(any(Instant.class));
+        assertEquals(jwtAccessToken, tokens.get("JWT_ACCESS_TOKEN"));
+        assertEquals(jwtRefreshToken, tokens.get("JWT_REFRESH_TOKEN"));
     }
 
     @Test
@@ -94,6 +126,58 @@ public class JWTServiceImplTest {
         jwtService.deleteToken(accessToken);
 
         verify(tokenDao, times(1)).deleteToken(accessToken);
+        verify(jwtCache).invalidateToken(accessToken);
+    }
+
+    @Test
+    public void testDecodeToken_CacheHit() {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+
+        when(jwtCache.get(accessToken)).thenReturn(Optional.of(decodedJWT));
+
+        Optional<DecodedJWT> result = jwtService.decodeToken(accessToken);
+
+        assertTrue(result.isPresent());
+        assertEquals(decodedJWT, result.get());
+        verify(tokenDao, never()).findToken(anyString());
+        verify(provider, never()).validateToken(anyString());
+    }
+
+    @Test
+    public void testDecodeToken_CacheMissStoresDecodedToken() {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+
+        when(jwtCache.get(accessToken)).thenReturn(Optional.empty());
+        when(tokenDao.findToken(accessToken)).thenReturn(Optional.of(jwtAccessToken));
+        when(provider.validateToken(accessToken)).thenReturn(Optional.of(decodedJWT));
+
+        Optional<DecodedJWT> result = jwtService.decodeToken(accessToken);
+
+        assertTrue(result.isPresent());
+        verify(jwtCache).put(accessToken, decodedJWT);
+    }
+
+    @Test
+    public void testDecodeToken_PreloadedStoredTokenSkipsTokenLookup() {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+
+        when(jwtCache.get(accessToken)).thenReturn(Optional.empty());
+        when(provider.validateToken(accessToken)).thenReturn(Optional.of(decodedJWT));
+
+        Optional<DecodedJWT> result = jwtService.decodeToken(accessToken, true);
+
+        assertTrue(result.isPresent());
+        verify(tokenDao, never()).findToken(anyString());
+        verify(jwtCache).put(accessToken, decodedJWT);
+    }
+
+    @Test
+    public void testDecodeToken_PreloadedMissingTokenIsRejected() {
+        Optional<DecodedJWT> result = jwtService.decodeToken(accessToken, false);
+
+        assertTrue(result.isEmpty());
+        verify(jwtCache, never()).get(anyString());
+        verify(provider, never()).validateToken(anyString());
     }
 
     public void testDecodeToken_ValidToken() {
@@ -119,6 +203,68 @@ public class JWTServiceImplTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    public void testCreateTokens_RevocationModeDoesNotStoreTokens() {
+        JWTServiceImpl revocationJwtService = createRevocationJwtService();
+        when(provider.now()).thenReturn(currentTime);
+        when(provider.getMaxExpiry(currentTime)).thenReturn(maxExpiry);
+        when(tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN)).thenReturn(tokenVersion);
+        when(provider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, tokenVersion, currentTime, maxExpiry)).thenReturn(jwtAccessToken);
+        when(tokenVersionDao.increment(user.getId(), Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN)).thenReturn(tokenVersion);
+        when(provider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, tokenVersion, currentTime, maxExpiry)).thenReturn(jwtRefreshToken);
+
+        revocationJwtService.createTokens(user);
+
+        verifyNoInteractions(tokenDao);
+    }
+
+    @Test
+    public void testDecodeToken_RevocationModeSkipsTokenLookup() {
+        JWTServiceImpl revocationJwtService = createRevocationJwtService();
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtCache.get(accessToken)).thenReturn(Optional.empty());
+        when(provider.validateToken(accessToken)).thenReturn(Optional.of(decodedJWT));
+        when(decodedJWT.getId()).thenReturn("jti");
+        when(revocationList.isRevoked("jti")).thenReturn(false);
+
+        Optional<DecodedJWT> result = revocationJwtService.decodeToken(accessToken);
+
+        assertTrue(result.isPresent());
+        verifyNoInteractions(tokenDao);
+        verify(jwtCache).put(accessToken, decodedJWT);
+    }
+
+    @Test
+    public void testDecodeToken_RevocationModeRejectsRevokedToken() {
+        JWTServiceImpl revocationJwtService = createRevocationJwtService();
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtCache.get(accessToken)).thenReturn(Optional.empty());
+        when(provider.validateToken(accessToken)).thenReturn(Optional.of(decodedJWT));
+        when(decodedJWT.getId()).thenReturn("jti");
+        when(revocationList.isRevoked("jti")).thenReturn(true);
+
+        Optional<DecodedJWT> result = revocationJwtService.decodeToken(accessToken);
+
+        assertTrue(result.isEmpty());
+        verify(jwtCache, never()).put(accessToken, decodedJWT);
+    }
+
+    @Test
+    public void testDeleteToken_RevocationModeRevokesToken() {
+        JWTServiceImpl revocationJwtService = createRevocationJwtService();
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Date expires = Date.from(currentTime.plusSeconds(60));
+        when(provider.validateToken(accessToken)).thenReturn(Optional.of(decodedJWT));
+        when(decodedJWT.getId()).thenReturn("jti");
+        when(decodedJWT.getExpiresAt()).thenReturn(expires);
+
+        revocationJwtService.deleteToken(accessToken);
+
+        verify(revocationList).revoke("jti", expires.toInstant());
+        verify(tokenDao, never()).deleteToken(accessToken);
+        verify(jwtCache).invalidateToken(accessToken);
+    }
+
     @Test
     public void testGetCurrentTokenVersion() {
         Tokens.Jwt tokenType = Tokens.Jwt.ACCESS_TOKEN;
@@ -129,4 +275,9 @@ public class JWTServiceImplTest {
 
         assertEquals(tokenVersion, result);
     }
+
+    private JWTServiceImpl createRevocationJwtService() {
+        revocationList = mock(RevocationList.class);
+        return new JWTServiceImpl(tokenDao, tokenVersionDao, provider, jwtCache, revocationList);
+    }
 }
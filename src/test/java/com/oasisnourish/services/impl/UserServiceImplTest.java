@@ -26,6 +26,7 @@ import com.oasisnourish.dto.UserInputDto;
 import com.oasisnourish.enums.Role;
 import com.oasisnourish.exceptions.EmailExistsException;
 import com.oasisnourish.exceptions.NotFoundException;
+import com.oasisnourish.models.Page;
 import com.oasisnourish.models.User;
 
 @ExtendWith(MockitoExtension.class)
@@ -61,16 +62,28 @@ public class UserServiceImplTest {
     }
 
     @Test
-    public void testFindAllUsers() {
-        List<User> mockUserList = Arrays.asList(
-                new User(1, "John Doe", "john.doe@test.com", "password123", Role.USER),
-                new User(2, "Jane Doe", "jane.doe@test.com", "password456", Role.ADMIN));
+    public void testFindUsersPage_HasMore() {
+        List<User> users = Arrays.asList(
+                new User(3, "John Doe", "john.doe@test.com", "password123", Role.USER),
+                new User(4, "Jane Doe", "jane.doe@test.com", "password456", Role.ADMIN),
+                new User(5, "Jim Doe", "jim.doe@test.com", "password789", Role.USER));
+        when(userDao.findAfter(2, 3)).thenReturn(users);
 
-        when(userDao.findAll()).thenReturn(mockUserList);
+        Page<User> page = userService.findUsersPage(2, 2);
 
-        List<User> result = userService.findAllUsers();
-        assertEquals(mockUserList, result);
-        verify(userDao, times(1)).findAll();
+        assertEquals(users.subList(0, 2), page.getItems());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    public void testFindUsersPage_LastPage() {
+        List<User> users = List.of(new User(3, "John Doe", "john.doe@test.com", "password123", Role.USER));
+        when(userDao.findAfter(2, 3)).thenReturn(users);
+
+        Page<User> page = userService.findUsersPage(2, 2);
+
+        assertEquals(users, page.getItems());
+        assertFalse(page.hasMore());
     }
 
     @Test
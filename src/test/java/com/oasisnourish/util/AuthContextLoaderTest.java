@@ -0,0 +1,195 @@
+package com.oasisnourish.util;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.oasisnourish.dao.CachingUserDao;
+import com.oasisnourish.dao.impl.TokenDaoImpl;
+import com.oasisnourish.dao.impl.TokenVersionDaoImpl;
+import com.oasisnourish.db.RedisConnection;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.TokenValidationMode;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.AuthContext;
+import com.oasisnourish.models.User;
+
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthContextLoaderTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @Mock
+    private Pipeline pipeline;
+
+    @Mock
+    private CachingUserDao userDao;
+
+    private AuthContextLoader authContextLoader;
+
+    private final User user = new User(1, "John Doe", "john@example.com", null, Role.USER);
+    private final String accessToken = createToken(1, "access");
+    private final String refreshToken = createToken(1, "refresh");
+
+    @BeforeEach
+    public void setUp() {
+        authContextLoader = new AuthContextLoader(redisConnection, userDao, TokenValidationMode.ALLOWLIST);
+    }
+
+    @Test
+    public void testLoad_LocalUserNeedsOneRoundTrip() {
+        when(userDao.findCached(1)).thenReturn(Optional.of(user));
+        stubPipeline(accessToken, true, refreshToken, false, "3", "4");
+
+        AuthContext authContext = authContextLoader.load(accessToken, refreshToken).orElseThrow();
+
+        assertTrue(authContext.isForUser(1));
+        assertTrue(authContext.isTokenStored(accessToken));
+        assertFalse(authContext.isTokenStored(refreshToken));
+        assertEquals(3L, authContext.getTokenVersion(Tokens.Jwt.ACCESS_TOKEN));
+        assertEquals(4L, authContext.getTokenVersion(Tokens.Jwt.REFRESH_TOKEN));
+        assertEquals(Optional.of(user), authContext.getUser());
+        verify(userDao, never()).queueFindShared(any(), anyInt());
+        verify(userDao, never()).findInDatabase(1);
+        assertEquals(1.0, authContextLoader.getMetrics().get("roundTripsPerRequest"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLoad_SnapshotFillsUser() {
+        Response<Map<String, String>> snapshot = mock(Response.class);
+        Map<String, String> fields = Map.of("id", "1");
+        when(userDao.findCached(1)).thenReturn(Optional.empty());
+        when(userDao.queueFindShared(pipeline, 1)).thenReturn(snapshot);
+        when(snapshot.get()).thenReturn(fields);
+        when(userDao.fromShared(fields)).thenReturn(Optional.of(user));
+        stubPipeline(accessToken, true, refreshToken, false, null, null);
+
+        AuthContext authContext = authContextLoader.load(accessToken, refreshToken).orElseThrow();
+
+        assertEquals(Optional.of(user), authContext.getUser());
+        assertEquals(1L, authContext.getTokenVersion(Tokens.Jwt.ACCESS_TOKEN));
+        verify(userDao, never()).findInDatabase(1);
+    }
+
+    @Test
+    public void testLoad_MissFallsBackToDatabase() {
+        when(userDao.findCached(1)).thenReturn(Optional.empty());
+        when(userDao.queueFindShared(pipeline, 1)).thenReturn(null);
+        when(userDao.findInDatabase(1)).thenReturn(Optional.empty());
+        stubPipeline(accessToken, false, refreshToken, true, "1", "1");
+
+        AuthContext authContext = authContextLoader.load(accessToken, refreshToken).orElseThrow();
+
+        assertTrue(authContext.isUserLoaded());
+        assertTrue(authContext.getUser().isEmpty());
+        assertEquals(2.0, authContextLoader.getMetrics().get("roundTripsPerRequest"));
+    }
+
+    @Test
+    public void testLoad_UnstoredTokensLoadNoUser() {
+        when(userDao.findCached(1)).thenReturn(Optional.empty());
+        when(userDao.queueFindShared(pipeline, 1)).thenReturn(null);
+        stubPipeline(accessToken, false, refreshToken, false, "1", "1");
+
+        AuthContext authContext = authContextLoader.load(accessToken, refreshToken).orElseThrow();
+
+        assertFalse(authContext.isUserLoaded());
+        verify(userDao, never()).fromShared(anyMap());
+        verify(userDao, never()).findInDatabase(anyInt());
+    }
+
+    @Test
+    public void testLoad_StoredTokenOfAnotherUserLoadsNoUser() {
+        String otherRefreshToken = createToken(2, "refresh");
+        when(userDao.findCached(1)).thenReturn(Optional.empty());
+        when(userDao.queueFindShared(pipeline, 1)).thenReturn(null);
+        stubPipeline(accessToken, false, otherRefreshToken, true, "1", "1");
+
+        AuthContext authContext = authContextLoader.load(accessToken, otherRefreshToken).orElseThrow();
+
+        assertFalse(authContext.isUserLoaded());
+        verify(userDao, never()).findInDatabase(anyInt());
+    }
+
+    @Test
+    public void testLoad_WithoutReadableTokensLoadsNothing() {
+        assertTrue(authContextLoader.load(null, "not-a-jwt").isEmpty());
+
+        verifyNoInteractions(redisConnection, userDao);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLoad_RevocationModeLeavesUserToCaller() {
+        Response<String> accessVersionResponse = mock(Response.class);
+        Response<String> refreshVersionResponse = mock(Response.class);
+        authContextLoader = new AuthContextLoader(redisConnection, userDao, TokenValidationMode.REVOCATION);
+        when(userDao.findCached(1)).thenReturn(Optional.empty());
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.pipelined()).thenReturn(pipeline);
+        when(pipeline.get(TokenVersionDaoImpl.getKey(1, Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN))).thenReturn(accessVersionResponse);
+        when(pipeline.get(TokenVersionDaoImpl.getKey(1, Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN))).thenReturn(refreshVersionResponse);
+        when(accessVersionResponse.get()).thenReturn("2");
+        when(refreshVersionResponse.get()).thenReturn("2");
+
+        AuthContext authContext = authContextLoader.load(accessToken, refreshToken).orElseThrow();
+
+        assertFalse(authContext.hasToken(accessToken));
+        assertFalse(authContext.hasToken(refreshToken));
+        assertFalse(authContext.isUserLoaded());
+        verify(pipeline, never()).exists(anyString());
+        verify(userDao, never()).queueFindShared(any(), anyInt());
+        verify(userDao, never()).findInDatabase(anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubPipeline(String access, boolean accessStored, String refresh, boolean refreshStored,
+            String accessVersion, String refreshVersion) {
+        Response<Boolean> accessExists = mock(Response.class);
+        Response<Boolean> refreshExists = mock(Response.class);
+        Response<String> accessVersionResponse = mock(Response.class);
+        Response<String> refreshVersionResponse = mock(Response.class);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(jedis.pipelined()).thenReturn(pipeline);
+        when(pipeline.exists(TokenDaoImpl.getKey(access))).thenReturn(accessExists);
+        when(pipeline.exists(TokenDaoImpl.getKey(refresh))).thenReturn(refreshExists);
+        when(pipeline.get(TokenVersionDaoImpl.getKey(1, Tokens.Category.JWT, Tokens.Jwt.ACCESS_TOKEN))).thenReturn(accessVersionResponse);
+        when(pipeline.get(TokenVersionDaoImpl.getKey(1, Tokens.Category.JWT, Tokens.Jwt.REFRESH_TOKEN))).thenReturn(refreshVersionResponse);
+        when(accessExists.get()).thenReturn(accessStored);
+        when(refreshExists.get()).thenReturn(refreshStored);
+        when(accessVersionResponse.get()).thenReturn(accessVersion);
+        when(refreshVersionResponse.get()).thenReturn(refreshVersion);
+    }
+
+    private static String createToken(int userId, String type) {
+        return JWT.create().withClaim("userId", userId).withClaim("type", type).sign(Algorithm.HMAC256("secret"));
+    }
+}
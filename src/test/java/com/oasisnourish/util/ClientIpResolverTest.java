@@ -0,0 +1,56 @@
+package com.oasisnourish.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.javalin.http.Context;
+import jakarta.servlet.http.HttpServletRequest;
+
+@ExtendWith(MockitoExtension.class)
+public class ClientIpResolverTest {
+
+    @Mock
+    private Context ctx;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        when(ctx.req()).thenReturn(request);
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+    }
+
+    @Test
+    public void testResolve_WithoutProxiesIgnoresHeader() {
+        when(ctx.header("X-Forwarded-For")).thenReturn("203.0.113.7");
+
+        assertEquals("10.0.0.2", new ClientIpResolver(0).resolve(ctx));
+    }
+
+    @Test
+    public void testResolve_SkipsSpoofedEntries() {
+        when(ctx.header("X-Forwarded-For")).thenReturn("198.51.100.1, 203.0.113.7, 10.0.0.1");
+
+        assertEquals("203.0.113.7", new ClientIpResolver(2).resolve(ctx));
+    }
+
+    @Test
+    public void testResolve_ShortHeaderUsesFirstEntry() {
+        when(ctx.header("X-Forwarded-For")).thenReturn("203.0.113.7");
+
+        assertEquals("203.0.113.7", new ClientIpResolver(2).resolve(ctx));
+    }
+
+    @Test
+    public void testResolve_MissingHeaderUsesRemoteAddress() {
+        when(ctx.header("X-Forwarded-For")).thenReturn(null);
+
+        assertEquals("10.0.0.2", new ClientIpResolver(1).resolve(ctx));
+    }
+}
@@ -1,12 +1,13 @@
 package com.oasisnourish.util;
 
 import java.time.Instant;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -26,15 +27,13 @@ public class EmailContentBuilderTest {
     @Mock
     private Dotenv dotenv;
 
-    @InjectMocks
-    private EmailContentBuilder emailContentBuilder;
-
     @Test
     public void testBuildEmailTokenContext() {
         User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.ADMIN);
         Token token = new AuthToken("dummy-token", Tokens.Auth.ACCOUNT_CONFIRMATION_TOKEN, 1, Instant.now(), user.getId());
 
         when(dotenv.get("BASE_URL", "http://localhost:7070")).thenReturn("http://testurl.com");
+        EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
 
         IContext context = emailContentBuilder.buildEmailTokenContext(user, token);
 
@@ -45,4 +44,43 @@ public class EmailContentBuilderTest {
         assertNotNull(context.getVariable("timeFormatter"));
         assertNotNull(context.getVariable("authTokenConfig"));
     }
+
+    @Test
+    public void testBuildEmailTokenContext_SharesUnchangingVariables() {
+        User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.USER);
+        Token token = new AuthToken("dummy-token", Tokens.Auth.PASSWORD_RESET_TOKEN, 1, Instant.now(), user.getId());
+        EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
+
+        IContext first = emailContentBuilder.buildEmailTokenContext(user, token);
+        IContext second = emailContentBuilder.buildEmailTokenContext(user, token);
+
+        assertSame(first.getVariable("timeFormatter"), second.getVariable("timeFormatter"));
+        assertSame(first.getVariable("authTokenConfig"), second.getVariable("authTokenConfig"));
+    }
+
+    @Test
+    public void testBuildSampleEmailTokenContext() {
+        EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
+
+        IContext context = emailContentBuilder.buildSampleEmailTokenContext();
+
+        assertNotNull(context.getVariable("user"));
+        assertNotNull(context.getVariable("token"));
+        assertNotNull(context.getVariable("timeFormatter"));
+        assertNotNull(context.getVariable("authTokenConfig"));
+    }
+
+    @Test
+    public void testBuildCampaignContext_KeepsSharedVariablesAndUser() {
+        User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.USER);
+        when(dotenv.get("BASE_URL", "http://localhost:7070")).thenReturn("http://testurl.com");
+        EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
+
+        IContext context = emailContentBuilder.buildCampaignContext(user,
+                Map.of("heading", "Summer sale", "baseUrl", "http://evil.com", "user", "nobody"));
+
+        assertEquals("Summer sale", context.getVariable("heading"));
+        assertEquals("http://testurl.com", context.getVariable("baseUrl"));
+        assertEquals(user, context.getVariable("user"));
+    }
 }
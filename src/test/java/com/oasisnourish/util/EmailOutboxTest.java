@@ -0,0 +1,226 @@
+package com.oasisnourish.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.config.EmailConfig;
+import com.oasisnourish.dao.EmailOutboxDao;
+import com.oasisnourish.models.OutboxEmail;
+import com.oasisnourish.models.OutboxStats;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime LEASE_UNTIL = NOW.plusSeconds(300);
+
+    @Mock
+    private EmailOutboxDao outboxDao;
+
+    @Mock
+    private SmtpTransportPool transportPool;
+
+    @Mock
+    private EmailConfig emailConfig;
+
+    private EmailOutbox emailOutbox;
+
+    @BeforeEach
+    public void setUp() {
+        when(emailConfig.getMailUsername()).thenReturn("mailer@test.com");
+        when(emailConfig.getPoolSize()).thenReturn(2);
+        when(emailConfig.getOutboxBatchSize()).thenReturn(2);
+        when(emailConfig.getOutboxBufferSize()).thenReturn(3);
+        when(emailConfig.getOutboxPollInterval()).thenReturn(1_000);
+        when(emailConfig.getOutboxMaxAttempts()).thenReturn(8);
+        when(emailConfig.getOutboxRetryBackoff()).thenReturn(30);
+        when(emailConfig.getOutboxMaxRetryBackoff()).thenReturn(3_600);
+        when(emailConfig.getOutboxLease()).thenReturn(300);
+        when(emailConfig.getMailTimeout()).thenReturn(10_000);
+        when(emailConfig.getOutboxStatsInterval()).thenReturn(60);
+        when(emailConfig.getOutboxDeadRetention()).thenReturn(86_400);
+        emailOutbox = new EmailOutbox(outboxDao, transportPool, emailConfig,
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void enqueue_SavesEmailDueNow() {
+        emailOutbox.enqueue("john.doe@test.com", "Welcome", "<p>Hi</p>");
+
+        ArgumentCaptor<OutboxEmail> captor = ArgumentCaptor.forClass(OutboxEmail.class);
+        verify(outboxDao).save(captor.capture());
+        OutboxEmail email = captor.getValue();
+        assertEquals("john.doe@test.com", email.getRecipient());
+        assertEquals("Welcome", email.getSubject());
+        assertEquals("<p>Hi</p>", email.getBody());
+        assertEquals(NOW, email.getCreatedAt());
+        assertEquals(NOW, email.getNextAttemptAt());
+        assertEquals(1L, emailOutbox.getMetrics().get("enqueued"));
+    }
+
+    @Test
+    public void dispatch_ClaimsUntilNoneAreDue() {
+        when(outboxDao.claimDue(NOW, LEASE_UNTIL, 2)).thenReturn(List.of(email(1, 1), email(2, 1)));
+        when(outboxDao.claimDue(NOW, LEASE_UNTIL, 1)).thenReturn(List.of());
+
+        emailOutbox.dispatch();
+
+        assertEquals(2, emailOutbox.getMetrics().get("buffered"));
+        assertEquals(2L, emailOutbox.getMetrics().get("claimed"));
+        verify(outboxDao, never()).findStats();
+    }
+
+    @Test
+    public void cleanUp_PurgesExpiredDeadEmailsAndRefreshesStats() {
+        when(outboxDao.deleteDeadBefore(NOW.minusSeconds(86_400))).thenReturn(3);
+        when(outboxDao.findStats()).thenReturn(new OutboxStats(2, 1, NOW.minusSeconds(90)));
+
+        emailOutbox.cleanUp();
+
+        assertEquals(3L, emailOutbox.getMetrics().get("purged"));
+        assertEquals(2L, emailOutbox.getMetrics().get("pending"));
+        assertEquals(1L, emailOutbox.getMetrics().get("dead"));
+        assertEquals(90L, emailOutbox.getMetrics().get("oldestPendingAgeSeconds"));
+    }
+
+    @Test
+    public void dispatch_StopsClaimingWhenBufferIsFull() {
+        when(outboxDao.claimDue(NOW, LEASE_UNTIL, 2)).thenReturn(List.of(email(1, 1), email(2, 1)));
+        when(outboxDao.claimDue(NOW, LEASE_UNTIL, 1)).thenReturn(List.of(email(3, 1)));
+
+        emailOutbox.dispatch();
+        emailOutbox.dispatch();
+
+        verify(outboxDao).claimDue(NOW, LEASE_UNTIL, 2);
+        verify(outboxDao).claimDue(NOW, LEASE_UNTIL, 1);
+        assertEquals(3, emailOutbox.getMetrics().get("buffered"));
+        assertEquals(3, emailOutbox.getMetrics().get("bufferCapacity"));
+    }
+
+    @Test
+    public void deliver_SendsAndRemovesEmail() throws Exception {
+        when(transportPool.getSession()).thenReturn(Session.getInstance(new Properties()));
+
+        emailOutbox.deliver(email(1, 1));
+
+        ArgumentCaptor<MimeMessage> captor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(transportPool).send(captor.capture());
+        assertEquals("john.doe@test.com", captor.getValue().getAllRecipients()[0].toString());
+        assertEquals("mailer@test.com", captor.getValue().getFrom()[0].toString());
+        assertEquals("Welcome", captor.getValue().getSubject());
+        verify(outboxDao).delete(1);
+        assertEquals(1L, emailOutbox.getMetrics().get("sent"));
+    }
+
+    @Test
+    public void deliver_ReschedulesFailedEmailWithBackoff() throws MessagingException {
+        when(transportPool.getSession()).thenReturn(Session.getInstance(new Properties()));
+        doThrow(new MessagingException("Connection refused")).when(transportPool).send(any(MimeMessage.class));
+
+        emailOutbox.deliver(email(1, 3));
+
+        verify(outboxDao).reschedule(1, NOW.plusSeconds(120), "Connection refused");
+        verify(outboxDao, never()).delete(1);
+        assertEquals(1L, emailOutbox.getMetrics().get("retried"));
+    }
+
+    @Test
+    public void deliver_MarksEmailDeadAfterLastAttempt() throws MessagingException {
+        when(transportPool.getSession()).thenReturn(Session.getInstance(new Properties()));
+        doThrow(new MessagingException("Connection refused")).when(transportPool).send(any(MimeMessage.class));
+
+        emailOutbox.deliver(email(1, 8));
+
+        verify(outboxDao).markDead(1, "Connection refused", NOW);
+        verify(outboxDao, never()).reschedule(eq(1L), any(LocalDateTime.class), anyString());
+        assertEquals(1L, emailOutbox.getMetrics().get("deadLettered"));
+    }
+
+    @Test
+    public void deliver_MarksMalformedAddressDeadRightAway() throws MessagingException {
+        when(transportPool.getSession()).thenReturn(Session.getInstance(new Properties()));
+        OutboxEmail email = email(1, 1);
+        email.setRecipient("john.doe@test.com>");
+
+        emailOutbox.deliver(email);
+
+        verify(outboxDao).markDead(eq(1L), anyString(), eq(NOW));
+        verify(transportPool, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    public void deliver_HandsBackEmailWhoseLeaseIsRunningOut() throws MessagingException {
+        OutboxEmail email = email(1, 2);
+        email.setNextAttemptAt(NOW.plusSeconds(30));
+
+        emailOutbox.deliver(email);
+
+        verify(outboxDao).release(1, NOW.plusSeconds(30), NOW);
+        verify(transportPool, never()).send(any(MimeMessage.class));
+        verify(outboxDao, never()).delete(1);
+        assertEquals(1L, emailOutbox.getMetrics().get("expired"));
+    }
+
+    @Test
+    public void constructor_RejectsLeaseShorterThanSend() {
+        when(emailConfig.getOutboxLease()).thenReturn(30);
+
+        assertThrows(IllegalArgumentException.class, () -> new EmailOutbox(outboxDao, transportPool, emailConfig));
+    }
+
+    @Test
+    public void getRetryDelay_DoublesUpToMaximum() {
+        assertEquals(Duration.ofSeconds(30), emailOutbox.getRetryDelay(1));
+        assertEquals(Duration.ofSeconds(60), emailOutbox.getRetryDelay(2));
+        assertEquals(Duration.ofSeconds(1_920), emailOutbox.getRetryDelay(7));
+        assertEquals(Duration.ofSeconds(3_600), emailOutbox.getRetryDelay(8));
+        assertEquals(Duration.ofSeconds(3_600), emailOutbox.getRetryDelay(100));
+    }
+
+    @Test
+    public void stop_HandsBufferedEmailsBack() {
+        when(outboxDao.claimDue(NOW, LEASE_UNTIL, 2)).thenReturn(List.of(email(1, 1)));
+        emailOutbox.dispatch();
+
+        emailOutbox.stop();
+
+        verify(outboxDao).release(1, LEASE_UNTIL, NOW);
+        verify(outboxDao, never()).reschedule(eq(1L), any(LocalDateTime.class), any());
+        assertEquals(0, emailOutbox.getMetrics().get("buffered"));
+        verifyNoMoreInteractions(transportPool);
+    }
+
+    private static OutboxEmail email(long id, int attempts) {
+        OutboxEmail email = new OutboxEmail("john.doe@test.com", "Welcome", "<p>Hi</p>", NOW);
+        email.setId(id);
+        email.setAttempts(attempts);
+        email.setNextAttemptAt(LEASE_UNTIL);
+        return email;
+    }
+}
@@ -0,0 +1,96 @@
+package com.oasisnourish.util;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import com.oasisnourish.config.TemplateEngineConfig;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.AuthToken;
+import com.oasisnourish.models.User;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailTemplateRendererTest {
+
+    @Mock
+    private TemplateEngine templateEngine;
+
+    @Mock
+    private IContext context;
+
+    @Mock
+    private Dotenv dotenv;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void render_RecordsRenderTimePerTemplate() {
+        when(templateEngine.process("user/welcome", context)).thenReturn("<p>Welcome</p>");
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(templateEngine);
+
+        assertEquals("<p>Welcome</p>", renderer.render("user/welcome", context));
+
+        Map<String, Object> metrics = renderer.getMetrics();
+        assertEquals(1L, ((Map<String, Object>) metrics.get("user/welcome")).get("count"));
+        assertEquals(0L, ((Map<String, Object>) metrics.get("user/confirm")).get("count"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void warmUp_RendersEveryTemplateWithoutCountingIt() {
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(templateEngine);
+
+        renderer.warmUp(context);
+
+        for (String template : EmailTemplateRenderer.TEMPLATES) {
+            verify(templateEngine, times(50)).process(template, context);
+            assertEquals(0L, ((Map<String, Object>) renderer.getMetrics().get(template)).get("count"));
+        }
+    }
+
+    @Test
+    public void render_RealTemplatesAfterWarmUp() {
+        when(dotenv.get("BASE_URL", "http://localhost:7070")).thenReturn("http://testurl.com");
+        EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(TemplateEngineConfig.getTemplateEngine());
+        renderer.warmUp(emailContentBuilder.buildSampleEmailTokenContext());
+
+        User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.UNVERIFIED_USER);
+        AuthToken token = new AuthToken("confirm-token", Tokens.Auth.ACCOUNT_CONFIRMATION_TOKEN, 1, Instant.now(), user.getId());
+        String html = renderer.render("user/welcome", emailContentBuilder.buildEmailTokenContext(user, token));
+
+        assertTrue(html.contains("John Doe"));
+        assertTrue(html.contains("http://testurl.com/auth/confirm-account/confirm-token"));
+        assertTrue(html.contains("30 minutes"));
+        assertTrue(html.contains("http://testurl.com/images/logo.png"));
+    }
+
+    @Test
+    public void render_RealCampaignTemplate() {
+        when(dotenv.get("BASE_URL", "http://localhost:7070")).thenReturn("http://testurl.com");
+        EmailContentBuilder emailContentBuilder = new EmailContentBuilder(dotenv);
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(TemplateEngineConfig.getTemplateEngine());
+
+        User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.USER);
+        String html = renderer.render("campaign/newsletter", emailContentBuilder.buildCampaignContext(user,
+                Map.of("heading", "Summer sale", "message", "Everything is 20% off <this> week.")));
+
+        assertTrue(html.contains("John Doe"));
+        assertTrue(html.contains("Summer sale"));
+        assertTrue(html.contains("Everything is 20% off &lt;this&gt; week."));
+        assertTrue(html.contains("http://testurl.com"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.oasisnourish.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.oasisnourish.exceptions.ServiceUnavailableException;
+
+public class PasswordHasherTest {
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(5, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    public void testEncodeAndMatches() {
+        String encoded = passwordHasher.encode("Password123!");
+
+        assertTrue(passwordHasher.matches("Password123!", encoded));
+        assertFalse(passwordHasher.matches("Password456!", encoded));
+    }
+
+    @Test
+    public void testUpgradeEncoding_OnlyForLowerCost() {
+        assertTrue(passwordHasher.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Password123!")));
+        assertFalse(passwordHasher.upgradeEncoding(passwordHasher.encode("Password123!")));
+    }
+
+    @Test
+    public void testEncode_RejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One call holds the only worker and a second fills the only queue slot
+            Future<?> running = callers.submit(() -> passwordHasher.run(() -> await(release)));
+            Future<?> queued = callers.submit(() -> passwordHasher.run(() -> await(release)));
+            while (!Integer.valueOf(1).equals(passwordHasher.getMetrics().get("queued"))) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(ServiceUnavailableException.class, () -> passwordHasher.encode("Password123!"));
+            assertEquals(1L, passwordHasher.getMetrics().get("rejected"));
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCostForTarget() {
+        long tenMillis = TimeUnit.MILLISECONDS.toNanos(10);
+
+        assertEquals(14, PasswordHasher.costForTarget(tenMillis, 250));
+        assertEquals(PasswordHasher.MIN_COST, PasswordHasher.costForTarget(tenMillis, 5));
+        assertEquals(PasswordHasher.MAX_COST, PasswordHasher.costForTarget(tenMillis, 60_000));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.oasisnourish.util;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
@@ -13,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -22,12 +31,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.config.JWTConfig;
 import com.oasisnourish.enums.Role;
 import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.AuthContext;
 import com.oasisnourish.models.JsonWebToken;
 import com.oasisnourish.models.User;
 import com.oasisnourish.services.JWTService;
 import com.oasisnourish.services.UserService;
+import com.oasisnourish.util.jwt.TokenRefreshCoalescer;
 
 import io.github.cdimascio.dotenv.Dotenv;
 import io.javalin.http.Context;
@@ -60,6 +72,7 @@ public class SessionManagerTest {
     private final User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.ADMIN);
     private final JsonWebToken accessToken = new JsonWebToken("access-token", Tokens.Jwt.ACCESS_TOKEN, 1, Instant.now().plusSeconds(180), 1);
     private final JsonWebToken refreshToken = new JsonWebToken("refresh-token", Tokens.Jwt.REFRESH_TOKEN, 1, Instant.now().plusSeconds(360), 1);
+    private final Instant maxExpiry = Instant.now().plusSeconds(3600);
     private final Map<String, JsonWebToken> tokens = Map.of(
             "JWT_ACCESS_TOKEN", accessToken,
             "JWT_REFRESH_TOKEN", refreshToken
@@ -93,6 +106,7 @@ public class SessionManagerTest {
     @Test
     public void testDecodeJWTFromCookie_WithRefreshTokenOnly() {
         Claim claim = mock(Claim.class);
+        Claim maxExpiryClaim = mock(Claim.class);
 
         when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn(null);
         when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
@@ -101,20 +115,74 @@ public class SessionManagerTest {
         when(decodedJWT.getClaim("userId")).thenReturn(claim);
         when(claim.asInt()).thenReturn(user.getId());
         when(userService.findUserById(user.getId())).thenReturn(Optional.of(user));
-        when(jwtService.createTokens(user)).thenReturn(tokens);
+        when(decodedJWT.getClaim("maxExp")).thenReturn(maxExpiryClaim);
+        when(maxExpiryClaim.asInstant()).thenReturn(maxExpiry);
+        when(jwtService.createTokens(user, maxExpiry)).thenReturn(tokens);
 
         sessionManager.decodeJWTFromCookie(ctx, jwtService, userService);
 
         verify(ctx).sessionAttribute("JWT_ACCESS_TOKEN", decodedJWT);
         verify(ctx).sessionAttribute("JWT_REFRESH_TOKEN", decodedJWT);
         verify(decodedJWT).getClaim("userId");
-        verify(jwtService).createTokens(user);
+        verify(jwtService).createTokens(user, maxExpiry);
 
     }
 
+    @Test
+    public void testDecodeJWTFromCookie_ParallelRefreshesShareOnePair() throws Exception {
+        Claim claim = mock(Claim.class);
+        Claim maxExpiryClaim = mock(Claim.class);
+        JWTConfig jwtConfig = mock(JWTConfig.class);
+        when(jwtConfig.getRefreshReuseWindow()).thenReturn(10);
+        SessionManager coalescingSessionManager = new SessionManager(dotenv, new TokenRefreshCoalescer(null, jwtConfig));
+
+        when(jwtService.decodeToken("access-token")).thenReturn(Optional.of(decodedJWT));
+        when(jwtService.decodeToken("refresh-token")).thenReturn(Optional.of(decodedJWT));
+        when(decodedJWT.getId()).thenReturn("refresh-token-id");
+        when(decodedJWT.getClaim("userId")).thenReturn(claim);
+        when(claim.asInt()).thenReturn(user.getId());
+        when(userService.findUserById(user.getId())).thenReturn(Optional.of(user));
+        when(decodedJWT.getClaim("maxExp")).thenReturn(maxExpiryClaim);
+        when(maxExpiryClaim.asInstant()).thenReturn(maxExpiry);
+        when(jwtService.createTokens(user, maxExpiry)).thenAnswer(_ -> {
+            Thread.sleep(50);
+            return tokens;
+        });
+
+        int requests = 50;
+        List<Context> contexts = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            Context requestCtx = mock(Context.class);
+            when(requestCtx.cookie("JWT_ACCESS_TOKEN")).thenReturn(null);
+            when(requestCtx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
+            contexts.add(requestCtx);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (Context requestCtx : contexts) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    coalescingSessionManager.decodeJWTFromCookie(requestCtx, jwtService, userService);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        verify(jwtService).createTokens(user, maxExpiry);
+        for (Context requestCtx : contexts) {
+            verify(requestCtx, times(2)).cookie(any(Cookie.class));
+        }
+    }
+
     @Test
     public void testDecodeJWTFromCookie_WithAccessTokenNotInDB() {
         Claim claim = mock(Claim.class);
+        Claim maxExpiryClaim = mock(Claim.class);
 
         when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn("access-token");
         when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
@@ -124,14 +192,16 @@ public class SessionManagerTest {
         when(claim.asInt()).thenReturn(user.getId());
         when(jwtService.findToken("access-token")).thenReturn(Optional.empty());
         when(userService.findUserById(user.getId())).thenReturn(Optional.of(user));
-        when(jwtService.createTokens(user)).thenReturn(tokens);
+        when(decodedJWT.getClaim("maxExp")).thenReturn(maxExpiryClaim);
+        when(maxExpiryClaim.asInstant()).thenReturn(maxExpiry);
+        when(jwtService.createTokens(user, maxExpiry)).thenReturn(tokens);
 
         sessionManager.decodeJWTFromCookie(ctx, jwtService, userService);
 
         verify(ctx, times(2)).sessionAttribute("JWT_ACCESS_TOKEN", decodedJWT);
         verify(ctx).sessionAttribute("JWT_REFRESH_TOKEN", decodedJWT);
         verify(decodedJWT).getClaim("userId");
-        verify(jwtService).createTokens(user);
+        verify(jwtService).createTokens(user, maxExpiry);
     }
 
     @Test
@@ -151,6 +221,61 @@ public class SessionManagerTest {
         verify(ctx).sessionAttribute("currentUser", user);
     }
 
+    @Test
+    public void testValidateAndSetUserSession_UsesPreloadedAuthContext() {
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+        AuthContext authContext = new AuthContext(user.getId(), Map.of(), 1L, 1L, user);
+
+        when(ctx.sessionAttribute("JWT_ACCESS_TOKEN")).thenReturn(decodedJWT);
+        when(ctx.attribute("authContext")).thenReturn(authContext);
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(user.getId());
+        when(decodedJWT.getClaim("version")).thenReturn(versionClaim);
+        when(versionClaim.asLong()).thenReturn(1L);
+
+        sessionManager.validateAndSetUserSession(ctx, jwtService, userService);
+
+        verify(ctx).sessionAttribute("currentUser", user);
+        verify(jwtService, never()).getCurrentTokenVersion(user.getId(), Tokens.Jwt.ACCESS_TOKEN);
+        verify(userService, never()).findUserById(user.getId());
+    }
+
+    @Test
+    public void testValidateAndSetUserSession_LooksUpUserLeftOutOfAuthContext() {
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+        AuthContext authContext = new AuthContext(user.getId(), Map.of(), 1L, 1L, false, null);
+
+        when(ctx.sessionAttribute("JWT_ACCESS_TOKEN")).thenReturn(decodedJWT);
+        when(ctx.attribute("authContext")).thenReturn(authContext);
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(user.getId());
+        when(decodedJWT.getClaim("version")).thenReturn(versionClaim);
+        when(versionClaim.asLong()).thenReturn(1L);
+        when(userService.findUserById(user.getId())).thenReturn(Optional.of(user));
+
+        sessionManager.validateAndSetUserSession(ctx, jwtService, userService);
+
+        verify(ctx).sessionAttribute("currentUser", user);
+        verify(jwtService, never()).getCurrentTokenVersion(user.getId(), Tokens.Jwt.ACCESS_TOKEN);
+    }
+
+    @Test
+    public void testDecodeJWTFromCookie_UsesPreloadedTokenState() {
+        AuthContext authContext = new AuthContext(user.getId(), Map.of("access-token", true), 1L, 1L, user);
+
+        when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn("access-token");
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn(null);
+        when(ctx.attribute("authContext")).thenReturn(authContext);
+        when(jwtService.decodeToken("access-token", true)).thenReturn(Optional.of(decodedJWT));
+
+        sessionManager.decodeJWTFromCookie(ctx, jwtService, userService);
+
+        verify(ctx).sessionAttribute("JWT_ACCESS_TOKEN", decodedJWT);
+        verify(jwtService, never()).decodeToken("access-token");
+    }
+
     @Test
     public void testValidateAndSetUserSession_ClearSessionWhenUserDeleted() {
         Claim userIdClaim = mock(Claim.class);
@@ -251,4 +376,149 @@ public class SessionManagerTest {
         Cookie refreshCookie = cookieCaptor.getAllValues().get(1);
         assertTrue(refreshCookie.getSecure());
     }
+
+    @Test
+    public void testValidateAndSetUserSession_StatelessUsesRequestAttributes() {
+        SessionManager statelessSessionManager = createStatelessSessionManager();
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+
+        when(ctx.attribute("JWT_ACCESS_TOKEN")).thenReturn(decodedJWT);
+        when(ctx.attribute("authContext")).thenReturn(null);
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(user.getId());
+        when(decodedJWT.getClaim("version")).thenReturn(versionClaim);
+        when(versionClaim.asLong()).thenReturn(1L);
+        when(jwtService.getCurrentTokenVersion(user.getId(), Tokens.Jwt.ACCESS_TOKEN)).thenReturn(1L);
+        when(userService.findUserById(user.getId())).thenReturn(Optional.of(user));
+
+        statelessSessionManager.validateAndSetUserSession(ctx, jwtService, userService);
+
+        verify(ctx).attribute("currentUser", user);
+        verify(ctx, never()).sessionAttribute("currentUser", user);
+    }
+
+    @Test
+    public void testInvalidateSession_StatelessNeverTouchesServletSession() {
+        SessionManager statelessSessionManager = createStatelessSessionManager();
+
+        statelessSessionManager.invalidateSession(ctx);
+
+        verify(ctx, never()).req();
+        verify(ctx).attribute("currentUser", null);
+        verify(ctx).removeCookie("JWT_ACCESS_TOKEN");
+        verify(ctx).removeCookie("JWT_REFRESH_TOKEN");
+    }
+
+    @Test
+    public void testRefreshToken_StatelessDecodesRefreshCookie() {
+        SessionManager statelessSessionManager = createStatelessSessionManager();
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+        Claim maxExpiryClaim = mock(Claim.class);
+
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
+        when(jwtService.decodeToken("refresh-token")).thenReturn(Optional.of(decodedJWT));
+        when(ctx.attribute("JWT_REFRESH_TOKEN")).thenReturn(null);
+        when(ctx.attribute("currentUser")).thenReturn(user);
+        when(ctx.attribute("authContext")).thenReturn(null);
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(user.getId());
+        when(decodedJWT.getClaim("version")).thenReturn(versionClaim);
+        when(versionClaim.asLong()).thenReturn(1L);
+        when(jwtService.getCurrentTokenVersion(user.getId(), Tokens.Jwt.REFRESH_TOKEN)).thenReturn(1L);
+        when(decodedJWT.getClaim("maxExp")).thenReturn(maxExpiryClaim);
+        when(maxExpiryClaim.asInstant()).thenReturn(maxExpiry);
+        when(jwtService.createTokens(user, maxExpiry)).thenReturn(tokens);
+        when(dotenv.get("ENV", "development")).thenReturn("development");
+        when(ctx.status(200)).thenReturn(ctx);
+
+        statelessSessionManager.refreshToken(ctx, jwtService);
+
+        verify(jwtService).createTokens(user, maxExpiry);
+        verify(ctx, times(2)).cookie(any(Cookie.class));
+    }
+
+    @Test
+    public void testHasAuthCookies() {
+        when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn(null);
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn(null);
+        assertFalse(sessionManager.hasAuthCookies(ctx));
+
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
+        assertTrue(sessionManager.hasAuthCookies(ctx));
+    }
+
+    @Test
+    public void testGetSignedInRoleAndRequesterKey_SignedInUser() {
+        when(ctx.sessionAttribute("currentUser")).thenReturn(user);
+
+        assertEquals(Role.ADMIN, sessionManager.getSignedInRole(ctx));
+        assertEquals("user:1", sessionManager.getRequesterKey(ctx));
+    }
+
+    @Test
+    public void testGetSignedInRoleAndRequesterKey_Guest() {
+        when(ctx.sessionAttribute("currentUser")).thenReturn(null);
+        when(ctx.ip()).thenReturn("127.0.0.1");
+
+        assertEquals(Role.GUEST, sessionManager.getSignedInRole(ctx));
+        assertEquals("ip:127.0.0.1", sessionManager.getRequesterKey(ctx));
+    }
+
+    @Test
+    public void testVerifyJwtFromCookies_FallsBackToValidRefreshToken() {
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+        when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn("access-token");
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
+        when(jwtService.decodeToken("access-token")).thenReturn(Optional.empty());
+        when(jwtService.decodeToken("refresh-token")).thenReturn(Optional.of(decodedJWT));
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(decodedJWT.getClaim("version")).thenReturn(versionClaim);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(versionClaim.asLong()).thenReturn(1L);
+        when(jwtService.getCurrentTokenVersion(1, Tokens.Jwt.REFRESH_TOKEN)).thenReturn(1L);
+
+        assertEquals(decodedJWT, sessionManager.verifyJwtFromCookies(ctx, jwtService));
+        verify(ctx, never()).removeCookie("JWT_REFRESH_TOKEN");
+    }
+
+    @Test
+    public void testVerifyJwtFromCookies_OutdatedTokenIsCleared() {
+        SessionManager statelessSessionManager = createStatelessSessionManager();
+        Claim userIdClaim = mock(Claim.class);
+        Claim versionClaim = mock(Claim.class);
+        when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn("access-token");
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn(null);
+        when(jwtService.decodeToken("access-token")).thenReturn(Optional.of(decodedJWT));
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(decodedJWT.getClaim("version")).thenReturn(versionClaim);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(versionClaim.asLong()).thenReturn(1L);
+        when(jwtService.getCurrentTokenVersion(1, Tokens.Jwt.ACCESS_TOKEN)).thenReturn(2L);
+
+        assertNull(statelessSessionManager.verifyJwtFromCookies(ctx, jwtService));
+        verify(ctx).removeCookie("JWT_ACCESS_TOKEN");
+        verify(ctx).removeCookie("JWT_REFRESH_TOKEN");
+    }
+
+    @Test
+    public void testVerifyJwtFromCookies_RevokedTokensAreCleared() {
+        SessionManager statelessSessionManager = createStatelessSessionManager();
+        when(ctx.cookie("JWT_ACCESS_TOKEN")).thenReturn("access-token");
+        when(ctx.cookie("JWT_REFRESH_TOKEN")).thenReturn("refresh-token");
+        when(jwtService.decodeToken("access-token")).thenReturn(Optional.empty());
+        when(jwtService.decodeToken("refresh-token")).thenReturn(Optional.empty());
+
+        assertNull(statelessSessionManager.verifyJwtFromCookies(ctx, jwtService));
+        verify(ctx).removeCookie("JWT_ACCESS_TOKEN");
+        verify(ctx).removeCookie("JWT_REFRESH_TOKEN");
+        verify(ctx).attribute("currentUser", null);
+    }
+
+    private SessionManager createStatelessSessionManager() {
+        when(dotenv.get("SESSION_MODE", "session")).thenReturn("stateless");
+        return new SessionManager(dotenv);
+    }
 }
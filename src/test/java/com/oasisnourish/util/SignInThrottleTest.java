@@ -0,0 +1,93 @@
+package com.oasisnourish.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.config.RateLimitConfig;
+import com.oasisnourish.dao.RateLimitDao;
+import com.oasisnourish.exceptions.TooManyRequestsException;
+
+@ExtendWith(MockitoExtension.class)
+public class SignInThrottleTest {
+
+    private static final String IP_KEY = "sign-in-rate-limit:ip:127.0.0.1";
+    private static final String EMAIL_KEY = "sign-in-rate-limit:email:john.doe@test.com";
+    private static final String OTHER_EMAIL_KEY = "sign-in-rate-limit:email:jane.doe@test.com";
+
+    @Mock
+    private RateLimitDao rateLimitDao;
+
+    @Mock
+    private RateLimitConfig rateLimitConfig;
+
+    private SignInThrottle signInThrottle;
+
+    @BeforeEach
+    public void setUp() {
+        when(rateLimitConfig.getSignInMaxAttemptsPerIp()).thenReturn(20);
+        when(rateLimitConfig.getSignInMaxAttemptsPerEmail()).thenReturn(5);
+        when(rateLimitConfig.getSignInWindow()).thenReturn(60);
+        when(rateLimitConfig.getSignInLocalBlockSize()).thenReturn(100);
+        signInThrottle = new SignInThrottle(rateLimitDao, rateLimitConfig,
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void testAcquire_AllowedAttempt() {
+        when(rateLimitDao.acquire(List.of(IP_KEY, EMAIL_KEY), List.of(20, 5), 60_000L)).thenReturn(List.of(0L, 0L));
+
+        signInThrottle.acquire("127.0.0.1", " John.Doe@test.com ");
+
+        assertEquals(1L, signInThrottle.getMetrics().get("allowed"));
+    }
+
+    @Test
+    public void testAcquire_RejectedKeyIsBlockedLocally() {
+        when(rateLimitDao.acquire(List.of(IP_KEY, EMAIL_KEY), List.of(20, 5), 60_000L)).thenReturn(List.of(0L, 12_000L));
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> signInThrottle.acquire("127.0.0.1", "john.doe@test.com"));
+        assertEquals("Too many sign in attempts. Try again after 12 seconds.", exception.getMessage());
+
+        // The repeat is turned away without asking Redis again
+        assertThrows(TooManyRequestsException.class, () -> signInThrottle.acquire("10.0.0.1", "john.doe@test.com"));
+
+        verify(rateLimitDao, times(1)).acquire(List.of(IP_KEY, EMAIL_KEY), List.of(20, 5), 60_000L);
+        assertEquals(1L, signInThrottle.getMetrics().get("rejectedByRedis"));
+        assertEquals(1L, signInThrottle.getMetrics().get("rejectedLocally"));
+    }
+
+    @Test
+    public void testAcquire_OnlyKeysOverLimitAreBlocked() {
+        when(rateLimitDao.acquire(List.of(IP_KEY, EMAIL_KEY), List.of(20, 5), 60_000L)).thenReturn(List.of(0L, 12_000L));
+        when(rateLimitDao.acquire(List.of(IP_KEY, OTHER_EMAIL_KEY), List.of(20, 5), 60_000L)).thenReturn(List.of(0L, 0L));
+
+        assertThrows(TooManyRequestsException.class, () -> signInThrottle.acquire("127.0.0.1", "john.doe@test.com"));
+
+        // The IP was still under its limit, so it can sign in to another account
+        signInThrottle.acquire("127.0.0.1", "jane.doe@test.com");
+
+        assertEquals(1L, signInThrottle.getMetrics().get("allowed"));
+        assertEquals(1, signInThrottle.getMetrics().get("blockedKeys"));
+    }
+
+    @Test
+    public void testRecordSuccess_ReleasesEmailAttempt() {
+        signInThrottle.recordSuccess(" John.Doe@test.com ");
+
+        verify(rateLimitDao).release(EMAIL_KEY, 5, 60_000L);
+    }
+}
@@ -0,0 +1,248 @@
+package com.oasisnourish.util;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.config.EmailConfig;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+@ExtendWith(MockitoExtension.class)
+public class SmtpTransportPoolTest {
+
+    @Mock
+    private EmailConfig emailConfig;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Transport transport;
+
+    @Mock
+    private Transport otherTransport;
+
+    @Mock
+    private MimeMessage message;
+
+    @Mock
+    private MimeMessage otherMessage;
+
+    @Mock
+    private Clock clock;
+
+    private final AtomicLong now = new AtomicLong();
+    private Address[] recipients;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    public void setUp() throws MessagingException {
+        when(emailConfig.getMailHost()).thenReturn("localhost");
+        when(emailConfig.getMailPort()).thenReturn(2525);
+        when(emailConfig.isMailAuth()).thenReturn(true);
+        when(emailConfig.getMailUsername()).thenReturn("mailer@test.com");
+        when(emailConfig.getMailPassword()).thenReturn("secret");
+        when(emailConfig.getPoolSize()).thenReturn(2);
+        when(emailConfig.getMailTimeout()).thenReturn(1_000);
+        when(emailConfig.getPoolIdleTimeout()).thenReturn(60);
+        when(emailConfig.getPoolValidationInterval()).thenReturn(10);
+        when(clock.millis()).thenAnswer(_ -> now.get());
+        recipients = new Address[]{new InternetAddress("john.doe@test.com")};
+        pool = new SmtpTransportPool(emailConfig, session, clock);
+    }
+
+    @Test
+    public void send_ReusesConnection() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+
+        pool.send(message);
+        pool.send(message);
+
+        verify(session, times(1)).getTransport("smtp");
+        verify(transport, times(1)).connect("localhost", 2525, "mailer@test.com", "secret");
+        verify(transport, times(2)).sendMessage(message, recipients);
+        verify(transport, never()).isConnected();
+        assertEquals(1L, pool.getMetrics().get("created"));
+        assertEquals(1L, pool.getMetrics().get("reused"));
+        assertEquals(2L, pool.getMetrics().get("sent"));
+        assertEquals(1, pool.getMetrics().get("idle"));
+        assertEquals(0, pool.getMetrics().get("active"));
+    }
+
+    @Test
+    public void send_ValidatesConnectionIdleForAWhile() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        when(transport.isConnected()).thenReturn(true);
+
+        pool.send(message);
+        now.addAndGet(15_000);
+        pool.send(message);
+
+        verify(transport, times(1)).isConnected();
+        verify(session, times(1)).getTransport("smtp");
+        assertEquals(1L, pool.getMetrics().get("reused"));
+    }
+
+    @Test
+    public void send_ReconnectsWhenValidationFails() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport, otherTransport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        when(transport.isConnected()).thenReturn(false);
+
+        pool.send(message);
+        now.addAndGet(15_000);
+        pool.send(message);
+
+        verify(transport).close();
+        verify(otherTransport).sendMessage(message, recipients);
+        assertEquals(2L, pool.getMetrics().get("created"));
+        assertEquals(1L, pool.getMetrics().get("validationFailures"));
+    }
+
+    @Test
+    public void send_DiscardsExpiredConnection() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport, otherTransport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+
+        pool.send(message);
+        now.addAndGet(61_000);
+        pool.send(message);
+
+        verify(transport, never()).isConnected();
+        verify(transport).close();
+        verify(otherTransport).sendMessage(message, recipients);
+        assertEquals(1L, pool.getMetrics().get("evicted"));
+    }
+
+    @Test
+    public void send_RetriesOnNewConnectionAfterFailure() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport, otherTransport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        doThrow(new MessagingException("Connection reset")).when(transport).sendMessage(message, recipients);
+
+        pool.send(message);
+
+        verify(transport).close();
+        verify(otherTransport).sendMessage(message, recipients);
+        assertEquals(1L, pool.getMetrics().get("reconnects"));
+        assertEquals(1L, pool.getMetrics().get("sent"));
+        assertEquals(0L, pool.getMetrics().get("sendFailures"));
+    }
+
+    @Test
+    public void send_FailsAfterRetry() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport, otherTransport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        doThrow(new MessagingException("Connection reset")).when(transport).sendMessage(message, recipients);
+        doThrow(new MessagingException("Connection refused")).when(otherTransport).sendMessage(message, recipients);
+
+        MessagingException exception = assertThrows(MessagingException.class, () -> pool.send(message));
+
+        assertEquals("Connection refused", exception.getMessage());
+        verify(otherTransport).close();
+        assertEquals(1L, pool.getMetrics().get("sendFailures"));
+        assertEquals(0, pool.getMetrics().get("idle"));
+        assertEquals(0, pool.getMetrics().get("active"));
+    }
+
+    @Test
+    public void send_KeepsConnectionWhenMessageIsRejected() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        doThrow(new SendFailedException("Invalid recipient")).when(transport).sendMessage(message, recipients);
+
+        assertThrows(SendFailedException.class, () -> pool.send(message));
+
+        verify(session, times(1)).getTransport("smtp");
+        verify(transport, never()).close();
+        assertEquals(1, pool.getMetrics().get("idle"));
+        assertEquals(1L, pool.getMetrics().get("sendFailures"));
+    }
+
+    @Test
+    public void sendBatch_SendsEveryMessageOverOneConnection() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        when(otherMessage.getAllRecipients()).thenReturn(recipients);
+        SendFailedException rejected = new SendFailedException("Invalid recipient");
+        doThrow(rejected).when(transport).sendMessage(message, recipients);
+
+        Map<MimeMessage, MessagingException> failures = pool.sendBatch(List.of(message, otherMessage, otherMessage));
+
+        assertEquals(Map.of(message, rejected), failures);
+        verify(session, times(1)).getTransport("smtp");
+        verify(transport, times(2)).sendMessage(otherMessage, recipients);
+        assertEquals(2L, pool.getMetrics().get("sent"));
+        assertEquals(1L, pool.getMetrics().get("sendFailures"));
+        assertEquals(1, pool.getMetrics().get("idle"));
+    }
+
+    @Test
+    public void sendBatch_ContinuesOnNewConnectionAfterFailure() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport, otherTransport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+        when(otherMessage.getAllRecipients()).thenReturn(recipients);
+        doThrow(new MessagingException("Connection reset")).when(transport).sendMessage(message, recipients);
+
+        Map<MimeMessage, MessagingException> failures = pool.sendBatch(List.of(message, otherMessage));
+
+        assertEquals(Map.of(), failures);
+        verify(transport).close();
+        verify(otherTransport).sendMessage(message, recipients);
+        verify(otherTransport).sendMessage(otherMessage, recipients);
+        assertEquals(1L, pool.getMetrics().get("reconnects"));
+        assertEquals(2L, pool.getMetrics().get("sent"));
+    }
+
+    @Test
+    public void evictIdle_ClosesExpiredConnections() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+
+        pool.send(message);
+        pool.evictIdle();
+        verify(transport, never()).close();
+
+        now.addAndGet(60_000);
+        pool.evictIdle();
+
+        verify(transport).close();
+        assertEquals(0, pool.getMetrics().get("idle"));
+        assertEquals(1L, pool.getMetrics().get("evicted"));
+    }
+
+    @Test
+    public void stop_ClosesIdleConnections() throws MessagingException {
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(message.getAllRecipients()).thenReturn(recipients);
+
+        pool.send(message);
+        pool.stop();
+
+        verify(transport).close();
+        assertEquals(0, pool.getMetrics().get("idle"));
+    }
+}
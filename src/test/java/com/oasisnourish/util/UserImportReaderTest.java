@@ -0,0 +1,92 @@
+package com.oasisnourish.util;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class UserImportReaderTest {
+
+    @Test
+    public void formatOf_ReadsMediaType() {
+        assertEquals(Optional.of(UserImportReader.Format.CSV), UserImportReader.formatOf("text/csv; charset=utf-8"));
+        assertEquals(Optional.of(UserImportReader.Format.NDJSON), UserImportReader.formatOf("application/x-ndjson"));
+        assertEquals(Optional.empty(), UserImportReader.formatOf("application/json"));
+        assertEquals(Optional.empty(), UserImportReader.formatOf(null));
+    }
+
+    @Test
+    public void csv_MapsColumnsByHeader() {
+        List<UserImportReader.Row> rows = read(UserImportReader.Format.CSV,
+                "email,password,name,phone\n"
+                + "alice@test.com,Password123!,\"Smith, Alice \"\"Al\"\"\",555\n"
+                + "\n"
+                + "bob@test.com,Password123!,Bob\n");
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("Smith, Alice \"Al\"", rows.get(0).user().getName());
+        assertEquals("alice@test.com", rows.get(0).user().getEmail());
+        assertEquals("Password123!", rows.get(0).user().getPassword());
+        assertNull(rows.get(0).error());
+        assertEquals(4, rows.get(1).line());
+        assertEquals("Bob", rows.get(1).user().getName());
+    }
+
+    @Test
+    public void csv_ReportsMalformedLines() {
+        List<UserImportReader.Row> rows = read(UserImportReader.Format.CSV,
+                "name,email,password\r\n"
+                + "Alice,alice@test.com\r\n"
+                + "\"Bob,bob@test.com,Password123!\r\n");
+
+        assertEquals("Missing columns.", rows.get(0).error());
+        assertNull(rows.get(0).user());
+        assertEquals("Unclosed quote.", rows.get(1).error());
+    }
+
+    @Test
+    public void csv_RejectsHeaderWithoutRequiredColumns() {
+        UserImportReader reader = reader(UserImportReader.Format.CSV, "name,email\nAlice,alice@test.com\n");
+
+        assertThrows(IllegalArgumentException.class, reader::hasNext);
+    }
+
+    @Test
+    public void ndjson_ReadsOneUserPerLine() {
+        List<UserImportReader.Row> rows = read(UserImportReader.Format.NDJSON,
+                "{\"name\":\"Alice\",\"email\":\"alice@test.com\",\"password\":\"Password123!\",\"role\":\"ADMIN\"}\n"
+                + "not json\n");
+
+        assertEquals("Alice", rows.get(0).user().getName());
+        assertEquals("alice@test.com", rows.get(0).user().getEmail());
+        assertEquals(2, rows.get(1).line());
+        assertEquals("Invalid JSON.", rows.get(1).error());
+    }
+
+    @Test
+    public void ndjson_NullLineIsInvalid() {
+        List<UserImportReader.Row> rows = read(UserImportReader.Format.NDJSON, "null
+");
+
+        assertEquals(1, rows.size());
+        assertNull(rows.get(0).user());
+        assertEquals("Invalid JSON.", rows.get(0).error());
+    }
+
+    private static List<UserImportReader.Row> read(UserImportReader.Format format, String content) {
+        List<UserImportReader.Row> rows = new ArrayList<>();
+        reader(format, content).forEachRemaining(rows::add);
+        return rows;
+    }
+
+    private static UserImportReader reader(UserImportReader.Format format, String content) {
+        return new UserImportReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
@@ -0,0 +1,132 @@
+package com.oasisnourish.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.oasisnourish.dao.UserDao;
+import com.oasisnourish.dto.UserInputDto;
+import com.oasisnourish.exceptions.DatabaseAccessException;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.models.User;
+import com.oasisnourish.models.UserImportResult;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImporterTest {
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private PasswordEncoder encoder;
+
+    private UserImporter userImporter;
+
+    @BeforeEach
+    public void setUp() {
+        userImporter = new UserImporter(userDao, encoder, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userImporter.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importUsers_HashesAndImportsNewUsers() {
+        when(userDao.findExistingEmails(List.of("alice@test.com", "bob@test.com"))).thenReturn(Set.of("bob@test.com"));
+        when(encoder.encode("Password123!")).thenReturn("encodedPassword");
+        List<User> imported = new ArrayList<>();
+        when(userDao.importAll(any(Iterator.class))).thenAnswer(invocation -> {
+            ((Iterator<User>) invocation.getArgument(0)).forEachRemaining(imported::add);
+            return imported.size();
+        });
+
+        UserImportResult result = userImporter.importUsers(List.of(
+                row(1, "Alice", "alice@test.com"),
+                row(2, "Bob", "bob@test.com"),
+                row(3, "Alice Again", "alice@test.com")).iterator());
+
+        assertEquals(new UserImportResult(3, 1, 2, 0, List.of()), result);
+        assertEquals(1, imported.size());
+        assertEquals("Alice", imported.get(0).getName());
+        assertEquals("encodedPassword", imported.get(0).getPassword());
+        assertEquals(Role.UNVERIFIED_USER, imported.get(0).getRole());
+        verify(encoder, times(1)).encode("Password123!");
+        assertEquals(1L, userImporter.getMetrics().get("imported"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importUsers_ReportsInvalidRowsWithoutImportingThem() {
+        UserImportResult result = userImporter.importUsers(List.of(
+                new UserImportReader.Row(1, null, "Invalid JSON."),
+                new UserImportReader.Row(2, new UserInputDto(0, "Alice", "not-an-email", "Password123!"), null)).iterator());
+
+        assertEquals(2, result.invalid());
+        assertEquals(0, result.imported());
+        assertEquals("Line 1: Invalid JSON.", result.errors().get(0));
+        assertEquals(2, result.errors().size());
+        verify(userDao, never()).findExistingEmails(any(Collection.class));
+        verify(encoder, never()).encode(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importUsers_ImportsAChunkAtATime() {
+        when(userDao.findExistingEmails(any(Collection.class))).thenReturn(Set.of());
+        when(encoder.encode("Password123!")).thenReturn("encodedPassword");
+        when(userDao.importAll(any(Iterator.class))).thenReturn(UserImporter.CHUNK_SIZE, 1);
+        List<UserImportReader.Row> rows = new ArrayList<>();
+        for (int i = 0; i <= UserImporter.CHUNK_SIZE; i++) {
+            rows.add(row(i + 1, "User " + i, "user" + i + "@test.com"));
+        }
+
+        UserImportResult result = userImporter.importUsers(rows.iterator());
+
+        assertEquals(UserImporter.CHUNK_SIZE + 1, result.imported());
+        verify(userDao, times(2)).importAll(any(Iterator.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importUsers_FailedChunkKeepsCountsSoFar() {
+        when(userDao.findExistingEmails(any(Collection.class))).thenReturn(Set.of());
+        when(encoder.encode("Password123!")).thenReturn("encodedPassword");
+        when(userDao.importAll(any(Iterator.class))).thenReturn(UserImporter.CHUNK_SIZE)
+                .thenThrow(new DatabaseAccessException("Connection lost", null));
+        List<UserImportReader.Row> rows = new ArrayList<>();
+        for (int i = 0; i <= UserImporter.CHUNK_SIZE; i++) {
+            rows.add(row(i + 1, "User " + i, "user" + i + "@test.com"));
+        }
+
+        UserImportResult result = userImporter.importUsers(rows.iterator());
+
+        assertEquals(UserImporter.CHUNK_SIZE + 1, result.read());
+        assertEquals(UserImporter.CHUNK_SIZE, result.imported());
+        assertEquals(List.of("Line " + (UserImporter.CHUNK_SIZE + 1)
+                + ": Import stopped; rows from here on were not imported."), result.errors());
+    }
+
+    private static UserImportReader.Row row(int line, String name, String email) {
+        return new UserImportReader.Row(line, new UserInputDto(0, name, email, "Password123!"), null);
+    }
+}
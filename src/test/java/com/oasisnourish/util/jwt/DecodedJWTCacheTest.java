@@ -0,0 +1,92 @@
+package com.oasisnourish.util.jwt;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.config.CacheConfig;
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPooled;
+
+@ExtendWith(MockitoExtension.class)
+public class DecodedJWTCacheTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @Mock
+    private CacheConfig cacheConfig;
+
+    private DecodedJWTCache jwtCache;
+
+    @BeforeEach
+    public void setUp() {
+        when(cacheConfig.getJwtCacheMaxSize()).thenReturn(2);
+        when(cacheConfig.getJwtCacheMaxTtl()).thenReturn(300);
+        jwtCache = new DecodedJWTCache(redisConnection, cacheConfig,
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void invalidateUser_DropsOnlyThatUsersTokens() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        jwtCache.put("alice-token", jwt(1));
+        jwtCache.put("bob-token", jwt(2));
+
+        jwtCache.invalidateUser(1);
+
+        assertTrue(jwtCache.get("alice-token").isEmpty());
+        assertTrue(jwtCache.get("bob-token").isPresent());
+        assertEquals(1, jwtCache.getMetrics().get("users"));
+        verify(jedis).publish(eq(DecodedJWTCache.INVALIDATION_CHANNEL), endsWith("|user:1"));
+    }
+
+    @Test
+    public void put_EvictedTokensLeaveTheUserIndex() {
+        jwtCache.put("first-token", jwt(1));
+        jwtCache.put("second-token", jwt(2));
+        jwtCache.put("third-token", jwt(3));
+
+        assertEquals(2, jwtCache.getMetrics().get("users"));
+    }
+
+    @Test
+    public void handleInvalidation_AppliesOtherNodesMessages() {
+        jwtCache.put("alice-token", jwt(1));
+        jwtCache.put("bob-token", jwt(2));
+
+        jwtCache.handleInvalidation("user:1");
+        jwtCache.handleInvalidation("token:bob-token");
+
+        assertTrue(jwtCache.get("alice-token").isEmpty());
+        assertTrue(jwtCache.get("bob-token").isEmpty());
+        assertEquals(0, jwtCache.getMetrics().get("users"));
+    }
+
+    private static DecodedJWT jwt(int userId) {
+        DecodedJWT jwt = mock(DecodedJWT.class);
+        Claim claim = mock(Claim.class);
+        when(claim.asInt()).thenReturn(userId);
+        when(jwt.getClaim("userId")).thenReturn(claim);
+        return jwt;
+    }
+}
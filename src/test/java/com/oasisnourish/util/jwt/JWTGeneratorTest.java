@@ -38,6 +38,7 @@ public class JWTGeneratorTest {
         assertEquals(tokenVersion, decodedJWT.getClaim("version").asLong());
         assertEquals(user.getId(), decodedJWT.getClaim("userId").asInt());
         assertEquals(user.getRole().name().toLowerCase(), decodedJWT.getClaim("role").asString());
+        assertEquals(user.getVersion(), decodedJWT.getClaim("userVersion").asInt());
         assertTrue(Duration.between(issuedAt, decodedJWT.getIssuedAt().toInstant()).abs().compareTo(offset) <= 0);
         assertTrue(Duration.between(expiresAt, decodedJWT.getExpiresAt().toInstant()).abs().compareTo(offset) <= 0);
     }
@@ -62,4 +63,15 @@ public class JWTGeneratorTest {
         assertTrue(duration.abs().compareTo(offset) <= 0, "The actual instant is outside the acceptable offset range from the expected instant.");
         assertTrue(decodedJWT.getExpiresAt().toInstant().isAfter(decodedJWT.getIssuedAt().toInstant()));
     }
+
+    @Test
+    void generate_ShouldCarryMaxExpiry() {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant expiresAt = issuedAt.plusSeconds(60L);
+        Instant maxExpiresAt = issuedAt.plusSeconds(3600L);
+        String token = jwtGenerator.generate(user, algorithm, Tokens.Jwt.REFRESH_TOKEN, 1, issuedAt, expiresAt, maxExpiresAt);
+        DecodedJWT decodedJWT = JWT.decode(token);
+        assertEquals(maxExpiresAt, decodedJWT.getClaim("maxExp").asInstant());
+        assertEquals(user.getRole().name().toLowerCase(), decodedJWT.getClaim("role").asString());
+    }
 }
@@ -1,27 +1,35 @@
 package com.oasisnourish.util.jwt;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.oasisnourish.config.JWTConfig;
 import com.oasisnourish.enums.Role;
@@ -44,42 +52,42 @@ public class JWTProviderTest {
     @Mock
     private JWTConfig jwtConfig;
 
-    @InjectMocks
     private JWTProvider jwtProvider;
 
     private final User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.ADMIN);
+    private final Instant currentTime = Instant.parse("2024-01-01T10:00:00.750Z");
 
     @BeforeEach
     public void setUp() {
         lenient().when(jwtConfig.getAlgorithm()).thenReturn(algorithm);
         lenient().when(jwtConfig.getVerifier()).thenReturn(jwtVerifier);
+        jwtProvider = new JWTProvider(jwtGenerator, jwtConfig, Clock.fixed(currentTime, ZoneOffset.UTC));
     }
 
     @Test
     void testGenerateToken_ValidExpiry() {
-
         when(jwtConfig.getJwtAccessTokenExpires()).thenReturn(1); // 1 seconds
         when(jwtConfig.getJwtRefreshTokenExpires()).thenReturn(2); // 2 seconds
-        when(jwtConfig.getJwtTokenMaxExpires()).thenReturn(4); // 3 seconds
-        when(jwtGenerator.generate(eq(user), eq(algorithm), eq(Tokens.Jwt.ACCESS_TOKEN), eq(1L), any(Instant.class), any(Instant.class))).thenReturn("dummy-access-token");
-        when(jwtGenerator.generate(eq(user), eq(algorithm), eq(Tokens.Jwt.REFRESH_TOKEN), eq(1L), any(Instant.class), any(Instant.class))).thenReturn("dummy-refresh-token");
+        when(jwtConfig.getJwtTokenMaxExpires()).thenReturn(4); // 4 seconds
 
-        jwtProvider.updateJwtCurrentTime();
-        jwtProvider.updateJwtMaxExpiryTime();
+        Instant issuedAt = jwtProvider.now();
+        Instant maxExpiry = jwtProvider.getMaxExpiry(issuedAt);
+        when(jwtGenerator.generate(user, algorithm, Tokens.Jwt.ACCESS_TOKEN, 1L, issuedAt, issuedAt.plusSeconds(1), maxExpiry)).thenReturn("dummy-access-token");
+        when(jwtGenerator.generate(user, algorithm, Tokens.Jwt.REFRESH_TOKEN, 1L, issuedAt, issuedAt.plusSeconds(2), maxExpiry)).thenReturn("dummy-refresh-token");
 
-        JsonWebToken accessToken = jwtProvider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, 1);
+        JsonWebToken accessToken = jwtProvider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, 1, issuedAt, maxExpiry);
         assertNotNull(accessToken);
+        assertEquals("dummy-access-token", accessToken.getToken());
         assertEquals(Tokens.Jwt.ACCESS_TOKEN, accessToken.getTokenType());
         assertEquals(1, accessToken.getTokenVersion());
-        assertTrue(accessToken.getExpires().isAfter(jwtProvider.getJwtCurrentTime()));
-        assertTrue(accessToken.getExpires().isBefore(jwtProvider.getJwtMaxExpiryTime()));
+        assertEquals(issuedAt.plusSeconds(1), accessToken.getExpires());
 
-        JsonWebToken refreshToken = jwtProvider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, 1);
+        JsonWebToken refreshToken = jwtProvider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, 1, issuedAt, maxExpiry);
         assertNotNull(refreshToken);
+        assertEquals("dummy-refresh-token", refreshToken.getToken());
         assertEquals(Tokens.Jwt.REFRESH_TOKEN, refreshToken.getTokenType());
         assertEquals(1, refreshToken.getTokenVersion());
-        assertTrue(refreshToken.getExpires().isAfter(jwtProvider.getJwtCurrentTime()));
-        assertTrue(refreshToken.getExpires().isBefore(jwtProvider.getJwtMaxExpiryTime()));
+        assertEquals(issuedAt.plusSeconds(2), refreshToken.getExpires());
     }
 
     @Test
@@ -87,17 +95,29 @@ public class JWTProviderTest {
         when(jwtConfig.getJwtAccessTokenExpires()).thenReturn(3); // 3 seconds
         when(jwtConfig.getJwtRefreshTokenExpires()).thenReturn(3); // 3 seconds
         when(jwtConfig.getJwtTokenMaxExpires()).thenReturn(2); // 2 seconds
-        when(jwtGenerator.generate(eq(user), eq(algorithm), eq(Tokens.Jwt.ACCESS_TOKEN), eq(1L), any(Instant.class), any(Instant.class))).thenReturn("dummy-access-token");
-        when(jwtGenerator.generate(eq(user), eq(algorithm), eq(Tokens.Jwt.REFRESH_TOKEN), eq(1L), any(Instant.class), any(Instant.class))).thenReturn("dummy-refresh-token");
 
-        jwtProvider.updateJwtCurrentTime();
-        jwtProvider.updateJwtMaxExpiryTime();
+        Instant issuedAt = jwtProvider.now();
+        Instant maxExpiry = jwtProvider.getMaxExpiry(issuedAt);
+        when(jwtGenerator.generate(user, algorithm, Tokens.Jwt.ACCESS_TOKEN, 1L, issuedAt, maxExpiry, maxExpiry)).thenReturn("dummy-access-token");
+        when(jwtGenerator.generate(user, algorithm, Tokens.Jwt.REFRESH_TOKEN, 1L, issuedAt, maxExpiry, maxExpiry)).thenReturn("dummy-refresh-token");
+
+        JsonWebToken accessToken = jwtProvider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, 1, issuedAt, maxExpiry);
+        assertEquals(maxExpiry, accessToken.getExpires());
+
+        JsonWebToken refreshToken = jwtProvider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, 1, issuedAt, maxExpiry);
+        assertEquals(maxExpiry, refreshToken.getExpires());
+    }
+
+    @Test
+    void now_ShouldReadClockInWholeSeconds() {
+        assertEquals(Instant.parse("2024-01-01T10:00:00Z"), jwtProvider.now());
+    }
 
-        JsonWebToken accessToken = jwtProvider.generateToken(user, Tokens.Jwt.ACCESS_TOKEN, 1);
-        assertEquals(accessToken.getExpires(), jwtProvider.getJwtMaxExpiryTime());
+    @Test
+    void getMaxExpiry_ShouldAddMaxLifetime() {
+        when(jwtConfig.getJwtTokenMaxExpires()).thenReturn(60);
 
-        JsonWebToken refreshToken = jwtProvider.generateToken(user, Tokens.Jwt.REFRESH_TOKEN, 1);
-        assertEquals(refreshToken.getExpires(), jwtProvider.getJwtMaxExpiryTime());
+        assertEquals(currentTime.plusSeconds(60), jwtProvider.getMaxExpiry(currentTime));
     }
 
     @Test
@@ -123,22 +143,68 @@ public class JWTProviderTest {
     }
 
     @Test
-    void updateJwtCurrentTime_ShouldUpdateCurrentTime() {
-        Instant originalTime = jwtProvider.getJwtCurrentTime();
-
-        jwtProvider.updateJwtCurrentTime();
+    void readMaxExpiry_ShouldReturnClaim() {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim claim = mock(Claim.class);
+        when(decodedJWT.getClaim("maxExp")).thenReturn(claim);
+        when(claim.asInstant()).thenReturn(currentTime);
 
-        assertNotEquals(originalTime, jwtProvider.getJwtCurrentTime());
+        assertEquals(Optional.of(currentTime), JWTProvider.readMaxExpiry(decodedJWT));
     }
 
     @Test
-    void updateJwtMaxExpiryTime_ShouldUpdateMaxExpiryTime() {
-        when(jwtConfig.getJwtTokenMaxExpires()).thenReturn(2);
-        Instant originalExpiryTime = jwtProvider.getJwtMaxExpiryTime();
-
-        jwtProvider.updateJwtMaxExpiryTime();
+    void readMaxExpiry_ShouldReturnEmpty_WhenClaimMissing() {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim claim = mock(Claim.class);
+        when(decodedJWT.getClaim("maxExp")).thenReturn(claim);
+        when(claim.isMissing()).thenReturn(true);
 
-        assertNotEquals(originalExpiryTime, jwtProvider.getJwtMaxExpiryTime());
+        assertTrue(JWTProvider.readMaxExpiry(decodedJWT).isEmpty());
+        assertTrue(JWTProvider.readMaxExpiry(null).isEmpty());
     }
 
+    @Test
+    void generateToken_ConcurrentCallsKeepTheirOwnTimes() throws Exception {
+        int threads = 16;
+        int tokensPerThread = 200;
+        when(jwtConfig.getAlgorithm()).thenReturn(Algorithm.HMAC256("testSecret"));
+        when(jwtConfig.getJwtAccessTokenExpires()).thenReturn(3600);
+        JWTProvider provider = new JWTProvider(new JWTGenerator(), jwtConfig);
+
+        Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    // Every thread signs in at its own time with its own cap, so any shared state would mix them up
+                    User threadUser = new User(thread, "User " + thread, "user" + thread + "@test.com", "encodedPassword", Role.USER);
+                    Instant issuedAt = Instant.parse("2024-01-01T00:00:00Z").plusSeconds(thread * 100L);
+                    Instant maxExpiry = issuedAt.plusSeconds(10 + thread);
+                    start.await();
+                    for (int i = 0; i < tokensPerThread; i++) {
+                        JsonWebToken token = provider.generateToken(threadUser, Tokens.Jwt.ACCESS_TOKEN, i, issuedAt, maxExpiry);
+                        DecodedJWT decoded = JWT.decode(token.getToken());
+                        assertEquals(thread, decoded.getClaim("userId").asInt());
+                        assertEquals(i, decoded.getClaim("version").asLong());
+                        assertEquals(issuedAt, decoded.getIssuedAtAsInstant());
+                        assertEquals(maxExpiry, decoded.getExpiresAtAsInstant());
+                        assertEquals(Optional.of(maxExpiry), JWTProvider.readMaxExpiry(decoded));
+                        assertTrue(tokenIds.add(decoded.getId()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * tokensPerThread, tokenIds.size());
+    }
 }
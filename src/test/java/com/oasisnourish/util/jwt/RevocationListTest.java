@@ -0,0 +1,100 @@
+package com.oasisnourish.util.jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.dao.RevokedTokenDao;
+import com.oasisnourish.db.RedisConnection;
+
+import redis.clients.jedis.JedisPooled;
+
+@ExtendWith(MockitoExtension.class)
+public class RevocationListTest {
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private JedisPooled jedis;
+
+    @Mock
+    private RevokedTokenDao revokedTokenDao;
+
+    @Mock
+    private JWTConfig jwtConfig;
+
+    private RevocationList revocationList;
+
+    @BeforeEach
+    public void setUp() {
+        when(jwtConfig.getRevocationFilterSize()).thenReturn(1_000);
+        when(jwtConfig.getRevocationSyncInterval()).thenReturn(30);
+        revocationList = new RevocationList(redisConnection, revokedTokenDao, jwtConfig);
+    }
+
+    @Test
+    public void testIsRevoked_FilterMissSkipsRedis() {
+        assertFalse(revocationList.isRevoked("jti"));
+
+        verify(revokedTokenDao, never()).isRevoked(anyString());
+        assertEquals(1L, revocationList.getMetrics().get("filterMisses"));
+    }
+
+    @Test
+    public void testRevoke_FilterHitIsConfirmedInRedis() {
+        Instant expires = Instant.now().plusSeconds(60);
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(revokedTokenDao.isRevoked("jti")).thenReturn(true);
+
+        revocationList.revoke("jti", expires);
+
+        assertTrue(revocationList.isRevoked("jti"));
+        verify(revokedTokenDao).revoke("jti", expires);
+        verify(jedis).publish(eq(RevocationList.REVOCATION_CHANNEL), endsWith("|jti"));
+    }
+
+    @Test
+    public void testSync_RebuildsFilterFromRedis() {
+        when(revokedTokenDao.findAllRevoked()).thenReturn(List.of("a", "b"));
+        when(revokedTokenDao.isRevoked("a")).thenReturn(true);
+
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked("a"));
+        assertFalse(revocationList.isRevoked("c"));
+        Map<String, Object> metrics = revocationList.getMetrics();
+        assertEquals(2, metrics.get("revoked"));
+        assertEquals(1L, metrics.get("syncs"));
+    }
+
+    @Test
+    public void testSync_KeepsRevocationsMadeDuringRebuild() {
+        when(redisConnection.getJedis()).thenReturn(jedis);
+        when(revokedTokenDao.findAllRevoked()).thenAnswer(_ -> {
+            revocationList.revoke("late", Instant.now().plusSeconds(60));
+            return List.of("a");
+        });
+        when(revokedTokenDao.isRevoked("late")).thenReturn(true);
+
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked("late"));
+    }
+}
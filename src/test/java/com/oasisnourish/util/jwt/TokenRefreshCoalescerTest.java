@@ -0,0 +1,169 @@
+package com.oasisnourish.util.jwt;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.oasisnourish.config.JWTConfig;
+import com.oasisnourish.dao.TokenRefreshDao;
+import com.oasisnourish.enums.Role;
+import com.oasisnourish.enums.Tokens;
+import com.oasisnourish.models.JsonWebToken;
+import com.oasisnourish.models.User;
+import com.oasisnourish.services.JWTService;
+import com.oasisnourish.services.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRefreshCoalescerTest {
+
+    private static final String TOKEN_ID = "refresh-token-id";
+
+    @Mock
+    private TokenRefreshDao refreshDao;
+
+    @Mock
+    private JWTConfig jwtConfig;
+
+    @Mock
+    private JWTService jwtService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private DecodedJWT refreshToken;
+
+    @Mock
+    private Claim userIdClaim;
+
+    @Mock
+    private Claim maxExpiryClaim;
+
+    private final User user = new User(1, "John Doe", "john.doe@test.com", "encodedPassword", Role.USER);
+    private final JsonWebToken accessToken = new JsonWebToken("access-token", Tokens.Jwt.ACCESS_TOKEN, 2, Instant.now().plusSeconds(180), 1);
+    private final JsonWebToken newRefreshToken = new JsonWebToken("new-refresh-token", Tokens.Jwt.REFRESH_TOKEN, 2, Instant.now().plusSeconds(360), 1);
+    private final Map<String, JsonWebToken> tokens = Map.of("JWT_ACCESS_TOKEN", accessToken, "JWT_REFRESH_TOKEN", newRefreshToken);
+
+    @BeforeEach
+    public void setUp() {
+        when(jwtConfig.getRefreshReuseWindow()).thenReturn(10);
+        when(jwtConfig.getRefreshLockTimeout()).thenReturn(100);
+        when(refreshToken.getId()).thenReturn(TOKEN_ID);
+    }
+
+    private TokenRefreshCoalescer createCoalescer(boolean lockEnabled) {
+        when(jwtConfig.isRefreshLockEnabled()).thenReturn(lockEnabled);
+        return new TokenRefreshCoalescer(refreshDao, jwtConfig);
+    }
+
+    private void mockMint() {
+        when(refreshToken.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(refreshToken.getClaim("maxExp")).thenReturn(maxExpiryClaim);
+        when(maxExpiryClaim.isMissing()).thenReturn(true);
+        when(userService.findUserById(1)).thenReturn(Optional.of(user));
+        when(jwtService.createTokens(user, null)).thenReturn(tokens);
+    }
+
+    @Test
+    public void testRefresh_ReusesPairWithinWindow() {
+        TokenRefreshCoalescer coalescer = createCoalescer(false);
+        mockMint();
+
+        assertEquals(Optional.of(tokens), coalescer.refresh(refreshToken, jwtService, userService));
+        assertEquals(Optional.of(tokens), coalescer.refresh(refreshToken, jwtService, userService));
+
+        verify(jwtService, times(1)).createTokens(user, null);
+        verify(refreshDao, never()).tryLock(anyString(), anyString(), anyLong());
+        assertEquals(1L, coalescer.getMetrics().get("mints"));
+        assertEquals(1L, coalescer.getMetrics().get("reused"));
+    }
+
+    @Test
+    public void testRefresh_MissingUserIsNotReused() {
+        TokenRefreshCoalescer coalescer = createCoalescer(false);
+        when(refreshToken.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(userService.findUserById(1)).thenReturn(Optional.empty());
+
+        assertTrue(coalescer.refresh(refreshToken, jwtService, userService).isEmpty());
+        assertTrue(coalescer.refresh(refreshToken, jwtService, userService).isEmpty());
+
+        verify(userService, times(2)).findUserById(1);
+        verify(jwtService, never()).createTokens(any(), any());
+    }
+
+    @Test
+    public void testRefresh_FailureIsNotReused() {
+        TokenRefreshCoalescer coalescer = createCoalescer(false);
+        when(refreshToken.getClaim("userId")).thenReturn(userIdClaim);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(userService.findUserById(1)).thenThrow(new RuntimeException("Database down"));
+
+        assertThrows(RuntimeException.class, () -> coalescer.refresh(refreshToken, jwtService, userService));
+        assertThrows(RuntimeException.class, () -> coalescer.refresh(refreshToken, jwtService, userService));
+
+        assertEquals(0, coalescer.getMetrics().get("inFlight"));
+    }
+
+    @Test
+    public void testRefresh_LockHolderSharesPairWithOtherNodes() {
+        TokenRefreshCoalescer coalescer = createCoalescer(true);
+        mockMint();
+        when(refreshDao.findRefreshed(TOKEN_ID)).thenReturn(Optional.empty());
+        when(refreshDao.tryLock(eq(TOKEN_ID), anyString(), eq(100L))).thenReturn(true);
+
+        assertEquals(Optional.of(tokens), coalescer.refresh(refreshToken, jwtService, userService));
+
+        verify(refreshDao).saveRefreshed(TOKEN_ID,
+                Map.of("JWT_ACCESS_TOKEN", "access-token", "JWT_REFRESH_TOKEN", "new-refresh-token"), 10_000L);
+        verify(refreshDao).unlock(eq(TOKEN_ID), anyString());
+    }
+
+    @Test
+    public void testRefresh_UsesPairSharedByOtherNode() {
+        TokenRefreshCoalescer coalescer = createCoalescer(true);
+        when(refreshDao.findRefreshed(TOKEN_ID)).thenReturn(
+                Optional.of(Map.of("JWT_ACCESS_TOKEN", "access-token", "JWT_REFRESH_TOKEN", "new-refresh-token")));
+        when(jwtService.findToken("access-token")).thenReturn(Optional.of(accessToken));
+        when(jwtService.findToken("new-refresh-token")).thenReturn(Optional.of(newRefreshToken));
+
+        assertEquals(Optional.of(tokens), coalescer.refresh(refreshToken, jwtService, userService));
+
+        verify(jwtService, never()).createTokens(any(), any());
+        verify(refreshDao, never()).tryLock(anyString(), anyString(), anyLong());
+        assertEquals(1L, coalescer.getMetrics().get("sharedByOtherNodes"));
+    }
+
+    @Test
+    public void testRefresh_MintsAfterLockTimeout() {
+        TokenRefreshCoalescer coalescer = createCoalescer(true);
+        mockMint();
+        when(refreshDao.findRefreshed(TOKEN_ID)).thenReturn(Optional.empty());
+        when(refreshDao.tryLock(eq(TOKEN_ID), anyString(), eq(100L))).thenReturn(false);
+
+        assertEquals(Optional.of(tokens), coalescer.refresh(refreshToken, jwtService, userService));
+
+        verify(refreshDao, never()).saveRefreshed(anyString(), any(), anyLong());
+        assertEquals(1L, coalescer.getMetrics().get("lockTimeouts"));
+    }
+}